@@ -27,5 +27,10 @@ public enum LineApiResponseCode {
     /**
      * An internal error occurred.
      */
-    INTERNAL_ERROR
+    INTERNAL_ERROR,
+    /**
+     * The request was not sent because recent requests to the same API kept failing. Try again
+     * later.
+     */
+    CIRCUIT_OPEN
 }
@@ -0,0 +1,171 @@
+package com.linecorp.linesdk;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Represents the executors that the LINE SDK runs its background work on.
+ * <p>
+ * The login flow runs on the auth executor, and the API calls made by the SDK UI, such as loading
+ * friends or sending messages, run on the I/O executor. They are separate so that a slow API call
+ * doesn't delay a login, and vice versa. By default, each of them is a small pool owned by the
+ * SDK. You can set your own executor to share the threads of your app.
+ */
+public final class LineSdkExecutors {
+    private static final int AUTH_POOL_SIZE = 2;
+    private static final int IO_POOL_SIZE = 4;
+    private static final long KEEP_ALIVE_SECONDS = 30L;
+
+    @Nullable
+    private static Executor authExecutor;
+    @Nullable
+    private static Executor ioExecutor;
+    @Nullable
+    private static Executor defaultAuthExecutor;
+    @Nullable
+    private static Executor defaultIoExecutor;
+    @Nullable
+    private static Executor searchExecutor;
+    @Nullable
+    private static Executor mainThreadExecutor;
+    @Nullable
+    private static ScheduledExecutorService scheduledExecutor;
+
+    private LineSdkExecutors() {
+        // To prevent instantiation
+    }
+
+    /**
+     * Sets the executor that the login flow runs on.
+     *
+     * @param executor The executor to use, or {@code null} to use the SDK's pool.
+     */
+    public static synchronized void setAuthExecutor(@Nullable Executor executor) {
+        authExecutor = executor;
+    }
+
+    /**
+     * Sets the executor that the API calls made by the SDK UI run on.
+     *
+     * @param executor The executor to use, or {@code null} to use the SDK's pool.
+     */
+    public static synchronized void setIoExecutor(@Nullable Executor executor) {
+        ioExecutor = executor;
+    }
+
+    /**
+     * @hide
+     */
+    @NonNull
+    public static synchronized Executor getAuthExecutor() {
+        if (authExecutor != null) {
+            return authExecutor;
+        }
+        if (defaultAuthExecutor == null) {
+            defaultAuthExecutor = newPool("LineSdk-auth", AUTH_POOL_SIZE);
+        }
+        return defaultAuthExecutor;
+    }
+
+    /**
+     * @hide
+     */
+    @NonNull
+    public static synchronized Executor getIoExecutor() {
+        if (ioExecutor != null) {
+            return ioExecutor;
+        }
+        if (defaultIoExecutor == null) {
+            defaultIoExecutor = newPool("LineSdk-io", IO_POOL_SIZE);
+        }
+        return defaultIoExecutor;
+    }
+
+    /**
+     * @hide
+     * @return The executor that searches the target users in the SDK UI. It has a single thread,
+     * so the tasks run in the order they are submitted, and a search never waits for API calls on
+     * the I/O executor.
+     */
+    @NonNull
+    public static synchronized Executor getSearchExecutor() {
+        if (searchExecutor == null) {
+            searchExecutor = newPool("LineSdk-search", 1 /* poolSize */);
+        }
+        return searchExecutor;
+    }
+
+    /**
+     * @hide
+     * @return The executor that runs UI work on the main thread.
+     */
+    @NonNull
+    public static synchronized Executor getMainThreadExecutor() {
+        if (mainThreadExecutor == null) {
+            Handler handler = new Handler(Looper.getMainLooper());
+            mainThreadExecutor = handler::post;
+        }
+        return mainThreadExecutor;
+    }
+
+    /**
+     * @hide
+     * @return The executor that runs short timer tasks of the SDK, such as aborting API calls that
+     * have passed their deadlines. It must not run blocking work.
+     */
+    @NonNull
+    public static synchronized ScheduledExecutorService getScheduledExecutor() {
+        if (scheduledExecutor == null) {
+            ScheduledThreadPoolExecutor executor =
+                    new ScheduledThreadPoolExecutor(1, new NamedThreadFactory("LineSdk-timer"));
+            // Most of the tasks are cancelled because the calls finish in time.
+            executor.setRemoveOnCancelPolicy(true);
+            scheduledExecutor = executor;
+        }
+        return scheduledExecutor;
+    }
+
+    @NonNull
+    private static Executor newPool(@NonNull String name, int poolSize) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                poolSize,
+                poolSize,
+                KEEP_ALIVE_SECONDS,
+                TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                new NamedThreadFactory(name));
+        // Don't keep idle threads while the SDK is not used.
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private static class NamedThreadFactory implements ThreadFactory {
+        @NonNull
+        private final String name;
+        @NonNull
+        private final AtomicInteger threadCount = new AtomicInteger();
+
+        private NamedThreadFactory(@NonNull String name) {
+            this.name = name;
+        }
+
+        @Override
+        public Thread newThread(@NonNull Runnable runnable) {
+            Thread thread = new Thread(runnable, name + "-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.linecorp.linesdk;
+
+import android.os.Trace;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Switches the trace sections of the LINE SDK, which mark its expensive steps, such as the
+ * encryption of the access token, the ID token verification and the API calls, in system traces
+ * captured with Perfetto or systrace. The sections are named with the {@code "LineSdk:"} prefix.
+ * <p>
+ * Tracing is disabled by default. While it is disabled, each section costs a single volatile
+ * read.
+ */
+public final class LineSdkTrace {
+    // The limit of android.os.Trace.
+    private static final int MAX_SECTION_NAME_LENGTH = 127;
+
+    private static volatile boolean isEnabled;
+
+    private LineSdkTrace() {
+        // To prevent instantiation
+    }
+
+    /**
+     * Enables or disables the trace sections of the SDK. This can be called at any time. The
+     * sections that are already open are still closed correctly.
+     */
+    public static void setEnabled(boolean isEnabled) {
+        LineSdkTrace.isEnabled = isEnabled;
+    }
+
+    /**
+     * @return Whether tracing is enabled. A call site whose section name is built at run time,
+     * e.g. by concatenation, checks this first so that the name is built only while tracing:
+     * {@code isEnabled() && beginSection("LineSdk:" + name)}.
+     */
+    public static boolean isEnabled() {
+        return isEnabled;
+    }
+
+    /**
+     * Begins a trace section if tracing is enabled. The section must be ended on the same
+     * thread with {@link #endSection(boolean)}, passing the returned value:
+     * <pre>
+     * boolean isTraced = LineSdkTrace.beginSection("LineSdk:step");
+     * try {
+     *     ...
+     * } finally {
+     *     LineSdkTrace.endSection(isTraced);
+     * }
+     * </pre>
+     *
+     * @return Whether the section has been begun.
+     * @hide
+     */
+    public static boolean beginSection(@NonNull String sectionName) {
+        if (!isEnabled) {
+            return false;
+        }
+        Trace.beginSection(sectionName.length() > MAX_SECTION_NAME_LENGTH
+                           ? sectionName.substring(0, MAX_SECTION_NAME_LENGTH)
+                           : sectionName);
+        return true;
+    }
+
+    /**
+     * Ends the section begun by {@link #beginSection(String)}.
+     *
+     * @param isBegun The value returned by {@link #beginSection(String)}.
+     * @hide
+     */
+    public static void endSection(boolean isBegun) {
+        if (isBegun) {
+            Trace.endSection();
+        }
+    }
+}
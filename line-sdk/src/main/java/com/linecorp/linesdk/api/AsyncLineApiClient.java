@@ -0,0 +1,234 @@
+package com.linecorp.linesdk.api;
+
+import com.linecorp.linesdk.FriendSortField;
+import com.linecorp.linesdk.GetFriendsResponse;
+import com.linecorp.linesdk.GetGroupsResponse;
+import com.linecorp.linesdk.LineAccessToken;
+import com.linecorp.linesdk.LineCredential;
+import com.linecorp.linesdk.LineFriendshipStatus;
+import com.linecorp.linesdk.LineProfile;
+import com.linecorp.linesdk.SendMessageResponse;
+import com.linecorp.linesdk.message.MessageData;
+import com.linecorp.linesdk.openchat.MembershipStatus;
+import com.linecorp.linesdk.openchat.OpenChatParameters;
+import com.linecorp.linesdk.openchat.OpenChatRoomInfo;
+import com.linecorp.linesdk.openchat.OpenChatRoomJoinType;
+import com.linecorp.linesdk.openchat.OpenChatRoomStatus;
+
+import java.util.List;
+
+import androidx.annotation.AnyThread;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * An API client that provides the same operations as {@link LineApiClient} without blocking the
+ * calling thread. Each method returns immediately with a {@link LineApiFuture} object, which you
+ * can wait for, chain, or set a {@link LineApiCallback} to.
+ * <p>
+ * The API calls run on the SDK's I/O executor, which has a bounded number of threads. If more
+ * calls are made than there are threads, the remaining calls wait in a queue instead of each
+ * occupying a thread. You can replace the executor with
+ * {@link com.linecorp.linesdk.LineSdkExecutors#setIoExecutor(java.util.concurrent.Executor)}.
+ *
+ * @see LineApiClientBuilder#buildAsync()
+ */
+@AnyThread
+public interface AsyncLineApiClient {
+    /**
+     * Gets the blocking API client that this client makes its calls with.
+     *
+     * @return The {@link LineApiClient} object.
+     */
+    @NonNull
+    LineApiClient getLineApiClient();
+
+    /**
+     * Gets a client that makes the same calls as this client, each of which must finish within
+     * the given time. The time of a call starts when the call starts running, and includes its
+     * retries and the token refresh of an auto-refreshed call. A call that runs out of time fails
+     * with {@link com.linecorp.linesdk.LineApiResponseCode#NETWORK_ERROR}. The deadlines of the
+     * {@link TimeoutProfile} objects still apply.
+     *
+     * @param timeoutMillis The time within which each call must finish, in milliseconds, or 0 for
+     *                      no limit.
+     * @return The {@link AsyncLineApiClient} object with the given call timeout.
+     * @see LineApiClientBuilder#callTimeout(long)
+     */
+    @NonNull
+    AsyncLineApiClient withCallTimeout(long timeoutMillis);
+
+    /**
+     * Revokes the access token.
+     *
+     * @see LineApiClient#logout()
+     */
+    @NonNull
+    LineApiFuture<?> logout();
+
+    /**
+     * Refreshes the access token that the SDK is using for the user.
+     *
+     * @see LineApiClient#refreshAccessToken()
+     */
+    @NonNull
+    LineApiFuture<LineAccessToken> refreshAccessToken();
+
+    /**
+     * Checks whether the access token that the SDK is using for the user is valid.
+     *
+     * @see LineApiClient#verifyToken()
+     */
+    @NonNull
+    LineApiFuture<LineCredential> verifyToken();
+
+    /**
+     * Gets the access token that the SDK is using for the user.
+     *
+     * @see LineApiClient#getCurrentAccessToken()
+     */
+    @NonNull
+    LineApiFuture<LineAccessToken> getCurrentAccessToken();
+
+    /**
+     * Gets the user profile information.
+     *
+     * @see LineApiClient#getProfile()
+     */
+    @NonNull
+    LineApiFuture<LineProfile> getProfile();
+
+    /**
+     * Gets the friendship status between the LINE Official Account (which is linked to the
+     * current channel) and the user.
+     *
+     * @see LineApiClient#getFriendshipStatus()
+     */
+    @NonNull
+    LineApiFuture<LineFriendshipStatus> getFriendshipStatus();
+
+    /**
+     * @hide
+     * @see LineApiClient#getFriends(FriendSortField, String)
+     */
+    @NonNull
+    LineApiFuture<GetFriendsResponse> getFriends(
+            @NonNull FriendSortField sortField,
+            @Nullable String nextPageRequestToken
+    );
+
+    /**
+     * @hide
+     * @see LineApiClient#getFriends(FriendSortField, String, boolean)
+     */
+    @NonNull
+    LineApiFuture<GetFriendsResponse> getFriends(
+            @NonNull FriendSortField sortField,
+            @Nullable String nextPageRequestToken,
+            boolean isForOttShareMessage
+    );
+
+    /**
+     * @hide
+     * @see LineApiClient#getFriendsApprovers(FriendSortField, String)
+     */
+    @NonNull
+    LineApiFuture<GetFriendsResponse> getFriendsApprovers(
+            @NonNull FriendSortField sortField,
+            @Nullable String nextPageRequestToken
+    );
+
+    /**
+     * @hide
+     * @see LineApiClient#getGroups(String)
+     */
+    @NonNull
+    LineApiFuture<GetGroupsResponse> getGroups(@Nullable String nextPageRequestToken);
+
+    /**
+     * @hide
+     * @see LineApiClient#getGroups(String, boolean)
+     */
+    @NonNull
+    LineApiFuture<GetGroupsResponse> getGroups(
+            @Nullable String nextPageRequestToken,
+            boolean isForOttShareMessage
+    );
+
+    /**
+     * @hide
+     * @see LineApiClient#getGroupApprovers(String, String)
+     */
+    @NonNull
+    LineApiFuture<GetFriendsResponse> getGroupApprovers(
+            @NonNull String groupId,
+            @Nullable String nextPageRequestToken
+    );
+
+    /**
+     * @hide
+     * @see LineApiClient#sendMessage(String, List)
+     */
+    @NonNull
+    LineApiFuture<String> sendMessage(
+            @NonNull String targetUserId,
+            @NonNull List<MessageData> messages
+    );
+
+    /**
+     * @hide
+     * @see LineApiClient#sendMessageToMultipleUsers(List, List)
+     */
+    @NonNull
+    LineApiFuture<List<SendMessageResponse>> sendMessageToMultipleUsers(
+            @NonNull List<String> targetUserIds,
+            @NonNull List<MessageData> messages
+    );
+
+    /**
+     * @hide
+     * @see LineApiClient#sendMessageToMultipleUsers(List, List, boolean)
+     */
+    @NonNull
+    LineApiFuture<List<SendMessageResponse>> sendMessageToMultipleUsers(
+            @NonNull List<String> targetUserIds,
+            @NonNull List<MessageData> messages,
+            boolean isOttUsed
+    );
+
+    /**
+     * @hide
+     */
+    @NonNull
+    LineApiFuture<Boolean> getOpenChatAgreementStatus();
+
+    /**
+     * @hide
+     */
+    @NonNull
+    LineApiFuture<OpenChatRoomInfo> createOpenChatRoom(@NonNull OpenChatParameters openChatParameters);
+
+    /**
+     * @hide
+     */
+    @NonNull
+    LineApiFuture<Boolean> joinOpenChatRoom(@NonNull String roomId, @NonNull String displayName);
+
+    /**
+     * @hide
+     */
+    @NonNull
+    LineApiFuture<OpenChatRoomStatus> getOpenChatRoomStatus(@NonNull String roomId);
+
+    /**
+     * @hide
+     */
+    @NonNull
+    LineApiFuture<OpenChatRoomJoinType> getOpenChatRoomJoinType(@NonNull String roomId);
+
+    /**
+     * @hide
+     */
+    @NonNull
+    LineApiFuture<MembershipStatus> getOpenChatMembershipStatus(@NonNull String roomId);
+}
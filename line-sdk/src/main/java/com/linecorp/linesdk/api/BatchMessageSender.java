@@ -0,0 +1,396 @@
+package com.linecorp.linesdk.api;
+
+import android.os.CancellationSignal;
+import android.os.SystemClock;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import androidx.annotation.WorkerThread;
+
+import com.linecorp.linesdk.LineApiError;
+import com.linecorp.linesdk.LineApiResponse;
+import com.linecorp.linesdk.LineApiResponseCode;
+import com.linecorp.linesdk.LineSdkExecutors;
+import com.linecorp.linesdk.SendMessageResponse;
+import com.linecorp.linesdk.internal.nwclient.core.CallCancellation;
+import com.linecorp.linesdk.message.MessageData;
+
+import org.json.JSONException;
+
+import java.net.HttpURLConnection;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @hide
+ * LINE internal use only. Sends messages to more users than
+ * {@link LineApiClient#sendMessageToMultipleUsers(List, List, boolean)} accepts in one call.
+ * <p>
+ * The users are split into chunks that are sent concurrently, at most <i>maxParallelism</i> at a
+ * time. The calling thread sends chunks too, so the messages are sent even if the executor is
+ * busy. A chunk that the server rejected without delivering it, with HTTP 429 or 503, is sent
+ * again after the backoff of the given {@link RetryPolicy}, up to its maximum number of attempts,
+ * without sending the other chunks again. The messages are frozen with
+ * {@link MessageData#freeze()} once and reused for all the chunks.
+ * <p>
+ * Sending messages isn't idempotent. A chunk that fails with a network error, such as a read
+ * timeout, may have been delivered already, so sending it again may deliver the messages twice.
+ * Such chunks are sent again only if <i>isNetworkErrorRetried</i> is set.
+ */
+public class BatchMessageSender {
+    /**
+     * The maximum number of users that a single call accepts.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 10;
+    public static final int DEFAULT_MAX_PARALLELISM = 3;
+
+    // How often the calling thread checks its cancellation signal while waiting for other threads.
+    private static final long CANCELLATION_CHECK_INTERVAL_MILLIS = 100L;
+    private static final int HTTP_TOO_MANY_REQUESTS = 429;
+
+    @NonNull
+    private final LineApiClient lineApiClient;
+    @NonNull
+    private final Executor executor;
+    private final int chunkSize;
+    private final int maxParallelism;
+    @NonNull
+    private final RetryPolicy retryPolicy;
+    private final boolean isNetworkErrorRetried;
+
+    public BatchMessageSender(@NonNull LineApiClient lineApiClient) {
+        this(lineApiClient,
+             LineSdkExecutors.getIoExecutor(),
+             DEFAULT_CHUNK_SIZE,
+             DEFAULT_MAX_PARALLELISM,
+             RetryPolicy.DEFAULT,
+             false /* isNetworkErrorRetried */);
+    }
+
+    /**
+     * @param retryPolicy           The maximum number of attempts, the backoff and the total
+     *                              budget for sending a chunk again. Its POST paths are ignored.
+     * @param isNetworkErrorRetried Whether the chunks that fail with a network error are sent
+     *                              again. The users of such a chunk may receive the messages
+     *                              twice.
+     */
+    public BatchMessageSender(
+            @NonNull LineApiClient lineApiClient,
+            @NonNull Executor executor,
+            int chunkSize,
+            int maxParallelism,
+            @NonNull RetryPolicy retryPolicy,
+            boolean isNetworkErrorRetried) {
+        if (chunkSize < 1 || maxParallelism < 1) {
+            throw new IllegalArgumentException(
+                    "chunkSize and maxParallelism must be positive: "
+                    + chunkSize + ", " + maxParallelism);
+        }
+        this.lineApiClient = lineApiClient;
+        this.executor = executor;
+        this.chunkSize = chunkSize;
+        this.maxParallelism = maxParallelism;
+        this.retryPolicy = retryPolicy;
+        this.isNetworkErrorRetried = isNetworkErrorRetried;
+    }
+
+    /**
+     * Sends the given messages to all the given users.
+     *
+     * @return A {@link LineApiResponse} object. If at least one chunk has been sent, it contains
+     * a {@link SendMessageResponse} object for each user, in the order of <i>targetUserIds</i>.
+     * The users in the chunks that couldn't be sent are reported as
+     * {@link SendMessageResponse.Status#DISCARDED}. If no chunk has been sent, it contains the
+     * error of the first chunk. If the call is cancelled before all the chunks have been sent,
+     * it's an error with {@link LineApiResponseCode#CANCEL}.
+     */
+    @WorkerThread
+    @NonNull
+    public LineApiResponse<List<SendMessageResponse>> send(
+            @NonNull List<String> targetUserIds,
+            @NonNull List<MessageData> messages,
+            boolean isOttUsed) {
+        List<MessageData> frozenMessages = new ArrayList<>(messages.size());
+        try {
+            for (MessageData message : messages) {
+                frozenMessages.add(message.freeze());
+            }
+        } catch (JSONException e) {
+            return LineApiResponse.createAsError(
+                    LineApiResponseCode.INTERNAL_ERROR, new LineApiError(e));
+        }
+
+        List<List<String>> chunks = new ArrayList<>();
+        for (int i = 0; i < targetUserIds.size(); i += chunkSize) {
+            chunks.add(new ArrayList<>(
+                    targetUserIds.subList(i, Math.min(i + chunkSize, targetUserIds.size()))));
+        }
+        if (chunks.isEmpty()) {
+            return LineApiResponse.createAsSuccess(Collections.emptyList());
+        }
+
+        Batch batch = new Batch(chunks, frozenMessages, isOttUsed);
+        int helperCount = Math.min(maxParallelism, chunks.size()) - 1;
+        for (int i = 0; i < helperCount; i++) {
+            executor.execute(batch::sendOnHelperThread);
+        }
+        return batch.sendOnCallingThread();
+    }
+
+    private boolean isRetryable(@NonNull LineApiResponse<?> response) {
+        switch (response.getResponseCode()) {
+            case NETWORK_ERROR:
+                // The request may have reached the server before the connection failed.
+                return isNetworkErrorRetried;
+            case SERVER_ERROR:
+                // The server refuses these requests before processing them. Other 5xx responses,
+                // such as a gateway timeout, may come after the messages have been delivered.
+                int httpResponseCode = response.getErrorData().getHttpResponseCode();
+                return httpResponseCode == HTTP_TOO_MANY_REQUESTS
+                       || httpResponseCode == HttpURLConnection.HTTP_UNAVAILABLE;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Waits for the given time before a chunk is sent again. Cancelling the given signal ends the
+     * wait.
+     *
+     * @return {@code false} if the call has been cancelled.
+     */
+    @VisibleForTesting
+    @WorkerThread
+    protected boolean waitForRetry(
+            long delayMillis, @Nullable CancellationSignal cancellationSignal) {
+        CountDownLatch cancelLatch = new CountDownLatch(1);
+        if (cancellationSignal != null) {
+            cancellationSignal.setOnCancelListener(cancelLatch::countDown);
+        }
+        try {
+            return !cancelLatch.await(delayMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            if (cancellationSignal != null) {
+                cancellationSignal.setOnCancelListener(null);
+            }
+        }
+    }
+
+    private class Batch {
+        @NonNull
+        private final List<List<String>> chunks;
+        @NonNull
+        private final List<MessageData> messages;
+        private final boolean isOttUsed;
+        @Nullable
+        private final CancellationSignal callerSignal = CallCancellation.getCurrentSignal();
+        private final long startMillis = SystemClock.elapsedRealtime();
+
+        @NonNull
+        private final Object lock = new Object();
+        // The fields below are guarded by lock.
+        @NonNull
+        private final Queue<Integer> pendingChunkIndexes = new ArrayDeque<>();
+        @NonNull
+        private final int[] attemptCounts;
+        @NonNull
+        // null for the chunks that haven't been sent, or whose resending has been cancelled.
+        private final List<LineApiResponse<List<SendMessageResponse>>> results;
+        @NonNull
+        private final Set<CancellationSignal> helperSignals = new HashSet<>();
+        private int remainingChunkCount;
+        private boolean isCancelled;
+
+        private Batch(@NonNull List<List<String>> chunks,
+                      @NonNull List<MessageData> messages,
+                      boolean isOttUsed) {
+            this.chunks = chunks;
+            this.messages = messages;
+            this.isOttUsed = isOttUsed;
+            attemptCounts = new int[chunks.size()];
+            results = new ArrayList<>(Collections.nCopies(chunks.size(), null));
+            remainingChunkCount = chunks.size();
+            for (int i = 0; i < chunks.size(); i++) {
+                pendingChunkIndexes.add(i);
+            }
+        }
+
+        @NonNull
+        private LineApiResponse<List<SendMessageResponse>> sendOnCallingThread() {
+            while (true) {
+                // The calling thread sends with its own signal, which the caller cancels directly.
+                sendPendingChunks(null /* helperSignal */);
+                synchronized (lock) {
+                    // Wait for the other threads, and send again the chunks they failed to send.
+                    while (remainingChunkCount > 0 && pendingChunkIndexes.isEmpty() && !isCancelled) {
+                        if (isCallerCancelled()) {
+                            cancel();
+                            break;
+                        }
+                        try {
+                            lock.wait(CANCELLATION_CHECK_INTERVAL_MILLIS);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            cancel();
+                        }
+                    }
+                    if (isCancelled || remainingChunkCount == 0) {
+                        break;
+                    }
+                }
+            }
+            return mergeResults();
+        }
+
+        private void sendOnHelperThread() {
+            CancellationSignal helperSignal = new CancellationSignal();
+            synchronized (lock) {
+                if (isCancelled) {
+                    return;
+                }
+                helperSignals.add(helperSignal);
+            }
+            try {
+                sendPendingChunks(helperSignal);
+            } finally {
+                synchronized (lock) {
+                    helperSignals.remove(helperSignal);
+                }
+            }
+        }
+
+        private void sendPendingChunks(@Nullable CancellationSignal helperSignal) {
+            while (true) {
+                int chunkIndex;
+                synchronized (lock) {
+                    if (isCallerCancelled()) {
+                        cancel();
+                    }
+                    if (isCancelled || pendingChunkIndexes.isEmpty()) {
+                        return;
+                    }
+                    chunkIndex = pendingChunkIndexes.poll();
+                    attemptCounts[chunkIndex]++;
+                }
+
+                LineApiResponse<List<SendMessageResponse>> response = helperSignal != null
+                        ? CallCancellation.runWith(helperSignal, () -> sendChunk(chunkIndex))
+                        : sendChunk(chunkIndex);
+
+                long delayMillis = getRetryDelayMillis(chunkIndex, response);
+                // The calling thread is cancelled by the caller, and the others by cancel().
+                boolean isWaited = delayMillis >= 0L && waitForRetry(
+                        delayMillis, helperSignal != null ? helperSignal : callerSignal);
+
+                synchronized (lock) {
+                    if (delayMillis < 0L) {
+                        results.set(chunkIndex, response);
+                        remainingChunkCount--;
+                    } else if (isWaited && !isCancelled) {
+                        pendingChunkIndexes.add(chunkIndex);
+                    } else {
+                        // Not sent again, so the result stays null.
+                        cancel();
+                        remainingChunkCount--;
+                    }
+                    lock.notifyAll();
+                }
+            }
+        }
+
+        /**
+         * @return The time to wait before sending the given chunk again, or -1 if it must not be
+         * sent again.
+         */
+        private long getRetryDelayMillis(
+                int chunkIndex, @NonNull LineApiResponse<List<SendMessageResponse>> response) {
+            if (response.isSuccess() || !isRetryable(response)) {
+                return -1L;
+            }
+            synchronized (lock) {
+                if (isCancelled) {
+                    return -1L;
+                }
+                // The error data doesn't keep the Retry-After header.
+                return retryPolicy.getRetryDelayMillis(
+                        attemptCounts[chunkIndex],
+                        SystemClock.elapsedRealtime() - startMillis,
+                        -1L /* retryAfterMillis */);
+            }
+        }
+
+        @NonNull
+        private LineApiResponse<List<SendMessageResponse>> sendChunk(int chunkIndex) {
+            try {
+                return lineApiClient.sendMessageToMultipleUsers(
+                        chunks.get(chunkIndex), messages, isOttUsed);
+            } catch (RuntimeException e) {
+                return LineApiResponse.createAsError(
+                        LineApiResponseCode.INTERNAL_ERROR, new LineApiError(e));
+            }
+        }
+
+        private boolean isCallerCancelled() {
+            return callerSignal != null && callerSignal.isCanceled();
+        }
+
+        // Must be called with lock held.
+        private void cancel() {
+            isCancelled = true;
+            pendingChunkIndexes.clear();
+            for (CancellationSignal helperSignal : helperSignals) {
+                helperSignal.cancel();
+            }
+            lock.notifyAll();
+        }
+
+        @NonNull
+        private LineApiResponse<List<SendMessageResponse>> mergeResults() {
+            synchronized (lock) {
+                // A cancellation after all the chunks have been sent doesn't change the result.
+                for (LineApiResponse<List<SendMessageResponse>> result : results) {
+                    if (result == null || result.getResponseCode() == LineApiResponseCode.CANCEL) {
+                        return LineApiResponse.createAsError(
+                                LineApiResponseCode.CANCEL,
+                                new LineApiError("The API call is cancelled."));
+                    }
+                }
+                List<SendMessageResponse> mergedResponses = new ArrayList<>();
+                LineApiResponse<List<SendMessageResponse>> firstError = null;
+                boolean isAnyChunkSent = false;
+                for (int i = 0; i < chunks.size(); i++) {
+                    LineApiResponse<List<SendMessageResponse>> result = results.get(i);
+                    if (result.isSuccess()) {
+                        mergedResponses.addAll(result.getResponseData());
+                        isAnyChunkSent = true;
+                        continue;
+                    }
+                    if (firstError == null) {
+                        firstError = result;
+                    }
+                    for (String targetUserId : chunks.get(i)) {
+                        mergedResponses.add(new SendMessageResponse(
+                                targetUserId, SendMessageResponse.Status.DISCARDED));
+                    }
+                }
+                if (!isAnyChunkSent) {
+                    return LineApiResponse.createAsError(
+                            firstError.getResponseCode(), firstError.getErrorData());
+                }
+                return LineApiResponse.createAsSuccess(mergedResponses);
+            }
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package com.linecorp.linesdk.api;
+
+import android.net.Uri;
+import android.os.SystemClock;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.VisibleForTesting;
+
+import java.net.HttpURLConnection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Circuit breaker for the API calls of a {@link LineApiClient}. Set it with
+ * {@link LineApiClientBuilder#circuitBreaker(CircuitBreaker)}.
+ * <p>
+ * Calls are grouped by the host and the first path segment of the URI, such as {@code oauth2},
+ * {@code graph}, {@code message} and {@code openchat}. A group is <i>closed</i> and lets every
+ * call through while the rate of failures among its last calls is below the threshold. Otherwise
+ * it <i>opens</i> and rejects calls without sending them for the open duration. After that, it is
+ * <i>half-open</i> and lets a limited number of probe calls through. The group closes again if
+ * they all succeed, and opens again if one of them fails.
+ * <p>
+ * A call fails if it throws an {@link java.io.IOException} or gets an HTTP 429 or 5xx response.
+ * Other error responses mean that the server is working, so they count as successes.
+ */
+public class CircuitBreaker {
+    public static final float DEFAULT_FAILURE_RATE_THRESHOLD = 0.5f;
+    public static final int DEFAULT_WINDOW_SIZE = 20;
+    public static final int DEFAULT_MINIMUM_CALLS = 10;
+    public static final long DEFAULT_OPEN_DURATION_MILLIS = 30 * 1000L;
+    public static final int DEFAULT_HALF_OPEN_PROBES = 2;
+
+    private static final int HTTP_TOO_MANY_REQUESTS = 429;
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final float failureRateThreshold;
+    private final int windowSize;
+    private final int minimumCalls;
+    private final long openDurationMillis;
+    private final int halfOpenProbes;
+
+    // Guarded by this.
+    @NonNull
+    private final Map<String, Group> groups = new HashMap<>();
+
+    public CircuitBreaker() {
+        this(DEFAULT_FAILURE_RATE_THRESHOLD,
+             DEFAULT_WINDOW_SIZE,
+             DEFAULT_MINIMUM_CALLS,
+             DEFAULT_OPEN_DURATION_MILLIS,
+             DEFAULT_HALF_OPEN_PROBES);
+    }
+
+    /**
+     * @param failureRateThreshold The rate of failures, from 0 to 1, that opens a group.
+     * @param windowSize           The number of the last calls to compute the failure rate from.
+     * @param minimumCalls         The number of calls needed before a group can open.
+     * @param openDurationMillis   How long an open group rejects calls.
+     * @param halfOpenProbes       The number of successful probes that close a group.
+     */
+    public CircuitBreaker(
+            float failureRateThreshold,
+            int windowSize,
+            int minimumCalls,
+            long openDurationMillis,
+            int halfOpenProbes) {
+        if (failureRateThreshold <= 0f || failureRateThreshold > 1f) {
+            throw new IllegalArgumentException(
+                    "failureRateThreshold must be in (0, 1]: " + failureRateThreshold);
+        }
+        if (windowSize < 1 || minimumCalls < 1 || minimumCalls > windowSize) {
+            throw new IllegalArgumentException(
+                    "Illegal window: " + windowSize + ", " + minimumCalls);
+        }
+        if (openDurationMillis < 0 || halfOpenProbes < 1) {
+            throw new IllegalArgumentException(
+                    "Illegal half-open settings: " + openDurationMillis + ", " + halfOpenProbes);
+        }
+        this.failureRateThreshold = failureRateThreshold;
+        this.windowSize = windowSize;
+        this.minimumCalls = minimumCalls;
+        this.openDurationMillis = openDurationMillis;
+        this.halfOpenProbes = halfOpenProbes;
+    }
+
+    /**
+     * @return Whether a response with the given HTTP status code counts as a failure.
+     * @hide
+     */
+    public static boolean isFailureResponseCode(int httpResponseCode) {
+        return httpResponseCode >= HttpURLConnection.HTTP_INTERNAL_ERROR
+               || httpResponseCode == HTTP_TOO_MANY_REQUESTS;
+    }
+
+    /**
+     * Asks whether a call to the given URI can be sent. If {@code true} is returned, the result
+     * of the call must be reported with {@link #onSuccess(Uri)}, {@link #onFailure(Uri)} or
+     * {@link #onIgnored(Uri)}.
+     *
+     * @hide
+     */
+    public synchronized boolean tryAcquire(@NonNull Uri uri) {
+        Group group = getGroup(uri);
+        switch (getState(group)) {
+            case CLOSED:
+                return true;
+            case HALF_OPEN:
+                if (group.probesInFlight + group.succeededProbes >= halfOpenProbes) {
+                    return false;
+                }
+                group.probesInFlight++;
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Reports a call that got a response from the server.
+     *
+     * @hide
+     */
+    public synchronized void onSuccess(@NonNull Uri uri) {
+        Group group = getGroup(uri);
+        if (group.state == State.HALF_OPEN) {
+            group.releaseProbe();
+            group.succeededProbes++;
+            if (group.succeededProbes >= halfOpenProbes) {
+                group.close();
+            }
+            return;
+        }
+        if (group.state == State.CLOSED) {
+            record(group, false /* isFailure */);
+        }
+    }
+
+    /**
+     * Reports a call that failed to reach the server or got an HTTP 429 or 5xx response.
+     *
+     * @hide
+     */
+    public synchronized void onFailure(@NonNull Uri uri) {
+        Group group = getGroup(uri);
+        if (group.state == State.HALF_OPEN) {
+            group.open(elapsedRealtime());
+            return;
+        }
+        if (group.state == State.CLOSED) {
+            record(group, true /* isFailure */);
+        }
+    }
+
+    /**
+     * Reports a call that ended without telling anything about the server, such as a cancelled
+     * call.
+     *
+     * @hide
+     */
+    public synchronized void onIgnored(@NonNull Uri uri) {
+        Group group = getGroup(uri);
+        if (group.state == State.HALF_OPEN) {
+            group.releaseProbe();
+        }
+    }
+
+    @NonNull
+    public synchronized State getState(@NonNull Uri uri) {
+        return getState(getGroup(uri));
+    }
+
+    @VisibleForTesting
+    /* package */ long elapsedRealtime() {
+        return SystemClock.elapsedRealtime();
+    }
+
+    @NonNull
+    private State getState(@NonNull Group group) {
+        if (group.state == State.OPEN
+            && elapsedRealtime() - group.openedAtMillis >= openDurationMillis) {
+            group.halfOpen();
+        }
+        return group.state;
+    }
+
+    private void record(@NonNull Group group, boolean isFailure) {
+        int index = group.callCount % windowSize;
+        if (group.callCount >= windowSize && group.outcomes[index]) {
+            group.failureCount--;
+        }
+        group.outcomes[index] = isFailure;
+        if (isFailure) {
+            group.failureCount++;
+        }
+        group.callCount++;
+
+        int recordedCallCount = Math.min(group.callCount, windowSize);
+        if (recordedCallCount >= minimumCalls
+            && group.failureCount >= failureRateThreshold * recordedCallCount) {
+            group.open(elapsedRealtime());
+        }
+    }
+
+    @NonNull
+    private Group getGroup(@NonNull Uri uri) {
+        String key = getGroupKey(uri);
+        Group group = groups.get(key);
+        if (group == null) {
+            group = new Group(windowSize);
+            groups.put(key, group);
+        }
+        return group;
+    }
+
+    @NonNull
+    /* package */ static String getGroupKey(@NonNull Uri uri) {
+        List<String> pathSegments = uri.getPathSegments();
+        String firstPathSegment = pathSegments.isEmpty() ? "" : pathSegments.get(0);
+        return uri.getAuthority() + "/" + firstPathSegment;
+    }
+
+    private static class Group {
+        @NonNull
+        private State state = State.CLOSED;
+        // The outcomes of the last calls in a ring buffer. true means a failure.
+        @NonNull
+        private final boolean[] outcomes;
+        private int callCount;
+        private int failureCount;
+        private long openedAtMillis;
+        private int probesInFlight;
+        private int succeededProbes;
+
+        private Group(int windowSize) {
+            outcomes = new boolean[windowSize];
+        }
+
+        private void open(long nowMillis) {
+            state = State.OPEN;
+            openedAtMillis = nowMillis;
+        }
+
+        private void halfOpen() {
+            state = State.HALF_OPEN;
+            probesInFlight = 0;
+            succeededProbes = 0;
+        }
+
+        private void releaseProbe() {
+            // A call acquired before the group reopened may report after it half-opens again.
+            probesInFlight = Math.max(0, probesInFlight - 1);
+        }
+
+        private void close() {
+            state = State.CLOSED;
+            callCount = 0;
+            failureCount = 0;
+        }
+    }
+}
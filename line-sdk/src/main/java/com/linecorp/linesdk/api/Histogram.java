@@ -0,0 +1,83 @@
+package com.linecorp.linesdk.api;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of non-negative long values, such as latencies and sizes.
+ * <p>
+ * Each power of two is split into {@value #SUB_BUCKET_COUNT} buckets, so a value is known within
+ * 25% of its size with a fixed number of buckets for the whole long range. Recording a value
+ * updates a few atomic counters and never blocks, so it can be used on any thread.
+ */
+/* package */ class Histogram {
+    // Each power of two [2^e, 2^(e+1)) is split into 2^SUB_BUCKET_BITS buckets.
+    private static final int SUB_BUCKET_BITS = 2;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    // The values below SUB_BUCKET_COUNT have their own buckets, followed by the split powers of
+    // two from 2^SUB_BUCKET_BITS to 2^62.
+    /* package */ static final int BUCKET_COUNT =
+            SUB_BUCKET_COUNT + (63 - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+    @NonNull
+    private final AtomicLongArray bucketCounts = new AtomicLongArray(BUCKET_COUNT);
+    @NonNull
+    private final LongAdder sum = new LongAdder();
+    @NonNull
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records the given value. Negative values are recorded as 0.
+     */
+    /* package */ void record(long value) {
+        long nonNegativeValue = Math.max(0L, value);
+        bucketCounts.incrementAndGet(getBucketIndex(nonNegativeValue));
+        sum.add(nonNegativeValue);
+        long currentMax = max.get();
+        while (nonNegativeValue > currentMax && !max.compareAndSet(currentMax, nonNegativeValue)) {
+            currentMax = max.get();
+        }
+    }
+
+    /**
+     * @return A copy of the recorded values. The values recorded while the copy is being made
+     * may be partly included.
+     */
+    @NonNull
+    /* package */ HistogramSnapshot getSnapshot() {
+        long[] counts = new long[BUCKET_COUNT];
+        long count = 0L;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = bucketCounts.get(i);
+            count += counts[i];
+        }
+        return new HistogramSnapshot(counts, count, sum.sum(), max.get());
+    }
+
+    /* package */ static int getBucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1);
+        return SUB_BUCKET_COUNT + (exponent - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    /**
+     * @return The largest value that falls into the bucket at the given index.
+     */
+    /* package */ static long getBucketUpperBound(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int exponent = (index - SUB_BUCKET_COUNT) / SUB_BUCKET_COUNT + SUB_BUCKET_BITS;
+        int subBucket = (index - SUB_BUCKET_COUNT) % SUB_BUCKET_COUNT;
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        long lowerBound = (SUB_BUCKET_COUNT + subBucket) * width;
+        // The last bucket ends at Long.MAX_VALUE, and the subtraction below wraps around to it.
+        return lowerBound + width - 1;
+    }
+}
@@ -0,0 +1,84 @@
+package com.linecorp.linesdk.api;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Immutable copy of the values recorded by a histogram of {@link LineApiMetrics}.
+ * <p>
+ * Each power of two is split into 4 buckets, so a value is known within 25% of its size.
+ */
+public final class HistogramSnapshot {
+    @NonNull
+    private final long[] bucketCounts;
+    private final long count;
+    private final long sum;
+    private final long max;
+
+    /* package */ HistogramSnapshot(@NonNull long[] bucketCounts, long count, long sum, long max) {
+        this.bucketCounts = bucketCounts;
+        this.count = count;
+        this.sum = sum;
+        this.max = max;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getSum() {
+        return sum;
+    }
+
+    /**
+     * @return The largest recorded value, or 0 if nothing has been recorded.
+     */
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * @return The average of the recorded values, or 0 if nothing has been recorded.
+     */
+    public double getMean() {
+        return count == 0L ? 0d : (double) sum / count;
+    }
+
+    /**
+     * Estimates the value at the given percentile, such as 50 for the median or 99 for the
+     * 99th percentile. The estimate is the upper bound of the bucket that contains the value,
+     * so it is at most 25% larger than the actual value, and never larger than
+     * {@link #getMax()}.
+     *
+     * @param percentile The percentile between 0 and 100.
+     * @return The estimated value, or 0 if nothing has been recorded.
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (percentile < 0d || percentile > 100d) {
+            throw new IllegalArgumentException("Illegal percentile: " + percentile);
+        }
+        if (count == 0L) {
+            return 0L;
+        }
+        long rank = Math.max(1L, (long) Math.ceil(count * percentile / 100d));
+        long seenCount = 0L;
+        for (int i = 0; i < bucketCounts.length; i++) {
+            seenCount += bucketCounts[i];
+            if (seenCount >= rank) {
+                return Math.min(Histogram.getBucketUpperBound(i), max);
+            }
+        }
+        return max;
+    }
+
+    @Override
+    public String toString() {
+        return "HistogramSnapshot{" +
+               "count=" + count +
+               ", mean=" + getMean() +
+               ", p50=" + getValueAtPercentile(50d) +
+               ", p90=" + getValueAtPercentile(90d) +
+               ", p99=" + getValueAtPercentile(99d) +
+               ", max=" + max +
+               '}';
+    }
+}
@@ -0,0 +1,31 @@
+package com.linecorp.linesdk.api;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.WorkerThread;
+
+import java.io.IOException;
+
+/**
+ * Represents the HTTP stack that the SDK uses to send requests to the LINE Platform. By default,
+ * the SDK uses {@link java.net.HttpURLConnection}. You can implement this interface on top of the
+ * HTTP client that your app already uses and set it with
+ * {@link LineApiClientBuilder#httpTransport(HttpTransport)}, so that the SDK shares its
+ * connections, dispatcher, and caches.
+ * <p>
+ * Implementations must be thread-safe. The SDK sets the headers, including
+ * {@code Accept-Encoding}, by itself and decodes gzip-encoded response bodies, so implementations
+ * should pass the headers and the body through as they are.
+ */
+public interface HttpTransport {
+    /**
+     * Sends the given request and returns its response. The SDK always closes the returned
+     * response.
+     *
+     * @param request The request to send.
+     * @return The response of the request, including error responses such as HTTP 4xx and 5xx.
+     * @throws IOException If the request could not be sent or the response could not be received.
+     */
+    @WorkerThread
+    @NonNull
+    HttpTransportResponse execute(@NonNull HttpTransportRequest request) throws IOException;
+}
@@ -0,0 +1,173 @@
+package com.linecorp.linesdk.api;
+
+import android.net.Uri;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Represents a request that the SDK sends through an {@link HttpTransport}.
+ */
+public final class HttpTransportRequest {
+    @NonNull
+    private final String method;
+    @NonNull
+    private final Uri uri;
+    @NonNull
+    private final Map<String, String> headers;
+    @Nullable
+    private final Body requestBody;
+    @Nullable
+    private byte[] body;
+    private final int connectTimeoutMillis;
+    private final int readTimeoutMillis;
+
+    /**
+     * @hide
+     */
+    public HttpTransportRequest(
+            @NonNull String method,
+            @NonNull Uri uri,
+            @NonNull Map<String, String> headers,
+            @Nullable Body requestBody,
+            int connectTimeoutMillis,
+            int readTimeoutMillis) {
+        this.method = method;
+        this.uri = uri;
+        this.headers = Collections.unmodifiableMap(new LinkedHashMap<>(headers));
+        this.requestBody = requestBody;
+        this.connectTimeoutMillis = connectTimeoutMillis;
+        this.readTimeoutMillis = readTimeoutMillis;
+    }
+
+    /**
+     * Gets the HTTP method, such as {@code GET} or {@code POST}.
+     *
+     * @return The HTTP method.
+     */
+    @NonNull
+    public String getMethod() {
+        return method;
+    }
+
+    /**
+     * Gets the URI of the request, including the query parameters.
+     *
+     * @return The URI of the request.
+     */
+    @NonNull
+    public Uri getUri() {
+        return uri;
+    }
+
+    /**
+     * Gets the request headers, including {@code Content-Type} if the request has a body.
+     *
+     * @return The unmodifiable map of the request headers.
+     */
+    @NonNull
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+
+    /**
+     * Gets the request body as a byte array. Use {@link #getRequestBody()} instead to write a
+     * large body straight into the connection without holding it in memory.
+     *
+     * @return The request body, or {@code null} if the request has no body.
+     * @throws IOException If the body could not be serialized.
+     */
+    @Nullable
+    public byte[] getBody() throws IOException {
+        if (requestBody == null) {
+            return null;
+        }
+        if (body == null) {
+            body = requestBody.toByteArray();
+        }
+        return body;
+    }
+
+    /**
+     * Gets the request body without copying it into a byte array.
+     *
+     * @return The request body, or {@code null} if the request has no body.
+     */
+    @Nullable
+    public Body getRequestBody() {
+        return requestBody;
+    }
+
+    /**
+     * Gets the connect timeout that the SDK expects.
+     *
+     * @return The connect timeout in milliseconds.
+     */
+    public int getConnectTimeoutMillis() {
+        return connectTimeoutMillis;
+    }
+
+    /**
+     * Gets the read timeout that the SDK expects.
+     *
+     * @return The read timeout in milliseconds.
+     */
+    public int getReadTimeoutMillis() {
+        return readTimeoutMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "HttpTransportRequest{" +
+               "method='" + method + '\'' +
+               ", uri=" + uri +
+               '}';
+    }
+
+    /**
+     * Represents the body of an {@link HttpTransportRequest}. The body is written straight into
+     * the output stream of the connection, so that a large body doesn't have to be held in
+     * memory. A body can be written more than once and always writes the same bytes.
+     */
+    public abstract static class Body {
+        /**
+         * Gets the length of the body, for the {@code Content-Length} header. If the length is
+         * unknown, the body should be sent with chunked transfer encoding.
+         *
+         * @return The number of bytes that {@link #writeTo(OutputStream)} writes, or -1 if the
+         * length is unknown.
+         */
+        public abstract long getContentLength();
+
+        /**
+         * Writes the body into the given output stream. This doesn't close the output stream.
+         *
+         * @param outputStream The output stream to write the body into.
+         * @throws IOException If the body could not be serialized or written.
+         */
+        public abstract void writeTo(@NonNull OutputStream outputStream) throws IOException;
+
+        /**
+         * Gets the body as a byte array.
+         *
+         * @return The bytes that {@link #writeTo(OutputStream)} writes.
+         * @throws IOException If the body could not be serialized.
+         */
+        @NonNull
+        public byte[] toByteArray() throws IOException {
+            long contentLength = getContentLength();
+            ByteArrayOutputStream outputStream = contentLength >= 0L
+                                                 ? new ByteArrayOutputStream((int) contentLength)
+                                                 : new ByteArrayOutputStream();
+            writeTo(outputStream);
+            return outputStream.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.linecorp.linesdk.api;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Represents a response that an {@link HttpTransport} returns. The SDK reads the body and then
+ * closes the response, so that the implementation can release or reuse the connection.
+ */
+public interface HttpTransportResponse extends Closeable {
+    /**
+     * Gets the HTTP status code of the response.
+     *
+     * @return The HTTP status code.
+     * @throws IOException If the status code could not be received.
+     */
+    int getResponseCode() throws IOException;
+
+    /**
+     * Gets the HTTP status message of the response.
+     *
+     * @return The HTTP status message, or {@code null} if it is not available.
+     * @throws IOException If the status message could not be received.
+     */
+    @Nullable
+    String getResponseMessage() throws IOException;
+
+    /**
+     * Gets the response headers. Header names are compared case-insensitively by the SDK.
+     *
+     * @return The map of the response headers.
+     */
+    @NonNull
+    Map<String, List<String>> getHeaderFields();
+
+    /**
+     * Gets the response body as it was received, without decoding the content encoding.
+     *
+     * @return The response body, or {@code null} if the response has no body.
+     * @throws IOException If the response body could not be opened.
+     */
+    @Nullable
+    InputStream getBody() throws IOException;
+
+    /**
+     * Releases the resources of this response.
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,24 @@
+package com.linecorp.linesdk.api;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+
+import com.linecorp.linesdk.LineApiResponse;
+
+/**
+ * Represents a callback that receives the result of an API call made by an
+ * {@link AsyncLineApiClient} object.
+ *
+ * @param <R> The type of the response data.
+ */
+@FunctionalInterface
+public interface LineApiCallback<R> {
+    /**
+     * Called on the main thread when the API call finishes. This is not called if the API call
+     * is cancelled.
+     *
+     * @param response A {@link LineApiResponse} object containing information about the response.
+     */
+    @MainThread
+    void onResult(@NonNull LineApiResponse<R> response);
+}
@@ -394,4 +394,17 @@ public interface LineApiClient {
      */
     @NonNull
     LineApiResponse<MembershipStatus> getOpenChatMembershipStatus(@NonNull String roomId);
+
+    /**
+     * @hide
+     * Gets the on-device store of the friends and groups of the current user. The store is
+     * cleared when the user logs out.
+     *
+     * @return The {@link SocialGraphStore} instance for the channel, or
+     * {@link SocialGraphStore#NONE} if the client has no store.
+     */
+    @NonNull
+    default SocialGraphStore getSocialGraphStore() {
+        return SocialGraphStore.NONE;
+    }
 }
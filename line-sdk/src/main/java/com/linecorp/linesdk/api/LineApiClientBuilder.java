@@ -1,5 +1,6 @@
 package com.linecorp.linesdk.api;
 
+import android.app.Application;
 import android.content.Context;
 import android.net.Uri;
 import android.text.TextUtils;
@@ -7,13 +8,24 @@ import android.text.TextUtils;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
+import com.linecorp.linesdk.BuildConfig;
+import com.linecorp.linesdk.LineSdkExecutors;
 import com.linecorp.linesdk.ManifestParser;
+import com.linecorp.linesdk.api.internal.AsyncLineApiClientImpl;
 import com.linecorp.linesdk.api.internal.AutoRefreshLineApiClientProxy;
 import com.linecorp.linesdk.api.internal.LineApiClientImpl;
+import com.linecorp.linesdk.api.internal.MetricsLineApiClientProxy;
+import com.linecorp.linesdk.api.internal.SocialGraphStoreImpl;
+import com.linecorp.linesdk.api.internal.TokenRefreshScheduler;
 import com.linecorp.linesdk.internal.AccessTokenCache;
 import com.linecorp.linesdk.internal.EncryptorHolder;
 import com.linecorp.linesdk.internal.nwclient.LineAuthenticationApiClient;
+import com.linecorp.linesdk.internal.nwclient.OpenIdDocumentCache;
 import com.linecorp.linesdk.internal.nwclient.TalkApiClient;
+import com.linecorp.linesdk.internal.nwclient.core.ChannelServiceHttpClient;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
  * Represents a builder for creating {@link LineApiClient} objects with the desired settings.
@@ -29,6 +41,25 @@ public class LineApiClientBuilder {
     private Uri apiBaseUri;
     private boolean isTokenAutoRefreshDisabled;
     private boolean isEncryptorPreparationDisabled;
+    private boolean isKeepAliveEnabled;
+    @Nullable
+    private HttpTransport httpTransport;
+    @Nullable
+    private RetryPolicy retryPolicy;
+    @Nullable
+    private CircuitBreaker circuitBreaker;
+    @Nullable
+    private NetworkEventListener networkEventListener;
+    @Nullable
+    private LineApiMetrics apiMetrics;
+    private int debugLogMaxBodyBytes = ChannelServiceHttpClient.DEFAULT_DEBUG_LOG_MAX_BODY_BYTES;
+    @NonNull
+    private final Map<String, TimeoutProfile> timeoutProfiles = new LinkedHashMap<>();
+    private long tokenRefreshLeadTimeMillis = TokenRefreshScheduler.DEFAULT_LEAD_TIME_MILLIS;
+    private boolean isScheduledTokenRefreshEnabled;
+    private boolean isForegroundTokenRefreshEnabled;
+    private long socialGraphStoreTtlMillis = SocialGraphStore.DEFAULT_TTL_MILLIS;
+    private long callTimeoutMillis;
 
     /**
      * Constructs a builder for a {@link LineApiClient} object with the given <i>channelId</i>.
@@ -76,6 +107,186 @@ public class LineApiClientBuilder {
         return this;
     }
 
+    /**
+     * Drains and closes each response body instead of disconnecting the connection, so that the
+     * platform's keep-alive pool can reuse the socket for a later call to the same host and skip
+     * a new TCP and TLS handshake. Whether a socket is actually reused is up to the platform.
+     * Responses larger than 64 KB are still disconnected. This has no effect if a custom
+     * {@link HttpTransport} is set. By default, every connection is disconnected after its call.
+     *
+     * @return The current {@link LineApiClientBuilder} instance.
+     */
+    @NonNull
+    public LineApiClientBuilder enableKeepAlive() {
+        isKeepAliveEnabled = true;
+        return this;
+    }
+
+    /**
+     * Sets the HTTP stack that the {@link LineApiClient} sends requests through. Use this to
+     * share the connections, dispatcher, and caches of the HTTP client that your app already uses.
+     *
+     * @param httpTransport The transport to use, or {@code null} to use
+     *                      {@link java.net.HttpURLConnection}, which is the default.
+     * @return The current {@link LineApiClientBuilder} instance.
+     */
+    @NonNull
+    public LineApiClientBuilder httpTransport(@Nullable HttpTransport httpTransport) {
+        this.httpTransport = httpTransport;
+        return this;
+    }
+
+    /**
+     * Sends API calls that fail with a network error or a temporary server error again, as the
+     * given policy allows. Only idempotent calls are retried. See {@link RetryPolicy} for details.
+     *
+     * @param retryPolicy The policy to use, or {@code null} to send every call only once, which
+     *                    is the default.
+     * @return The current {@link LineApiClientBuilder} instance.
+     */
+    @NonNull
+    public LineApiClientBuilder retryPolicy(@Nullable RetryPolicy retryPolicy) {
+        this.retryPolicy = retryPolicy;
+        return this;
+    }
+
+    /**
+     * Rejects API calls to a group of LINE APIs, such as the Graph API or the Messaging API,
+     * while recent calls to it keep failing. A rejected call returns
+     * {@link com.linecorp.linesdk.LineApiResponseCode#CIRCUIT_OPEN} immediately instead of
+     * waiting for the timeouts. See {@link CircuitBreaker} for details.
+     *
+     * @param circuitBreaker The circuit breaker to use, or {@code null} to send every call,
+     *                       which is the default.
+     * @return The current {@link LineApiClientBuilder} instance.
+     */
+    @NonNull
+    public LineApiClientBuilder circuitBreaker(@Nullable CircuitBreaker circuitBreaker) {
+        this.circuitBreaker = circuitBreaker;
+        return this;
+    }
+
+    /**
+     * Reports the timing and size of every HTTP request that the SDK sends, including each retry,
+     * to the given listener. The listener is called on the thread that sent the request after the
+     * response has been parsed, so it should return quickly.
+     *
+     * @param networkEventListener The listener to use, or {@code null} to measure nothing, which
+     *                             is the default.
+     * @return The current {@link LineApiClientBuilder} instance.
+     */
+    @NonNull
+    public LineApiClientBuilder networkEventListener(
+            @Nullable NetworkEventListener networkEventListener) {
+        this.networkEventListener = networkEventListener;
+        return this;
+    }
+
+    /**
+     * Records the latency and size of every call of the {@link LineApiClient} into the given
+     * metrics, per method and per response code. Read them with
+     * {@link LineApiMetrics#getSnapshots()}. The same metrics may be shared by several clients.
+     *
+     * @param apiMetrics The metrics to record into, or {@code null} to record nothing, which is
+     *                   the default.
+     * @return The current {@link LineApiClientBuilder} instance.
+     */
+    @NonNull
+    public LineApiClientBuilder apiMetrics(@Nullable LineApiMetrics apiMetrics) {
+        this.apiMetrics = apiMetrics;
+        return this;
+    }
+
+    /**
+     * Sets how many bytes of each request and response body the debug builds of the SDK write to
+     * the log. The body is logged while it is being parsed, so a large response isn't held in
+     * memory for logging. Access tokens, refresh tokens and the other credentials are redacted.
+     * This has no effect on the release builds of the SDK.
+     *
+     * @param maxBodyBytes The maximum number of bytes to log per body. The default is 4 KB.
+     * @return The current {@link LineApiClientBuilder} instance.
+     */
+    @NonNull
+    public LineApiClientBuilder debugLogMaxBodyBytes(int maxBodyBytes) {
+        if (maxBodyBytes < 0) {
+            throw new IllegalArgumentException("maxBodyBytes must not be negative: " + maxBodyBytes);
+        }
+        debugLogMaxBodyBytes = maxBodyBytes;
+        return this;
+    }
+
+    /**
+     * Sets the timeouts of the API calls to the endpoints whose paths start with the given prefix,
+     * such as {@code "/friendship/v1/"} or {@code "/message/v3/multisend"}. The profile with the
+     * longest matching prefix is used, and the empty prefix matches every endpoint. By default,
+     * the connect and read timeouts are 90 seconds each, and there is no deadline.
+     * <p>
+     * The deadline of a profile covers the whole API call, including its retries and the token
+     * refresh and the second call of an auto-refreshed call.
+     *
+     * @param pathPrefix     The prefix of the endpoint paths.
+     * @param timeoutProfile The timeouts of the endpoints.
+     * @return The current {@link LineApiClientBuilder} instance.
+     */
+    @NonNull
+    public LineApiClientBuilder timeoutProfile(
+            @NonNull String pathPrefix, @NonNull TimeoutProfile timeoutProfile) {
+        timeoutProfiles.put(pathPrefix, timeoutProfile);
+        return this;
+    }
+
+    /**
+     * Sets the time within which each call of the {@link AsyncLineApiClient} created by
+     * {@link #buildAsync()} must finish, including its retries and token refresh. Use
+     * {@link AsyncLineApiClient#withCallTimeout(long)} to use another time for some calls.
+     *
+     * @param timeoutMillis The time in milliseconds, or 0 for no limit. The default is 0.
+     * @return The current {@link LineApiClientBuilder} instance.
+     */
+    @NonNull
+    public LineApiClientBuilder callTimeout(long timeoutMillis) {
+        if (timeoutMillis < 0) {
+            throw new IllegalArgumentException("timeoutMillis must not be negative: " + timeoutMillis);
+        }
+        callTimeoutMillis = timeoutMillis;
+        return this;
+    }
+
+    /**
+     * Enables the SDK's feature that refreshes the access token in the background before it
+     * expires, so that API calls rarely have to wait for a refresh. The refresh starts when the
+     * access token is within the given lead time of its estimated expiration time.
+     * <p>
+     * The background refresh runs once per channel in the process. Building another client for
+     * the same channel makes the refresh use the new client and its settings, or stops it if
+     * the new client enables neither this nor {@link #enableForegroundTokenRefresh()}.
+     *
+     * @param leadTimeMillis How long before the expiration the refresh starts, in milliseconds.
+     * @return The current {@link LineApiClientBuilder} instance.
+     */
+    @NonNull
+    public LineApiClientBuilder enableScheduledTokenRefresh(long leadTimeMillis) {
+        if (leadTimeMillis < 0) {
+            throw new IllegalArgumentException("leadTimeMillis must not be negative: " + leadTimeMillis);
+        }
+        tokenRefreshLeadTimeMillis = leadTimeMillis;
+        isScheduledTokenRefreshEnabled = true;
+        return this;
+    }
+
+    /**
+     * Enables the SDK's feature that refreshes the access token in the background when the app
+     * comes to the foreground and the access token is about to expire. The lead time set by
+     * {@link #enableScheduledTokenRefresh(long)} is used if any. Otherwise, ten minutes is used.
+     *
+     * @return The current {@link LineApiClientBuilder} instance.
+     */
+    @NonNull
+    public LineApiClientBuilder enableForegroundTokenRefresh() {
+        isForegroundTokenRefreshEnabled = true;
+        return this;
+    }
+
     /**
      * @hide
      * Sets the OpenID Discovery Document URL.
@@ -104,6 +315,23 @@ public class LineApiClientBuilder {
         return this;
     }
 
+    /**
+     * @hide
+     * Sets how long the friends and groups in the {@link SocialGraphStore} are returned after
+     * they have been synced. The default is 24 hours.
+     *
+     * @param ttlMillis The time to live in milliseconds.
+     * @return The current {@link LineApiClientBuilder} instance.
+     */
+    @NonNull
+    public LineApiClientBuilder socialGraphStoreTtlMillis(long ttlMillis) {
+        if (ttlMillis < 0) {
+            throw new IllegalArgumentException("ttlMillis must not be negative: " + ttlMillis);
+        }
+        socialGraphStoreTtlMillis = ttlMillis;
+        return this;
+    }
+
     /**
      * Creates a {@link LineApiClient} instance.
      *
@@ -115,13 +343,64 @@ public class LineApiClientBuilder {
         if (!isEncryptorPreparationDisabled) {
             EncryptorHolder.initializeOnWorkerThread(context);
         }
-        LineApiClient lineApiClient = new LineApiClientImpl(
+        ChannelServiceHttpClient httpClient =
+                new ChannelServiceHttpClient(context, BuildConfig.VERSION_NAME);
+        httpClient.setKeepAliveEnabled(isKeepAliveEnabled);
+        httpClient.setHttpTransport(httpTransport);
+        httpClient.setRetryPolicy(retryPolicy != null ? retryPolicy : RetryPolicy.NONE);
+        httpClient.setCircuitBreaker(circuitBreaker);
+        httpClient.setNetworkEventListener(networkEventListener);
+        httpClient.setDebugLogMaxBodyBytes(debugLogMaxBodyBytes);
+        for (Map.Entry<String, TimeoutProfile> entry : timeoutProfiles.entrySet()) {
+            httpClient.setTimeoutProfile(entry.getKey(), entry.getValue());
+        }
+        LineApiClientImpl lineApiClientImpl = new LineApiClientImpl(
                 channelId,
-                new LineAuthenticationApiClient(context, openidDiscoveryDocumentUrl, apiBaseUri),
-                new TalkApiClient(context, apiBaseUri),
+                new LineAuthenticationApiClient(
+                        openidDiscoveryDocumentUrl,
+                        apiBaseUri,
+                        httpClient,
+                        OpenIdDocumentCache.getInstance(context, openidDiscoveryDocumentUrl)),
+                new TalkApiClient(apiBaseUri, httpClient),
                 new AccessTokenCache(context, channelId));
-        return isTokenAutoRefreshDisabled
-                ? lineApiClient
-                : AutoRefreshLineApiClientProxy.newProxy(lineApiClient);
+        LineApiClient lineApiClient = isTokenAutoRefreshDisabled
+                ? lineApiClientImpl
+                : AutoRefreshLineApiClientProxy.newProxy(lineApiClientImpl);
+        // The store syncs through the outermost client to refresh the access token on its calls.
+        lineApiClientImpl.setSocialGraphStore(new SocialGraphStoreImpl(
+                context, channelId, lineApiClient, socialGraphStoreTtlMillis));
+        // Started before the metrics are applied, so that background refreshes aren't counted as
+        // app calls either.
+        if (isScheduledTokenRefreshEnabled || isForegroundTokenRefreshEnabled) {
+            TokenRefreshScheduler.startForChannel(
+                    channelId,
+                    lineApiClient,
+                    tokenRefreshLeadTimeMillis,
+                    isScheduledTokenRefreshEnabled,
+                    isForegroundTokenRefreshEnabled && context instanceof Application
+                    ? (Application) context
+                    : null);
+        } else {
+            // The client built before for the channel may have started one.
+            TokenRefreshScheduler.stopForChannel(channelId);
+        }
+        // Applied after the store so that its background syncs aren't counted as app calls.
+        if (apiMetrics != null) {
+            lineApiClient = MetricsLineApiClientProxy.newProxy(lineApiClient, apiMetrics);
+        }
+        return lineApiClient;
+    }
+
+    /**
+     * Creates an {@link AsyncLineApiClient} instance with the same settings as {@link #build()}.
+     * Its API calls run on the SDK's I/O executor, within the time set by
+     * {@link #callTimeout(long)}.
+     *
+     * @return The {@link AsyncLineApiClient} instance.
+     */
+    @NonNull
+    public AsyncLineApiClient buildAsync() {
+        return new AsyncLineApiClientImpl(
+                build(), LineSdkExecutors.getIoExecutor(), callTimeoutMillis);
     }
 }
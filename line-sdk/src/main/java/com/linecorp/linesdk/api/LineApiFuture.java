@@ -0,0 +1,87 @@
+package com.linecorp.linesdk.api;
+
+import android.os.CancellationSignal;
+
+import androidx.annotation.NonNull;
+
+import com.linecorp.linesdk.LineApiError;
+import com.linecorp.linesdk.LineApiResponse;
+import com.linecorp.linesdk.LineApiResponseCode;
+import com.linecorp.linesdk.LineSdkExecutors;
+import com.linecorp.linesdk.internal.nwclient.core.CallCancellation;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.function.Supplier;
+
+/**
+ * Represents the pending result of an API call made by an {@link AsyncLineApiClient} object.
+ * The future always completes with a {@link LineApiResponse} object, even if the API call fails,
+ * unless the call is cancelled.
+ * <p>
+ * Cancelling the future before the API call starts removes the call from the queue. Cancelling
+ * it with <code>mayInterruptIfRunning</code> set to <code>true</code> also aborts the call if it
+ * is running, by disconnecting its HTTP connection.
+ *
+ * @param <R> The type of the response data.
+ */
+public class LineApiFuture<R> extends CompletableFuture<LineApiResponse<R>> {
+    @NonNull
+    private final CancellationSignal cancellationSignal = new CancellationSignal();
+    @NonNull
+    private final FutureTask<Void> task;
+
+    /**
+     * @hide
+     */
+    public LineApiFuture(@NonNull Supplier<LineApiResponse<R>> apiCall) {
+        task = new FutureTask<>(() -> {
+            LineApiResponse<R> response;
+            try {
+                response = CallCancellation.runWith(cancellationSignal, apiCall);
+            } catch (RuntimeException e) {
+                response = LineApiResponse.createAsError(
+                        LineApiResponseCode.INTERNAL_ERROR, new LineApiError(e));
+            }
+            complete(response);
+        }, null);
+    }
+
+    /**
+     * @hide
+     */
+    @NonNull
+    public LineApiFuture<R> executeOn(@NonNull Executor executor) {
+        executor.execute(task);
+        return this;
+    }
+
+    /**
+     * Sets a callback that receives the result on the main thread.
+     *
+     * @param callback The callback.
+     * @return The current {@link LineApiFuture} instance.
+     */
+    @NonNull
+    public LineApiFuture<R> setCallback(@NonNull LineApiCallback<R> callback) {
+        whenCompleteAsync((response, throwable) -> {
+            if (response != null) {
+                callback.onResult(response);
+            }
+        }, LineSdkExecutors.getMainThreadExecutor());
+        return this;
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        boolean isCancelled = super.cancel(mayInterruptIfRunning);
+        if (isCancelled) {
+            task.cancel(false /* mayInterruptIfRunning */);
+            if (mayInterruptIfRunning) {
+                cancellationSignal.cancel();
+            }
+        }
+        return isCancelled;
+    }
+}
@@ -0,0 +1,193 @@
+package com.linecorp.linesdk.api;
+
+import androidx.annotation.NonNull;
+
+import com.linecorp.linesdk.LineApiResponseCode;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Latency and size histograms of the API calls of a {@link LineApiClient}, per method and per
+ * response code. Set it with {@link LineApiClientBuilder#apiMetrics(LineApiMetrics)} and read
+ * the histograms at any time with {@link #getSnapshots()}, for example from a debug screen or a
+ * periodic telemetry upload.
+ * <p>
+ * The latency of a call includes its retries and the token refresh of an auto-refreshed call.
+ * The sizes are the bytes sent and received by all the HTTP requests of the call. Recording is
+ * lock-free, so the calls running on different threads never wait for each other.
+ */
+public final class LineApiMetrics {
+    private static final LineApiResponseCode[] RESPONSE_CODES = LineApiResponseCode.values();
+
+    // The histograms of each method, indexed by the ordinal of the response code.
+    @NonNull
+    private final Map<String, AtomicReferenceArray<Entry>> entries = new ConcurrentHashMap<>();
+
+    public LineApiMetrics() {}
+
+    /**
+     * Records an API call.
+     *
+     * @param method        The name of the {@link LineApiClient} method.
+     * @param responseCode  The response code of the call.
+     * @param latencyNanos  The time the call took.
+     * @param requestBytes  The bytes sent by the call.
+     * @param responseBytes The bytes received by the call.
+     * @hide
+     */
+    public void record(@NonNull String method,
+                       @NonNull LineApiResponseCode responseCode,
+                       long latencyNanos,
+                       long requestBytes,
+                       long responseBytes) {
+        AtomicReferenceArray<Entry> methodEntries = entries.get(method);
+        if (methodEntries == null) {
+            methodEntries = entries.computeIfAbsent(
+                    method, key -> new AtomicReferenceArray<>(RESPONSE_CODES.length));
+        }
+        int index = responseCode.ordinal();
+        Entry entry = methodEntries.get(index);
+        if (entry == null) {
+            methodEntries.compareAndSet(index, null, new Entry());
+            entry = methodEntries.get(index);
+        }
+        entry.latencyMicros.record(latencyNanos / 1000L);
+        entry.requestBytes.record(requestBytes);
+        entry.responseBytes.record(responseBytes);
+    }
+
+    /**
+     * @return The histograms of every method and response code that has been recorded so far.
+     * The calls that finish while the snapshots are being taken may be partly included.
+     */
+    @NonNull
+    public List<Snapshot> getSnapshots() {
+        List<Snapshot> snapshots = new ArrayList<>();
+        for (Map.Entry<String, AtomicReferenceArray<Entry>> methodEntries : entries.entrySet()) {
+            for (int i = 0; i < RESPONSE_CODES.length; i++) {
+                Entry entry = methodEntries.getValue().get(i);
+                if (entry != null) {
+                    snapshots.add(new Snapshot(
+                            methodEntries.getKey(),
+                            RESPONSE_CODES[i],
+                            entry.latencyMicros.getSnapshot(),
+                            entry.requestBytes.getSnapshot(),
+                            entry.responseBytes.getSnapshot()));
+                }
+            }
+        }
+        return Collections.unmodifiableList(snapshots);
+    }
+
+    /**
+     * Removes all the recorded values.
+     */
+    public void reset() {
+        entries.clear();
+    }
+
+    @Override
+    public String toString() {
+        return "LineApiMetrics{" +
+               "snapshots=" + getSnapshots() +
+               '}';
+    }
+
+    private static class Entry {
+        @NonNull
+        private final Histogram latencyMicros = new Histogram();
+        @NonNull
+        private final Histogram requestBytes = new Histogram();
+        @NonNull
+        private final Histogram responseBytes = new Histogram();
+    }
+
+    /**
+     * The histograms of the calls of one {@link LineApiClient} method that returned one
+     * response code. The overloads of a method share the same histograms.
+     */
+    public static final class Snapshot {
+        @NonNull
+        private final String method;
+        @NonNull
+        private final LineApiResponseCode responseCode;
+        @NonNull
+        private final HistogramSnapshot latencyMicros;
+        @NonNull
+        private final HistogramSnapshot requestBytes;
+        @NonNull
+        private final HistogramSnapshot responseBytes;
+
+        private Snapshot(@NonNull String method,
+                         @NonNull LineApiResponseCode responseCode,
+                         @NonNull HistogramSnapshot latencyMicros,
+                         @NonNull HistogramSnapshot requestBytes,
+                         @NonNull HistogramSnapshot responseBytes) {
+            this.method = method;
+            this.responseCode = responseCode;
+            this.latencyMicros = latencyMicros;
+            this.requestBytes = requestBytes;
+            this.responseBytes = responseBytes;
+        }
+
+        /**
+         * @return The name of the {@link LineApiClient} method, such as {@code "getFriends"}.
+         */
+        @NonNull
+        public String getMethod() {
+            return method;
+        }
+
+        @NonNull
+        public LineApiResponseCode getResponseCode() {
+            return responseCode;
+        }
+
+        /**
+         * @return The number of calls.
+         */
+        public long getCount() {
+            return latencyMicros.getCount();
+        }
+
+        /**
+         * @return The latencies of the calls in microseconds.
+         */
+        @NonNull
+        public HistogramSnapshot getLatencyMicros() {
+            return latencyMicros;
+        }
+
+        /**
+         * @return The bytes sent by the calls.
+         */
+        @NonNull
+        public HistogramSnapshot getRequestBytes() {
+            return requestBytes;
+        }
+
+        /**
+         * @return The bytes received by the calls, as they were sent over the network.
+         */
+        @NonNull
+        public HistogramSnapshot getResponseBytes() {
+            return responseBytes;
+        }
+
+        @Override
+        public String toString() {
+            return "Snapshot{" +
+                   "method='" + method + '\'' +
+                   ", responseCode=" + responseCode +
+                   ", latencyMicros=" + latencyMicros +
+                   ", requestBytes=" + requestBytes +
+                   ", responseBytes=" + responseBytes +
+                   '}';
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package com.linecorp.linesdk.api;
+
+import androidx.annotation.NonNull;
+
+import com.linecorp.linesdk.LineApiResponseCode;
+
+/**
+ * Represents the timing and size of an HTTP request that the SDK has sent to the LINE Platform.
+ * <p>
+ * The durations are in nanoseconds. A phase that couldn't be observed is reported as -1. With
+ * the default {@link java.net.HttpURLConnection} transport, the DNS lookup, the TCP connection
+ * and the TLS handshake are reported together as the connect phase, and the connect phase is
+ * near zero when a kept-alive connection is reused. With a custom {@link HttpTransport}, the
+ * time that {@link HttpTransport#execute(HttpTransportRequest)} takes is reported as the time to
+ * the first byte, and the connect and request write phases are -1.
+ */
+public final class NetworkCallEvent {
+    /**
+     * The value of a duration or a size that couldn't be observed.
+     */
+    public static final long UNKNOWN = -1L;
+
+    @NonNull
+    private final String endpoint;
+    @NonNull
+    private final String method;
+    private final int attempt;
+    @NonNull
+    private final LineApiResponseCode responseCode;
+    private final int httpResponseCode;
+    private final long requestBytes;
+    private final long responseBytes;
+    private final long decodedResponseBytes;
+    private final long connectNanos;
+    private final long requestWriteNanos;
+    private final long timeToFirstByteNanos;
+    private final long bodyReadNanos;
+    private final long gzipDecodeNanos;
+    private final long parseNanos;
+    private final long totalNanos;
+
+    private NetworkCallEvent(@NonNull Builder builder) {
+        endpoint = builder.endpoint;
+        method = builder.method;
+        attempt = builder.attempt;
+        responseCode = builder.responseCode;
+        httpResponseCode = builder.httpResponseCode;
+        requestBytes = builder.requestBytes;
+        responseBytes = builder.responseBytes;
+        decodedResponseBytes = builder.decodedResponseBytes;
+        connectNanos = builder.connectNanos;
+        requestWriteNanos = builder.requestWriteNanos;
+        timeToFirstByteNanos = builder.timeToFirstByteNanos;
+        bodyReadNanos = builder.bodyReadNanos;
+        gzipDecodeNanos = builder.gzipDecodeNanos;
+        parseNanos = builder.parseNanos;
+        totalNanos = builder.totalNanos;
+    }
+
+    /**
+     * Gets the label of the endpoint, which is the path of the request without the leading slash,
+     * such as {@code graph/v2/friends}. Path segments that look like IDs are replaced with
+     * {@code {id}}, so that the label can be used as a metrics dimension.
+     *
+     * @return The label of the endpoint.
+     */
+    @NonNull
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    /**
+     * @return The HTTP method, such as {@code GET} or {@code POST}.
+     */
+    @NonNull
+    public String getMethod() {
+        return method;
+    }
+
+    /**
+     * @return The attempt number of the request, starting from 1. It is greater than 1 for
+     * retries.
+     */
+    public int getAttempt() {
+        return attempt;
+    }
+
+    /**
+     * @return The response code of the attempt.
+     */
+    @NonNull
+    public LineApiResponseCode getResponseCode() {
+        return responseCode;
+    }
+
+    /**
+     * @return The HTTP status code, or -1 if no response has been received.
+     */
+    public int getHttpResponseCode() {
+        return httpResponseCode;
+    }
+
+    /**
+     * @return The size of the request body in bytes.
+     */
+    public long getRequestBytes() {
+        return requestBytes;
+    }
+
+    /**
+     * @return The size of the response body as it was received, in bytes.
+     */
+    public long getResponseBytes() {
+        return responseBytes;
+    }
+
+    /**
+     * @return The size of the response body after gzip decoding, in bytes. It is the same as
+     * {@link #getResponseBytes()} if the body is not gzip-encoded.
+     */
+    public long getDecodedResponseBytes() {
+        return decodedResponseBytes;
+    }
+
+    /**
+     * @return The time to look up the host, connect to it and complete the TLS handshake.
+     */
+    public long getConnectNanos() {
+        return connectNanos;
+    }
+
+    /**
+     * @return The time to write the request body.
+     */
+    public long getRequestWriteNanos() {
+        return requestWriteNanos;
+    }
+
+    /**
+     * @return The time from the end of the request to the response headers.
+     */
+    public long getTimeToFirstByteNanos() {
+        return timeToFirstByteNanos;
+    }
+
+    /**
+     * @return The time spent reading the response body from the network.
+     */
+    public long getBodyReadNanos() {
+        return bodyReadNanos;
+    }
+
+    /**
+     * @return The time spent decoding the gzip-encoded response body, or 0 if it is not encoded.
+     */
+    public long getGzipDecodeNanos() {
+        return gzipDecodeNanos;
+    }
+
+    /**
+     * @return The time that the response parser spent, excluding the time reading and decoding
+     * the body.
+     */
+    public long getParseNanos() {
+        return parseNanos;
+    }
+
+    /**
+     * @return The time of the whole request, from connecting to the end of parsing.
+     */
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "NetworkCallEvent{" +
+               "endpoint='" + endpoint + '\'' +
+               ", method='" + method + '\'' +
+               ", attempt=" + attempt +
+               ", responseCode=" + responseCode +
+               ", httpResponseCode=" + httpResponseCode +
+               ", requestBytes=" + requestBytes +
+               ", responseBytes=" + responseBytes +
+               ", decodedResponseBytes=" + decodedResponseBytes +
+               ", connectNanos=" + connectNanos +
+               ", requestWriteNanos=" + requestWriteNanos +
+               ", timeToFirstByteNanos=" + timeToFirstByteNanos +
+               ", bodyReadNanos=" + bodyReadNanos +
+               ", gzipDecodeNanos=" + gzipDecodeNanos +
+               ", parseNanos=" + parseNanos +
+               ", totalNanos=" + totalNanos +
+               '}';
+    }
+
+    /**
+     * @hide
+     */
+    public static final class Builder {
+        @NonNull
+        private final String endpoint;
+        @NonNull
+        private final String method;
+        private final int attempt;
+        @NonNull
+        private LineApiResponseCode responseCode = LineApiResponseCode.INTERNAL_ERROR;
+        private int httpResponseCode = -1;
+        private long requestBytes;
+        private long responseBytes;
+        private long decodedResponseBytes;
+        private long connectNanos = UNKNOWN;
+        private long requestWriteNanos = UNKNOWN;
+        private long timeToFirstByteNanos = UNKNOWN;
+        private long bodyReadNanos;
+        private long gzipDecodeNanos;
+        private long parseNanos;
+        private long totalNanos;
+
+        public Builder(@NonNull String endpoint, @NonNull String method, int attempt) {
+            this.endpoint = endpoint;
+            this.method = method;
+            this.attempt = attempt;
+        }
+
+        @NonNull
+        public Builder responseCode(@NonNull LineApiResponseCode responseCode) {
+            this.responseCode = responseCode;
+            return this;
+        }
+
+        @NonNull
+        public Builder httpResponseCode(int httpResponseCode) {
+            this.httpResponseCode = httpResponseCode;
+            return this;
+        }
+
+        @NonNull
+        public Builder requestBytes(long requestBytes) {
+            this.requestBytes = requestBytes;
+            return this;
+        }
+
+        @NonNull
+        public Builder responseBytes(long responseBytes, long decodedResponseBytes) {
+            this.responseBytes = responseBytes;
+            this.decodedResponseBytes = decodedResponseBytes;
+            return this;
+        }
+
+        @NonNull
+        public Builder connectNanos(long connectNanos) {
+            this.connectNanos = connectNanos;
+            return this;
+        }
+
+        @NonNull
+        public Builder requestWriteNanos(long requestWriteNanos) {
+            this.requestWriteNanos = requestWriteNanos;
+            return this;
+        }
+
+        @NonNull
+        public Builder timeToFirstByteNanos(long timeToFirstByteNanos) {
+            this.timeToFirstByteNanos = timeToFirstByteNanos;
+            return this;
+        }
+
+        @NonNull
+        public Builder bodyReadNanos(long bodyReadNanos) {
+            this.bodyReadNanos = bodyReadNanos;
+            return this;
+        }
+
+        @NonNull
+        public Builder gzipDecodeNanos(long gzipDecodeNanos) {
+            this.gzipDecodeNanos = gzipDecodeNanos;
+            return this;
+        }
+
+        @NonNull
+        public Builder parseNanos(long parseNanos) {
+            this.parseNanos = parseNanos;
+            return this;
+        }
+
+        @NonNull
+        public Builder totalNanos(long totalNanos) {
+            this.totalNanos = totalNanos;
+            return this;
+        }
+
+        @NonNull
+        public NetworkCallEvent build() {
+            return new NetworkCallEvent(this);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.linecorp.linesdk.api;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.WorkerThread;
+
+/**
+ * Receives the timing and size of every HTTP request that the SDK sends to the LINE Platform.
+ * Set it with {@link LineApiClientBuilder#networkEventListener(NetworkEventListener)}.
+ * <p>
+ * The listener is called on the thread of the API call, after the response has been parsed, so
+ * implementations must be thread-safe and should return quickly, for example by recording the
+ * values into your metrics library.
+ */
+public interface NetworkEventListener {
+    /**
+     * Called when an HTTP request has finished, successfully or not. A retried API call reports
+     * each attempt separately.
+     *
+     * @param event The timing and size of the request.
+     */
+    @WorkerThread
+    void onCallFinished(@NonNull NetworkCallEvent event);
+}
@@ -0,0 +1,67 @@
+package com.linecorp.linesdk.api;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.linecorp.linesdk.LineApiError;
+import com.linecorp.linesdk.LineApiResponse;
+import com.linecorp.linesdk.LineApiResponseCode;
+import com.linecorp.linesdk.LineFriendProfile;
+import com.linecorp.linesdk.LineGroup;
+
+import java.util.List;
+
+/**
+ * {@link SocialGraphStore} that stores nothing. Its lists are never synced, and its syncs always
+ * fail.
+ */
+/* package */ class NoOpSocialGraphStore implements SocialGraphStore {
+    @Nullable
+    @Override
+    public List<LineFriendProfile> getFriends() {
+        return null;
+    }
+
+    @Nullable
+    @Override
+    public List<LineGroup> getGroups() {
+        return null;
+    }
+
+    @NonNull
+    @Override
+    public LineApiResponse<SyncResult> syncFriends() {
+        return syncFriends(null /* listener */);
+    }
+
+    @NonNull
+    @Override
+    public LineApiResponse<SyncResult> syncFriends(
+            @Nullable OnPageListener<LineFriendProfile> listener) {
+        return createUnavailableResponse();
+    }
+
+    @NonNull
+    @Override
+    public LineApiResponse<SyncResult> syncGroups() {
+        return syncGroups(null /* listener */);
+    }
+
+    @NonNull
+    @Override
+    public LineApiResponse<SyncResult> syncGroups(@Nullable OnPageListener<LineGroup> listener) {
+        return createUnavailableResponse();
+    }
+
+    @Override
+    public void clear() {
+        // Nothing is stored.
+    }
+
+    @NonNull
+    private static LineApiResponse<SyncResult> createUnavailableResponse() {
+        return LineApiResponse.createAsError(
+                LineApiResponseCode.INTERNAL_ERROR,
+                new LineApiError("The client has no social graph store."));
+    }
+}
@@ -0,0 +1,269 @@
+package com.linecorp.linesdk.api;
+
+import android.net.Uri;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.net.HttpURLConnection;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Retry policy for the API calls of a {@link LineApiClient}. Set it with
+ * {@link LineApiClientBuilder#retryPolicy(RetryPolicy)}.
+ * <p>
+ * A call is sent again if it fails with an {@link java.io.IOException} or with one of the HTTP
+ * status codes 408, 429, 500, 502, 503 and 504. GET and DELETE requests are retried because they
+ * are idempotent. A POST request is retried only if its path has been marked safe with
+ * {@link Builder#addSafePostPath(String)}. PUT requests are never retried.
+ * <p>
+ * Before the n-th retry, the client waits for a random time between 0 and
+ * {@code min(maxBackoffMillis, initialBackoffMillis * 2^(n-1))}, or for the time that the
+ * {@code Retry-After} header of the failed response asks for. A retry is not made if it would
+ * start after the total budget measured from the first attempt.
+ */
+public class RetryPolicy {
+    public static final int DEFAULT_MAX_ATTEMPTS = 3;
+    public static final long DEFAULT_INITIAL_BACKOFF_MILLIS = 500L;
+    public static final long DEFAULT_MAX_BACKOFF_MILLIS = 8 * 1000L;
+    public static final long DEFAULT_TOTAL_BUDGET_MILLIS = 60 * 1000L;
+
+    /**
+     * Sends every call only once.
+     */
+    @NonNull
+    public static final RetryPolicy NONE = new Builder().maxAttempts(1).build();
+
+    /**
+     * The default policy. Token revocation is marked safe because revoking a token twice has the
+     * same effect as revoking it once.
+     */
+    @NonNull
+    public static final RetryPolicy DEFAULT = new Builder()
+            .addSafePostPath("/oauth2/v2.1/revoke")
+            .build();
+
+    private static final int HTTP_TOO_MANY_REQUESTS = 429;
+    private static final String HTTP_DATE_FORMAT = "EEE, dd MMM yyyy HH:mm:ss zzz";
+
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+    private final long totalBudgetMillis;
+    @NonNull
+    private final Set<String> safePostPaths;
+
+    private RetryPolicy(@NonNull Builder builder) {
+        maxAttempts = builder.maxAttempts;
+        initialBackoffMillis = builder.initialBackoffMillis;
+        maxBackoffMillis = builder.maxBackoffMillis;
+        totalBudgetMillis = builder.totalBudgetMillis;
+        safePostPaths = Collections.unmodifiableSet(new HashSet<>(builder.safePostPaths));
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public long getInitialBackoffMillis() {
+        return initialBackoffMillis;
+    }
+
+    public long getMaxBackoffMillis() {
+        return maxBackoffMillis;
+    }
+
+    public long getTotalBudgetMillis() {
+        return totalBudgetMillis;
+    }
+
+    @NonNull
+    public Set<String> getSafePostPaths() {
+        return safePostPaths;
+    }
+
+    /**
+     * @return Whether a request with the given method to the given URI can be sent again.
+     * @hide
+     */
+    public boolean isRetryable(@NonNull String method, @NonNull Uri uri) {
+        switch (method) {
+            case "GET":
+            case "DELETE":
+                return true;
+            case "POST":
+                return uri.getPath() != null && safePostPaths.contains(uri.getPath());
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * @return Whether a response with the given HTTP status code is worth sending again.
+     * @hide
+     */
+    public static boolean isRetryableResponseCode(int httpResponseCode) {
+        switch (httpResponseCode) {
+            case HttpURLConnection.HTTP_CLIENT_TIMEOUT:
+            case HTTP_TOO_MANY_REQUESTS:
+            case HttpURLConnection.HTTP_INTERNAL_ERROR:
+            case HttpURLConnection.HTTP_BAD_GATEWAY:
+            case HttpURLConnection.HTTP_UNAVAILABLE:
+            case HttpURLConnection.HTTP_GATEWAY_TIMEOUT:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Computes how long to wait before the next attempt of a failed call.
+     *
+     * @param attemptCount     The number of attempts made so far, including the failed one.
+     * @param elapsedMillis    The time since the first attempt started.
+     * @param retryAfterMillis The wait time that the server asked for, or -1 if it didn't.
+     * @return The time to wait, or -1 if the call must not be sent again.
+     * @hide
+     */
+    public long getRetryDelayMillis(int attemptCount, long elapsedMillis, long retryAfterMillis) {
+        if (attemptCount >= maxAttempts) {
+            return -1L;
+        }
+        long delayMillis = retryAfterMillis >= 0L
+                ? retryAfterMillis
+                : ThreadLocalRandom.current().nextLong(getBackoffCeilingMillis(attemptCount) + 1);
+        return elapsedMillis + delayMillis <= totalBudgetMillis ? delayMillis : -1L;
+    }
+
+    /**
+     * @return The longest backoff before the retry that follows the given number of attempts.
+     */
+    /* package */ long getBackoffCeilingMillis(int attemptCount) {
+        int shift = Math.min(attemptCount - 1, 62);
+        // Compares before shifting to avoid an overflow.
+        return initialBackoffMillis > (maxBackoffMillis >> shift)
+                ? maxBackoffMillis
+                : initialBackoffMillis << shift;
+    }
+
+    /**
+     * Parses the value of a {@code Retry-After} header, which is either a number of seconds or an
+     * HTTP date.
+     *
+     * @return The wait time in milliseconds, or -1 if the value can't be parsed.
+     * @hide
+     */
+    public static long parseRetryAfterMillis(@Nullable String value, long currentTimeMillis) {
+        if (value == null) {
+            return -1L;
+        }
+        String trimmedValue = value.trim();
+        try {
+            long seconds = Long.parseLong(trimmedValue);
+            return seconds >= 0L ? seconds * 1000L : -1L;
+        } catch (NumberFormatException e) {
+            // Tries the date format below.
+        }
+        SimpleDateFormat dateFormat = new SimpleDateFormat(HTTP_DATE_FORMAT, Locale.US);
+        dateFormat.setTimeZone(TimeZone.getTimeZone("GMT"));
+        try {
+            Date date = dateFormat.parse(trimmedValue);
+            return Math.max(0L, date.getTime() - currentTimeMillis);
+        } catch (ParseException e) {
+            return -1L;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "RetryPolicy{" +
+               "maxAttempts=" + maxAttempts +
+               ", initialBackoffMillis=" + initialBackoffMillis +
+               ", maxBackoffMillis=" + maxBackoffMillis +
+               ", totalBudgetMillis=" + totalBudgetMillis +
+               ", safePostPaths=" + safePostPaths +
+               '}';
+    }
+
+    /**
+     * Represents a builder to construct {@link RetryPolicy} objects.
+     */
+    public static final class Builder {
+        private int maxAttempts = DEFAULT_MAX_ATTEMPTS;
+        private long initialBackoffMillis = DEFAULT_INITIAL_BACKOFF_MILLIS;
+        private long maxBackoffMillis = DEFAULT_MAX_BACKOFF_MILLIS;
+        private long totalBudgetMillis = DEFAULT_TOTAL_BUDGET_MILLIS;
+        @NonNull
+        private final Set<String> safePostPaths = new HashSet<>();
+
+        public Builder() {}
+
+        /**
+         * @param maxAttempts The maximum number of attempts of a call, including the first one.
+         * @return The builder itself.
+         */
+        @NonNull
+        public Builder maxAttempts(int maxAttempts) {
+            if (maxAttempts < 1) {
+                throw new IllegalArgumentException("maxAttempts must be positive: " + maxAttempts);
+            }
+            this.maxAttempts = maxAttempts;
+            return this;
+        }
+
+        /**
+         * @param initialBackoffMillis The longest wait before the first retry.
+         * @param maxBackoffMillis     The longest wait before any retry.
+         * @return The builder itself.
+         */
+        @NonNull
+        public Builder backoff(long initialBackoffMillis, long maxBackoffMillis) {
+            if (initialBackoffMillis < 0 || maxBackoffMillis < initialBackoffMillis) {
+                throw new IllegalArgumentException(
+                        "Illegal backoff: " + initialBackoffMillis + ", " + maxBackoffMillis);
+            }
+            this.initialBackoffMillis = initialBackoffMillis;
+            this.maxBackoffMillis = maxBackoffMillis;
+            return this;
+        }
+
+        /**
+         * @param totalBudgetMillis The time from the first attempt after which no retry starts.
+         * @return The builder itself.
+         */
+        @NonNull
+        public Builder totalBudgetMillis(long totalBudgetMillis) {
+            if (totalBudgetMillis < 0) {
+                throw new IllegalArgumentException(
+                        "totalBudgetMillis must not be negative: " + totalBudgetMillis);
+            }
+            this.totalBudgetMillis = totalBudgetMillis;
+            return this;
+        }
+
+        /**
+         * Marks POST requests to the given path, e.g. {@code "/oauth2/v2.1/revoke"}, as safe to
+         * send more than once.
+         *
+         * @return The builder itself.
+         */
+        @NonNull
+        public Builder addSafePostPath(@NonNull String path) {
+            safePostPaths.add(path);
+            return this;
+        }
+
+        @NonNull
+        public RetryPolicy build() {
+            return new RetryPolicy(this);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.linecorp.linesdk.api;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+
+import com.linecorp.linesdk.LineApiResponse;
+import com.linecorp.linesdk.LineFriendProfile;
+import com.linecorp.linesdk.LineGroup;
+
+import java.util.List;
+
+/**
+ * @hide
+ * LINE internal use only. Represents an on-device store of the friends and groups that the
+ * current user can share messages with. The store is kept separately for each user and channel.
+ * <p>
+ * The stored lists can be read without network access. A sync downloads the lists again and
+ * writes only the friends and groups that have been added, changed, or removed since the last
+ * sync. Stored lists older than the time to live are not returned.
+ */
+public interface SocialGraphStore {
+    long DEFAULT_TTL_MILLIS = 24 * 60 * 60 * 1000L;
+
+    /**
+     * The store that stores nothing, for the clients that don't have a store.
+     */
+    SocialGraphStore NONE = new NoOpSocialGraphStore();
+
+    /**
+     * Gets the stored friends of the current user.
+     *
+     * @return The friends in the order of the last sync, or {@code null} if they haven't been
+     * synced yet or the last sync is older than the time to live.
+     */
+    @WorkerThread
+    @Nullable
+    List<LineFriendProfile> getFriends();
+
+    /**
+     * Gets the stored groups of the current user.
+     *
+     * @return The groups in the order of the last sync, or {@code null} if they haven't been
+     * synced yet or the last sync is older than the time to live.
+     */
+    @WorkerThread
+    @Nullable
+    List<LineGroup> getGroups();
+
+    /**
+     * Downloads the friends of the current user and applies the differences to the store.
+     *
+     * @return A {@link LineApiResponse} object. If the sync is successful, it contains a
+     * {@link SyncResult} object. If it fails, the store is left unchanged.
+     */
+    @WorkerThread
+    @NonNull
+    LineApiResponse<SyncResult> syncFriends();
+
+    /**
+     * Same as {@link #syncFriends()}, but also passes each downloaded page to the given listener.
+     */
+    @WorkerThread
+    @NonNull
+    LineApiResponse<SyncResult> syncFriends(@Nullable OnPageListener<LineFriendProfile> listener);
+
+    /**
+     * Downloads the groups of the current user and applies the differences to the store.
+     *
+     * @return A {@link LineApiResponse} object. If the sync is successful, it contains a
+     * {@link SyncResult} object. If it fails, the store is left unchanged.
+     */
+    @WorkerThread
+    @NonNull
+    LineApiResponse<SyncResult> syncGroups();
+
+    /**
+     * Same as {@link #syncGroups()}, but also passes each downloaded page to the given listener.
+     */
+    @WorkerThread
+    @NonNull
+    LineApiResponse<SyncResult> syncGroups(@Nullable OnPageListener<LineGroup> listener);
+
+    /**
+     * Deletes the stored friends and groups of all the users of the channel.
+     */
+    @WorkerThread
+    void clear();
+
+    /**
+     * Receives the pages downloaded by a sync.
+     */
+    interface OnPageListener<T> {
+        @WorkerThread
+        void onPage(@NonNull List<T> page);
+    }
+
+    /**
+     * Represents the differences that a sync applied to the store.
+     */
+    class SyncResult {
+        private final int addedCount;
+        private final int changedCount;
+        private final int removedCount;
+
+        public SyncResult(int addedCount, int changedCount, int removedCount) {
+            this.addedCount = addedCount;
+            this.changedCount = changedCount;
+            this.removedCount = removedCount;
+        }
+
+        public int getAddedCount() {
+            return addedCount;
+        }
+
+        /**
+         * @return The number of entries whose profile or position in the list has changed.
+         */
+        public int getChangedCount() {
+            return changedCount;
+        }
+
+        public int getRemovedCount() {
+            return removedCount;
+        }
+
+        public boolean hasChanges() {
+            return addedCount > 0 || changedCount > 0 || removedCount > 0;
+        }
+
+        @Override
+        public String toString() {
+            return "SyncResult{" +
+                   "addedCount=" + addedCount +
+                   ", changedCount=" + changedCount +
+                   ", removedCount=" + removedCount +
+                   '}';
+        }
+    }
+}
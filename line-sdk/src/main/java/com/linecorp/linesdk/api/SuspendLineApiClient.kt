@@ -0,0 +1,238 @@
+package com.linecorp.linesdk.api
+
+import com.linecorp.linesdk.FriendSortField
+import com.linecorp.linesdk.GetFriendsResponse
+import com.linecorp.linesdk.GetGroupsResponse
+import com.linecorp.linesdk.LineAccessToken
+import com.linecorp.linesdk.LineApiResponse
+import com.linecorp.linesdk.LineCredential
+import com.linecorp.linesdk.LineFriendshipStatus
+import com.linecorp.linesdk.LineProfile
+import com.linecorp.linesdk.LineSdkExecutors
+import com.linecorp.linesdk.SendMessageResponse
+import com.linecorp.linesdk.api.internal.AsyncLineApiClientImpl
+import com.linecorp.linesdk.message.MessageData
+import com.linecorp.linesdk.openchat.MembershipStatus
+import com.linecorp.linesdk.openchat.OpenChatParameters
+import com.linecorp.linesdk.openchat.OpenChatRoomInfo
+import com.linecorp.linesdk.openchat.OpenChatRoomJoinType
+import com.linecorp.linesdk.openchat.OpenChatRoomStatus
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.flow
+import kotlinx.coroutines.suspendCancellableCoroutine
+import kotlin.coroutines.resume
+
+/**
+ * An API client that provides the same operations as [LineApiClient] as suspending functions.
+ * The calls run on the SDK's I/O executor, so they can be made from any dispatcher, including
+ * the main one.
+ *
+ * Cancelling the calling coroutine aborts the API call by disconnecting its HTTP connection.
+ */
+class SuspendLineApiClient(private val asyncLineApiClient: AsyncLineApiClient) {
+
+    constructor(lineApiClient: LineApiClient) :
+        this(AsyncLineApiClientImpl(lineApiClient, LineSdkExecutors.getIoExecutor()))
+
+    /**
+     * The blocking API client that this client makes its calls with.
+     */
+    val lineApiClient: LineApiClient get() = asyncLineApiClient.lineApiClient
+
+    /** @see LineApiClient.logout */
+    suspend fun logout(): LineApiResponse<*> = asyncLineApiClient.logout().await()
+
+    /** @see LineApiClient.refreshAccessToken */
+    suspend fun refreshAccessToken(): LineApiResponse<LineAccessToken> =
+        asyncLineApiClient.refreshAccessToken().await()
+
+    /** @see LineApiClient.verifyToken */
+    suspend fun verifyToken(): LineApiResponse<LineCredential> =
+        asyncLineApiClient.verifyToken().await()
+
+    /** @see LineApiClient.getCurrentAccessToken */
+    suspend fun getCurrentAccessToken(): LineApiResponse<LineAccessToken> =
+        asyncLineApiClient.currentAccessToken.await()
+
+    /** @see LineApiClient.getProfile */
+    suspend fun getProfile(): LineApiResponse<LineProfile> = asyncLineApiClient.profile.await()
+
+    /** @see LineApiClient.getFriendshipStatus */
+    suspend fun getFriendshipStatus(): LineApiResponse<LineFriendshipStatus> =
+        asyncLineApiClient.friendshipStatus.await()
+
+    /**
+     * @hide
+     * @see LineApiClient.getFriends
+     */
+    suspend fun getFriends(
+        sortField: FriendSortField,
+        nextPageRequestToken: String?,
+        isForOttShareMessage: Boolean = false
+    ): LineApiResponse<GetFriendsResponse> =
+        asyncLineApiClient.getFriends(sortField, nextPageRequestToken, isForOttShareMessage).await()
+
+    /**
+     * @hide
+     * @see LineApiClient.getFriendsApprovers
+     */
+    suspend fun getFriendsApprovers(
+        sortField: FriendSortField,
+        nextPageRequestToken: String?
+    ): LineApiResponse<GetFriendsResponse> =
+        asyncLineApiClient.getFriendsApprovers(sortField, nextPageRequestToken).await()
+
+    /**
+     * @hide
+     * @see LineApiClient.getGroups
+     */
+    suspend fun getGroups(
+        nextPageRequestToken: String?,
+        isForOttShareMessage: Boolean = false
+    ): LineApiResponse<GetGroupsResponse> =
+        asyncLineApiClient.getGroups(nextPageRequestToken, isForOttShareMessage).await()
+
+    /**
+     * @hide
+     * @see LineApiClient.getGroupApprovers
+     */
+    suspend fun getGroupApprovers(
+        groupId: String,
+        nextPageRequestToken: String?
+    ): LineApiResponse<GetFriendsResponse> =
+        asyncLineApiClient.getGroupApprovers(groupId, nextPageRequestToken).await()
+
+    /**
+     * @hide
+     * @see LineApiClient.sendMessage
+     */
+    suspend fun sendMessage(
+        targetUserId: String,
+        messages: List<MessageData>
+    ): LineApiResponse<String> = asyncLineApiClient.sendMessage(targetUserId, messages).await()
+
+    /**
+     * @hide
+     * @see LineApiClient.sendMessageToMultipleUsers
+     */
+    suspend fun sendMessageToMultipleUsers(
+        targetUserIds: List<String>,
+        messages: List<MessageData>,
+        isOttUsed: Boolean = false
+    ): LineApiResponse<List<SendMessageResponse>> =
+        asyncLineApiClient.sendMessageToMultipleUsers(targetUserIds, messages, isOttUsed).await()
+
+    /** @hide */
+    suspend fun getOpenChatAgreementStatus(): LineApiResponse<Boolean> =
+        asyncLineApiClient.openChatAgreementStatus.await()
+
+    /** @hide */
+    suspend fun createOpenChatRoom(
+        openChatParameters: OpenChatParameters
+    ): LineApiResponse<OpenChatRoomInfo> =
+        asyncLineApiClient.createOpenChatRoom(openChatParameters).await()
+
+    /** @hide */
+    suspend fun joinOpenChatRoom(roomId: String, displayName: String): LineApiResponse<Boolean> =
+        asyncLineApiClient.joinOpenChatRoom(roomId, displayName).await()
+
+    /** @hide */
+    suspend fun getOpenChatRoomStatus(roomId: String): LineApiResponse<OpenChatRoomStatus> =
+        asyncLineApiClient.getOpenChatRoomStatus(roomId).await()
+
+    /** @hide */
+    suspend fun getOpenChatRoomJoinType(roomId: String): LineApiResponse<OpenChatRoomJoinType> =
+        asyncLineApiClient.getOpenChatRoomJoinType(roomId).await()
+
+    /** @hide */
+    suspend fun getOpenChatMembershipStatus(roomId: String): LineApiResponse<MembershipStatus> =
+        asyncLineApiClient.getOpenChatMembershipStatus(roomId).await()
+
+    // Paginated streams
+
+    /**
+     * @hide
+     * Emits every page of [getFriends]. The next page is requested as soon as the current page
+     * arrives, so that it is usually ready by the time the collector has handled the current one.
+     * A failed response is emitted as the last element.
+     */
+    fun getFriendsPages(
+        sortField: FriendSortField,
+        isForOttShareMessage: Boolean = false
+    ): Flow<LineApiResponse<GetFriendsResponse>> =
+        paginate(GetFriendsResponse::getNextPageRequestToken) { nextPageRequestToken ->
+            asyncLineApiClient.getFriends(sortField, nextPageRequestToken, isForOttShareMessage)
+        }
+
+    /**
+     * @hide
+     * Emits every page of [getFriendsApprovers], prefetching the next page.
+     * A failed response is emitted as the last element.
+     */
+    fun getFriendsApproversPages(
+        sortField: FriendSortField
+    ): Flow<LineApiResponse<GetFriendsResponse>> =
+        paginate(GetFriendsResponse::getNextPageRequestToken) { nextPageRequestToken ->
+            asyncLineApiClient.getFriendsApprovers(sortField, nextPageRequestToken)
+        }
+
+    /**
+     * @hide
+     * Emits every page of [getGroups], prefetching the next page.
+     * A failed response is emitted as the last element.
+     */
+    fun getGroupsPages(
+        isForOttShareMessage: Boolean = false
+    ): Flow<LineApiResponse<GetGroupsResponse>> =
+        paginate(GetGroupsResponse::getNextPageRequestToken) { nextPageRequestToken ->
+            asyncLineApiClient.getGroups(nextPageRequestToken, isForOttShareMessage)
+        }
+
+    /**
+     * @hide
+     * Emits every page of [getGroupApprovers], prefetching the next page.
+     * A failed response is emitted as the last element.
+     */
+    fun getGroupApproversPages(groupId: String): Flow<LineApiResponse<GetFriendsResponse>> =
+        paginate(GetFriendsResponse::getNextPageRequestToken) { nextPageRequestToken ->
+            asyncLineApiClient.getGroupApprovers(groupId, nextPageRequestToken)
+        }
+
+    private fun <T> paginate(
+        getNextPageRequestToken: (T) -> String?,
+        requestPage: (String?) -> LineApiFuture<T>
+    ): Flow<LineApiResponse<T>> = flow {
+        var pendingPage: LineApiFuture<T>? = requestPage(null)
+        try {
+            while (pendingPage != null) {
+                val response = pendingPage.await()
+                val nextPageRequestToken =
+                    if (response.isSuccess) getNextPageRequestToken(response.responseData) else null
+                pendingPage =
+                    if (nextPageRequestToken.isNullOrEmpty()) null else requestPage(nextPageRequestToken)
+                emit(response)
+            }
+        } finally {
+            // The collector stopped early. Abort the prefetch.
+            pendingPage?.cancel(true)
+        }
+    }
+}
+
+/**
+ * Creates a [SuspendLineApiClient] instance with the same settings as
+ * [LineApiClientBuilder.build].
+ */
+fun LineApiClientBuilder.buildSuspend(): SuspendLineApiClient = SuspendLineApiClient(buildAsync())
+
+private suspend fun <R> LineApiFuture<R>.await(): LineApiResponse<R> =
+    suspendCancellableCoroutine { continuation ->
+        whenComplete { response, throwable ->
+            if (response != null) {
+                continuation.resume(response)
+            } else {
+                continuation.cancel(throwable)
+            }
+        }
+        continuation.invokeOnCancellation { cancel(true) }
+    }
@@ -0,0 +1,61 @@
+package com.linecorp.linesdk.api;
+
+/**
+ * The timeouts of the API calls to an endpoint. Set it with
+ * {@link LineApiClientBuilder#timeoutProfile(String, TimeoutProfile)}.
+ * <p>
+ * The connect and read timeouts bound each blocking operation of a single HTTP call, while the
+ * deadline bounds the whole API call, including connecting, writing the request, reading and
+ * parsing the response, retries and token refreshes.
+ */
+public class TimeoutProfile {
+    /**
+     * The deadline value for no deadline.
+     */
+    public static final long NO_DEADLINE = 0L;
+
+    private final int connectTimeoutMillis;
+    private final int readTimeoutMillis;
+    private final long deadlineMillis;
+
+    public TimeoutProfile(int connectTimeoutMillis, int readTimeoutMillis) {
+        this(connectTimeoutMillis, readTimeoutMillis, NO_DEADLINE);
+    }
+
+    /**
+     * @param connectTimeoutMillis The timeout to connect to the server.
+     * @param readTimeoutMillis    The timeout of each read from the server.
+     * @param deadlineMillis       The time within which the whole API call must finish, or
+     *                             {@link #NO_DEADLINE}.
+     */
+    public TimeoutProfile(int connectTimeoutMillis, int readTimeoutMillis, long deadlineMillis) {
+        if (connectTimeoutMillis < 0 || readTimeoutMillis < 0 || deadlineMillis < 0) {
+            throw new IllegalArgumentException("Timeouts must not be negative: "
+                    + connectTimeoutMillis + ", " + readTimeoutMillis + ", " + deadlineMillis);
+        }
+        this.connectTimeoutMillis = connectTimeoutMillis;
+        this.readTimeoutMillis = readTimeoutMillis;
+        this.deadlineMillis = deadlineMillis;
+    }
+
+    public int getConnectTimeoutMillis() {
+        return connectTimeoutMillis;
+    }
+
+    public int getReadTimeoutMillis() {
+        return readTimeoutMillis;
+    }
+
+    public long getDeadlineMillis() {
+        return deadlineMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "TimeoutProfile{" +
+               "connectTimeoutMillis=" + connectTimeoutMillis +
+               ", readTimeoutMillis=" + readTimeoutMillis +
+               ", deadlineMillis=" + deadlineMillis +
+               '}';
+    }
+}
@@ -0,0 +1,230 @@
+package com.linecorp.linesdk.api.internal;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.linecorp.linesdk.FriendSortField;
+import com.linecorp.linesdk.GetFriendsResponse;
+import com.linecorp.linesdk.GetGroupsResponse;
+import com.linecorp.linesdk.LineAccessToken;
+import com.linecorp.linesdk.LineApiResponse;
+import com.linecorp.linesdk.LineCredential;
+import com.linecorp.linesdk.LineFriendshipStatus;
+import com.linecorp.linesdk.LineProfile;
+import com.linecorp.linesdk.SendMessageResponse;
+import com.linecorp.linesdk.api.AsyncLineApiClient;
+import com.linecorp.linesdk.api.LineApiClient;
+import com.linecorp.linesdk.api.LineApiFuture;
+import com.linecorp.linesdk.internal.nwclient.core.CallDeadline;
+import com.linecorp.linesdk.message.MessageData;
+import com.linecorp.linesdk.openchat.MembershipStatus;
+import com.linecorp.linesdk.openchat.OpenChatParameters;
+import com.linecorp.linesdk.openchat.OpenChatRoomInfo;
+import com.linecorp.linesdk.openchat.OpenChatRoomJoinType;
+import com.linecorp.linesdk.openchat.OpenChatRoomStatus;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * Implementation of {@link AsyncLineApiClient} that runs the calls of a {@link LineApiClient} on
+ * an executor.
+ */
+public class AsyncLineApiClientImpl implements AsyncLineApiClient {
+    @NonNull
+    private final LineApiClient lineApiClient;
+    @NonNull
+    private final Executor executor;
+    private final long callTimeoutMillis;
+
+    public AsyncLineApiClientImpl(@NonNull LineApiClient lineApiClient, @NonNull Executor executor) {
+        this(lineApiClient, executor, 0L /* callTimeoutMillis */);
+    }
+
+    /**
+     * @param callTimeoutMillis The time within which each call must finish, or 0 for no limit.
+     */
+    public AsyncLineApiClientImpl(
+            @NonNull LineApiClient lineApiClient,
+            @NonNull Executor executor,
+            long callTimeoutMillis) {
+        if (callTimeoutMillis < 0) {
+            throw new IllegalArgumentException(
+                    "callTimeoutMillis must not be negative: " + callTimeoutMillis);
+        }
+        this.lineApiClient = lineApiClient;
+        this.executor = executor;
+        this.callTimeoutMillis = callTimeoutMillis;
+    }
+
+    @NonNull
+    private <R> LineApiFuture<R> submit(@NonNull Supplier<LineApiResponse<R>> apiCall) {
+        Supplier<LineApiResponse<R>> boundedCall = callTimeoutMillis > 0L
+                ? () -> CallDeadline.runWithin(callTimeoutMillis, apiCall)
+                : apiCall;
+        return new LineApiFuture<>(boundedCall).executeOn(executor);
+    }
+
+    @NonNull
+    @Override
+    public LineApiClient getLineApiClient() {
+        return lineApiClient;
+    }
+
+    @NonNull
+    @Override
+    public AsyncLineApiClient withCallTimeout(long timeoutMillis) {
+        return new AsyncLineApiClientImpl(lineApiClient, executor, timeoutMillis);
+    }
+
+    @SuppressWarnings("unchecked")
+    @NonNull
+    @Override
+    public LineApiFuture<?> logout() {
+        return submit(() -> (LineApiResponse<Object>) lineApiClient.logout());
+    }
+
+    @NonNull
+    @Override
+    public LineApiFuture<LineAccessToken> refreshAccessToken() {
+        return submit(lineApiClient::refreshAccessToken);
+    }
+
+    @NonNull
+    @Override
+    public LineApiFuture<LineCredential> verifyToken() {
+        return submit(lineApiClient::verifyToken);
+    }
+
+    @NonNull
+    @Override
+    public LineApiFuture<LineAccessToken> getCurrentAccessToken() {
+        return submit(lineApiClient::getCurrentAccessToken);
+    }
+
+    @NonNull
+    @Override
+    public LineApiFuture<LineProfile> getProfile() {
+        return submit(lineApiClient::getProfile);
+    }
+
+    @NonNull
+    @Override
+    public LineApiFuture<LineFriendshipStatus> getFriendshipStatus() {
+        return submit(lineApiClient::getFriendshipStatus);
+    }
+
+    @NonNull
+    @Override
+    public LineApiFuture<GetFriendsResponse> getFriends(
+            @NonNull FriendSortField sortField,
+            @Nullable String nextPageRequestToken) {
+        return submit(() -> lineApiClient.getFriends(sortField, nextPageRequestToken));
+    }
+
+    @NonNull
+    @Override
+    public LineApiFuture<GetFriendsResponse> getFriends(
+            @NonNull FriendSortField sortField,
+            @Nullable String nextPageRequestToken,
+            boolean isForOttShareMessage) {
+        return submit(() -> lineApiClient.getFriends(
+                sortField, nextPageRequestToken, isForOttShareMessage));
+    }
+
+    @NonNull
+    @Override
+    public LineApiFuture<GetFriendsResponse> getFriendsApprovers(
+            @NonNull FriendSortField sortField,
+            @Nullable String nextPageRequestToken) {
+        return submit(() -> lineApiClient.getFriendsApprovers(sortField, nextPageRequestToken));
+    }
+
+    @NonNull
+    @Override
+    public LineApiFuture<GetGroupsResponse> getGroups(@Nullable String nextPageRequestToken) {
+        return submit(() -> lineApiClient.getGroups(nextPageRequestToken));
+    }
+
+    @NonNull
+    @Override
+    public LineApiFuture<GetGroupsResponse> getGroups(
+            @Nullable String nextPageRequestToken,
+            boolean isForOttShareMessage) {
+        return submit(() -> lineApiClient.getGroups(nextPageRequestToken, isForOttShareMessage));
+    }
+
+    @NonNull
+    @Override
+    public LineApiFuture<GetFriendsResponse> getGroupApprovers(
+            @NonNull String groupId,
+            @Nullable String nextPageRequestToken) {
+        return submit(() -> lineApiClient.getGroupApprovers(groupId, nextPageRequestToken));
+    }
+
+    @NonNull
+    @Override
+    public LineApiFuture<String> sendMessage(
+            @NonNull String targetUserId,
+            @NonNull List<MessageData> messages) {
+        return submit(() -> lineApiClient.sendMessage(targetUserId, messages));
+    }
+
+    @NonNull
+    @Override
+    public LineApiFuture<List<SendMessageResponse>> sendMessageToMultipleUsers(
+            @NonNull List<String> targetUserIds,
+            @NonNull List<MessageData> messages) {
+        return submit(() -> lineApiClient.sendMessageToMultipleUsers(targetUserIds, messages));
+    }
+
+    @NonNull
+    @Override
+    public LineApiFuture<List<SendMessageResponse>> sendMessageToMultipleUsers(
+            @NonNull List<String> targetUserIds,
+            @NonNull List<MessageData> messages,
+            boolean isOttUsed) {
+        return submit(() -> lineApiClient.sendMessageToMultipleUsers(
+                targetUserIds, messages, isOttUsed));
+    }
+
+    @NonNull
+    @Override
+    public LineApiFuture<Boolean> getOpenChatAgreementStatus() {
+        return submit(lineApiClient::getOpenChatAgreementStatus);
+    }
+
+    @NonNull
+    @Override
+    public LineApiFuture<OpenChatRoomInfo> createOpenChatRoom(
+            @NonNull OpenChatParameters openChatParameters) {
+        return submit(() -> lineApiClient.createOpenChatRoom(openChatParameters));
+    }
+
+    @NonNull
+    @Override
+    public LineApiFuture<Boolean> joinOpenChatRoom(
+            @NonNull String roomId,
+            @NonNull String displayName) {
+        return submit(() -> lineApiClient.joinOpenChatRoom(roomId, displayName));
+    }
+
+    @NonNull
+    @Override
+    public LineApiFuture<OpenChatRoomStatus> getOpenChatRoomStatus(@NonNull String roomId) {
+        return submit(() -> lineApiClient.getOpenChatRoomStatus(roomId));
+    }
+
+    @NonNull
+    @Override
+    public LineApiFuture<OpenChatRoomJoinType> getOpenChatRoomJoinType(@NonNull String roomId) {
+        return submit(() -> lineApiClient.getOpenChatRoomJoinType(roomId));
+    }
+
+    @NonNull
+    @Override
+    public LineApiFuture<MembershipStatus> getOpenChatMembershipStatus(@NonNull String roomId) {
+        return submit(() -> lineApiClient.getOpenChatMembershipStatus(roomId));
+    }
+}
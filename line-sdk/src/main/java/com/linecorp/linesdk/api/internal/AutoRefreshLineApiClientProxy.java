@@ -1,10 +1,16 @@
 package com.linecorp.linesdk.api.internal;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 
 import com.linecorp.linesdk.LineAccessToken;
+import com.linecorp.linesdk.LineApiError;
 import com.linecorp.linesdk.LineApiResponse;
+import com.linecorp.linesdk.LineApiResponseCode;
+import com.linecorp.linesdk.LineSdkExecutors;
 import com.linecorp.linesdk.api.LineApiClient;
+import com.linecorp.linesdk.internal.nwclient.core.CallCancellation;
+import com.linecorp.linesdk.internal.nwclient.core.CallDeadline;
 
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.InvocationTargetException;
@@ -13,6 +19,10 @@ import java.lang.reflect.Proxy;
 import java.net.HttpURLConnection;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Factory to create {@link LineApiClient} with token auto refresh feature.
@@ -20,6 +30,11 @@ import java.util.concurrent.ConcurrentHashMap;
  *  - The instance of {@link LineApiClient} is created by {@link #newProxy(LineApiClient)}.
  *  - The method is annotated with {@link TokenAutoRefresh}.
  *  - The method returns authentication error that is HTTP response code of 401(UNAUTHORIZED).
+ * Concurrent refreshes are merged into one in-flight refresh, whose result is shared by all the
+ * waiting calls, including explicit {@link LineApiClient#refreshAccessToken()} calls. A call that
+ * fails after another refresh has completed is just retried. The shared refresh runs on the auth
+ * executor, so the deadline and the cancellation of the call that started it don't apply to it.
+ * Each call waits for it only within its own deadline.
  */
 public class AutoRefreshLineApiClientProxy {
     private AutoRefreshLineApiClientProxy() {
@@ -34,19 +49,65 @@ public class AutoRefreshLineApiClientProxy {
                 new TokenAutoRefreshInvocationHandler(target));
     }
 
+    /**
+     * @return The token refresh counters of the given client if it was created by
+     * {@link #newProxy(LineApiClient)}. Otherwise, {@code null}.
+     */
+    @Nullable
+    public static TokenRefreshMetrics getTokenRefreshMetrics(@NonNull LineApiClient lineApiClient) {
+        if (!Proxy.isProxyClass(lineApiClient.getClass())) {
+            return null;
+        }
+        InvocationHandler handler = Proxy.getInvocationHandler(lineApiClient);
+        return handler instanceof TokenAutoRefreshInvocationHandler
+                ? ((TokenAutoRefreshInvocationHandler) handler).metrics
+                : null;
+    }
+
     private static class TokenAutoRefreshInvocationHandler implements InvocationHandler {
+        private static final long ANY_GENERATION = -1L;
+
         @NonNull
         private final LineApiClient target;
         @NonNull
         private final Map<Method, Boolean> autoRefreshStateCache;
+        @NonNull
+        private final TokenRefreshMetrics metrics;
+
+        @NonNull
+        private final Object refreshLock = new Object();
+        // The refresh currently in flight. Guarded by refreshLock.
+        @Nullable
+        private FutureTask<LineApiResponse<LineAccessToken>> inFlightRefresh;
+        // Incremented on every successful refresh. Guarded by refreshLock.
+        private long refreshGeneration;
 
         private TokenAutoRefreshInvocationHandler(@NonNull LineApiClient target) {
             this.target = target;
             autoRefreshStateCache = new ConcurrentHashMap<>(0);
+            metrics = new TokenRefreshMetrics();
         }
 
         @Override
         public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            // The wait for the refresh and the second call share the deadline of the first call.
+            try (CallDeadline.Scope scope = CallDeadline.openScope()) {
+                return invokeInScope(method, args);
+            }
+        }
+
+        @Nullable
+        private Object invokeInScope(@NonNull Method method, Object[] args) throws Throwable {
+            if (isRefreshAccessTokenMethod(method)) {
+                // Explicit refreshes share the in-flight refresh as well.
+                return refreshAccessToken(ANY_GENERATION);
+            }
+
+            long generation;
+            synchronized (refreshLock) {
+                generation = refreshGeneration;
+            }
+
             Object result;
             try {
                 result = method.invoke(target, args);
@@ -58,7 +119,7 @@ public class AutoRefreshLineApiClientProxy {
                 return result;
             }
 
-            LineApiResponse<LineAccessToken> refreshTokenResponse = target.refreshAccessToken();
+            LineApiResponse<LineAccessToken> refreshTokenResponse = refreshAccessToken(generation);
             if (!refreshTokenResponse.isSuccess()) {
                 return refreshTokenResponse.isNetworkError() ? refreshTokenResponse : result;
             }
@@ -70,6 +131,78 @@ public class AutoRefreshLineApiClientProxy {
             }
         }
 
+        /**
+         * Refreshes the access token unless another refresh has completed since the given
+         * generation. If a refresh is already in flight, waits for it and returns its result.
+         * {@link #ANY_GENERATION} always refreshes or joins the in-flight refresh.
+         */
+        @NonNull
+        private LineApiResponse<LineAccessToken> refreshAccessToken(long generation)
+                throws Throwable {
+            FutureTask<LineApiResponse<LineAccessToken>> refreshTask;
+            boolean isOwner = false;
+            synchronized (refreshLock) {
+                if (generation != ANY_GENERATION && refreshGeneration != generation) {
+                    // The token has been refreshed after the failed call was started.
+                    metrics.onMergedRefresh();
+                    return LineApiResponse.createAsSuccess(null);
+                }
+                if (inFlightRefresh == null) {
+                    inFlightRefresh = new FutureTask<>(this::runSharedRefresh);
+                    isOwner = true;
+                }
+                refreshTask = inFlightRefresh;
+            }
+
+            if (isOwner) {
+                metrics.onRefresh();
+                LineSdkExecutors.getAuthExecutor().execute(refreshTask);
+            } else {
+                metrics.onMergedRefresh();
+            }
+
+            try {
+                long remainingMillis = CallDeadline.getRemainingMillis();
+                return remainingMillis == CallDeadline.NO_DEADLINE
+                        ? refreshTask.get()
+                        : refreshTask.get(remainingMillis, TimeUnit.MILLISECONDS);
+            } catch (ExecutionException e) {
+                throw e.getCause();
+            } catch (TimeoutException e) {
+                // The refresh of another call is still running, but this call is out of time.
+                return LineApiResponse.createAsError(
+                        LineApiResponseCode.NETWORK_ERROR,
+                        new LineApiError("The deadline of the API call has passed."));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return LineApiResponse.createAsError(
+                        LineApiResponseCode.INTERNAL_ERROR, new LineApiError(e));
+            }
+        }
+
+        @NonNull
+        private LineApiResponse<LineAccessToken> runSharedRefresh() {
+            LineApiResponse<LineAccessToken> response = null;
+            try {
+                // The executor may run the task on the calling thread.
+                response = CallDeadline.runOutsideScope(() -> CallCancellation.runWith(
+                        null /* cancellationSignal */, target::refreshAccessToken));
+                return response;
+            } finally {
+                synchronized (refreshLock) {
+                    inFlightRefresh = null;
+                    if (response != null && response.isSuccess()) {
+                        refreshGeneration++;
+                    }
+                }
+            }
+        }
+
+        private static boolean isRefreshAccessTokenMethod(@NonNull Method method) {
+            return method.getName().equals("refreshAccessToken")
+                   && method.getParameterTypes().length == 0;
+        }
+
         private static boolean shouldRefreshToken(@NonNull Object result) {
             if (!(result instanceof LineApiResponse)) {
                 return false;
@@ -17,12 +17,14 @@ import com.linecorp.linesdk.LineFriendshipStatus;
 import com.linecorp.linesdk.LineProfile;
 import com.linecorp.linesdk.SendMessageResponse;
 import com.linecorp.linesdk.api.LineApiClient;
+import com.linecorp.linesdk.api.SocialGraphStore;
 import com.linecorp.linesdk.internal.AccessTokenCache;
 import com.linecorp.linesdk.internal.AccessTokenVerificationResult;
 import com.linecorp.linesdk.internal.InternalAccessToken;
 import com.linecorp.linesdk.internal.RefreshTokenResult;
 import com.linecorp.linesdk.internal.nwclient.LineAuthenticationApiClient;
 import com.linecorp.linesdk.internal.nwclient.TalkApiClient;
+import com.linecorp.linesdk.internal.nwclient.core.CallDeadline;
 import com.linecorp.linesdk.message.MessageData;
 import com.linecorp.linesdk.openchat.MembershipStatus;
 import com.linecorp.linesdk.openchat.OpenChatParameters;
@@ -49,6 +51,8 @@ public class LineApiClientImpl implements LineApiClient {
     private final TalkApiClient talkApiClient;
     @NonNull
     private final AccessTokenCache accessTokenCache;
+    @NonNull
+    private volatile SocialGraphStore socialGraphStore = SocialGraphStore.NONE;
 
     public LineApiClientImpl(
             @NonNull String channelId,
@@ -76,7 +80,9 @@ public class LineApiClientImpl implements LineApiClient {
 
         if (accessToken == null) {
             return ERROR_RESPONSE_NO_TOKEN;
-        } else {
+        }
+        // All the HTTP calls of this API call share the deadline of the first one.
+        try (CallDeadline.Scope scope = CallDeadline.openScope()) {
             return api.call(accessToken);
         }
     }
@@ -90,6 +96,7 @@ public class LineApiClientImpl implements LineApiClient {
     @NonNull
     private LineApiResponse<?> logout(@NonNull final InternalAccessToken accessToken) {
         accessTokenCache.clear();
+        socialGraphStore.clear();
         LineApiResponse<?> response = oauthApiClient.revokeRefreshToken(channelId, accessToken);
 
         return response;
@@ -113,8 +120,10 @@ public class LineApiClientImpl implements LineApiClient {
                     LineApiResponseCode.INTERNAL_ERROR,
                     new LineApiError("access token or refresh token is not found."));
         }
-        LineApiResponse<RefreshTokenResult> response =
-                oauthApiClient.refreshToken(channelId, accessToken);
+        LineApiResponse<RefreshTokenResult> response;
+        try (CallDeadline.Scope scope = CallDeadline.openScope()) {
+            response = oauthApiClient.refreshToken(channelId, accessToken);
+        }
         if (!response.isSuccess()) {
             return LineApiResponse.createAsError(
                     response.getResponseCode(), response.getErrorData());
@@ -341,6 +350,21 @@ public class LineApiClientImpl implements LineApiClient {
         return callWithAccessToken(accessToken -> talkApiClient.getOpenChatRoomJoinType(accessToken, roomId));
     }
 
+    @Override
+    @NonNull
+    public SocialGraphStore getSocialGraphStore() {
+        return socialGraphStore;
+    }
+
+    /**
+     * Sets the store returned by {@link #getSocialGraphStore()}. It is set after construction
+     * because the store calls the APIs through the client that wraps this one. Until then,
+     * {@link SocialGraphStore#NONE} is returned.
+     */
+    public void setSocialGraphStore(@NonNull SocialGraphStore socialGraphStore) {
+        this.socialGraphStore = socialGraphStore;
+    }
+
     @FunctionalInterface
     private interface APIWithAccessToken<T> {
         LineApiResponse<T> call(InternalAccessToken accessToken);
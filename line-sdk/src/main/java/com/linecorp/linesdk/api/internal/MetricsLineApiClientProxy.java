@@ -0,0 +1,71 @@
+package com.linecorp.linesdk.api.internal;
+
+import androidx.annotation.NonNull;
+
+import com.linecorp.linesdk.LineApiResponse;
+import com.linecorp.linesdk.api.LineApiClient;
+import com.linecorp.linesdk.api.LineApiMetrics;
+import com.linecorp.linesdk.internal.nwclient.core.CallByteCounter;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+/**
+ * Factory to create {@link LineApiClient} that records the latency and size of every API call
+ * into a {@link LineApiMetrics}. Only the methods that return {@link LineApiResponse} are
+ * recorded. A method that throws an exception is not recorded.
+ */
+public class MetricsLineApiClientProxy {
+    private MetricsLineApiClientProxy() {
+        // To prevent instantiation
+    }
+
+    @NonNull
+    public static LineApiClient newProxy(
+            @NonNull LineApiClient target, @NonNull LineApiMetrics metrics) {
+        return (LineApiClient) Proxy.newProxyInstance(
+                target.getClass().getClassLoader(),
+                new Class[]{LineApiClient.class},
+                new MetricsInvocationHandler(target, metrics));
+    }
+
+    private static class MetricsInvocationHandler implements InvocationHandler {
+        @NonNull
+        private final LineApiClient target;
+        @NonNull
+        private final LineApiMetrics metrics;
+
+        private MetricsInvocationHandler(
+                @NonNull LineApiClient target, @NonNull LineApiMetrics metrics) {
+            this.target = target;
+            this.metrics = metrics;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getReturnType() != LineApiResponse.class) {
+                return invokeTarget(method, args);
+            }
+            long startNanos = System.nanoTime();
+            try (CallByteCounter byteCounter = CallByteCounter.open()) {
+                LineApiResponse<?> response = (LineApiResponse<?>) invokeTarget(method, args);
+                metrics.record(method.getName(),
+                               response.getResponseCode(),
+                               System.nanoTime() - startNanos,
+                               byteCounter.getRequestBytes(),
+                               byteCounter.getResponseBytes());
+                return response;
+            }
+        }
+
+        private Object invokeTarget(@NonNull Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+    }
+}
@@ -0,0 +1,459 @@
+package com.linecorp.linesdk.api.internal;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.net.Uri;
+import android.text.TextUtils;
+import android.util.Base64;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import androidx.annotation.WorkerThread;
+
+import com.linecorp.linesdk.FriendSortField;
+import com.linecorp.linesdk.GetFriendsResponse;
+import com.linecorp.linesdk.GetGroupsResponse;
+import com.linecorp.linesdk.LineAccessToken;
+import com.linecorp.linesdk.LineApiResponse;
+import com.linecorp.linesdk.LineFriendProfile;
+import com.linecorp.linesdk.LineGroup;
+import com.linecorp.linesdk.LineProfile;
+import com.linecorp.linesdk.LineSdkExecutors;
+import com.linecorp.linesdk.api.LineApiClient;
+import com.linecorp.linesdk.api.SocialGraphStore;
+import com.linecorp.linesdk.internal.SocialGraphDatabase;
+import com.linecorp.linesdk.internal.nwclient.PrefetchingPaginator;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static com.linecorp.linesdk.internal.SocialGraphDatabase.COLUMN_CHANNEL_ID;
+import static com.linecorp.linesdk.internal.SocialGraphDatabase.COLUMN_ID;
+import static com.linecorp.linesdk.internal.SocialGraphDatabase.COLUMN_NAME;
+import static com.linecorp.linesdk.internal.SocialGraphDatabase.COLUMN_OVERRIDDEN_NAME;
+import static com.linecorp.linesdk.internal.SocialGraphDatabase.COLUMN_OWNER_USER_ID;
+import static com.linecorp.linesdk.internal.SocialGraphDatabase.COLUMN_PICTURE_URL;
+import static com.linecorp.linesdk.internal.SocialGraphDatabase.COLUMN_POSITION;
+import static com.linecorp.linesdk.internal.SocialGraphDatabase.COLUMN_STATUS_MESSAGE;
+import static com.linecorp.linesdk.internal.SocialGraphDatabase.COLUMN_SYNCED_TIME_MILLIS;
+import static com.linecorp.linesdk.internal.SocialGraphDatabase.COLUMN_TYPE;
+import static com.linecorp.linesdk.internal.SocialGraphDatabase.TABLE_ENTRIES;
+import static com.linecorp.linesdk.internal.SocialGraphDatabase.TABLE_SYNC_STATES;
+import static com.linecorp.linesdk.internal.SocialGraphDatabase.TYPE_FRIEND;
+import static com.linecorp.linesdk.internal.SocialGraphDatabase.TYPE_GROUP;
+
+/**
+ * Implementation of {@link SocialGraphStore} backed by {@link SocialGraphDatabase}.
+ * <p>
+ * The current user is identified by a hash of the access token, which is mapped to the user ID
+ * when the store is synced. After the access token changes, the stored lists are not returned
+ * until the next sync resolves the user again, so that the lists of another user are never shown.
+ */
+public class SocialGraphStoreImpl implements SocialGraphStore {
+    private static final String SHARED_PREFERENCE_KEY_PREFIX = "com.linecorp.linesdk.socialgraph.";
+    private static final String DATA_KEY_ACCESS_TOKEN_HASH = "accessTokenHash";
+    private static final String DATA_KEY_USER_ID = "userId";
+
+    private static final String ENTRY_SELECTION = COLUMN_CHANNEL_ID + " = ? AND "
+                                                  + COLUMN_OWNER_USER_ID + " = ? AND "
+                                                  + COLUMN_TYPE + " = ?";
+    private static final String ENTRY_ID_SELECTION = ENTRY_SELECTION + " AND " + COLUMN_ID + " = ?";
+
+    private static final EntryAdapter<LineFriendProfile> FRIEND_ADAPTER =
+            new EntryAdapter<LineFriendProfile>(TYPE_FRIEND) {
+                @NonNull
+                @Override
+                String getId(@NonNull LineFriendProfile friend) {
+                    return friend.getUserId();
+                }
+
+                @Override
+                void putValues(@NonNull LineFriendProfile friend, @NonNull ContentValues values) {
+                    values.put(COLUMN_NAME, friend.getDisplayName());
+                    values.put(COLUMN_OVERRIDDEN_NAME, friend.getOverriddenDisplayName());
+                    values.put(COLUMN_PICTURE_URL, toString(friend.getPictureUrl()));
+                    values.put(COLUMN_STATUS_MESSAGE, friend.getStatusMessage());
+                }
+
+                @NonNull
+                @Override
+                LineFriendProfile fromCursor(@NonNull Cursor cursor) {
+                    return new LineFriendProfile(
+                            getString(cursor, COLUMN_ID),
+                            getString(cursor, COLUMN_NAME),
+                            toUri(getString(cursor, COLUMN_PICTURE_URL)),
+                            getString(cursor, COLUMN_STATUS_MESSAGE),
+                            getString(cursor, COLUMN_OVERRIDDEN_NAME));
+                }
+            };
+
+    private static final EntryAdapter<LineGroup> GROUP_ADAPTER =
+            new EntryAdapter<LineGroup>(TYPE_GROUP) {
+                @NonNull
+                @Override
+                String getId(@NonNull LineGroup group) {
+                    return group.getGroupId();
+                }
+
+                @Override
+                void putValues(@NonNull LineGroup group, @NonNull ContentValues values) {
+                    values.put(COLUMN_NAME, group.getGroupName());
+                    values.put(COLUMN_PICTURE_URL, toString(group.getPictureUrl()));
+                }
+
+                @NonNull
+                @Override
+                LineGroup fromCursor(@NonNull Cursor cursor) {
+                    return new LineGroup(
+                            getString(cursor, COLUMN_ID),
+                            getString(cursor, COLUMN_NAME),
+                            toUri(getString(cursor, COLUMN_PICTURE_URL)));
+                }
+            };
+
+    @NonNull
+    private final SocialGraphDatabase database;
+    @NonNull
+    private final SharedPreferences sharedPreferences;
+    @NonNull
+    private final String channelId;
+    @NonNull
+    private final LineApiClient lineApiClient;
+    private final long ttlMillis;
+
+    public SocialGraphStoreImpl(
+            @NonNull Context context,
+            @NonNull String channelId,
+            @NonNull LineApiClient lineApiClient,
+            long ttlMillis) {
+        this(SocialGraphDatabase.getInstance(context),
+             context.getSharedPreferences(
+                     SHARED_PREFERENCE_KEY_PREFIX + channelId, Context.MODE_PRIVATE),
+             channelId,
+             lineApiClient,
+             ttlMillis);
+    }
+
+    @VisibleForTesting
+    SocialGraphStoreImpl(
+            @NonNull SocialGraphDatabase database,
+            @NonNull SharedPreferences sharedPreferences,
+            @NonNull String channelId,
+            @NonNull LineApiClient lineApiClient,
+            long ttlMillis) {
+        this.database = database;
+        this.sharedPreferences = sharedPreferences;
+        this.channelId = channelId;
+        this.lineApiClient = lineApiClient;
+        this.ttlMillis = ttlMillis;
+    }
+
+    @WorkerThread
+    @Nullable
+    @Override
+    public List<LineFriendProfile> getFriends() {
+        return getEntries(FRIEND_ADAPTER);
+    }
+
+    @WorkerThread
+    @Nullable
+    @Override
+    public List<LineGroup> getGroups() {
+        return getEntries(GROUP_ADAPTER);
+    }
+
+    @WorkerThread
+    @NonNull
+    @Override
+    public LineApiResponse<SyncResult> syncFriends() {
+        return syncFriends(null /* listener */);
+    }
+
+    @WorkerThread
+    @NonNull
+    @Override
+    public LineApiResponse<SyncResult> syncFriends(
+            @Nullable OnPageListener<LineFriendProfile> listener) {
+        // The same list as the one that the share dialog shows.
+        return sync(
+                FRIEND_ADAPTER,
+                pageToken -> lineApiClient.getFriends(FriendSortField.RELATION, pageToken, true),
+                GetFriendsResponse::getNextPageRequestToken,
+                GetFriendsResponse::getFriends,
+                listener);
+    }
+
+    @WorkerThread
+    @NonNull
+    @Override
+    public LineApiResponse<SyncResult> syncGroups() {
+        return syncGroups(null /* listener */);
+    }
+
+    @WorkerThread
+    @NonNull
+    @Override
+    public LineApiResponse<SyncResult> syncGroups(@Nullable OnPageListener<LineGroup> listener) {
+        return sync(
+                GROUP_ADAPTER,
+                pageToken -> lineApiClient.getGroups(pageToken, true),
+                GetGroupsResponse::getNextPageRequestToken,
+                GetGroupsResponse::getGroups,
+                listener);
+    }
+
+    @WorkerThread
+    @Override
+    public void clear() {
+        SQLiteDatabase db = database.getWritableDatabase();
+        String[] selectionArgs = { channelId };
+        db.beginTransaction();
+        try {
+            db.delete(TABLE_ENTRIES, COLUMN_CHANNEL_ID + " = ?", selectionArgs);
+            db.delete(TABLE_SYNC_STATES, COLUMN_CHANNEL_ID + " = ?", selectionArgs);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+        sharedPreferences.edit().clear().apply();
+    }
+
+    @VisibleForTesting
+    long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    @Nullable
+    private <T> List<T> getEntries(@NonNull EntryAdapter<T> adapter) {
+        String userId = getCachedUserId();
+        if (userId == null) {
+            return null;
+        }
+        SQLiteDatabase db = database.getReadableDatabase();
+        String[] selectionArgs = { channelId, userId, String.valueOf(adapter.type) };
+
+        try (Cursor cursor = db.query(TABLE_SYNC_STATES,
+                                      new String[] { COLUMN_SYNCED_TIME_MILLIS },
+                                      ENTRY_SELECTION, selectionArgs,
+                                      null /* groupBy */, null /* having */, null /* orderBy */)) {
+            if (!cursor.moveToFirst()
+                || currentTimeMillis() - cursor.getLong(0) >= ttlMillis) {
+                return null;
+            }
+        }
+
+        List<T> entries = new ArrayList<>();
+        try (Cursor cursor = db.query(TABLE_ENTRIES, null /* columns */,
+                                      ENTRY_SELECTION, selectionArgs,
+                                      null /* groupBy */, null /* having */, COLUMN_POSITION)) {
+            while (cursor.moveToNext()) {
+                entries.add(adapter.fromCursor(cursor));
+            }
+        }
+        return entries;
+    }
+
+    @NonNull
+    private <P, T> LineApiResponse<SyncResult> sync(
+            @NonNull EntryAdapter<T> adapter,
+            @NonNull PrefetchingPaginator.PageRequest<P> pageRequest,
+            @NonNull PrefetchingPaginator.PageTokenExtractor<P> pageTokenExtractor,
+            @NonNull Function<P, List<T>> entriesOf,
+            @Nullable OnPageListener<T> listener) {
+        LineApiResponse<String> userIdResponse = resolveUserId();
+        if (!userIdResponse.isSuccess()) {
+            return toErrorResponse(userIdResponse);
+        }
+
+        List<T> entries = new ArrayList<>();
+        try (PrefetchingPaginator<P> paginator = new PrefetchingPaginator<>(
+                pageRequest,
+                pageTokenExtractor,
+                PrefetchingPaginator.DEFAULT_PREFETCH_DEPTH,
+                LineSdkExecutors.getIoExecutor())) {
+            while (paginator.hasNext()) {
+                LineApiResponse<P> response = paginator.next();
+                if (!response.isSuccess()) {
+                    return toErrorResponse(response);
+                }
+                List<T> page = entriesOf.apply(response.getResponseData());
+                entries.addAll(page);
+                if (listener != null) {
+                    listener.onPage(page);
+                }
+            }
+        }
+
+        return LineApiResponse.createAsSuccess(
+                applyDifferences(adapter, userIdResponse.getResponseData(), entries));
+    }
+
+    @NonNull
+    private <T> SyncResult applyDifferences(
+            @NonNull EntryAdapter<T> adapter, @NonNull String userId, @NonNull List<T> entries) {
+        SQLiteDatabase db = database.getWritableDatabase();
+        String type = String.valueOf(adapter.type);
+        int addedCount = 0;
+        int changedCount = 0;
+        int removedCount = 0;
+
+        db.beginTransaction();
+        try {
+            Map<String, ContentValues> storedValues = new HashMap<>();
+            try (Cursor cursor = db.query(TABLE_ENTRIES, null /* columns */,
+                                          ENTRY_SELECTION, new String[] { channelId, userId, type },
+                                          null /* groupBy */, null /* having */, null /* orderBy */)) {
+                while (cursor.moveToNext()) {
+                    ContentValues values = new ContentValues();
+                    adapter.putValues(adapter.fromCursor(cursor), values);
+                    values.put(COLUMN_POSITION, cursor.getInt(cursor.getColumnIndexOrThrow(COLUMN_POSITION)));
+                    storedValues.put(getString(cursor, COLUMN_ID), values);
+                }
+            }
+
+            for (int position = 0; position < entries.size(); position++) {
+                T entry = entries.get(position);
+                String id = adapter.getId(entry);
+                ContentValues values = new ContentValues();
+                adapter.putValues(entry, values);
+                values.put(COLUMN_POSITION, position);
+
+                ContentValues stored = storedValues.remove(id);
+                if (stored == null) {
+                    values.put(COLUMN_CHANNEL_ID, channelId);
+                    values.put(COLUMN_OWNER_USER_ID, userId);
+                    values.put(COLUMN_TYPE, adapter.type);
+                    values.put(COLUMN_ID, id);
+                    // A duplicated entry in the downloaded list replaces the earlier one.
+                    db.insertWithOnConflict(
+                            TABLE_ENTRIES, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+                    addedCount++;
+                } else if (!stored.equals(values)) {
+                    db.update(TABLE_ENTRIES, values, ENTRY_ID_SELECTION,
+                              new String[] { channelId, userId, type, id });
+                    changedCount++;
+                }
+            }
+
+            for (String removedId : storedValues.keySet()) {
+                db.delete(TABLE_ENTRIES, ENTRY_ID_SELECTION,
+                          new String[] { channelId, userId, type, removedId });
+                removedCount++;
+            }
+
+            ContentValues syncState = new ContentValues();
+            syncState.put(COLUMN_CHANNEL_ID, channelId);
+            syncState.put(COLUMN_OWNER_USER_ID, userId);
+            syncState.put(COLUMN_TYPE, adapter.type);
+            syncState.put(COLUMN_SYNCED_TIME_MILLIS, currentTimeMillis());
+            db.insertWithOnConflict(
+                    TABLE_SYNC_STATES, null, syncState, SQLiteDatabase.CONFLICT_REPLACE);
+
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+        return new SyncResult(addedCount, changedCount, removedCount);
+    }
+
+    /**
+     * Gets the user ID mapped to the current access token without network access.
+     */
+    @Nullable
+    private String getCachedUserId() {
+        String accessTokenHash = getAccessTokenHash();
+        if (accessTokenHash == null
+            || !accessTokenHash.equals(
+                sharedPreferences.getString(DATA_KEY_ACCESS_TOKEN_HASH, null))) {
+            return null;
+        }
+        return sharedPreferences.getString(DATA_KEY_USER_ID, null);
+    }
+
+    @NonNull
+    private LineApiResponse<String> resolveUserId() {
+        String userId = getCachedUserId();
+        if (userId != null) {
+            return LineApiResponse.createAsSuccess(userId);
+        }
+        LineApiResponse<LineProfile> profileResponse = lineApiClient.getProfile();
+        if (!profileResponse.isSuccess()) {
+            return toErrorResponse(profileResponse);
+        }
+        userId = profileResponse.getResponseData().getUserId();
+        // The access token may have been refreshed by the call above.
+        String accessTokenHash = getAccessTokenHash();
+        if (accessTokenHash != null) {
+            sharedPreferences.edit()
+                    .putString(DATA_KEY_ACCESS_TOKEN_HASH, accessTokenHash)
+                    .putString(DATA_KEY_USER_ID, userId)
+                    .apply();
+        }
+        return LineApiResponse.createAsSuccess(userId);
+    }
+
+    @Nullable
+    private String getAccessTokenHash() {
+        LineApiResponse<LineAccessToken> response = lineApiClient.getCurrentAccessToken();
+        if (!response.isSuccess()) {
+            return null;
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(
+                    response.getResponseData().getTokenString().getBytes(StandardCharsets.UTF_8));
+            return Base64.encodeToString(hash, Base64.NO_WRAP);
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @NonNull
+    private static <T> LineApiResponse<T> toErrorResponse(@NonNull LineApiResponse<?> response) {
+        return LineApiResponse.createAsError(response.getResponseCode(), response.getErrorData());
+    }
+
+    @Nullable
+    private static String getString(@NonNull Cursor cursor, @NonNull String columnName) {
+        return cursor.getString(cursor.getColumnIndexOrThrow(columnName));
+    }
+
+    /**
+     * Converts between the entries and the rows of {@link SocialGraphDatabase#TABLE_ENTRIES}.
+     */
+    private abstract static class EntryAdapter<T> {
+        private final int type;
+
+        private EntryAdapter(int type) {
+            this.type = type;
+        }
+
+        @NonNull
+        abstract String getId(@NonNull T entry);
+
+        abstract void putValues(@NonNull T entry, @NonNull ContentValues values);
+
+        @NonNull
+        abstract T fromCursor(@NonNull Cursor cursor);
+
+        @Nullable
+        static String toString(@Nullable Uri uri) {
+            return uri == null ? null : uri.toString();
+        }
+
+        @Nullable
+        static Uri toUri(@Nullable String uriString) {
+            return TextUtils.isEmpty(uriString) ? null : Uri.parse(uriString);
+        }
+    }
+}
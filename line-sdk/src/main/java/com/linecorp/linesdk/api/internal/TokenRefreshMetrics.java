@@ -0,0 +1,46 @@
+package com.linecorp.linesdk.api.internal;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters of the token refreshes triggered by {@link AutoRefreshLineApiClientProxy}.
+ */
+public class TokenRefreshMetrics {
+    @NonNull
+    private final AtomicLong refreshCount = new AtomicLong();
+    @NonNull
+    private final AtomicLong mergedRefreshCount = new AtomicLong();
+
+    /**
+     * @return The number of refresh requests actually sent to the server.
+     */
+    public long getRefreshCount() {
+        return refreshCount.get();
+    }
+
+    /**
+     * @return The number of refreshes that were not sent because they were merged into another
+     * in-flight or just completed refresh.
+     */
+    public long getMergedRefreshCount() {
+        return mergedRefreshCount.get();
+    }
+
+    /* package */ void onRefresh() {
+        refreshCount.incrementAndGet();
+    }
+
+    /* package */ void onMergedRefresh() {
+        mergedRefreshCount.incrementAndGet();
+    }
+
+    @Override
+    public String toString() {
+        return "TokenRefreshMetrics{" +
+               "refreshCount=" + refreshCount +
+               ", mergedRefreshCount=" + mergedRefreshCount +
+               '}';
+    }
+}
@@ -0,0 +1,301 @@
+package com.linecorp.linesdk.api.internal;
+
+import android.app.Activity;
+import android.app.Application;
+import android.os.Bundle;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import com.linecorp.linesdk.LineAccessToken;
+import com.linecorp.linesdk.LineApiResponse;
+import com.linecorp.linesdk.api.LineApiClient;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Refreshes the access token of a {@link LineApiClient} before it expires, so that API calls
+ * rarely have to wait for a refresh after failing with 401.
+ * <p>
+ * A refresh is started when the token is within the lead time of its estimated expiration time.
+ * The check runs at the scheduled time if scheduling is enabled, and whenever the app comes to the
+ * foreground if foreground refresh is enabled. The refreshes go through the given client, so they
+ * are merged with the refreshes triggered by {@link AutoRefreshLineApiClientProxy}. While there
+ * is no token to refresh, such as before a login or after the refresh token has been rejected, the
+ * scheduled check looks for a new token every few minutes.
+ * <p>
+ * There is at most one scheduler per channel in the process, created by
+ * {@link #startForChannel(String, LineApiClient, long, boolean, Application)}. Building another
+ * client for the same channel hands the new client to the running scheduler instead of starting
+ * another one, so two schedulers never rotate the refresh token of a channel at the same time.
+ */
+public class TokenRefreshScheduler {
+    private static final String TAG = "TokenRefreshScheduler";
+
+    public static final long DEFAULT_LEAD_TIME_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    // Delay before retrying a refresh that failed, e.g. by a network error.
+    private static final long RETRY_DELAY_MILLIS = TimeUnit.MINUTES.toMillis(1);
+    // Interval of the scheduled checks for a new login while there is no token to refresh.
+    private static final long LOGIN_CHECK_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    // Shared by all the clients. The thread is a daemon and does not keep the process alive.
+    @Nullable
+    private static ScheduledExecutorService sharedExecutor;
+    // Guarded by the class.
+    @NonNull
+    private static final Map<String, TokenRefreshScheduler> channelSchedulers = new HashMap<>();
+
+    @NonNull
+    private final ScheduledExecutorService executor;
+    // Replaced by the latest client built for the channel.
+    @NonNull
+    private volatile LineApiClient lineApiClient;
+    private volatile long leadTimeMillis;
+    private volatile boolean isScheduleEnabled;
+    // The access token whose refresh token has been rejected. It isn't refreshed again.
+    @Nullable
+    private volatile String rejectedTokenString;
+
+    // Guarded by this.
+    @Nullable
+    private ScheduledFuture<?> scheduledCheck;
+    @Nullable
+    private Application foregroundApplication;
+    @Nullable
+    private ForegroundCallback foregroundCallback;
+
+    private TokenRefreshScheduler(
+            @NonNull LineApiClient lineApiClient,
+            long leadTimeMillis,
+            boolean isScheduleEnabled) {
+        this(lineApiClient, getSharedExecutor(), leadTimeMillis, isScheduleEnabled);
+    }
+
+    @VisibleForTesting
+    TokenRefreshScheduler(
+            @NonNull LineApiClient lineApiClient,
+            @NonNull ScheduledExecutorService executor,
+            long leadTimeMillis,
+            boolean isScheduleEnabled) {
+        if (leadTimeMillis < 0) {
+            throw new IllegalArgumentException("leadTimeMillis must not be negative: " + leadTimeMillis);
+        }
+        this.lineApiClient = lineApiClient;
+        this.executor = executor;
+        this.leadTimeMillis = leadTimeMillis;
+        this.isScheduleEnabled = isScheduleEnabled;
+    }
+
+    /**
+     * Starts the scheduler of the given channel, or updates the running one with the given client
+     * and settings. The scheduler then only keeps the given client, so the clients built before
+     * can be garbage-collected.
+     *
+     * @param foregroundApplication The application to check the token whenever it comes to the
+     *                              foreground, or {@code null} to disable foreground refresh.
+     * @return The scheduler of the channel.
+     */
+    @NonNull
+    public static TokenRefreshScheduler startForChannel(
+            @NonNull String channelId,
+            @NonNull LineApiClient lineApiClient,
+            long leadTimeMillis,
+            boolean isScheduleEnabled,
+            @Nullable Application foregroundApplication) {
+        TokenRefreshScheduler scheduler;
+        synchronized (TokenRefreshScheduler.class) {
+            scheduler = channelSchedulers.get(channelId);
+            if (scheduler == null) {
+                scheduler = new TokenRefreshScheduler(
+                        lineApiClient, leadTimeMillis, isScheduleEnabled);
+                channelSchedulers.put(channelId, scheduler);
+            } else {
+                scheduler.update(lineApiClient, leadTimeMillis, isScheduleEnabled);
+            }
+        }
+        scheduler.setForegroundApplication(foregroundApplication);
+        scheduler.start();
+        return scheduler;
+    }
+
+    /**
+     * Stops the scheduler of the given channel, if any. Its scheduled check is cancelled and its
+     * foreground callback is unregistered.
+     */
+    public static void stopForChannel(@NonNull String channelId) {
+        TokenRefreshScheduler scheduler;
+        synchronized (TokenRefreshScheduler.class) {
+            scheduler = channelSchedulers.remove(channelId);
+        }
+        if (scheduler != null) {
+            scheduler.stop();
+        }
+    }
+
+    private synchronized void update(
+            @NonNull LineApiClient lineApiClient, long leadTimeMillis, boolean isScheduleEnabled) {
+        if (leadTimeMillis < 0) {
+            throw new IllegalArgumentException("leadTimeMillis must not be negative: " + leadTimeMillis);
+        }
+        this.lineApiClient = lineApiClient;
+        this.leadTimeMillis = leadTimeMillis;
+        this.isScheduleEnabled = isScheduleEnabled;
+        if (!isScheduleEnabled && scheduledCheck != null) {
+            scheduledCheck.cancel(false /* mayInterruptIfRunning */);
+            scheduledCheck = null;
+        }
+    }
+
+    /**
+     * Starts the scheduled check if scheduling is enabled.
+     */
+    public void start() {
+        if (isScheduleEnabled) {
+            scheduleCheck(0L);
+        }
+    }
+
+    /**
+     * Cancels the scheduled check and unregisters the foreground callback.
+     */
+    public synchronized void stop() {
+        if (scheduledCheck != null) {
+            scheduledCheck.cancel(false /* mayInterruptIfRunning */);
+            scheduledCheck = null;
+        }
+        setForegroundApplication(null);
+    }
+
+    /**
+     * Checks the token each time the given application comes to the foreground. Passing
+     * {@code null} unregisters the callback.
+     */
+    public synchronized void setForegroundApplication(@Nullable Application application) {
+        if (foregroundApplication == application) {
+            return;
+        }
+        if (foregroundApplication != null && foregroundCallback != null) {
+            foregroundApplication.unregisterActivityLifecycleCallbacks(foregroundCallback);
+        }
+        foregroundApplication = application;
+        foregroundCallback = null;
+        if (application != null) {
+            foregroundCallback = new ForegroundCallback();
+            application.registerActivityLifecycleCallbacks(foregroundCallback);
+        }
+    }
+
+    /**
+     * Checks the token on a worker thread now. Called when the app comes to the foreground.
+     */
+    public void checkNow() {
+        scheduleCheck(0L);
+    }
+
+    private synchronized void scheduleCheck(long delayMillis) {
+        if (scheduledCheck != null) {
+            scheduledCheck.cancel(false /* mayInterruptIfRunning */);
+        }
+        scheduledCheck = executor.schedule(this::check, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @VisibleForTesting
+    void check() {
+        LineApiResponse<LineAccessToken> currentToken = lineApiClient.getCurrentAccessToken();
+        long delayMillis;
+        if (!currentToken.isSuccess()
+            || currentToken.getResponseData().getTokenString().equals(rejectedTokenString)) {
+            // Nothing to refresh until the user logs in. Look again later for the new token.
+            delayMillis = LOGIN_CHECK_INTERVAL_MILLIS;
+        } else {
+            delayMillis = getDelayUntilRefreshMillis(currentToken.getResponseData());
+        }
+        if (delayMillis <= 0L) {
+            LineApiResponse<LineAccessToken> response = lineApiClient.refreshAccessToken();
+            if (response.isSuccess()) {
+                delayMillis = getDelayUntilRefreshMillis(response.getResponseData());
+            } else if (response.isNetworkError()) {
+                delayMillis = RETRY_DELAY_MILLIS;
+            } else {
+                // The refresh token is no longer valid.
+                Log.w(TAG, "Failed to refresh the access token: " + response.getErrorData());
+                rejectedTokenString = currentToken.getResponseData().getTokenString();
+                delayMillis = LOGIN_CHECK_INTERVAL_MILLIS;
+            }
+        }
+
+        if (isScheduleEnabled) {
+            scheduleCheck(Math.max(delayMillis, 0L));
+        }
+    }
+
+    private long getDelayUntilRefreshMillis(@NonNull LineAccessToken accessToken) {
+        return accessToken.getEstimatedExpirationTimeMillis() - leadTimeMillis
+               - currentTimeMillis();
+    }
+
+    @VisibleForTesting
+    protected long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    @NonNull
+    private static synchronized ScheduledExecutorService getSharedExecutor() {
+        if (sharedExecutor == null) {
+            ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+                Thread thread = new Thread(runnable, TAG);
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor.setRemoveOnCancelPolicy(true);
+            sharedExecutor = executor;
+        }
+        return sharedExecutor;
+    }
+
+    private class ForegroundCallback implements Application.ActivityLifecycleCallbacks {
+        private int startedActivityCount;
+
+        @Override
+        public void onActivityStarted(@NonNull Activity activity) {
+            if (startedActivityCount++ == 0) {
+                checkNow();
+            }
+        }
+
+        @Override
+        public void onActivityStopped(@NonNull Activity activity) {
+            if (startedActivityCount > 0) {
+                startedActivityCount--;
+            }
+        }
+
+        @Override
+        public void onActivityCreated(@NonNull Activity activity, @Nullable Bundle savedInstanceState) {
+        }
+
+        @Override
+        public void onActivityResumed(@NonNull Activity activity) {
+        }
+
+        @Override
+        public void onActivityPaused(@NonNull Activity activity) {
+        }
+
+        @Override
+        public void onActivitySaveInstanceState(@NonNull Activity activity, @NonNull Bundle outState) {
+        }
+
+        @Override
+        public void onActivityDestroyed(@NonNull Activity activity) {
+        }
+    }
+}
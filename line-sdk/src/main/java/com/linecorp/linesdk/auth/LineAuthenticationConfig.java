@@ -33,6 +33,7 @@ public class LineAuthenticationConfig implements Parcelable {
 
     private static int FLAGS_LINE_APP_AUTHENTICATION_DISABLED = 0x1;
     private static int FLAGS_ENCRYPTOR_PREPARATION_DISABLED = 0x2;
+    private static int FLAGS_OPEN_ID_DOCUMENT_PREFETCH_DISABLED = 0x4;
 
     @NonNull
     private final String channelId;
@@ -45,6 +46,7 @@ public class LineAuthenticationConfig implements Parcelable {
     private final Uri webLoginPageUrl;
     private final boolean isLineAppAuthenticationDisabled;
     private final boolean isEncryptorPreparationDisabled;
+    private final boolean isOpenIdDocumentPrefetchDisabled;
 
     private LineAuthenticationConfig(@NonNull Builder builder) {
         channelId = builder.channelId;
@@ -53,6 +55,7 @@ public class LineAuthenticationConfig implements Parcelable {
         webLoginPageUrl = builder.webLoginPageUrl;
         isLineAppAuthenticationDisabled = builder.isLineAppAuthenticationDisabled;
         isEncryptorPreparationDisabled = builder.isEncryptorPreparationDisabled;
+        isOpenIdDocumentPrefetchDisabled = builder.isOpenIdDocumentPrefetchDisabled;
     }
 
     private LineAuthenticationConfig(@NonNull Parcel in) {
@@ -63,6 +66,7 @@ public class LineAuthenticationConfig implements Parcelable {
         int settings = in.readInt();
         isLineAppAuthenticationDisabled = (settings & FLAGS_LINE_APP_AUTHENTICATION_DISABLED) > 0;
         isEncryptorPreparationDisabled = (settings & FLAGS_ENCRYPTOR_PREPARATION_DISABLED) > 0;
+        isOpenIdDocumentPrefetchDisabled = (settings & FLAGS_OPEN_ID_DOCUMENT_PREFETCH_DISABLED) > 0;
     }
 
     @Override
@@ -74,6 +78,7 @@ public class LineAuthenticationConfig implements Parcelable {
         int settings = 0;
         settings |= isLineAppAuthenticationDisabled ? FLAGS_LINE_APP_AUTHENTICATION_DISABLED : 0;
         settings |= isEncryptorPreparationDisabled ? FLAGS_ENCRYPTOR_PREPARATION_DISABLED : 0;
+        settings |= isOpenIdDocumentPrefetchDisabled ? FLAGS_OPEN_ID_DOCUMENT_PREFETCH_DISABLED : 0;
         dest.writeInt(settings);
     }
 
@@ -110,6 +115,10 @@ public class LineAuthenticationConfig implements Parcelable {
         return isEncryptorPreparationDisabled;
     }
 
+    public boolean isOpenIdDocumentPrefetchDisabled() {
+        return isOpenIdDocumentPrefetchDisabled;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) { return true; }
@@ -119,6 +128,7 @@ public class LineAuthenticationConfig implements Parcelable {
 
         if (isLineAppAuthenticationDisabled != that.isLineAppAuthenticationDisabled) { return false; }
         if (isEncryptorPreparationDisabled != that.isEncryptorPreparationDisabled) { return false; }
+        if (isOpenIdDocumentPrefetchDisabled != that.isOpenIdDocumentPrefetchDisabled) { return false; }
         if (!channelId.equals(that.channelId)) { return false; }
         if (!openidDiscoveryDocumentUrl.equals(that.openidDiscoveryDocumentUrl)) { return false; }
         if (!apiBaseUrl.equals(that.apiBaseUrl)) { return false; }
@@ -133,6 +143,7 @@ public class LineAuthenticationConfig implements Parcelable {
         result = 31 * result + webLoginPageUrl.hashCode();
         result = 31 * result + (isLineAppAuthenticationDisabled ? 1 : 0);
         result = 31 * result + (isEncryptorPreparationDisabled ? 1 : 0);
+        result = 31 * result + (isOpenIdDocumentPrefetchDisabled ? 1 : 0);
         return result;
     }
 
@@ -145,6 +156,7 @@ public class LineAuthenticationConfig implements Parcelable {
                ", webLoginPageUrl=" + webLoginPageUrl +
                ", isLineAppAuthenticationDisabled=" + isLineAppAuthenticationDisabled +
                ", isEncryptorPreparationDisabled=" + isEncryptorPreparationDisabled +
+               ", isOpenIdDocumentPrefetchDisabled=" + isOpenIdDocumentPrefetchDisabled +
                '}';
     }
 
@@ -159,6 +171,7 @@ public class LineAuthenticationConfig implements Parcelable {
         private Uri webLoginPageUrl;
         private boolean isLineAppAuthenticationDisabled;
         private boolean isEncryptorPreparationDisabled;
+        private boolean isOpenIdDocumentPrefetchDisabled;
 
         public Builder(@NonNull String channelId) {
             this(channelId, (Context) null);
@@ -228,6 +241,16 @@ public class LineAuthenticationConfig implements Parcelable {
             return this;
         }
 
+        /**
+         * Disables fetching the OpenID discovery document and the JSON Web Key Set while the user
+         * is authenticating in the LINE app or the browser.
+         */
+        @NonNull
+        public Builder disableOpenIdDocumentPrefetch() {
+            isOpenIdDocumentPrefetchDisabled = true;
+            return this;
+        }
+
         @NonNull
         public LineAuthenticationConfig build() {
             return new LineAuthenticationConfig(this);
@@ -21,6 +21,7 @@ import androidx.core.content.ContextCompat;
 import com.linecorp.linesdk.BuildConfig;
 import com.linecorp.linesdk.Constants;
 import com.linecorp.linesdk.LineApiError;
+import com.linecorp.linesdk.LineSdkTrace;
 import com.linecorp.linesdk.Scope;
 import com.linecorp.linesdk.auth.LineAuthenticationConfig;
 import com.linecorp.linesdk.auth.LineAuthenticationParams;
@@ -102,6 +103,21 @@ import static com.linecorp.linesdk.utils.UriUtils.buildParams;
             @NonNull PKCECode pkceCode,
             @NonNull LineAuthenticationParams params)
             throws ActivityNotFoundException {
+        boolean isTraced = LineSdkTrace.beginSection("LineSdk:BrowserAuthenticationApi.getRequest");
+        try {
+            return createRequest(context, config, pkceCode, params);
+        } finally {
+            LineSdkTrace.endSection(isTraced);
+        }
+    }
+
+    @NonNull
+    private Request createRequest(
+            @NonNull Context context,
+            @NonNull LineAuthenticationConfig config,
+            @NonNull PKCECode pkceCode,
+            @NonNull LineAuthenticationParams params)
+            throws ActivityNotFoundException {
 
         // "state" may be guessed easily but there is no problem as the follows.
         // In case of LINE SDK, the correctness of "redirect_uri" will be checked with using PKCE
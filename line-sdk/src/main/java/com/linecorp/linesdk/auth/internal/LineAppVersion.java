@@ -6,6 +6,7 @@ import android.content.pm.PackageManager;
 import android.text.TextUtils;
 
 import com.linecorp.linesdk.Constants;
+import com.linecorp.linesdk.LineSdkTrace;
 
 import java.util.StringTokenizer;
 
@@ -19,11 +20,15 @@ public class LineAppVersion {
     @Nullable
     public static LineAppVersion getLineAppVersion(@NonNull Context context) {
         PackageInfo packageInfo;
+        boolean isTraced = LineSdkTrace.beginSection("LineSdk:LineAppVersion.getLineAppVersion");
         try {
+            // A binder call to the package manager, which can be slow at startup.
             packageInfo = context.getPackageManager()
                     .getPackageInfo(Constants.LINE_APP_PACKAGE_NAME, PackageManager.GET_META_DATA);
         } catch (PackageManager.NameNotFoundException e) {
             return null;
+        } finally {
+            LineSdkTrace.endSection(isTraced);
         }
 
         String versionName = packageInfo.versionName;
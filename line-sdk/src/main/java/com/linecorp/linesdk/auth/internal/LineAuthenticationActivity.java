@@ -112,6 +112,14 @@ public class LineAuthenticationActivity extends Activity {
         isActivityStopped = true;
     }
 
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        if (isFinishing() && authenticationController != null) {
+            authenticationController.release();
+        }
+    }
+
     @Override
     protected void onNewIntent(Intent intent) {
         super.onNewIntent(intent);
@@ -2,16 +2,17 @@ package com.linecorp.linesdk.auth.internal;
 
 import android.content.ActivityNotFoundException;
 import android.content.Intent;
-import android.os.AsyncTask;
 import android.os.Handler;
 import android.os.Looper;
 import android.text.TextUtils;
+import android.util.Log;
 
 import com.linecorp.linesdk.LineAccessToken;
 import com.linecorp.linesdk.LineApiError;
 import com.linecorp.linesdk.LineApiResponse;
 import com.linecorp.linesdk.LineCredential;
 import com.linecorp.linesdk.LineIdToken;
+import com.linecorp.linesdk.LineSdkExecutors;
 import com.linecorp.linesdk.LineProfile;
 import com.linecorp.linesdk.Scope;
 import com.linecorp.linesdk.auth.LineAuthenticationConfig;
@@ -21,6 +22,8 @@ import com.linecorp.linesdk.internal.AccessTokenCache;
 import com.linecorp.linesdk.internal.InternalAccessToken;
 import com.linecorp.linesdk.internal.IssueAccessTokenResult;
 import com.linecorp.linesdk.internal.OpenIdDiscoveryDocument;
+import com.linecorp.linesdk.internal.concurrent.BackgroundTask;
+import com.linecorp.linesdk.internal.concurrent.TaskGroup;
 import com.linecorp.linesdk.internal.nwclient.IdTokenValidator;
 import com.linecorp.linesdk.internal.nwclient.IdTokenValidator.Builder;
 import com.linecorp.linesdk.internal.nwclient.LineAuthenticationApiClient;
@@ -28,6 +31,8 @@ import com.linecorp.linesdk.internal.nwclient.TalkApiClient;
 import com.linecorp.linesdk.internal.pkce.PKCECode;
 
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
 
 import androidx.annotation.MainThread;
 import androidx.annotation.NonNull;
@@ -38,6 +43,7 @@ import androidx.annotation.VisibleForTesting;
  * This class controls LINE authentication flow.
  */
 /* package */ class LineAuthenticationController {
+    private static final String TAG = "LineAuthController";
     private static final long CANCEL_DELAY_MILLIS = 1000;
     private static final int REQUEST_CODE = 3;
 
@@ -58,6 +64,8 @@ import androidx.annotation.VisibleForTesting;
 
     @NonNull
     private final LineAuthenticationStatus authenticationStatus;
+    @NonNull
+    private final TaskGroup taskGroup = new TaskGroup();
 
     @Nullable
     private static Intent intentResultFromLineAPP;
@@ -105,6 +113,7 @@ import androidx.annotation.VisibleForTesting;
     @MainThread
     void startLineAuthentication() {
         authenticationStatus.authenticationStarted();
+        prefetchOpenIdDocuments();
 
         final PKCECode pkceCode = createPKCECode();
         authenticationStatus.setPKCECode(pkceCode);
@@ -123,6 +132,23 @@ import androidx.annotation.VisibleForTesting;
         }
     }
 
+    /**
+     * Fetches the OpenID discovery document and the JSON Web Key Set into the cache while the user
+     * is in the LINE app, so that the ID token can be verified without waiting for them.
+     */
+    private void prefetchOpenIdDocuments() {
+        if (config.isOpenIdDocumentPrefetchDisabled()
+                || !params.getScopes().contains(Scope.OPENID_CONNECT)) {
+            return;
+        }
+        LineSdkExecutors.getAuthExecutor().execute(() -> {
+            LineApiResponse<?> response = authApiClient.getJWKSet();
+            if (response == null || !response.isSuccess()) {
+                Log.w(TAG, "Failed to prefetch the OpenID documents: " + response);
+            }
+        });
+    }
+
     @VisibleForTesting
     PKCECode createPKCECode() {
         return PKCECode.newCode();
@@ -144,7 +170,15 @@ import androidx.annotation.VisibleForTesting;
             activity.onAuthenticationFinished(errorResult);
             return;
         }
-        new AccessTokenRequestTask().execute(authResult);
+        taskGroup.execute(new AccessTokenRequestTask(authResult), LineSdkExecutors.getAuthExecutor());
+    }
+
+    /**
+     * Cancels the running login requests. The result of a cancelled request is not delivered.
+     */
+    @MainThread
+    void release() {
+        taskGroup.cancelAll();
     }
 
     private static LineLoginResult getLoginErrorResult(BrowserAuthenticationApi.Result authResult) {
@@ -200,11 +234,16 @@ import androidx.annotation.VisibleForTesting;
         }
     }
 
-    private class AccessTokenRequestTask extends AsyncTask<BrowserAuthenticationApi.Result, Void, LineLoginResult> {
+    private class AccessTokenRequestTask extends BackgroundTask<LineLoginResult> {
+        @NonNull
+        private final BrowserAuthenticationApi.Result authResult;
+
+        AccessTokenRequestTask(@NonNull BrowserAuthenticationApi.Result authResult) {
+            this.authResult = authResult;
+        }
 
         @Override
-        protected LineLoginResult doInBackground(@Nullable BrowserAuthenticationApi.Result... params) {
-            BrowserAuthenticationApi.Result authResult = params[0];
+        protected LineLoginResult doInBackground() {
             String requestToken = authResult.getRequestToken();
             PKCECode pkceCode = authenticationStatus.getPKCECode();
             String sentRedirectUri = authenticationStatus.getSentRedirectUri();
@@ -226,30 +265,49 @@ import androidx.annotation.VisibleForTesting;
             InternalAccessToken accessToken = issueAccessTokenResult.getAccessToken();
             List<Scope> scopes = issueAccessTokenResult.getScopes();
 
+            // The ID token verification, which fetches the discovery document and the key set
+            // unless they are cached, doesn't depend on the profile. Run it concurrently.
+            final String idTokenStr = issueAccessTokenResult.getIdTokenStr();
+            FutureTask<VerifiedIdToken> idTokenTask = null;
+            if (idTokenStr != null) {
+                idTokenTask = new FutureTask<>(() -> verifyIdToken(idTokenStr));
+                LineSdkExecutors.getAuthExecutor().execute(idTokenTask);
+            }
+
             LineProfile lineProfile = null;
             String userId = null;
             if (scopes.contains(Scope.PROFILE)) {
                 // Acquire account information
                 LineApiResponse<LineProfile> profileResponse = talkApiClient.getProfile(accessToken);
                 if (!profileResponse.isSuccess()) {
+                    if (idTokenTask != null) {
+                        idTokenTask.cancel(true /* mayInterruptIfRunning */);
+                    }
                     return LineLoginResult.error(profileResponse);
                 }
                 lineProfile = profileResponse.getResponseData();
                 userId = lineProfile.getUserId();
             }
 
-            // Cache the acquired access token
-            accessTokenCache.saveAccessToken(accessToken);
-
-            final LineIdToken idToken = issueAccessTokenResult.getIdToken();
-            if (idToken != null) {
+            LineIdToken idToken = null;
+            if (idTokenTask != null) {
+                // Runs the task here if the auth executor hasn't started it yet, e.g. because all
+                // of its threads are busy. Otherwise, this does nothing.
+                idTokenTask.run();
                 try {
-                    validateIdToken(idToken, userId);
+                    final VerifiedIdToken verifiedIdToken = idTokenTask.get();
+                    idToken = verifiedIdToken.idToken;
+                    validateIdToken(idToken, userId, verifiedIdToken.discoveryDocumentResponse);
+                } catch (final ExecutionException e) {
+                    return LineLoginResult.internalError(e.getCause().getMessage());
                 } catch (final Exception e) {
                     return LineLoginResult.internalError(e.getMessage());
                 }
             }
 
+            // Cache the acquired access token
+            accessTokenCache.saveAccessToken(accessToken);
+
             return new LineLoginResult.Builder()
                     .nonce(authenticationStatus.getOpenIdNonce())
                     .lineProfile(lineProfile)
@@ -265,9 +323,24 @@ import androidx.annotation.VisibleForTesting;
                     .build();
         }
 
-        private void validateIdToken(final LineIdToken idToken, final String userId) {
-            final LineApiResponse<OpenIdDiscoveryDocument> response =
-                    authApiClient.getOpenIdDiscoveryDocument();
+        @NonNull
+        private VerifiedIdToken verifyIdToken(@NonNull final String idTokenStr) {
+            final LineApiResponse<LineIdToken> idTokenResponse =
+                    authApiClient.verifyIdToken(idTokenStr);
+            if (!idTokenResponse.isSuccess()) {
+                throw new RuntimeException(
+                        "Failed to verify the ID token. Error Data: "
+                        + idTokenResponse.getErrorData());
+            }
+            // Usually cached by the key set fetch above.
+            return new VerifiedIdToken(
+                    idTokenResponse.getResponseData(), authApiClient.getOpenIdDiscoveryDocument());
+        }
+
+        private void validateIdToken(
+                final LineIdToken idToken,
+                final String userId,
+                final LineApiResponse<OpenIdDiscoveryDocument> response) {
             if (!response.isSuccess()) {
                 throw new RuntimeException("Failed to get OpenId Discovery Document. "
                                            + " Response Code: " + response.getResponseCode()
@@ -293,4 +366,22 @@ import androidx.annotation.VisibleForTesting;
             activity.onAuthenticationFinished(lineLoginResult);
         }
     }
+
+    /**
+     * An ID token whose signature has been verified, and the discovery document to validate its
+     * claims with.
+     */
+    private static class VerifiedIdToken {
+        @NonNull
+        private final LineIdToken idToken;
+        @NonNull
+        private final LineApiResponse<OpenIdDiscoveryDocument> discoveryDocumentResponse;
+
+        private VerifiedIdToken(
+                @NonNull LineIdToken idToken,
+                @NonNull LineApiResponse<OpenIdDiscoveryDocument> discoveryDocumentResponse) {
+            this.idToken = idToken;
+            this.discoveryDocumentResponse = discoveryDocumentResponse;
+        }
+    }
 }
@@ -1,21 +1,21 @@
 package com.linecorp.linesdk.dialog.internal;
 
-import android.os.AsyncTask;
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 
-import com.linecorp.linesdk.FriendSortField;
-import com.linecorp.linesdk.GetFriendsResponse;
-import com.linecorp.linesdk.GetGroupsResponse;
 import com.linecorp.linesdk.LineApiResponse;
 import com.linecorp.linesdk.LineFriendProfile;
 import com.linecorp.linesdk.LineGroup;
 import com.linecorp.linesdk.api.LineApiClient;
+import com.linecorp.linesdk.api.SocialGraphStore;
+import com.linecorp.linesdk.internal.concurrent.BackgroundTask;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Supplier;
 
-public class GetTargetUserTask extends AsyncTask<Void, List<TargetUser>, Void> {
+public class GetTargetUserTask extends BackgroundTask<Void> {
     private TargetUser.Type type;
     private LineApiClient lineApiClient;
     private NextAction nextAction;
@@ -27,7 +27,7 @@ public class GetTargetUserTask extends AsyncTask<Void, List<TargetUser>, Void> {
     }
 
     @Override
-    protected Void doInBackground(Void... voids) {
+    protected Void doInBackground() {
         if (type == TargetUser.Type.FRIEND) {
             getAllFriends();
         } else if (type == TargetUser.Type.GROUP) {
@@ -36,16 +36,18 @@ public class GetTargetUserTask extends AsyncTask<Void, List<TargetUser>, Void> {
         return null;
     }
 
-    @Override
-    protected void onProgressUpdate(List<TargetUser>... values) {
-        List<TargetUser> targetUserList = values[0];
-        nextAction.run(targetUserList);
+    private void publishProgress(List<TargetUser> targetUserList) {
+        runOnMainThread(() -> nextAction.run(targetUserList));
     }
 
 
-    @FunctionalInterface
     public interface NextAction {
         void run(final List<TargetUser> targetUserList);
+
+        /**
+         * Replaces all the target users passed so far, e.g. with the synced ones.
+         */
+        void reset(final List<TargetUser> targetUserList);
     }
 
     @NonNull
@@ -66,36 +68,67 @@ public class GetTargetUserTask extends AsyncTask<Void, List<TargetUser>, Void> {
         return targetUsers;
     }
 
+    /**
+     * Shows the stored friends first if any, and then updates the list with the downloaded one.
+     * Without stored friends, the downloaded pages are shown as they arrive.
+     */
     private void getAllFriends() {
-        String nextPageToken = "";
-        while (nextPageToken != null) {
-            LineApiResponse<GetFriendsResponse> response =
-                    lineApiClient.getFriends(FriendSortField.RELATION, nextPageToken, true);
-            if (!response.isSuccess()) {
-                publishProgress(Collections.emptyList());
-                return;
-            }
-
-            GetFriendsResponse getFriendsResponse = response.getResponseData();
-            publishProgress(convertFriendsToTargetUsers(getFriendsResponse.getFriends()));
-            nextPageToken = getFriendsResponse.getNextPageRequestToken();
+        SocialGraphStore store = lineApiClient.getSocialGraphStore();
+        List<LineFriendProfile> storedFriends = store.getFriends();
+        if (storedFriends != null) {
+            publishProgress(convertFriendsToTargetUsers(storedFriends));
         }
+        LineApiResponse<SocialGraphStore.SyncResult> response = store.syncFriends(
+                storedFriends != null
+                        ? null
+                        : page -> {
+                            if (!isCancelled()) {
+                                publishProgress(convertFriendsToTargetUsers(page));
+                            }
+                        });
+        onSynced(response, storedFriends != null, () -> convertFriendsToTargetUsers(
+                nonNullList(store.getFriends())));
     }
 
     private void getAllGroups() {
-        String nextPageToken = "";
-        while (nextPageToken != null) {
-            LineApiResponse<GetGroupsResponse> response =
-                    lineApiClient.getGroups(nextPageToken, true);
-            if (!response.isSuccess()) {
+        SocialGraphStore store = lineApiClient.getSocialGraphStore();
+        List<LineGroup> storedGroups = store.getGroups();
+        if (storedGroups != null) {
+            publishProgress(convertGroupsToTargetUsers(storedGroups));
+        }
+        LineApiResponse<SocialGraphStore.SyncResult> response = store.syncGroups(
+                storedGroups != null
+                        ? null
+                        : page -> {
+                            if (!isCancelled()) {
+                                publishProgress(convertGroupsToTargetUsers(page));
+                            }
+                        });
+        onSynced(response, storedGroups != null, () -> convertGroupsToTargetUsers(
+                nonNullList(store.getGroups())));
+    }
+
+    private void onSynced(@NonNull LineApiResponse<SocialGraphStore.SyncResult> response,
+                          boolean isStoredListShown,
+                          @NonNull Supplier<List<TargetUser>> storedTargetUsers) {
+        if (isCancelled()) {
+            return;
+        }
+        if (!response.isSuccess()) {
+            // Keep showing the stored list if any.
+            if (!isStoredListShown) {
                 publishProgress(Collections.emptyList());
-                return;
             }
-
-            GetGroupsResponse getGroupsResponse = response.getResponseData();
-            publishProgress(convertGroupsToTargetUsers(getGroupsResponse.getGroups()));
-            nextPageToken = getGroupsResponse.getNextPageRequestToken();
+            return;
+        }
+        if (isStoredListShown && response.getResponseData().hasChanges()) {
+            List<TargetUser> targetUsers = storedTargetUsers.get();
+            runOnMainThread(() -> nextAction.reset(targetUsers));
         }
     }
 
+    @NonNull
+    private static <T> List<T> nonNullList(@Nullable List<T> list) {
+        return list != null ? list : Collections.emptyList();
+    }
 }
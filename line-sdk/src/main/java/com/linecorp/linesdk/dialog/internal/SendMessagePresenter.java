@@ -1,8 +1,8 @@
 package com.linecorp.linesdk.dialog.internal;
 
-import android.os.AsyncTask;
-
+import com.linecorp.linesdk.LineSdkExecutors;
 import com.linecorp.linesdk.api.LineApiClient;
+import com.linecorp.linesdk.internal.concurrent.TaskGroup;
 import com.linecorp.linesdk.message.MessageData;
 
 import java.util.ArrayList;
@@ -15,7 +15,7 @@ public class SendMessagePresenter implements SendMessageContract.Presenter, Targ
 
     private List<TargetUser> targetUserList = new ArrayList<>();
 
-    private List<AsyncTask> asyncTaskList = new ArrayList<>();
+    private TaskGroup taskGroup = new TaskGroup();
 
     private static final int MAX_TARGET_SIZE = 10;
     private ApiStatusListener apiStatusListener = new ApiStatusListener() {
@@ -52,9 +52,9 @@ public class SendMessagePresenter implements SendMessageContract.Presenter, Targ
         List messages = new ArrayList<MessageData>() {{
             add(messageData);
         }};
-        SendMessageTask sendMessageTask = new SendMessageTask(lineApiClient, messages, apiStatusListener);
-        asyncTaskList.add(sendMessageTask);
-        sendMessageTask.execute(targetUserList);
+        SendMessageTask sendMessageTask =
+                new SendMessageTask(lineApiClient, targetUserList, messages, apiStatusListener);
+        taskGroup.execute(sendMessageTask, LineSdkExecutors.getIoExecutor());
     }
 
     @Override
@@ -78,9 +78,7 @@ public class SendMessagePresenter implements SendMessageContract.Presenter, Targ
 
     @Override
     public void release() {
-        for (AsyncTask task : asyncTaskList) {
-            task.cancel(true);
-        }
+        taskGroup.cancelAll();
     }
 
     @Override
@@ -95,7 +93,6 @@ public class SendMessagePresenter implements SendMessageContract.Presenter, Targ
 
     private void getTargets(TargetUser.Type type, GetTargetUserTask.NextAction nextAction) {
         GetTargetUserTask task = new GetTargetUserTask(type, lineApiClient, nextAction);
-        task.execute();
-        asyncTaskList.add(task);
+        taskGroup.execute(task, LineSdkExecutors.getIoExecutor());
     }
 }
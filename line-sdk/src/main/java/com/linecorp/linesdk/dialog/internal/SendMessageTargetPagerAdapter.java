@@ -10,6 +10,7 @@ import android.view.ViewGroup;
 import com.linecorp.linesdk.R;
 
 import java.util.HashMap;
+import java.util.List;
 
 public class SendMessageTargetPagerAdapter extends PagerAdapter {
     private Context context;
@@ -43,12 +44,12 @@ public class SendMessageTargetPagerAdapter extends PagerAdapter {
         switch (targetUserType) {
             case FRIEND: {
                 view = new TargetListWithSearchView(context, R.string.search_no_fiend, listener);
-                presenter.getFriends(view::addTargetUsers);
+                presenter.getFriends(newNextAction(view));
                 break;
             }
             case GROUP: {
                 view = new TargetListWithSearchView(context, R.string.search_no_group, listener);
-                presenter.getGroups(view::addTargetUsers);
+                presenter.getGroups(newNextAction(view));
                 break;
             }
             default:
@@ -73,6 +74,22 @@ public class SendMessageTargetPagerAdapter extends PagerAdapter {
         }
     }
 
+    @NonNull
+    private static GetTargetUserTask.NextAction newNextAction(
+            @NonNull TargetListWithSearchView view) {
+        return new GetTargetUserTask.NextAction() {
+            @Override
+            public void run(List<TargetUser> targetUserList) {
+                view.addTargetUsers(targetUserList);
+            }
+
+            @Override
+            public void reset(List<TargetUser> targetUserList) {
+                view.setTargetUsers(targetUserList);
+            }
+        };
+    }
+
     public void unSelect(TargetUser targetUser) {
         TargetUser.Type type = targetUser.getType();
         viewHashMap.get(type).unSelect(targetUser);
@@ -5,36 +5,43 @@ import androidx.annotation.Nullable;
 import com.linecorp.linesdk.LineApiResponse;
 import com.linecorp.linesdk.SendMessageResponse;
 import com.linecorp.linesdk.api.LineApiClient;
+import com.linecorp.linesdk.internal.concurrent.BackgroundTask;
 import com.linecorp.linesdk.message.MessageData;
 
 import java.util.ArrayList;
 import java.util.List;
 
-public class SendMessageTask extends android.os.AsyncTask<List<TargetUser>, Void,
-        LineApiResponse<List<SendMessageResponse>>> {
+public class SendMessageTask extends BackgroundTask<LineApiResponse<List<SendMessageResponse>>> {
     private LineApiClient lineApiClient;
+    private List<TargetUser> targetUsers;
     private List<MessageData> messages;
     @Nullable
     private ApiStatusListener apiStatusListener;
 
-    SendMessageTask(LineApiClient lineApiClient, List<MessageData> messageDataList) {
-        this(lineApiClient, messageDataList, null);
+    SendMessageTask(
+            LineApiClient lineApiClient,
+            List<TargetUser> targetUsers,
+            List<MessageData> messageDataList) {
+        this(lineApiClient, targetUsers, messageDataList, null);
     }
 
     SendMessageTask(
             LineApiClient lineApiClient,
+            List<TargetUser> targetUsers,
             List<MessageData> messages,
             @Nullable ApiStatusListener apiStatusListener
     ) {
         this.lineApiClient = lineApiClient;
+        // The selection may change while the messages are being sent.
+        this.targetUsers = new ArrayList<>(targetUsers);
         this.messages = messages;
         this.apiStatusListener = apiStatusListener;
     }
 
     @Override
-    protected LineApiResponse<List<SendMessageResponse>> doInBackground(List<TargetUser>... targetUsers) {
+    protected LineApiResponse<List<SendMessageResponse>> doInBackground() {
         List<String> targetUserIds = new ArrayList<>();
-        for (TargetUser targetUser : targetUsers[0]) {
+        for (TargetUser targetUser : targetUsers) {
             targetUserIds.add(targetUser.getId());
         }
         return lineApiClient.sendMessageToMultipleUsers(targetUserIds, messages, true);
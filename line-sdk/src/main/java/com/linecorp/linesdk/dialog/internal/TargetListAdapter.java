@@ -8,19 +8,54 @@ import android.widget.CheckBox;
 import android.widget.ImageView;
 import android.widget.TextView;
 
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 
+import com.linecorp.linesdk.LineSdkExecutors;
 import com.linecorp.linesdk.R;
 import com.squareup.picasso.Picasso;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
+/**
+ * Shows the target users matching the search query.
+ * <p>
+ * The search index is updated and searched on a dedicated background thread, and the results are
+ * applied on the main thread through {@link DiffUtil}, so that typing a query doesn't block the UI
+ * even with thousands of target users.
+ */
 public class TargetListAdapter extends RecyclerView.Adapter<TargetListAdapter.TargetViewHolder> {
+    // Rebinds a row whose target user hasn't changed without the change animation.
+    private static final Object PAYLOAD_HIGHLIGHT = new Object();
+
+    @NonNull
+    private final Executor searchExecutor = LineSdkExecutors.getSearchExecutor();
+    @NonNull
+    private final AtomicLong searchGeneration = new AtomicLong();
+    private volatile String queryString = "";
+
+    // Used only on searchExecutor.
+    @NonNull
+    private final TargetSearchIndex searchIndex = new TargetSearchIndex();
+    @NonNull
+    private TargetSearchIndex.Result searchedResult = TargetSearchIndex.Result.EMPTY;
+
+    // Used only on the main thread.
     private List<TargetUser> originalTargetList;
-    private List<TargetUser> targetList;
+    @NonNull
+    private TargetSearchIndex.Result shownResult = TargetSearchIndex.Result.EMPTY;
     private OnSelectedChangeListener externalListener;
-    private String queryString = "";
+    @Nullable
+    private OnFilteredListener onFilteredListener;
 
     public class TargetViewHolder extends RecyclerView.ViewHolder {
         private ViewGroup viewContainer;
@@ -38,10 +73,14 @@ public class TargetListAdapter extends RecyclerView.Adapter<TargetListAdapter.Ta
             highlightTextColor = vg.getResources().getColor(R.color.text_highlight);
         }
 
-        public void bind(TargetUser targetUser, OnSelectedChangeListener listener) {
+        public void bind(TargetUser targetUser,
+                         int highlightStart,
+                         int highlightLength,
+                         OnSelectedChangeListener listener) {
             viewContainer.setSelected(targetUser.getSelected());
             checkBox.setChecked(targetUser.getSelected());
-            textView.setText(createHighlightTextSpan(targetUser.getDisplayName(), queryString));
+            textView.setText(
+                    createHighlightTextSpan(targetUser.getDisplayName(), highlightStart, highlightLength));
 
             viewContainer.setOnClickListener(view -> {
                 boolean isChecked = !targetUser.getSelected();
@@ -59,41 +98,41 @@ public class TargetListAdapter extends RecyclerView.Adapter<TargetListAdapter.Ta
                     .into(imageView);
         }
 
-        private SpannableString createHighlightTextSpan(String text, String toBeHighLighted) {
+        private SpannableString createHighlightTextSpan(
+                String text, int highlightStart, int highlightLength) {
             SpannableString span = new SpannableString(text);
-            if (toBeHighLighted.isEmpty()) return span;
-
-            int foundIndex = text.toLowerCase().indexOf(toBeHighLighted.toLowerCase());
-            if (foundIndex != -1) {
+            if (highlightStart != -1) {
                 span.setSpan(new ForegroundColorSpan(highlightTextColor),
-                        foundIndex, foundIndex + toBeHighLighted.length(), 0);
+                        highlightStart, highlightStart + highlightLength, 0);
             }
             return span;
         }
     }
 
-    public TargetListAdapter(List<TargetUser> targetList, OnSelectedChangeListener externalListener) {
-        this.originalTargetList = targetList;
-        this.targetList = new ArrayList<TargetUser>(){{ addAll(originalTargetList); }};
+    public TargetListAdapter(List<TargetUser> targetList,
+                             OnSelectedChangeListener externalListener,
+                             @Nullable OnFilteredListener onFilteredListener) {
+        this.originalTargetList = new ArrayList<>(targetList);
         this.externalListener = externalListener;
+        this.onFilteredListener = onFilteredListener;
+        List<TargetUser> initialTargetList = new ArrayList<>(targetList);
+        updateIndex(index -> index.addAll(initialTargetList));
     }
 
-    public int filter(String text) {
+    /**
+     * Searches the target users whose display name contains the given text. The result is shown
+     * and passed to the {@link OnFilteredListener} asynchronously.
+     */
+    @MainThread
+    public void filter(String text) {
         queryString = text;
-        targetList.clear();
-        if(text.isEmpty()){
-            targetList.addAll(originalTargetList);
-        } else{
-            text = text.toLowerCase();
-            for(TargetUser targetUser: originalTargetList){
-                if(targetUser.getDisplayName().toLowerCase().contains(text)) {
-                    targetList.add(targetUser);
-                }
+        long generation = searchGeneration.incrementAndGet();
+        searchExecutor.execute(() -> {
+            // A newer query will be searched anyway.
+            if (generation == searchGeneration.get()) {
+                search();
             }
-        }
-
-        notifyDataSetChanged();
-        return targetList.size();
+        });
     }
 
     @Override
@@ -105,36 +144,153 @@ public class TargetListAdapter extends RecyclerView.Adapter<TargetListAdapter.Ta
 
     @Override
     public void onBindViewHolder(TargetViewHolder holder, int position) {
-        holder.bind(targetList.get(position), listener);
+        holder.bind(shownResult.getTargetUsers().get(position),
+                    shownResult.getHighlightStart(position),
+                    shownResult.getHighlightLength(),
+                    listener);
     }
 
     @Override
     public int getItemCount() {
-        return targetList.size();
+        return shownResult.getTargetUsers().size();
     }
 
     public void unSelect(TargetUser user) {
-        for (int index = 0; index < targetList.size(); index++) {
-            TargetUser targetUser = targetList.get(index);
+        for (TargetUser targetUser : originalTargetList) {
             if (targetUser.getId().equals(user.getId())) {
                 targetUser.setSelected(false);
-                notifyItemChanged(index);
                 break;
             }
         }
+        int index = shownResult.getTargetUsers().indexOf(user);
+        if (index != -1) {
+            notifyItemChanged(index);
+        }
     }
 
+    @MainThread
     public void addAll(List<TargetUser> newItems) {
-        int position = targetList.size() - 1;
         originalTargetList.addAll(newItems);
-        targetList.addAll(newItems);
-        notifyItemRangeInserted(position, newItems.size());
+        List<TargetUser> addedTargetList = new ArrayList<>(newItems);
+        updateIndex(index -> index.addAll(addedTargetList));
+    }
+
+    /**
+     * Replaces all the items. The selected items stay selected and the current query is applied
+     * to the new items.
+     */
+    @MainThread
+    public void setAll(List<TargetUser> newItems) {
+        Set<String> selectedIds = new HashSet<>();
+        for (TargetUser targetUser : originalTargetList) {
+            if (targetUser.getSelected()) {
+                selectedIds.add(targetUser.getId());
+            }
+        }
+        originalTargetList.clear();
+        for (TargetUser targetUser : newItems) {
+            targetUser.setSelected(selectedIds.contains(targetUser.getId()));
+            originalTargetList.add(targetUser);
+        }
+        List<TargetUser> newTargetList = new ArrayList<>(newItems);
+        updateIndex(index -> index.setAll(newTargetList));
+    }
+
+    private void updateIndex(@NonNull Consumer<TargetSearchIndex> update) {
+        searchExecutor.execute(() -> {
+            update.accept(searchIndex);
+            search();
+        });
+    }
+
+    // Must be called on searchExecutor.
+    private void search() {
+        String query = queryString;
+        TargetSearchIndex.Result oldResult = searchedResult;
+        TargetSearchIndex.Result newResult = searchIndex.search(query);
+        DiffUtil.DiffResult diffResult = DiffUtil.calculateDiff(
+                new ResultDiffCallback(oldResult, newResult), false /* detectMoves */);
+        searchedResult = newResult;
+        LineSdkExecutors.getMainThreadExecutor().execute(() -> {
+            shownResult = newResult;
+            diffResult.dispatchUpdatesTo(this);
+            if (onFilteredListener != null) {
+                onFilteredListener.onFiltered(query, newResult.getTargetUsers().size());
+            }
+        });
+    }
+
+    @Override
+    public void onBindViewHolder(
+            @NonNull TargetViewHolder holder, int position, @NonNull List<Object> payloads) {
+        // The whole row is cheap to bind. The payload only suppresses the change animation.
+        onBindViewHolder(holder, position);
     }
 
     public interface OnSelectedChangeListener {
         void onSelected(TargetUser targetUser, boolean isSelected);
     }
 
+    public interface OnFilteredListener {
+        /**
+         * Called on the main thread when the result of a search is shown.
+         */
+        void onFiltered(String query, int filteredCount);
+    }
+
+    private static class ResultDiffCallback extends DiffUtil.Callback {
+        @NonNull
+        private final TargetSearchIndex.Result oldResult;
+        @NonNull
+        private final TargetSearchIndex.Result newResult;
+
+        private ResultDiffCallback(@NonNull TargetSearchIndex.Result oldResult,
+                                   @NonNull TargetSearchIndex.Result newResult) {
+            this.oldResult = oldResult;
+            this.newResult = newResult;
+        }
+
+        @Override
+        public int getOldListSize() {
+            return oldResult.getTargetUsers().size();
+        }
+
+        @Override
+        public int getNewListSize() {
+            return newResult.getTargetUsers().size();
+        }
+
+        @Override
+        public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
+            return oldResult.getTargetUsers().get(oldItemPosition)
+                    .equals(newResult.getTargetUsers().get(newItemPosition));
+        }
+
+        @Override
+        public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
+            return oldResult.getTargetUsers().get(oldItemPosition)
+                           == newResult.getTargetUsers().get(newItemPosition)
+                   && isSameHighlight(oldItemPosition, newItemPosition);
+        }
+
+        @Nullable
+        @Override
+        public Object getChangePayload(int oldItemPosition, int newItemPosition) {
+            return oldResult.getTargetUsers().get(oldItemPosition)
+                           == newResult.getTargetUsers().get(newItemPosition)
+                   ? PAYLOAD_HIGHLIGHT
+                   : null;
+        }
+
+        private boolean isSameHighlight(int oldItemPosition, int newItemPosition) {
+            int oldStart = oldResult.getHighlightStart(oldItemPosition);
+            int newStart = newResult.getHighlightStart(newItemPosition);
+            return oldStart == newStart
+                   && (oldStart == -1
+                       || oldResult.getHighlightLength() == newResult.getHighlightLength());
+        }
+    }
+
     private OnSelectedChangeListener listener = new OnSelectedChangeListener() {
         @Override
         public void onSelected(TargetUser targetUser, boolean isSelected) {
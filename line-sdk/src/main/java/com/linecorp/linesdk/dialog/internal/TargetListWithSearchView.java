@@ -45,15 +45,23 @@ public class TargetListWithSearchView extends ConstraintLayout {
     public void addTargetUsers(List<TargetUser> targetUsers) {
         TargetListAdapter targetListAdapter = (TargetListAdapter) recyclerView.getAdapter();
         if (targetListAdapter == null) {
-            TargetListAdapter adapter = new TargetListAdapter(targetUsers, listener);
+            TargetListAdapter adapter =
+                    new TargetListAdapter(targetUsers, listener, this::onFiltered);
             recyclerView.setAdapter(adapter);
         } else {
             targetListAdapter.addAll(targetUsers);
         }
+    }
 
-        if (recyclerView.getAdapter().getItemCount() == 0) {
-            emptyView.setText(noMembersResId);
-            emptyView.setVisibility(View.VISIBLE);
+    /**
+     * Replaces the shown target users, keeping the selection and the search query.
+     */
+    public void setTargetUsers(List<TargetUser> targetUsers) {
+        TargetListAdapter targetListAdapter = (TargetListAdapter) recyclerView.getAdapter();
+        if (targetListAdapter == null) {
+            addTargetUsers(targetUsers);
+        } else {
+            targetListAdapter.setAll(targetUsers);
         }
     }
 
@@ -90,19 +98,22 @@ public class TargetListWithSearchView extends ConstraintLayout {
             private void searchText(String query) {
                 TargetListAdapter adapter = ((TargetListAdapter)recyclerView.getAdapter());
                 if (adapter != null) {
-                    int filteredCount = adapter.filter(query);
-                    if (filteredCount == 0) {
-                        emptyView.setVisibility(View.VISIBLE);
-                        if (!query.isEmpty()) {
-                            emptyView.setText(R.string.search_no_results);
-                        } else {
-                            emptyView.setText(noMembersResId);
-                        }
-                    } else {
-                        emptyView.setVisibility(View.INVISIBLE);
-                    }
+                    adapter.filter(query);
                 }
             }
         });
     }
+
+    private void onFiltered(String query, int filteredCount) {
+        if (filteredCount == 0) {
+            emptyView.setVisibility(View.VISIBLE);
+            if (!query.isEmpty()) {
+                emptyView.setText(R.string.search_no_results);
+            } else {
+                emptyView.setText(noMembersResId);
+            }
+        } else {
+            emptyView.setVisibility(View.INVISIBLE);
+        }
+    }
 }
@@ -0,0 +1,143 @@
+package com.linecorp.linesdk.dialog.internal;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Searches target users by display name. The names are normalized once when they are added, and
+ * a query that extends the previous one only scans the previous matches.
+ * <p>
+ * This class is not thread safe. {@link TargetListAdapter} uses it only on the single thread of
+ * {@link com.linecorp.linesdk.LineSdkExecutors#getSearchExecutor()}.
+ */
+class TargetSearchIndex {
+    @NonNull
+    private final Locale locale;
+    @NonNull
+    private final List<TargetUser> targetUsers = new ArrayList<>();
+    @NonNull
+    private final List<String> normalizedNames = new ArrayList<>();
+
+    // The previous query and the positions of its matches in targetUsers.
+    @Nullable
+    private String lastQuery;
+    @Nullable
+    private int[] lastMatches;
+
+    TargetSearchIndex() {
+        this(Locale.getDefault());
+    }
+
+    TargetSearchIndex(@NonNull Locale locale) {
+        this.locale = locale;
+    }
+
+    @WorkerThread
+    void addAll(@NonNull List<TargetUser> newTargetUsers) {
+        for (TargetUser targetUser : newTargetUsers) {
+            targetUsers.add(targetUser);
+            normalizedNames.add(normalize(targetUser.getDisplayName()));
+        }
+        // The previous matches don't cover the new target users.
+        lastQuery = null;
+        lastMatches = null;
+    }
+
+    @WorkerThread
+    void setAll(@NonNull List<TargetUser> newTargetUsers) {
+        targetUsers.clear();
+        normalizedNames.clear();
+        addAll(newTargetUsers);
+    }
+
+    @WorkerThread
+    @NonNull
+    Result search(@NonNull String query) {
+        String normalizedQuery = normalize(query);
+        int[] candidates = lastQuery != null && normalizedQuery.startsWith(lastQuery)
+                ? lastMatches
+                : null;
+        int candidateCount = candidates != null ? candidates.length : targetUsers.size();
+
+        int[] matches = new int[candidateCount];
+        int[] highlightStarts = new int[candidateCount];
+        int matchCount = 0;
+        for (int i = 0; i < candidateCount; i++) {
+            int index = candidates != null ? candidates[i] : i;
+            String normalizedName = normalizedNames.get(index);
+            int start = normalizedName.indexOf(normalizedQuery);
+            if (start < 0) {
+                continue;
+            }
+            matches[matchCount] = index;
+            // The position can't be used for the display name if the normalization has changed
+            // the length of the name.
+            String displayName = targetUsers.get(index).getDisplayName();
+            boolean isHighlightable = !normalizedQuery.isEmpty()
+                                      && displayName != null
+                                      && displayName.length() == normalizedName.length();
+            highlightStarts[matchCount] = isHighlightable ? start : -1;
+            matchCount++;
+        }
+        lastQuery = normalizedQuery;
+        lastMatches = Arrays.copyOf(matches, matchCount);
+
+        List<TargetUser> matchedTargetUsers = new ArrayList<>(matchCount);
+        for (int i = 0; i < matchCount; i++) {
+            matchedTargetUsers.add(targetUsers.get(matches[i]));
+        }
+        return new Result(normalizedQuery.length(),
+                          Collections.unmodifiableList(matchedTargetUsers),
+                          Arrays.copyOf(highlightStarts, matchCount));
+    }
+
+    @NonNull
+    private String normalize(@Nullable String text) {
+        return text == null ? "" : text.toLowerCase(locale);
+    }
+
+    /**
+     * The target users matching a query, in the order they were added.
+     */
+    static class Result {
+        static final Result EMPTY = new Result(0, Collections.emptyList(), new int[0]);
+
+        private final int highlightLength;
+        @NonNull
+        private final List<TargetUser> targetUsers;
+        @NonNull
+        private final int[] highlightStarts;
+
+        Result(int highlightLength,
+               @NonNull List<TargetUser> targetUsers,
+               @NonNull int[] highlightStarts) {
+            this.highlightLength = highlightLength;
+            this.targetUsers = targetUsers;
+            this.highlightStarts = highlightStarts;
+        }
+
+        int getHighlightLength() {
+            return highlightLength;
+        }
+
+        @NonNull
+        List<TargetUser> getTargetUsers() {
+            return targetUsers;
+        }
+
+        /**
+         * @return The start of the query in the display name of the target user at the given
+         * position, or -1 if nothing should be highlighted.
+         */
+        int getHighlightStart(int position) {
+            return highlightStarts[position];
+        }
+    }
+}
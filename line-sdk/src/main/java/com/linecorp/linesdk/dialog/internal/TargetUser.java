@@ -63,6 +63,28 @@ public class TargetUser {
                               group.getPictureUrl());
     }
 
+    /**
+     * Target users are identified by their type and ID, so that a target user still matches
+     * after the list is reloaded.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        TargetUser that = (TargetUser) o;
+
+        if (type != that.type) return false;
+        return id.equals(that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = type.hashCode();
+        result = 31 * result + id.hashCode();
+        return result;
+    }
+
     public static int getTargetTypeCount() {
         return Type.values().length;
     }
@@ -8,12 +8,18 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.annotation.VisibleForTesting;
 
+import com.linecorp.linesdk.LineSdkTrace;
 import com.linecorp.linesdk.internal.security.encryption.EncryptionException;
 import com.linecorp.linesdk.internal.security.encryption.StringCipher;
 import com.linecorp.linesdk.utils.ObjectUtils;
 
 /**
  * Class to cache {@link InternalAccessToken}.
+ * <p>
+ * The decrypted token is also kept in memory together with the encrypted values it was read from.
+ * As long as the persisted encrypted values are unchanged, {@link #getAccessToken()} returns the
+ * token in memory without decrypting. Since the values are compared on every read, a token saved
+ * or cleared through another instance for the same channel is never missed.
  */
 public class AccessTokenCache {
     private static final String SHARED_PREFERENCE_KEY_PREFIX = "com.linecorp.linesdk.accesstoken.";
@@ -32,6 +38,9 @@ public class AccessTokenCache {
     @NonNull
     private final StringCipher encryptor;
 
+    @Nullable
+    private volatile DecryptedAccessToken decryptedAccessToken;
+
     public AccessTokenCache(@NonNull Context context, @NonNull String channelId) {
         this(context.getApplicationContext(), channelId, EncryptorHolder.getEncryptor());
     }
@@ -51,33 +60,65 @@ public class AccessTokenCache {
                 .edit()
                 .clear()
                 .apply();
+        decryptedAccessToken = null;
     }
 
     public void saveAccessToken(@NonNull InternalAccessToken accessToken) {
+        EncryptedValues encryptedValues = new EncryptedValues(
+                encryptString(accessToken.getAccessToken()),
+                encryptLong(accessToken.getExpiresInMillis()),
+                encryptLong(accessToken.getIssuedClientTimeMillis()),
+                encryptString(accessToken.getRefreshToken()));
         context.getSharedPreferences(sharedPreferenceKey, Context.MODE_PRIVATE)
                 .edit()
-                .putString(DATA_KEY_ACCESS_TOKEN,
-                        encryptString(accessToken.getAccessToken()))
-                .putString(DATA_KEY_EXPIRES_IN_MILLIS,
-                        encryptLong(accessToken.getExpiresInMillis()))
-                .putString(DATA_KEY_ISSUED_CLIENT_TIME_MILLIS,
-                        encryptLong(accessToken.getIssuedClientTimeMillis()))
-                .putString(DATA_KEY_REFRESH_TOKEN,
-                        encryptString(accessToken.getRefreshToken()))
+                .putString(DATA_KEY_ACCESS_TOKEN, encryptedValues.accessToken)
+                .putString(DATA_KEY_EXPIRES_IN_MILLIS, encryptedValues.expiresIn)
+                .putString(DATA_KEY_ISSUED_CLIENT_TIME_MILLIS, encryptedValues.issuedClientTime)
+                .putString(DATA_KEY_REFRESH_TOKEN, encryptedValues.refreshToken)
                 .apply();
+        decryptedAccessToken = new DecryptedAccessToken(encryptedValues, accessToken);
     }
 
     @Nullable
     public InternalAccessToken getAccessToken() {
+        boolean isTraced = LineSdkTrace.beginSection("LineSdk:AccessTokenCache.getAccessToken");
+        try {
+            return getAccessTokenInternal();
+        } finally {
+            LineSdkTrace.endSection(isTraced);
+        }
+    }
+
+    @Nullable
+    private InternalAccessToken getAccessTokenInternal() {
         SharedPreferences sharedPreferences =
                 context.getSharedPreferences(sharedPreferenceKey, Context.MODE_PRIVATE);
+        // SharedPreferences keeps its values in memory, so this doesn't touch the disk.
+        EncryptedValues encryptedValues = new EncryptedValues(
+                sharedPreferences.getString(DATA_KEY_ACCESS_TOKEN, null /* default */),
+                sharedPreferences.getString(DATA_KEY_EXPIRES_IN_MILLIS, null /* default */),
+                sharedPreferences.getString(DATA_KEY_ISSUED_CLIENT_TIME_MILLIS, null /* default */),
+                sharedPreferences.getString(DATA_KEY_REFRESH_TOKEN, null /* default */));
+
+        DecryptedAccessToken cachedToken = decryptedAccessToken;
+        if (cachedToken != null && cachedToken.encryptedValues.equals(encryptedValues)) {
+            return cachedToken.accessToken;
+        }
+
+        InternalAccessToken accessToken = decryptAccessToken(encryptedValues);
+        decryptedAccessToken = new DecryptedAccessToken(encryptedValues, accessToken);
+        return accessToken;
+    }
+
+    @Nullable
+    private InternalAccessToken decryptAccessToken(@NonNull EncryptedValues encryptedValues) {
         String accessToken;
         long expiresIn;
         long issuedClientTime;
         try {
-            accessToken = decryptToString(sharedPreferences.getString(DATA_KEY_ACCESS_TOKEN, null /* default */));
-            expiresIn = decryptToLong(sharedPreferences.getString(DATA_KEY_EXPIRES_IN_MILLIS, null /* default */));
-            issuedClientTime = decryptToLong(sharedPreferences.getString(DATA_KEY_ISSUED_CLIENT_TIME_MILLIS, null /* default */));
+            accessToken = decryptToString(encryptedValues.accessToken);
+            expiresIn = decryptToLong(encryptedValues.expiresIn);
+            issuedClientTime = decryptToLong(encryptedValues.issuedClientTime);
         } catch (EncryptionException exception) {
             clear();
             throw exception;
@@ -89,7 +130,7 @@ public class AccessTokenCache {
             return null;
         }
 
-        String refreshToken = decryptToString(sharedPreferences.getString(DATA_KEY_REFRESH_TOKEN, null /* default */));
+        String refreshToken = decryptToString(encryptedValues.refreshToken);
         refreshToken = ObjectUtils.defaultIfNull(refreshToken, "");
         return new InternalAccessToken(accessToken, expiresIn, issuedClientTime, refreshToken);
     }
@@ -123,4 +164,68 @@ public class AccessTokenCache {
             return NO_DATA;
         }
     }
+
+    /**
+     * The encrypted values of a token as they are persisted.
+     */
+    private static class EncryptedValues {
+        @Nullable
+        private final String accessToken;
+        @Nullable
+        private final String expiresIn;
+        @Nullable
+        private final String issuedClientTime;
+        @Nullable
+        private final String refreshToken;
+
+        private EncryptedValues(
+                @Nullable String accessToken,
+                @Nullable String expiresIn,
+                @Nullable String issuedClientTime,
+                @Nullable String refreshToken) {
+            this.accessToken = accessToken;
+            this.expiresIn = expiresIn;
+            this.issuedClientTime = issuedClientTime;
+            this.refreshToken = refreshToken;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            EncryptedValues that = (EncryptedValues) o;
+
+            return TextUtils.equals(accessToken, that.accessToken)
+                   && TextUtils.equals(expiresIn, that.expiresIn)
+                   && TextUtils.equals(issuedClientTime, that.issuedClientTime)
+                   && TextUtils.equals(refreshToken, that.refreshToken);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = accessToken != null ? accessToken.hashCode() : 0;
+            result = 31 * result + (expiresIn != null ? expiresIn.hashCode() : 0);
+            result = 31 * result + (issuedClientTime != null ? issuedClientTime.hashCode() : 0);
+            result = 31 * result + (refreshToken != null ? refreshToken.hashCode() : 0);
+            return result;
+        }
+    }
+
+    /**
+     * A decrypted token and the encrypted values it was decrypted from.
+     */
+    private static class DecryptedAccessToken {
+        @NonNull
+        private final EncryptedValues encryptedValues;
+        @Nullable
+        private final InternalAccessToken accessToken;
+
+        private DecryptedAccessToken(
+                @NonNull EncryptedValues encryptedValues,
+                @Nullable InternalAccessToken accessToken) {
+            this.encryptedValues = encryptedValues;
+            this.accessToken = accessToken;
+        }
+    }
 }
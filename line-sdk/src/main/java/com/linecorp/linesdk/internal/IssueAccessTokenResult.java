@@ -3,7 +3,6 @@ package com.linecorp.linesdk.internal;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
-import com.linecorp.linesdk.LineIdToken;
 import com.linecorp.linesdk.Scope;
 
 import java.util.Collections;
@@ -19,14 +18,15 @@ public class IssueAccessTokenResult {
     private final InternalAccessToken accessToken;
     @NonNull
     private final List<Scope> scopes;
+    // Not verified yet.
     @Nullable
-    private final LineIdToken idToken;
+    private final String idTokenStr;
 
     public IssueAccessTokenResult(
-            @NonNull InternalAccessToken accessToken, @NonNull List<Scope> scopes, @Nullable LineIdToken idToken) {
+            @NonNull InternalAccessToken accessToken, @NonNull List<Scope> scopes, @Nullable String idTokenStr) {
         this.accessToken = accessToken;
         this.scopes = Collections.unmodifiableList(scopes);
-        this.idToken = idToken;
+        this.idTokenStr = idTokenStr;
     }
 
     @NonNull
@@ -39,9 +39,13 @@ public class IssueAccessTokenResult {
         return scopes;
     }
 
+    /**
+     * @return The raw ID token, whose signature hasn't been verified yet, or {@code null} if the
+     * openid scope wasn't requested.
+     */
     @Nullable
-    public LineIdToken getIdToken() {
-        return idToken;
+    public String getIdTokenStr() {
+        return idTokenStr;
     }
 
     @Override
@@ -53,14 +57,14 @@ public class IssueAccessTokenResult {
 
         if (!accessToken.equals(that.accessToken)) { return false; }
         if (!scopes.equals(that.scopes)) { return false; }
-        return idToken != null ? idToken.equals(that.idToken) : that.idToken == null;
+        return idTokenStr != null ? idTokenStr.equals(that.idTokenStr) : that.idTokenStr == null;
     }
 
     @Override
     public int hashCode() {
         int result = accessToken.hashCode();
         result = 31 * result + scopes.hashCode();
-        result = 31 * result + (idToken != null ? idToken.hashCode() : 0);
+        result = 31 * result + (idTokenStr != null ? idTokenStr.hashCode() : 0);
         return result;
     }
 
@@ -71,7 +75,7 @@ public class IssueAccessTokenResult {
         return "IssueAccessTokenResult{" +
                "accessToken=" + hideIfNotDebug(accessToken) +
                ", scopes=" + scopes +
-               ", idToken=" + idToken +
+               ", idTokenStr=" + idTokenStr +
                '}';
     }
 }
@@ -2,7 +2,10 @@ package com.linecorp.linesdk.internal;
 
 import android.text.TextUtils;
 
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * JSON Web Key Set [JWK] document. <br></br>
@@ -10,21 +13,33 @@ import java.util.List;
  */
 public class JWKSet {
     private final List<JWK> keys;
+    // Index of keys by key ID. The first key wins if the IDs are duplicated.
+    private final Map<String, JWK> keysById;
 
-    private JWKSet(final Builder builder) {keys = builder.keys;}
-
-    public List<JWK> getKeys() {
-        return keys;
+    private JWKSet(final Builder builder) {
+        keys = builder.keys;
+        keysById = buildIndex(keys);
     }
 
-    public JWK getJWK(final String keyId) {
+    private static Map<String, JWK> buildIndex(final List<JWK> keys) {
+        if (keys == null || keys.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        final Map<String, JWK> index = new HashMap<>(keys.size() * 2);
         for (final JWK jwk : keys) {
-            if (TextUtils.equals(jwk.getKeyId(), keyId)) {
-                return jwk;
+            if (!index.containsKey(jwk.getKeyId())) {
+                index.put(jwk.getKeyId(), jwk);
             }
         }
+        return index;
+    }
 
-        return null;
+    public List<JWK> getKeys() {
+        return keys;
+    }
+
+    public JWK getJWK(final String keyId) {
+        return keysById.get(keyId);
     }
 
     @Override
@@ -102,6 +117,16 @@ public class JWKSet {
             return y;
         }
 
+        /**
+         * @return {@code true} if the given key has the same key material as this key.
+         */
+        public boolean hasSameKeyMaterial(final JWK other) {
+            return TextUtils.equals(keyType, other.keyType)
+                   && TextUtils.equals(curve, other.curve)
+                   && TextUtils.equals(x, other.x)
+                   && TextUtils.equals(y, other.y);
+        }
+
         @Override
         public String toString() {
             return "JWK{" +
@@ -0,0 +1,89 @@
+package com.linecorp.linesdk.internal;
+
+import android.content.Context;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+/**
+ * The database of {@link com.linecorp.linesdk.api.SocialGraphStore}. Friends and groups are
+ * stored in the same table, one row per entry, so that a sync can update only the changed rows.
+ */
+public class SocialGraphDatabase extends SQLiteOpenHelper {
+    private static final String DATABASE_NAME = "com.linecorp.linesdk.socialgraph.db";
+    private static final int DATABASE_VERSION = 1;
+
+    public static final String TABLE_ENTRIES = "entries";
+    public static final String TABLE_SYNC_STATES = "sync_states";
+
+    public static final String COLUMN_CHANNEL_ID = "channel_id";
+    public static final String COLUMN_OWNER_USER_ID = "owner_user_id";
+    public static final String COLUMN_TYPE = "type";
+    public static final String COLUMN_ID = "id";
+    public static final String COLUMN_POSITION = "position";
+    public static final String COLUMN_NAME = "name";
+    public static final String COLUMN_OVERRIDDEN_NAME = "overridden_name";
+    public static final String COLUMN_PICTURE_URL = "picture_url";
+    public static final String COLUMN_STATUS_MESSAGE = "status_message";
+    public static final String COLUMN_SYNCED_TIME_MILLIS = "synced_time_millis";
+
+    public static final int TYPE_FRIEND = 0;
+    public static final int TYPE_GROUP = 1;
+
+    @Nullable
+    private static SocialGraphDatabase instance;
+
+    private SocialGraphDatabase(@NonNull Context context) {
+        this(context, DATABASE_NAME);
+    }
+
+    /**
+     * @param databaseName The file name of the database, or {@code null} for an in-memory one.
+     */
+    @VisibleForTesting
+    public SocialGraphDatabase(@NonNull Context context, @Nullable String databaseName) {
+        super(context.getApplicationContext(), databaseName, null /* factory */, DATABASE_VERSION);
+    }
+
+    @NonNull
+    public static synchronized SocialGraphDatabase getInstance(@NonNull Context context) {
+        if (instance == null) {
+            instance = new SocialGraphDatabase(context);
+        }
+        return instance;
+    }
+
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE " + TABLE_ENTRIES + " ("
+                   + COLUMN_CHANNEL_ID + " TEXT NOT NULL, "
+                   + COLUMN_OWNER_USER_ID + " TEXT NOT NULL, "
+                   + COLUMN_TYPE + " INTEGER NOT NULL, "
+                   + COLUMN_ID + " TEXT NOT NULL, "
+                   + COLUMN_POSITION + " INTEGER NOT NULL, "
+                   + COLUMN_NAME + " TEXT NOT NULL, "
+                   + COLUMN_OVERRIDDEN_NAME + " TEXT, "
+                   + COLUMN_PICTURE_URL + " TEXT, "
+                   + COLUMN_STATUS_MESSAGE + " TEXT, "
+                   + "PRIMARY KEY (" + COLUMN_CHANNEL_ID + ", " + COLUMN_OWNER_USER_ID + ", "
+                   + COLUMN_TYPE + ", " + COLUMN_ID + "))");
+        db.execSQL("CREATE TABLE " + TABLE_SYNC_STATES + " ("
+                   + COLUMN_CHANNEL_ID + " TEXT NOT NULL, "
+                   + COLUMN_OWNER_USER_ID + " TEXT NOT NULL, "
+                   + COLUMN_TYPE + " INTEGER NOT NULL, "
+                   + COLUMN_SYNCED_TIME_MILLIS + " INTEGER NOT NULL, "
+                   + "PRIMARY KEY (" + COLUMN_CHANNEL_ID + ", " + COLUMN_OWNER_USER_ID + ", "
+                   + COLUMN_TYPE + "))");
+    }
+
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        // The data is only a cache. Download it again.
+        db.execSQL("DROP TABLE IF EXISTS " + TABLE_ENTRIES);
+        db.execSQL("DROP TABLE IF EXISTS " + TABLE_SYNC_STATES);
+        onCreate(db);
+    }
+}
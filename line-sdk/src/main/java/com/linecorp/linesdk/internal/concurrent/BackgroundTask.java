@@ -0,0 +1,107 @@
+package com.linecorp.linesdk.internal.concurrent;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+
+import com.linecorp.linesdk.LineSdkExecutors;
+
+import java.util.concurrent.Executor;
+
+/**
+ * A task that runs {@link #doInBackground()} on a given executor and delivers the result to
+ * {@link #onPostExecute(Object)} on the main thread. This replaces {@link android.os.AsyncTask},
+ * whose global serial executor made unrelated tasks wait for each other.
+ * <p>
+ * A cancelled task interrupts its worker thread and never calls back on the main thread.
+ */
+public abstract class BackgroundTask<Result> {
+    @NonNull
+    private final Object lock = new Object();
+    // Guarded by lock.
+    @Nullable
+    private Thread workerThread;
+    private volatile boolean isCancelled;
+    private volatile boolean isFinished;
+
+    @WorkerThread
+    protected abstract Result doInBackground();
+
+    @MainThread
+    protected void onPostExecute(Result result) {
+    }
+
+    /**
+     * Starts the task on the given executor.
+     *
+     * @return This task.
+     */
+    @NonNull
+    public final BackgroundTask<Result> executeOn(@NonNull Executor executor) {
+        executor.execute(this::run);
+        return this;
+    }
+
+    /**
+     * Cancels the task. If it is running, its worker thread is interrupted.
+     */
+    public final void cancel() {
+        synchronized (lock) {
+            if (isCancelled) {
+                return;
+            }
+            isCancelled = true;
+            if (workerThread != null) {
+                workerThread.interrupt();
+            }
+        }
+    }
+
+    public final boolean isCancelled() {
+        return isCancelled;
+    }
+
+    /**
+     * @return {@code true} if the task has been cancelled or its result has been delivered.
+     */
+    public final boolean isFinished() {
+        return isCancelled || isFinished;
+    }
+
+    /**
+     * Runs the given action on the main thread unless the task is cancelled by then.
+     */
+    protected final void runOnMainThread(@NonNull Runnable action) {
+        LineSdkExecutors.getMainThreadExecutor().execute(() -> {
+            if (!isCancelled) {
+                action.run();
+            }
+        });
+    }
+
+    private void run() {
+        synchronized (lock) {
+            if (isCancelled) {
+                return;
+            }
+            workerThread = Thread.currentThread();
+        }
+
+        Result result;
+        try {
+            result = doInBackground();
+        } finally {
+            synchronized (lock) {
+                workerThread = null;
+                // Don't leak the interruption to the next task on the pooled thread.
+                Thread.interrupted();
+            }
+        }
+
+        runOnMainThread(() -> {
+            isFinished = true;
+            onPostExecute(result);
+        });
+    }
+}
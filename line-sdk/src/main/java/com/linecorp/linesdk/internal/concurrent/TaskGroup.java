@@ -0,0 +1,48 @@
+package com.linecorp.linesdk.internal.concurrent;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * Tracks the {@link BackgroundTask}s started by a UI component so that they can be cancelled
+ * together when the component goes away, e.g. when a dialog is dismissed or an activity finishes.
+ */
+public class TaskGroup {
+    @NonNull
+    private final List<BackgroundTask<?>> tasks = new ArrayList<>();
+
+    /**
+     * Starts the given task on the given executor and tracks it.
+     */
+    @MainThread
+    public void execute(@NonNull BackgroundTask<?> task, @NonNull Executor executor) {
+        removeFinishedTasks();
+        tasks.add(task);
+        task.executeOn(executor);
+    }
+
+    /**
+     * Cancels all the tracked tasks.
+     */
+    @MainThread
+    public void cancelAll() {
+        for (BackgroundTask<?> task : tasks) {
+            task.cancel();
+        }
+        tasks.clear();
+    }
+
+    private void removeFinishedTasks() {
+        Iterator<BackgroundTask<?>> iterator = tasks.iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().isFinished()) {
+                iterator.remove();
+            }
+        }
+    }
+}
@@ -6,6 +6,7 @@ import android.util.Log;
 import androidx.annotation.NonNull;
 
 import com.linecorp.linesdk.LineIdToken;
+import com.linecorp.linesdk.LineSdkTrace;
 
 import java.util.Date;
 import java.util.List;
@@ -31,6 +32,7 @@ final class IdTokenParser {
             return null;
         }
 
+        final boolean isTraced = LineSdkTrace.beginSection("LineSdk:IdTokenParser.parse");
         try {
             final Claims claims = Jwts.parser()
                                       .setAllowedClockSkewSeconds(ALLOWED_CLOCK_SKEW_SECONDS)
@@ -42,6 +44,8 @@ final class IdTokenParser {
         } catch (final Exception e) {
             Log.e(TAG, "failed to parse IdToken: " + idTokenStr, e);
             throw e;
+        } finally {
+            LineSdkTrace.endSection(isTraced);
         }
     }
 
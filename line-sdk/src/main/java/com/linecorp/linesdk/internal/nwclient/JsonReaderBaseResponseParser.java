@@ -0,0 +1,75 @@
+package com.linecorp.linesdk.internal.nwclient;
+
+import android.util.JsonReader;
+import android.util.JsonToken;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.linecorp.linesdk.LineSdkTrace;
+import com.linecorp.linesdk.internal.nwclient.core.ResponseDataParser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+
+/**
+ * {@link ResponseDataParser} to parse an any object from a json data with a pull parser.
+ * Unlike {@link JsonToObjectBaseResponseParser}, this decodes the model objects directly from the
+ * response stream without building the whole response as a {@link String} and a
+ * {@link org.json.JSONObject} tree. Use this for responses that can be large.
+ */
+public abstract class JsonReaderBaseResponseParser<T> implements ResponseDataParser<T> {
+    private static final String DEFAULT_CHARSET_NAME = "UTF-8";
+
+    @NonNull
+    private final String charsetName;
+
+    public JsonReaderBaseResponseParser() {
+        this(DEFAULT_CHARSET_NAME);
+    }
+
+    public JsonReaderBaseResponseParser(@NonNull String charsetName) {
+        this.charsetName = charsetName;
+    }
+
+    @NonNull
+    @Override
+    public T getResponseData(@NonNull InputStream inputStream) throws IOException {
+        JsonReader reader = new JsonReader(new InputStreamReader(inputStream, charsetName));
+        boolean isTraced = LineSdkTrace.isEnabled()
+                           && LineSdkTrace.beginSection("LineSdk:" + getClass().getSimpleName());
+        try {
+            return parseJson(reader);
+        } catch (IllegalStateException | NumberFormatException e) {
+            // JsonReader throws them when the json data doesn't have the expected structure.
+            throw new IOException(e);
+        } finally {
+            LineSdkTrace.endSection(isTraced);
+            reader.close();
+        }
+    }
+
+    @NonNull
+    protected abstract T parseJson(@NonNull JsonReader reader) throws IOException;
+
+    /**
+     * Reads the next value as a string. Returns {@code null} if the value is json null.
+     */
+    @Nullable
+    protected static String nextStringOrNull(@NonNull JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return null;
+        }
+        return reader.nextString();
+    }
+
+    @NonNull
+    protected static <V> V requireValue(@Nullable V value, @NonNull String name) throws IOException {
+        if (value == null) {
+            throw new IOException("No value for " + name);
+        }
+        return value;
+    }
+}
@@ -3,6 +3,7 @@ package com.linecorp.linesdk.internal.nwclient;
 import androidx.annotation.NonNull;
 import androidx.annotation.VisibleForTesting;
 
+import com.linecorp.linesdk.LineSdkTrace;
 import com.linecorp.linesdk.internal.nwclient.core.JsonResponseParser;
 import com.linecorp.linesdk.internal.nwclient.core.ResponseDataParser;
 
@@ -35,10 +36,14 @@ public abstract class JsonToObjectBaseResponseParser<T> implements ResponseDataP
     @NonNull
     @Override
     public T getResponseData(@NonNull InputStream inputStream) throws IOException {
+        boolean isTraced = LineSdkTrace.isEnabled()
+                           && LineSdkTrace.beginSection("LineSdk:" + getClass().getSimpleName());
         try {
             return parseJsonToObject(jsonResponseParser.getResponseData(inputStream));
         } catch (JSONException e) {
             throw new IOException(e);
+        } finally {
+            LineSdkTrace.endSection(isTraced);
         }
     }
 
@@ -5,10 +5,12 @@ import android.net.Uri;
 import android.text.TextUtils;
 import android.util.Log;
 import androidx.annotation.NonNull;
-import androidx.annotation.VisibleForTesting;
+import androidx.annotation.Nullable;
 
 import com.linecorp.linesdk.BuildConfig;
+import com.linecorp.linesdk.LineApiError;
 import com.linecorp.linesdk.LineApiResponse;
+import com.linecorp.linesdk.LineApiResponseCode;
 import com.linecorp.linesdk.LineIdToken;
 import com.linecorp.linesdk.Scope;
 import com.linecorp.linesdk.internal.AccessTokenVerificationResult;
@@ -18,6 +20,7 @@ import com.linecorp.linesdk.internal.IssueAccessTokenResult;
 import com.linecorp.linesdk.internal.JWKSet;
 import com.linecorp.linesdk.internal.OpenIdDiscoveryDocument;
 import com.linecorp.linesdk.internal.RefreshTokenResult;
+import com.linecorp.linesdk.internal.nwclient.OpenIdDocumentCache.CachedResponse;
 import com.linecorp.linesdk.internal.nwclient.core.ChannelServiceHttpClient;
 import com.linecorp.linesdk.internal.nwclient.core.ResponseDataParser;
 import com.linecorp.linesdk.internal.pkce.PKCECode;
@@ -29,7 +32,6 @@ import java.util.List;
 import java.util.Map;
 
 import androidx.annotation.NonNull;
-import androidx.annotation.VisibleForTesting;
 
 import static com.linecorp.linesdk.utils.UriUtils.buildParams;
 import static com.linecorp.linesdk.utils.UriUtils.buildUri;
@@ -67,23 +69,38 @@ public class LineAuthenticationApiClient {
 
     @NonNull
     private final Uri openidDiscoveryDocumentUrl;
+    @Nullable
+    private final OpenIdDocumentCache openIdDocumentCache;
 
     public LineAuthenticationApiClient(@NonNull final Context applicationContext,
                                        @NonNull final Uri openidDiscoveryDocumentUrl,
                                        @NonNull final Uri apiBaseUrl) {
         this(openidDiscoveryDocumentUrl,
                 apiBaseUrl,
-                new ChannelServiceHttpClient(applicationContext, BuildConfig.VERSION_NAME));
+                new ChannelServiceHttpClient(applicationContext, BuildConfig.VERSION_NAME),
+                OpenIdDocumentCache.getInstance(applicationContext, openidDiscoveryDocumentUrl));
     }
 
-    @VisibleForTesting
-    LineAuthenticationApiClient(
+    public LineAuthenticationApiClient(
             @NonNull final Uri openidDiscoveryDocumentUrl,
             @NonNull final Uri apiBaseUrl,
             @NonNull final ChannelServiceHttpClient httpClient) {
+        this(openidDiscoveryDocumentUrl, apiBaseUrl, httpClient, null /* openIdDocumentCache */);
+    }
+
+    /**
+     * @param openIdDocumentCache The cache of the discovery document and the JSON Web Key Set, or
+     *                            {@code null} to fetch them on every call.
+     */
+    public LineAuthenticationApiClient(
+            @NonNull final Uri openidDiscoveryDocumentUrl,
+            @NonNull final Uri apiBaseUrl,
+            @NonNull final ChannelServiceHttpClient httpClient,
+            @Nullable final OpenIdDocumentCache openIdDocumentCache) {
         this.apiBaseUrl = apiBaseUrl;
         this.httpClient = httpClient;
         this.openidDiscoveryDocumentUrl = openidDiscoveryDocumentUrl;
+        this.openIdDocumentCache = openIdDocumentCache;
     }
 
     @NonNull
@@ -128,22 +145,27 @@ public class LineAuthenticationApiClient {
 
             final List<Scope> scopes = Scope.parseToList(jsonObject.getString("scope"));
 
-            final LineIdToken idToken;
-            try {
-                idToken = parseIdToken(jsonObject.optString("id_token"));
-            } catch (final Exception e) {
-                throw new JSONException(e.getMessage());
-            }
+            // Verified by verifyIdToken(String), so that the key set is fetched concurrently
+            // with the other calls of the login.
+            final String idTokenStr = jsonObject.optString("id_token");
 
-            return new IssueAccessTokenResult(accessToken, scopes, idToken);
+            return new IssueAccessTokenResult(
+                    accessToken, scopes, TextUtils.isEmpty(idTokenStr) ? null : idTokenStr);
         }
+    }
 
-        private LineIdToken parseIdToken(final String idTokenStr) throws Exception {
-            if (TextUtils.isEmpty(idTokenStr)) {
-                return null;
-            }
-
-            return IdTokenParser.parse(idTokenStr, signingKeyResolver);
+    /**
+     * Verifies the signature of the given ID token and parses it. The discovery document and the
+     * JSON Web Key Set are fetched for the signing key unless they are cached.
+     */
+    @NonNull
+    public LineApiResponse<LineIdToken> verifyIdToken(@NonNull String idTokenStr) {
+        try {
+            return LineApiResponse.createAsSuccess(
+                    IdTokenParser.parse(idTokenStr, signingKeyResolver));
+        } catch (final Exception e) {
+            return LineApiResponse.createAsError(
+                    LineApiResponseCode.INTERNAL_ERROR, new LineApiError(e));
         }
     }
 
@@ -238,12 +260,31 @@ public class LineAuthenticationApiClient {
 
     @NonNull
     public LineApiResponse<OpenIdDiscoveryDocument> getOpenIdDiscoveryDocument() {
+        if (openIdDocumentCache != null) {
+            final OpenIdDiscoveryDocument cachedDocument = openIdDocumentCache.getDiscoveryDocument();
+            if (cachedDocument != null) {
+                return LineApiResponse.createAsSuccess(cachedDocument);
+            }
+        }
+
         final Uri uri = buildUri(openidDiscoveryDocumentUrl);
-        final LineApiResponse<OpenIdDiscoveryDocument> response =
-                httpClient.get(uri,
-                        emptyMap(),
-                        emptyMap(),
-                        OPEN_ID_DISCOVERY_DOCUMENT_PARSER);
+        final LineApiResponse<OpenIdDiscoveryDocument> response;
+        if (openIdDocumentCache == null) {
+            response = httpClient.get(uri,
+                    emptyMap(),
+                    emptyMap(),
+                    OPEN_ID_DISCOVERY_DOCUMENT_PARSER);
+        } else {
+            final LineApiResponse<CachedResponse<OpenIdDiscoveryDocument>> cachedResponse =
+                    httpClient.get(uri,
+                            emptyMap(),
+                            emptyMap(),
+                            openIdDocumentCache.getDiscoveryDocumentParser());
+            if (cachedResponse.isSuccess()) {
+                openIdDocumentCache.putDiscoveryDocument(cachedResponse.getResponseData());
+            }
+            response = toValueResponse(cachedResponse);
+        }
 
         if (!response.isSuccess()) {
             Log.e(TAG, "getOpenIdDiscoveryDocument failed: " + response);
@@ -254,6 +295,22 @@ public class LineAuthenticationApiClient {
 
     @NonNull
     public LineApiResponse<JWKSet> getJWKSet() {
+        return getJWKSet(null /* requiredKeyId */);
+    }
+
+    /**
+     * @param requiredKeyId The key ID to look up. If the cached key set doesn't contain it, the key
+     *                      set is fetched again because the keys may have been rotated.
+     */
+    @NonNull
+    public LineApiResponse<JWKSet> getJWKSet(@Nullable final String requiredKeyId) {
+        if (openIdDocumentCache != null) {
+            final JWKSet cachedJWKSet = openIdDocumentCache.getJWKSet(requiredKeyId);
+            if (cachedJWKSet != null) {
+                return LineApiResponse.createAsSuccess(cachedJWKSet);
+            }
+        }
+
         final LineApiResponse<OpenIdDiscoveryDocument> discoveryDocResponse = getOpenIdDiscoveryDocument();
 
         if (!discoveryDocResponse.isSuccess()) {
@@ -264,15 +321,35 @@ public class LineAuthenticationApiClient {
         final OpenIdDiscoveryDocument openIdDiscoveryDoc = discoveryDocResponse.getResponseData();
         final Uri jwksUri = Uri.parse(openIdDiscoveryDoc.getJwksUri());
 
-        final LineApiResponse<JWKSet> jwkSetResponse =
-                httpClient.get(jwksUri,
-                        emptyMap(),
-                        emptyMap(),
-                        JWK_SET_PARSER);
+        final LineApiResponse<JWKSet> jwkSetResponse;
+        if (openIdDocumentCache == null) {
+            jwkSetResponse = httpClient.get(jwksUri,
+                    emptyMap(),
+                    emptyMap(),
+                    JWK_SET_PARSER);
+        } else {
+            final LineApiResponse<CachedResponse<JWKSet>> cachedResponse =
+                    httpClient.get(jwksUri,
+                            emptyMap(),
+                            emptyMap(),
+                            openIdDocumentCache.getJWKSetParser());
+            if (cachedResponse.isSuccess()) {
+                openIdDocumentCache.putJWKSet(cachedResponse.getResponseData());
+            }
+            jwkSetResponse = toValueResponse(cachedResponse);
+        }
         if (!jwkSetResponse.isSuccess()) {
             Log.e(TAG, "getJWKSet failed: " + jwkSetResponse);
         }
 
         return jwkSetResponse;
     }
+
+    @NonNull
+    private static <T> LineApiResponse<T> toValueResponse(
+            @NonNull final LineApiResponse<CachedResponse<T>> response) {
+        return response.isSuccess()
+                ? LineApiResponse.createAsSuccess(response.getResponseData().getValue())
+                : LineApiResponse.createAsError(response.getResponseCode(), response.getErrorData());
+    }
 }
@@ -0,0 +1,337 @@
+package com.linecorp.linesdk.internal.nwclient;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.net.Uri;
+import android.text.TextUtils;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import com.linecorp.linesdk.internal.JWKSet;
+import com.linecorp.linesdk.internal.OpenIdDiscoveryDocument;
+import com.linecorp.linesdk.internal.nwclient.core.ResponseDataParser;
+import com.linecorp.linesdk.internal.nwclient.core.StringResponseParser;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache of the OpenID discovery document and the JSON Web Key Set of a discovery document URL.
+ * <p>
+ * Entries expire by the max-age of the Cache-Control response header, and are persisted in
+ * {@link SharedPreferences} so that a cold start can verify an ID token without the network. The
+ * instances are shared in the process by {@link #getInstance(Context, Uri)}.
+ */
+public class OpenIdDocumentCache {
+    private static final String TAG = "OpenIdDocumentCache";
+    private static final String SHARED_PREFERENCE_KEY = "com.linecorp.linesdk.openid.cache";
+
+    private static final String DATA_KEY_DISCOVERY_DOCUMENT = ".discoveryDocument";
+    private static final String DATA_KEY_DISCOVERY_DOCUMENT_EXPIRES = ".discoveryDocumentExpires";
+    private static final String DATA_KEY_JWK_SET = ".jwkSet";
+    private static final String DATA_KEY_JWK_SET_EXPIRES = ".jwkSetExpires";
+    private static final String DATA_KEY_JWK_SET_FETCHED = ".jwkSetFetched";
+
+    // Used if the response doesn't have max-age.
+    private static final long DEFAULT_MAX_AGE_MILLIS = TimeUnit.HOURS.toMillis(1);
+    // A missing key ID doesn't trigger another fetch within this interval.
+    private static final long MIN_JWK_SET_REFETCH_INTERVAL_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+    private static final Charset CHARSET = Charset.forName("UTF-8");
+
+    @NonNull
+    private static final Map<String, OpenIdDocumentCache> instances = new HashMap<>();
+
+    @NonNull
+    private final SharedPreferences sharedPreferences;
+    @NonNull
+    private final String keyPrefix;
+    @NonNull
+    private final ResponseDataParser<OpenIdDiscoveryDocument> discoveryDocumentParser;
+    @NonNull
+    private final ResponseDataParser<JWKSet> jwkSetParser;
+
+    // Guarded by this.
+    private boolean isLoaded;
+    @Nullable
+    private CachedResponse<OpenIdDiscoveryDocument> discoveryDocument;
+    @Nullable
+    private CachedResponse<JWKSet> jwkSet;
+
+    @VisibleForTesting
+    OpenIdDocumentCache(
+            @NonNull Context context,
+            @NonNull Uri openidDiscoveryDocumentUrl,
+            @NonNull ResponseDataParser<OpenIdDiscoveryDocument> discoveryDocumentParser,
+            @NonNull ResponseDataParser<JWKSet> jwkSetParser) {
+        sharedPreferences = context.getApplicationContext()
+                .getSharedPreferences(SHARED_PREFERENCE_KEY, Context.MODE_PRIVATE);
+        keyPrefix = openidDiscoveryDocumentUrl.toString();
+        this.discoveryDocumentParser = discoveryDocumentParser;
+        this.jwkSetParser = jwkSetParser;
+    }
+
+    @NonNull
+    public static OpenIdDocumentCache getInstance(
+            @NonNull Context context, @NonNull Uri openidDiscoveryDocumentUrl) {
+        synchronized (instances) {
+            String key = openidDiscoveryDocumentUrl.toString();
+            OpenIdDocumentCache instance = instances.get(key);
+            if (instance == null) {
+                instance = new OpenIdDocumentCache(
+                        context,
+                        openidDiscoveryDocumentUrl,
+                        new OpenIdDiscoveryDocumentParser(),
+                        new JWKSetParser());
+                instances.put(key, instance);
+            }
+            return instance;
+        }
+    }
+
+    /**
+     * @return The cached discovery document if it has not expired. Otherwise, {@code null}.
+     */
+    @Nullable
+    public synchronized OpenIdDiscoveryDocument getDiscoveryDocument() {
+        loadIfNeeded();
+        return discoveryDocument != null && !discoveryDocument.isExpired(currentTimeMillis())
+                ? discoveryDocument.getValue()
+                : null;
+    }
+
+    public synchronized void putDiscoveryDocument(
+            @NonNull CachedResponse<OpenIdDiscoveryDocument> response) {
+        isLoaded = true;
+        discoveryDocument = response;
+        sharedPreferences.edit()
+                .putString(keyPrefix + DATA_KEY_DISCOVERY_DOCUMENT, response.getRawBody())
+                .putLong(keyPrefix + DATA_KEY_DISCOVERY_DOCUMENT_EXPIRES, response.getExpiresTimeMillis())
+                .apply();
+    }
+
+    /**
+     * @param requiredKeyId The key ID that the returned set must contain, or {@code null}.
+     * @return The cached key set if it has not expired and contains the required key. Otherwise,
+     * {@code null}. A cached key set without the required key is still returned if it was fetched
+     * just now, because fetching it again would not help.
+     */
+    @Nullable
+    public synchronized JWKSet getJWKSet(@Nullable String requiredKeyId) {
+        loadIfNeeded();
+        if (jwkSet == null) {
+            return null;
+        }
+        long now = currentTimeMillis();
+        if (jwkSet.isExpired(now)) {
+            return null;
+        }
+        if (requiredKeyId != null
+                && jwkSet.getValue().getJWK(requiredKeyId) == null
+                && now - jwkSet.getFetchedTimeMillis() >= MIN_JWK_SET_REFETCH_INTERVAL_MILLIS) {
+            // The keys may have been rotated.
+            return null;
+        }
+        return jwkSet.getValue();
+    }
+
+    public synchronized void putJWKSet(@NonNull CachedResponse<JWKSet> response) {
+        isLoaded = true;
+        jwkSet = response;
+        sharedPreferences.edit()
+                .putString(keyPrefix + DATA_KEY_JWK_SET, response.getRawBody())
+                .putLong(keyPrefix + DATA_KEY_JWK_SET_EXPIRES, response.getExpiresTimeMillis())
+                .putLong(keyPrefix + DATA_KEY_JWK_SET_FETCHED, response.getFetchedTimeMillis())
+                .apply();
+    }
+
+    public synchronized void clear() {
+        isLoaded = true;
+        discoveryDocument = null;
+        jwkSet = null;
+        sharedPreferences.edit()
+                .remove(keyPrefix + DATA_KEY_DISCOVERY_DOCUMENT)
+                .remove(keyPrefix + DATA_KEY_DISCOVERY_DOCUMENT_EXPIRES)
+                .remove(keyPrefix + DATA_KEY_JWK_SET)
+                .remove(keyPrefix + DATA_KEY_JWK_SET_EXPIRES)
+                .remove(keyPrefix + DATA_KEY_JWK_SET_FETCHED)
+                .apply();
+    }
+
+    /**
+     * @return A parser that keeps the raw body and the max-age of the discovery document
+     * response, for {@link #putDiscoveryDocument(CachedResponse)}.
+     */
+    @NonNull
+    public ResponseDataParser<CachedResponse<OpenIdDiscoveryDocument>> getDiscoveryDocumentParser() {
+        return new CachingParser<>(discoveryDocumentParser);
+    }
+
+    /**
+     * @return A parser that keeps the raw body and the max-age of the key set response, for
+     * {@link #putJWKSet(CachedResponse)}.
+     */
+    @NonNull
+    public ResponseDataParser<CachedResponse<JWKSet>> getJWKSetParser() {
+        return new CachingParser<>(jwkSetParser);
+    }
+
+    private void loadIfNeeded() {
+        if (isLoaded) {
+            return;
+        }
+        isLoaded = true;
+        discoveryDocument = load(
+                discoveryDocumentParser,
+                DATA_KEY_DISCOVERY_DOCUMENT,
+                DATA_KEY_DISCOVERY_DOCUMENT_EXPIRES,
+                null /* fetchedTimeDataKey */);
+        jwkSet = load(
+                jwkSetParser,
+                DATA_KEY_JWK_SET,
+                DATA_KEY_JWK_SET_EXPIRES,
+                DATA_KEY_JWK_SET_FETCHED);
+    }
+
+    @Nullable
+    private <T> CachedResponse<T> load(
+            @NonNull ResponseDataParser<T> parser,
+            @NonNull String bodyDataKey,
+            @NonNull String expiresDataKey,
+            @Nullable String fetchedTimeDataKey) {
+        String rawBody = sharedPreferences.getString(keyPrefix + bodyDataKey, null);
+        long expiresTimeMillis = sharedPreferences.getLong(keyPrefix + expiresDataKey, 0L);
+        if (TextUtils.isEmpty(rawBody) || expiresTimeMillis <= currentTimeMillis()) {
+            return null;
+        }
+        long fetchedTimeMillis = fetchedTimeDataKey == null
+                ? 0L
+                : sharedPreferences.getLong(keyPrefix + fetchedTimeDataKey, 0L);
+        try {
+            T value = parser.getResponseData(new ByteArrayInputStream(rawBody.getBytes(CHARSET)));
+            return new CachedResponse<>(value, rawBody, fetchedTimeMillis, expiresTimeMillis);
+        } catch (IOException e) {
+            Log.w(TAG, "Failed to load the cached response: " + bodyDataKey, e);
+            return null;
+        }
+    }
+
+    @VisibleForTesting
+    protected long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    /**
+     * @return The max-age of the given response headers in milliseconds. 0 if the response must
+     * not be cached, or the default max-age if the headers don't specify it.
+     */
+    @VisibleForTesting
+    static long getMaxAgeMillis(@NonNull Map<String, List<String>> responseHeaders) {
+        for (Map.Entry<String, List<String>> header : responseHeaders.entrySet()) {
+            if (!"Cache-Control".equalsIgnoreCase(header.getKey())) {
+                continue;
+            }
+            for (String value : header.getValue()) {
+                for (String directive : value.split(",")) {
+                    String trimmed = directive.trim().toLowerCase(Locale.US);
+                    if (trimmed.equals("no-store") || trimmed.equals("no-cache")) {
+                        return 0L;
+                    }
+                    if (trimmed.startsWith("max-age=")) {
+                        try {
+                            long seconds = Long.parseLong(trimmed.substring("max-age=".length()));
+                            return TimeUnit.SECONDS.toMillis(Math.max(seconds, 0L));
+                        } catch (NumberFormatException e) {
+                            return 0L;
+                        }
+                    }
+                }
+            }
+        }
+        return DEFAULT_MAX_AGE_MILLIS;
+    }
+
+    /**
+     * A parsed response with its raw body and expiration time.
+     */
+    public static class CachedResponse<T> {
+        @NonNull
+        private final T value;
+        @NonNull
+        private final String rawBody;
+        private final long fetchedTimeMillis;
+        private final long expiresTimeMillis;
+
+        @VisibleForTesting
+        CachedResponse(
+                @NonNull T value,
+                @NonNull String rawBody,
+                long fetchedTimeMillis,
+                long expiresTimeMillis) {
+            this.value = value;
+            this.rawBody = rawBody;
+            this.fetchedTimeMillis = fetchedTimeMillis;
+            this.expiresTimeMillis = expiresTimeMillis;
+        }
+
+        @NonNull
+        public T getValue() {
+            return value;
+        }
+
+        @NonNull
+        /* package */ String getRawBody() {
+            return rawBody;
+        }
+
+        /* package */ long getFetchedTimeMillis() {
+            return fetchedTimeMillis;
+        }
+
+        /* package */ long getExpiresTimeMillis() {
+            return expiresTimeMillis;
+        }
+
+        /* package */ boolean isExpired(long now) {
+            return expiresTimeMillis <= now;
+        }
+    }
+
+    private class CachingParser<T> implements ResponseDataParser<CachedResponse<T>> {
+        @NonNull
+        private final ResponseDataParser<T> parser;
+
+        private CachingParser(@NonNull ResponseDataParser<T> parser) {
+            this.parser = parser;
+        }
+
+        @NonNull
+        @Override
+        public CachedResponse<T> getResponseData(@NonNull InputStream inputStream)
+                throws IOException {
+            return getResponseData(new HashMap<>(), inputStream);
+        }
+
+        @NonNull
+        @Override
+        public CachedResponse<T> getResponseData(
+                @NonNull Map<String, List<String>> responseHeaders,
+                @NonNull InputStream inputStream) throws IOException {
+            String rawBody = new StringResponseParser().getResponseData(inputStream);
+            T value = parser.getResponseData(new ByteArrayInputStream(rawBody.getBytes(CHARSET)));
+            long now = currentTimeMillis();
+            return new CachedResponse<>(
+                    value, rawBody, now, now + getMaxAgeMillis(responseHeaders));
+        }
+    }
+}
@@ -1,10 +1,14 @@
 package com.linecorp.linesdk.internal.nwclient;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
 import android.util.Base64;
 import android.util.Log;
+import android.util.LruCache;
 
 import com.linecorp.linesdk.LineApiResponse;
+import com.linecorp.linesdk.LineSdkTrace;
 import com.linecorp.linesdk.internal.JWKSet;
 import com.linecorp.linesdk.internal.JWKSet.JWK;
 
@@ -20,6 +24,8 @@ import java.security.interfaces.ECPublicKey;
 import java.security.spec.ECPoint;
 import java.security.spec.ECPublicKeySpec;
 import java.security.spec.InvalidKeySpecException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwsHeader;
@@ -30,6 +36,18 @@ import io.jsonwebtoken.security.SecurityException;
 public class OpenIdSigningKeyResolver implements SigningKeyResolver {
     private static final String TAG = "OpenIdSignKeyResolver";
 
+    private static final int MAX_CACHED_KEY_COUNT = 16;
+
+    // Public keys generated from JWKs, by key ID. Shared by all the resolvers.
+    @NonNull
+    private static final LruCache<String, CachedKey> keyCache = new LruCache<>(MAX_CACHED_KEY_COUNT);
+    // Curve specs by curve name. Looking up the curve table is slow on old devices.
+    @NonNull
+    private static final Map<String, ECNamedCurveSpec> curveSpecCache = new ConcurrentHashMap<>();
+    // The key set that the cached keys were checked against last.
+    @Nullable
+    private static JWKSet lastJWKSet;
+
     @NonNull
     private final LineAuthenticationApiClient apiClient;
 
@@ -37,6 +55,54 @@ public class OpenIdSigningKeyResolver implements SigningKeyResolver {
         this.apiClient = apiClient;
     }
 
+    @Nullable
+    private static ECPublicKey getECPublicKey(@NonNull final JWKSet jwkSet, @NonNull final JWK jwk) {
+        evictRotatedKeys(jwkSet);
+
+        final String keyId = jwk.getKeyId();
+        final CachedKey cachedKey = keyCache.get(keyId);
+        if (cachedKey != null && cachedKey.jwk.hasSameKeyMaterial(jwk)) {
+            return cachedKey.publicKey;
+        }
+
+        final boolean isTraced = LineSdkTrace.beginSection("LineSdk:generateECPublicKey");
+        final ECPublicKey publicKey;
+        try {
+            publicKey = generateECPublicKey(jwk);
+        } finally {
+            LineSdkTrace.endSection(isTraced);
+        }
+        if (publicKey != null) {
+            keyCache.put(keyId, new CachedKey(jwk, publicKey));
+        }
+        return publicKey;
+    }
+
+    /**
+     * Removes the cached keys that are no longer in the given key set.
+     */
+    private static void evictRotatedKeys(@NonNull final JWKSet jwkSet) {
+        synchronized (keyCache) {
+            if (jwkSet == lastJWKSet) {
+                return;
+            }
+            lastJWKSet = jwkSet;
+        }
+        for (final String keyId : keyCache.snapshot().keySet()) {
+            if (jwkSet.getJWK(keyId) == null) {
+                keyCache.remove(keyId);
+            }
+        }
+    }
+
+    @VisibleForTesting
+    static void clearKeyCache() {
+        synchronized (keyCache) {
+            lastJWKSet = null;
+        }
+        keyCache.evictAll();
+    }
+
     private static ECPublicKey generateECPublicKey(final JWK jwk) {
         final BigInteger x = decodeBase64(jwk.getX());
         final BigInteger y = decodeBase64(jwk.getY());
@@ -45,11 +111,7 @@ public class OpenIdSigningKeyResolver implements SigningKeyResolver {
             final KeyFactory factory = KeyFactory.getInstance("EC");
 
             final ECPoint point = new ECPoint(x, y);
-            final ECNamedCurveParameterSpec paramSpec = ECNamedCurveTable.getParameterSpec(jwk.getCurve());
-            final ECNamedCurveSpec params = new ECNamedCurveSpec(jwk.getCurve(),
-                                                                 paramSpec.getCurve(),
-                                                                 paramSpec.getG(),
-                                                                 paramSpec.getN());
+            final ECNamedCurveSpec params = getCurveSpec(jwk.getCurve());
 
             final ECPublicKeySpec spec = new ECPublicKeySpec(point, params);
 
@@ -61,6 +123,20 @@ public class OpenIdSigningKeyResolver implements SigningKeyResolver {
         }
     }
 
+    @NonNull
+    private static ECNamedCurveSpec getCurveSpec(@NonNull final String curveName) {
+        ECNamedCurveSpec curveSpec = curveSpecCache.get(curveName);
+        if (curveSpec == null) {
+            final ECNamedCurveParameterSpec paramSpec = ECNamedCurveTable.getParameterSpec(curveName);
+            curveSpec = new ECNamedCurveSpec(curveName,
+                                             paramSpec.getCurve(),
+                                             paramSpec.getG(),
+                                             paramSpec.getN());
+            curveSpecCache.put(curveName, curveSpec);
+        }
+        return curveSpec;
+    }
+
     private static BigInteger decodeBase64(final String base64Str) {
         final byte[] bytes = Base64.decode(base64Str, Base64.URL_SAFE);
 
@@ -79,7 +155,8 @@ public class OpenIdSigningKeyResolver implements SigningKeyResolver {
     }
 
     private Key resolveSigningKey(final JwsHeader header) {
-        final LineApiResponse<JWKSet> response = apiClient.getJWKSet();
+        final String keyId = header.getKeyId();
+        final LineApiResponse<JWKSet> response = apiClient.getJWKSet(keyId);
         if (!response.isSuccess()) {
             Log.e(TAG, "failed to get LINE JSON Web Key Set [JWK] document.");
 
@@ -88,7 +165,6 @@ public class OpenIdSigningKeyResolver implements SigningKeyResolver {
 
         final JWKSet jwkSet = response.getResponseData();
 
-        final String keyId = header.getKeyId();
         final JWK jwk = jwkSet.getJWK(keyId);
         if (jwk == null) {
             Log.e(TAG, "failed to find Key by Id: " + keyId);
@@ -99,9 +175,21 @@ public class OpenIdSigningKeyResolver implements SigningKeyResolver {
         final String algorithm = header.getAlgorithm();
         final SignatureAlgorithm alg = SignatureAlgorithm.forName(algorithm);
         if (alg.isEllipticCurve()) {
-            return generateECPublicKey(jwk);
+            return getECPublicKey(jwkSet, jwk);
         }
 
         throw new SecurityException("Unsupported signature algorithm '" + algorithm + '\'');
     }
+
+    private static class CachedKey {
+        @NonNull
+        private final JWK jwk;
+        @NonNull
+        private final ECPublicKey publicKey;
+
+        private CachedKey(@NonNull final JWK jwk, @NonNull final ECPublicKey publicKey) {
+            this.jwk = jwk;
+            this.publicKey = publicKey;
+        }
+    }
 }
@@ -0,0 +1,221 @@
+package com.linecorp.linesdk.internal.nwclient;
+
+import android.os.CancellationSignal;
+import android.text.TextUtils;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+
+import com.linecorp.linesdk.LineApiError;
+import com.linecorp.linesdk.LineApiResponse;
+import com.linecorp.linesdk.LineApiResponseCode;
+import com.linecorp.linesdk.internal.nwclient.core.CallCancellation;
+
+import java.io.Closeable;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Iterates over the pages of a paginated API such as
+ * {@link TalkApiClient#getFriends(com.linecorp.linesdk.internal.InternalAccessToken,
+ * com.linecorp.linesdk.FriendSortField, String, boolean)} and
+ * {@link TalkApiClient#getGroups(com.linecorp.linesdk.internal.InternalAccessToken, String, boolean)}.
+ * <p>
+ * The next page is requested on the given executor as soon as the previous page has been
+ * received, without waiting for the caller to consume it. At most <i>prefetchDepth</i> pages are
+ * buffered. Once the buffer is full, no more pages are requested until the caller catches up.
+ * <p>
+ * A failed response is returned as the last page. Close the paginator to stop prefetching when
+ * the remaining pages are not needed.
+ *
+ * @param <T> The type of the page.
+ */
+public class PrefetchingPaginator<T> implements Iterator<LineApiResponse<T>>, Closeable {
+    public static final int DEFAULT_PREFETCH_DEPTH = 2;
+
+    /**
+     * Requests a page.
+     */
+    public interface PageRequest<T> {
+        @WorkerThread
+        @NonNull
+        LineApiResponse<T> request(@Nullable String pageToken);
+    }
+
+    /**
+     * Gets the token of the next page from a page, or {@code null} if it is the last page.
+     */
+    public interface PageTokenExtractor<T> {
+        @Nullable
+        String getNextPageRequestToken(@NonNull T page);
+    }
+
+    @NonNull
+    private final PageRequest<T> pageRequest;
+    @NonNull
+    private final PageTokenExtractor<T> pageTokenExtractor;
+    private final int prefetchDepth;
+    @NonNull
+    private final Executor executor;
+    @NonNull
+    private final CancellationSignal cancellationSignal = new CancellationSignal();
+
+    @NonNull
+    private final Object lock = new Object();
+    // The fields below are guarded by lock.
+    @NonNull
+    private final Queue<LineApiResponse<T>> bufferedPages = new ArrayDeque<>();
+    @Nullable
+    private PageFetch pendingFetch;
+    @Nullable
+    private String nextPageToken;
+    private boolean hasMorePages = true;
+    private boolean isClosed;
+
+    public PrefetchingPaginator(
+            @NonNull PageRequest<T> pageRequest,
+            @NonNull PageTokenExtractor<T> pageTokenExtractor,
+            int prefetchDepth,
+            @NonNull Executor executor) {
+        if (prefetchDepth < 1) {
+            throw new IllegalArgumentException("prefetchDepth must be positive: " + prefetchDepth);
+        }
+        this.pageRequest = pageRequest;
+        this.pageTokenExtractor = pageTokenExtractor;
+        this.prefetchDepth = prefetchDepth;
+        this.executor = executor;
+        synchronized (lock) {
+            requestNextPageIfNeeded();
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        synchronized (lock) {
+            return !isClosed && (!bufferedPages.isEmpty() || hasMorePages);
+        }
+    }
+
+    /**
+     * Returns the next page, waiting for it to be received if needed.
+     *
+     * @return The next page, or a {@link LineApiResponseCode#CANCEL} response if the calling
+     * thread is interrupted while waiting.
+     */
+    @WorkerThread
+    @NonNull
+    @Override
+    public LineApiResponse<T> next() {
+        while (true) {
+            PageFetch fetchToRun;
+            synchronized (lock) {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                LineApiResponse<T> page = bufferedPages.poll();
+                if (page != null) {
+                    requestNextPageIfNeeded();
+                    return page;
+                }
+                requestNextPageIfNeeded();
+                fetchToRun = pendingFetch;
+            }
+            // If the executor hasn't started the fetch yet, e.g. because all of its threads are
+            // busy, run it here rather than waiting for it.
+            if (fetchToRun != null && fetchToRun.tryRun()) {
+                continue;
+            }
+            synchronized (lock) {
+                try {
+                    while (bufferedPages.isEmpty() && pendingFetch == fetchToRun && !isClosed) {
+                        lock.wait();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    close();
+                    return LineApiResponse.createAsError(
+                            LineApiResponseCode.CANCEL, new LineApiError(e));
+                }
+            }
+        }
+    }
+
+    /**
+     * Stops prefetching. The page being requested is aborted.
+     */
+    @Override
+    public void close() {
+        synchronized (lock) {
+            isClosed = true;
+            bufferedPages.clear();
+            lock.notifyAll();
+        }
+        cancellationSignal.cancel();
+    }
+
+    // Must be called with lock held.
+    private void requestNextPageIfNeeded() {
+        if (isClosed || !hasMorePages || pendingFetch != null
+                || bufferedPages.size() >= prefetchDepth) {
+            return;
+        }
+        PageFetch fetch = new PageFetch(nextPageToken);
+        pendingFetch = fetch;
+        executor.execute(fetch::tryRun);
+    }
+
+    private void onPageReceived(@NonNull PageFetch fetch, @NonNull LineApiResponse<T> page) {
+        synchronized (lock) {
+            if (pendingFetch != fetch) {
+                return;
+            }
+            pendingFetch = null;
+            if (isClosed) {
+                return;
+            }
+            String pageToken = page.isSuccess()
+                    ? pageTokenExtractor.getNextPageRequestToken(page.getResponseData())
+                    : null;
+            hasMorePages = !TextUtils.isEmpty(pageToken);
+            nextPageToken = pageToken;
+            bufferedPages.add(page);
+            requestNextPageIfNeeded();
+            lock.notifyAll();
+        }
+    }
+
+    private class PageFetch {
+        @Nullable
+        private final String pageToken;
+        @NonNull
+        private final AtomicBoolean isStarted = new AtomicBoolean();
+
+        private PageFetch(@Nullable String pageToken) {
+            this.pageToken = pageToken;
+        }
+
+        /**
+         * @return {@code true} if this call fetched the page.
+         */
+        private boolean tryRun() {
+            if (!isStarted.compareAndSet(false, true)) {
+                return false;
+            }
+            LineApiResponse<T> page;
+            try {
+                page = CallCancellation.runWith(
+                        cancellationSignal, () -> pageRequest.request(pageToken));
+            } catch (RuntimeException e) {
+                page = LineApiResponse.createAsError(
+                        LineApiResponseCode.INTERNAL_ERROR, new LineApiError(e));
+            }
+            onPageReceived(this, page);
+            return true;
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.linecorp.linesdk.internal.nwclient;
 import android.content.Context;
 import android.net.Uri;
 import android.text.TextUtils;
+import android.util.JsonReader;
 
 import com.linecorp.linesdk.BuildConfig;
 import com.linecorp.linesdk.FriendSortField;
@@ -18,6 +19,7 @@ import com.linecorp.linesdk.LineProfile;
 import com.linecorp.linesdk.SendMessageResponse;
 import com.linecorp.linesdk.internal.InternalAccessToken;
 import com.linecorp.linesdk.internal.nwclient.core.ChannelServiceHttpClient;
+import com.linecorp.linesdk.internal.nwclient.core.JsonRequestBody;
 import com.linecorp.linesdk.internal.nwclient.core.ResponseDataParser;
 import com.linecorp.linesdk.message.MessageData;
 import com.linecorp.linesdk.message.MessageSendRequest;
@@ -32,6 +34,7 @@ import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -85,8 +88,7 @@ public class TalkApiClient {
         this(apiBaseUrl, new ChannelServiceHttpClient(applicationContext, BuildConfig.VERSION_NAME));
     }
 
-    @VisibleForTesting
-    TalkApiClient(
+    public TalkApiClient(
             @NonNull Uri apiBaseUrl,
             @NonNull ChannelServiceHttpClient httpClient) {
         this.apiBaseUrl = apiBaseUrl;
@@ -202,9 +204,9 @@ public class TalkApiClient {
             @NonNull InternalAccessToken accessToken,
             @NonNull String targetUserId,
             @NonNull List<MessageData> messages) {
-        String postData;
+        JsonRequestBody postData;
         try {
-            postData = MessageSendRequest.createSingleUserType(targetUserId, messages).toJsonString();
+            postData = MessageSendRequest.createSingleUserType(targetUserId, messages).toJsonRequestBody();
         } catch (JSONException e) {
             return createInternalErrorResponse(e);
         }
@@ -249,9 +251,9 @@ public class TalkApiClient {
             @NonNull InternalAccessToken accessToken,
             @NonNull List<String> targetUserIds,
             @NonNull List<MessageData> messages) {
-        String postData;
+        JsonRequestBody postData;
         try {
-            postData = MessageSendRequest.createMultiUsersType(targetUserIds, messages).toJsonString();
+            postData = MessageSendRequest.createMultiUsersType(targetUserIds, messages).toJsonRequestBody();
         } catch (JSONException e) {
             return createInternalErrorResponse(e);
         }
@@ -269,9 +271,9 @@ public class TalkApiClient {
             @NonNull InternalAccessToken accessToken,
             @NonNull String ott,
             @NonNull List<MessageData> messages) {
-        String postData;
+        JsonRequestBody postData;
         try {
-            postData = MessageSendRequest.createOttType(ott, messages).toJsonString();
+            postData = MessageSendRequest.createOttType(ott, messages).toJsonRequestBody();
         } catch (JSONException e) {
             return createInternalErrorResponse(e);
         }
@@ -445,17 +447,73 @@ public class TalkApiClient {
     }
 
     @VisibleForTesting
-    static class FriendsParser extends JsonToObjectBaseResponseParser<GetFriendsResponse> {
+    static class FriendsParser extends JsonReaderBaseResponseParser<GetFriendsResponse> {
         @NonNull
         @Override
-        protected GetFriendsResponse parseJsonToObject(@NonNull JSONObject jsonObject) throws JSONException {
-            List<LineFriendProfile> friendList = new ArrayList<>();
-            JSONArray friendsArray = jsonObject.getJSONArray("friends");
-            for (int i = 0; i < friendsArray.length(); i++) {
-                friendList.add(FriendProfileParser.parseLineFriendProfile(friendsArray.getJSONObject(i)));
+        protected GetFriendsResponse parseJson(@NonNull JsonReader reader) throws IOException {
+            List<LineFriendProfile> friendList = null;
+            String pageToken = null;
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "friends":
+                        friendList = new ArrayList<>();
+                        reader.beginArray();
+                        while (reader.hasNext()) {
+                            friendList.add(readLineFriendProfile(reader));
+                        }
+                        reader.endArray();
+                        break;
+                    case "pageToken":
+                        pageToken = nextStringOrNull(reader);
+                        break;
+                    default:
+                        reader.skipValue();
+                        break;
+                }
+            }
+            reader.endObject();
+            return new GetFriendsResponse(requireValue(friendList, "friends"), pageToken);
+        }
+
+        @NonNull
+        private static LineFriendProfile readLineFriendProfile(
+                @NonNull JsonReader reader) throws IOException {
+            String userId = null;
+            String displayName = null;
+            String pictureUrlStr = null;
+            String statusMessage = null;
+            String overriddenDisplayName = null;
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "userId":
+                        userId = nextStringOrNull(reader);
+                        break;
+                    case "displayName":
+                        displayName = nextStringOrNull(reader);
+                        break;
+                    case "pictureUrl":
+                        pictureUrlStr = nextStringOrNull(reader);
+                        break;
+                    case "statusMessage":
+                        statusMessage = nextStringOrNull(reader);
+                        break;
+                    case "displayNameOverridden":
+                        overriddenDisplayName = nextStringOrNull(reader);
+                        break;
+                    default:
+                        reader.skipValue();
+                        break;
+                }
             }
-            String pageToken = jsonObject.optString("pageToken", null);
-            return new GetFriendsResponse(friendList, pageToken);
+            reader.endObject();
+            return new LineFriendProfile(
+                    requireValue(userId, "userId"),
+                    requireValue(displayName, "displayName"),
+                    pictureUrlStr == null ? null : Uri.parse(pictureUrlStr),
+                    statusMessage,
+                    overriddenDisplayName);
         }
     }
 
@@ -506,26 +564,62 @@ public class TalkApiClient {
     }
 
     @VisibleForTesting
-    static class GroupParser extends JsonToObjectBaseResponseParser<GetGroupsResponse> {
+    static class GroupParser extends JsonReaderBaseResponseParser<GetGroupsResponse> {
         @NonNull
-        private static LineGroup parseLineGroup(@NonNull JSONObject jsonObject) throws JSONException {
-            String pictureUrlStr = jsonObject.optString("pictureUrl", null /* fallback */);
+        private static LineGroup readLineGroup(@NonNull JsonReader reader) throws IOException {
+            String groupId = null;
+            String groupName = null;
+            String pictureUrlStr = null;
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "groupId":
+                        groupId = nextStringOrNull(reader);
+                        break;
+                    case "groupName":
+                        groupName = nextStringOrNull(reader);
+                        break;
+                    case "pictureUrl":
+                        pictureUrlStr = nextStringOrNull(reader);
+                        break;
+                    default:
+                        reader.skipValue();
+                        break;
+                }
+            }
+            reader.endObject();
             return new LineGroup(
-                    jsonObject.getString("groupId"),
-                    jsonObject.getString("groupName"),
+                    requireValue(groupId, "groupId"),
+                    requireValue(groupName, "groupName"),
                     pictureUrlStr == null ? null : Uri.parse(pictureUrlStr));
         }
 
         @NonNull
         @Override
-        protected GetGroupsResponse parseJsonToObject(@NonNull JSONObject jsonObject) throws JSONException {
-            List<LineGroup> groupList = new ArrayList<>();
-            JSONArray groupsArray = jsonObject.getJSONArray("groups");
-            for (int i = 0; i < groupsArray.length(); i++) {
-                groupList.add(parseLineGroup(groupsArray.getJSONObject(i)));
+        protected GetGroupsResponse parseJson(@NonNull JsonReader reader) throws IOException {
+            List<LineGroup> groupList = null;
+            String pageToken = null;
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "groups":
+                        groupList = new ArrayList<>();
+                        reader.beginArray();
+                        while (reader.hasNext()) {
+                            groupList.add(readLineGroup(reader));
+                        }
+                        reader.endArray();
+                        break;
+                    case "pageToken":
+                        pageToken = nextStringOrNull(reader);
+                        break;
+                    default:
+                        reader.skipValue();
+                        break;
+                }
             }
-            String pageToken = jsonObject.optString("pageToken", null);
-            return new GetGroupsResponse(groupList, pageToken);
+            reader.endObject();
+            return new GetGroupsResponse(requireValue(groupList, "groups"), pageToken);
         }
     }
 
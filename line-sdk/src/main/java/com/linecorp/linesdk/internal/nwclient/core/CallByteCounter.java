@@ -0,0 +1,66 @@
+package com.linecorp.linesdk.internal.nwclient.core;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.Closeable;
+
+/**
+ * Counts the bytes sent and received by the HTTP calls made on the current thread while the
+ * counter is open, such as the retries and the token refresh of an API call. Counters may be
+ * nested, and the bytes counted by an inner counter are added to the outer one when it is closed.
+ */
+public final class CallByteCounter implements Closeable {
+    private static final ThreadLocal<CallByteCounter> currentCounter = new ThreadLocal<>();
+
+    @Nullable
+    private final CallByteCounter previousCounter;
+    private long requestBytes;
+    private long responseBytes;
+
+    private CallByteCounter(@Nullable CallByteCounter previousCounter) {
+        this.previousCounter = previousCounter;
+    }
+
+    /**
+     * Opens a counter on the current thread. The returned counter must be closed on the same
+     * thread.
+     */
+    @NonNull
+    public static CallByteCounter open() {
+        CallByteCounter counter = new CallByteCounter(currentCounter.get());
+        currentCounter.set(counter);
+        return counter;
+    }
+
+    @Nullable
+    /* package */ static CallByteCounter getCurrent() {
+        return currentCounter.get();
+    }
+
+    /* package */ void add(long requestBytes, long responseBytes) {
+        this.requestBytes += requestBytes;
+        this.responseBytes += responseBytes;
+    }
+
+    public long getRequestBytes() {
+        return requestBytes;
+    }
+
+    /**
+     * @return The number of bytes received, as they were sent over the network.
+     */
+    public long getResponseBytes() {
+        return responseBytes;
+    }
+
+    @Override
+    public void close() {
+        if (previousCounter != null) {
+            previousCounter.add(requestBytes, responseBytes);
+            currentCounter.set(previousCounter);
+        } else {
+            currentCounter.remove();
+        }
+    }
+}
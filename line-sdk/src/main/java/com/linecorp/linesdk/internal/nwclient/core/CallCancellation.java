@@ -0,0 +1,49 @@
+package com.linecorp.linesdk.internal.nwclient.core;
+
+import android.os.CancellationSignal;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.function.Supplier;
+
+/**
+ * Lets a blocking API call be aborted from another thread. While a call runs inside
+ * {@link #runWith(CancellationSignal, Supplier)}, cancelling the signal disconnects the
+ * {@link java.net.HttpURLConnection} that the call is using, so that the call returns immediately
+ * instead of waiting for the response or the timeout.
+ * <p>
+ * A custom {@link com.linecorp.linesdk.api.HttpTransport} can't be aborted. Only the requests that
+ * haven't been sent yet are skipped.
+ */
+public final class CallCancellation {
+    private static final ThreadLocal<CancellationSignal> currentSignal = new ThreadLocal<>();
+
+    private CallCancellation() {
+        // To prevent instantiation
+    }
+
+    /**
+     * Runs the given call on the current thread with the given signal, or without a signal if
+     * {@code null} is given.
+     */
+    public static <T> T runWith(
+            @Nullable CancellationSignal cancellationSignal, @NonNull Supplier<T> call) {
+        CancellationSignal previousSignal = currentSignal.get();
+        currentSignal.set(cancellationSignal);
+        try {
+            return call.get();
+        } finally {
+            currentSignal.set(previousSignal);
+        }
+    }
+
+    /**
+     * @return The signal of the call running on the current thread, or {@code null} if the call
+     * can't be cancelled.
+     */
+    @Nullable
+    public static CancellationSignal getCurrentSignal() {
+        return currentSignal.get();
+    }
+}
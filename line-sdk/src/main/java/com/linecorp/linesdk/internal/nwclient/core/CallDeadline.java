@@ -0,0 +1,135 @@
+package com.linecorp.linesdk.internal.nwclient.core;
+
+import android.os.SystemClock;
+
+import androidx.annotation.NonNull;
+
+import java.io.Closeable;
+import java.util.function.Supplier;
+
+/**
+ * Lets the HTTP calls made for one API call share a single deadline. The HTTP calls made inside a
+ * {@link Scope} on the same thread, such as a retry or the token refresh of an auto-refreshed
+ * call, count against the deadline that the first of them started. Each HTTP call is also
+ * bounded by the deadline of its own {@link com.linecorp.linesdk.api.TimeoutProfile}.
+ */
+public final class CallDeadline {
+    /**
+     * The value of a deadline that never passes.
+     */
+    public static final long NO_DEADLINE = Long.MAX_VALUE;
+
+    private static final ThreadLocal<Scope> currentScope = new ThreadLocal<>();
+
+    private CallDeadline() {
+        // To prevent instantiation
+    }
+
+    /**
+     * Opens a scope on the current thread, or joins the scope that is already open on it. The
+     * returned scope must be closed on the same thread.
+     */
+    @NonNull
+    public static Scope openScope() {
+        Scope scope = currentScope.get();
+        if (scope != null) {
+            scope.depth++;
+            return scope;
+        }
+        scope = new Scope();
+        currentScope.set(scope);
+        return scope;
+    }
+
+    /**
+     * Runs the given call on the current thread so that its HTTP calls finish within the given
+     * time. An earlier deadline of the enclosing scope still applies.
+     */
+    public static <T> T runWithin(long timeoutMillis, @NonNull Supplier<T> call) {
+        try (Scope scope = openScope()) {
+            long previousDeadlineMillis = scope.deadlineMillis;
+            boolean wasStarted = scope.isStarted;
+            scope.deadlineMillis = Math.min(
+                    previousDeadlineMillis, toDeadlineMillis(timeoutMillis));
+            scope.isStarted = true;
+            try {
+                return call.get();
+            } finally {
+                scope.deadlineMillis = previousDeadlineMillis;
+                scope.isStarted = wasStarted;
+            }
+        }
+    }
+
+    /**
+     * Runs the given call on the current thread outside the scope open on it, so that the call
+     * neither uses nor starts the deadline of the scope.
+     */
+    public static <T> T runOutsideScope(@NonNull Supplier<T> call) {
+        Scope scope = currentScope.get();
+        currentScope.remove();
+        try {
+            return call.get();
+        } finally {
+            if (scope != null) {
+                currentScope.set(scope);
+            }
+        }
+    }
+
+    /**
+     * @return The time left before the deadline of the current scope, or {@link #NO_DEADLINE} if
+     * there is no deadline.
+     */
+    public static long getRemainingMillis() {
+        Scope scope = currentScope.get();
+        if (scope == null || scope.deadlineMillis == NO_DEADLINE) {
+            return NO_DEADLINE;
+        }
+        return Math.max(0L, scope.deadlineMillis - SystemClock.elapsedRealtime());
+    }
+
+    /**
+     * Starts an HTTP call with the given timeout. The first HTTP call in a scope starts the
+     * deadline of the scope.
+     *
+     * @param timeoutMillis The deadline of the HTTP call, or 0 for none.
+     * @return The {@link SystemClock#elapsedRealtime()} by which the HTTP call must finish, or
+     * {@link #NO_DEADLINE}.
+     */
+    /* package */ static long startCall(long timeoutMillis) {
+        long deadlineMillis = toDeadlineMillis(timeoutMillis);
+        Scope scope = currentScope.get();
+        if (scope == null) {
+            return deadlineMillis;
+        }
+        if (!scope.isStarted) {
+            scope.deadlineMillis = deadlineMillis;
+            scope.isStarted = true;
+        }
+        return Math.min(scope.deadlineMillis, deadlineMillis);
+    }
+
+    private static long toDeadlineMillis(long timeoutMillis) {
+        return timeoutMillis > 0L ? SystemClock.elapsedRealtime() + timeoutMillis : NO_DEADLINE;
+    }
+
+    /**
+     * A group of HTTP calls that share a deadline.
+     */
+    public static final class Scope implements Closeable {
+        private long deadlineMillis = NO_DEADLINE;
+        // Whether an HTTP call or runWithin() has set the deadline.
+        private boolean isStarted;
+        private int depth = 1;
+
+        private Scope() {}
+
+        @Override
+        public void close() {
+            if (--depth == 0) {
+                currentScope.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.linecorp.linesdk.internal.nwclient.core;
+
+import android.net.Uri;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.linecorp.linesdk.LineApiResponse;
+import com.linecorp.linesdk.api.HttpTransportRequest;
+import com.linecorp.linesdk.api.NetworkCallEvent;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * Measures the phases of a single HTTP request for a
+ * {@link com.linecorp.linesdk.api.NetworkEventListener}. The phases are measured one after
+ * another, so each end method also starts the next phase. The reads of the response body are
+ * measured by wrapping the body streams.
+ */
+/* package */ class CallEventRecorder {
+    // Segments at least this long are treated as IDs, e.g. group IDs and Open Chat room IDs.
+    private static final int MIN_ID_LENGTH = 20;
+
+    @NonNull
+    private final NetworkCallEvent.Builder builder;
+    @Nullable
+    private final HttpTransportRequest.Body requestBody;
+    private final long startNanos;
+    private long phaseStartNanos;
+    private long parseNanos;
+    @Nullable
+    private TimingInputStream rawBody;
+    @Nullable
+    private TimingInputStream decodedBody;
+
+    /* package */ CallEventRecorder(@NonNull HttpTransportRequest request, int attempt) {
+        builder = new NetworkCallEvent.Builder(
+                getEndpointLabel(request.getUri()), request.getMethod(), attempt);
+        requestBody = request.getRequestBody();
+        startNanos = System.nanoTime();
+        phaseStartNanos = startNanos;
+    }
+
+    /* package */ void endConnect() {
+        builder.connectNanos(endPhase());
+    }
+
+    /* package */ void endRequestWrite() {
+        builder.requestWriteNanos(endPhase());
+    }
+
+    /* package */ void endTimeToFirstByte() {
+        builder.timeToFirstByteNanos(endPhase());
+    }
+
+    @NonNull
+    /* package */ InputStream wrapRawBody(@NonNull InputStream inputStream) {
+        rawBody = new TimingInputStream(inputStream);
+        return rawBody;
+    }
+
+    @NonNull
+    /* package */ InputStream wrapDecodedBody(@NonNull InputStream inputStream) {
+        decodedBody = new TimingInputStream(inputStream);
+        return decodedBody;
+    }
+
+    /* package */ void startParse() {
+        phaseStartNanos = System.nanoTime();
+    }
+
+    /* package */ void endParse() {
+        parseNanos += endPhase();
+    }
+
+    @NonNull
+    /* package */ NetworkCallEvent finish(
+            @NonNull LineApiResponse<?> response, int httpResponseCode) {
+        long rawReadNanos = rawBody != null ? rawBody.readNanos : 0L;
+        long rawBytes = rawBody != null ? rawBody.byteCount : 0L;
+        TimingInputStream outermostBody = decodedBody != null ? decodedBody : rawBody;
+        long outermostReadNanos = outermostBody != null ? outermostBody.readNanos : 0L;
+        // The length of a streamed body is known only after it has been written.
+        long requestBytes =
+                requestBody != null ? Math.max(0L, requestBody.getContentLength()) : 0L;
+        return builder
+                .requestBytes(requestBytes)
+                .responseCode(response.getResponseCode())
+                .httpResponseCode(httpResponseCode)
+                .responseBytes(rawBytes, outermostBody != null ? outermostBody.byteCount : 0L)
+                .bodyReadNanos(rawReadNanos)
+                .gzipDecodeNanos(decodedBody != null ? decodedBody.readNanos - rawReadNanos : 0L)
+                // The body may also be read outside of the parser, e.g. for debug logging.
+                .parseNanos(Math.max(0L, parseNanos - outermostReadNanos))
+                .totalNanos(System.nanoTime() - startNanos)
+                .build();
+    }
+
+    private long endPhase() {
+        long nowNanos = System.nanoTime();
+        long durationNanos = nowNanos - phaseStartNanos;
+        phaseStartNanos = nowNanos;
+        return durationNanos;
+    }
+
+    /**
+     * @return The path of the given URI without the leading slash, with IDs replaced.
+     */
+    @NonNull
+    /* package */ static String getEndpointLabel(@NonNull Uri uri) {
+        List<String> pathSegments = uri.getPathSegments();
+        StringBuilder label = new StringBuilder();
+        for (String pathSegment : pathSegments) {
+            if (label.length() > 0) {
+                label.append('/');
+            }
+            label.append(isId(pathSegment) ? "{id}" : pathSegment);
+        }
+        return label.toString();
+    }
+
+    private static boolean isId(@NonNull String pathSegment) {
+        if (pathSegment.length() >= MIN_ID_LENGTH) {
+            return true;
+        }
+        for (int i = 0; i < pathSegment.length(); i++) {
+            if (!Character.isDigit(pathSegment.charAt(i))) {
+                return false;
+            }
+        }
+        return !pathSegment.isEmpty();
+    }
+
+    /**
+     * Counts the bytes read from the given stream and the time spent reading them.
+     */
+    private static class TimingInputStream extends FilterInputStream {
+        private long byteCount;
+        private long readNanos;
+
+        private TimingInputStream(@NonNull InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            long startNanos = System.nanoTime();
+            int b = super.read();
+            readNanos += System.nanoTime() - startNanos;
+            if (b >= 0) {
+                byteCount++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(@NonNull byte[] buffer, int offset, int length) throws IOException {
+            long startNanos = System.nanoTime();
+            int readLength = super.read(buffer, offset, length);
+            readNanos += System.nanoTime() - startNanos;
+            if (readLength > 0) {
+                byteCount += readLength;
+            }
+            return readLength;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long startNanos = System.nanoTime();
+            long skipped = super.skip(n);
+            readNanos += System.nanoTime() - startNanos;
+            byteCount += skipped;
+            return skipped;
+        }
+    }
+}
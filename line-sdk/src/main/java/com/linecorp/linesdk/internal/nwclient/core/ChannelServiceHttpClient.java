@@ -3,6 +3,8 @@ package com.linecorp.linesdk.internal.nwclient.core;
 import android.content.Context;
 import android.net.Uri;
 import android.os.Build;
+import android.os.CancellationSignal;
+import android.os.SystemClock;
 import android.util.Log;
 
 import com.linecorp.linesdk.internal.security.TLSSocketFactory;
@@ -10,6 +12,16 @@ import com.linecorp.linesdk.BuildConfig;
 import com.linecorp.linesdk.LineApiError;
 import com.linecorp.linesdk.LineApiResponse;
 import com.linecorp.linesdk.LineApiResponseCode;
+import com.linecorp.linesdk.LineSdkExecutors;
+import com.linecorp.linesdk.LineSdkTrace;
+import com.linecorp.linesdk.api.CircuitBreaker;
+import com.linecorp.linesdk.api.HttpTransport;
+import com.linecorp.linesdk.api.HttpTransportRequest;
+import com.linecorp.linesdk.api.HttpTransportResponse;
+import com.linecorp.linesdk.api.NetworkCallEvent;
+import com.linecorp.linesdk.api.NetworkEventListener;
+import com.linecorp.linesdk.api.RetryPolicy;
+import com.linecorp.linesdk.api.TimeoutProfile;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
@@ -20,9 +32,15 @@ import java.io.UnsupportedEncodingException;
 import java.net.HttpURLConnection;
 import java.net.URL;
 import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.zip.GZIPInputStream;
 
 import javax.net.ssl.HttpsURLConnection;
@@ -43,16 +61,33 @@ public class ChannelServiceHttpClient {
     private static final byte[] EMPTY_DATA = new byte[0];
     private static final int DEFAULT_CONNECT_TIMEOUT_MILLIS = 90 * 1000;
     private static final int DEFAULT_READ_TIMEOUT_MILLIS = 90 * 1000;
+    public static final int DEFAULT_DEBUG_LOG_MAX_BODY_BYTES = 4 * 1024;
 
     private static final String SERVER_SIDE_CHARSET = "UTF-8";
+    private static final String CONTENT_TYPE_FORM = "application/x-www-form-urlencoded";
+    private static final String CONTENT_TYPE_JSON = "application/json";
 
     @NonNull
     private final UserAgentGenerator userAgentGenerator;
     @NonNull
     private final StringResponseParser errorResponseParser;
 
+    @Nullable
+    private HttpTransport httpTransport;
+    @NonNull
+    private RetryPolicy retryPolicy = RetryPolicy.NONE;
+    @Nullable
+    private CircuitBreaker circuitBreaker;
+    @Nullable
+    private NetworkEventListener networkEventListener;
+
+    private boolean isKeepAliveEnabled;
     private int connectTimeoutMillis;
     private int readTimeoutMillis;
+    private int debugLogMaxBodyBytes = DEFAULT_DEBUG_LOG_MAX_BODY_BYTES;
+    // Keyed by path prefix.
+    @NonNull
+    private final Map<String, TimeoutProfile> timeoutProfiles = new ConcurrentHashMap<>();
 
     public ChannelServiceHttpClient(@NonNull Context context, @NonNull String lineSdkVersion) {
         this(new UserAgentGenerator(context, lineSdkVersion));
@@ -74,6 +109,95 @@ public class ChannelServiceHttpClient {
         this.readTimeoutMillis = readTimeoutMillis;
     }
 
+    /**
+     * Sets the timeouts of the calls whose paths start with the given prefix, such as
+     * {@code "/message/v3/"}. The profile with the longest matching prefix is used. The empty
+     * prefix matches every call. If no profile matches, the connect and read timeouts are used
+     * without a deadline.
+     *
+     * @param timeoutProfile The profile to use, or {@code null} to remove the profile.
+     */
+    public void setTimeoutProfile(
+            @NonNull String pathPrefix, @Nullable TimeoutProfile timeoutProfile) {
+        if (timeoutProfile == null) {
+            timeoutProfiles.remove(pathPrefix);
+        } else {
+            timeoutProfiles.put(pathPrefix, timeoutProfile);
+        }
+    }
+
+    /**
+     * Sets whether a response body is drained instead of disconnecting the connection, so that
+     * the platform can reuse the socket for a later call. If {@code false}, every connection is
+     * disconnected after its call, which is the default.
+     */
+    public void setKeepAliveEnabled(boolean isKeepAliveEnabled) {
+        this.isKeepAliveEnabled = isKeepAliveEnabled;
+    }
+
+    public boolean isKeepAliveEnabled() {
+        return isKeepAliveEnabled;
+    }
+
+    /**
+     * Sets the transport to send requests through. If {@code null}, {@link HttpURLConnection} is
+     * used, which is the default. Keep-alive only applies to the default transport.
+     */
+    public void setHttpTransport(@Nullable HttpTransport httpTransport) {
+        this.httpTransport = httpTransport;
+    }
+
+    /**
+     * Sets the policy to send failed calls again. {@link RetryPolicy#NONE} is the default.
+     */
+    public void setRetryPolicy(@NonNull RetryPolicy retryPolicy) {
+        this.retryPolicy = retryPolicy;
+    }
+
+    @NonNull
+    public RetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    /**
+     * Sets the circuit breaker that rejects calls to failing APIs. If {@code null}, every call is
+     * sent, which is the default.
+     */
+    public void setCircuitBreaker(@Nullable CircuitBreaker circuitBreaker) {
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    @Nullable
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    /**
+     * Sets the listener that receives the timing and size of every request, or {@code null} to
+     * measure nothing, which is the default.
+     */
+    public void setNetworkEventListener(@Nullable NetworkEventListener networkEventListener) {
+        this.networkEventListener = networkEventListener;
+    }
+
+    @Nullable
+    public NetworkEventListener getNetworkEventListener() {
+        return networkEventListener;
+    }
+
+    /**
+     * Sets how many bytes of each body are written to the log in debug builds of the SDK.
+     * {@link #DEFAULT_DEBUG_LOG_MAX_BODY_BYTES} is the default. The credentials in the logged
+     * headers and bodies are always redacted.
+     */
+    public void setDebugLogMaxBodyBytes(int debugLogMaxBodyBytes) {
+        if (debugLogMaxBodyBytes < 0) {
+            throw new IllegalArgumentException(
+                    "debugLogMaxBodyBytes must not be negative: " + debugLogMaxBodyBytes);
+        }
+        this.debugLogMaxBodyBytes = debugLogMaxBodyBytes;
+    }
+
     private enum HttpMethod {
         POST, GET, DELETE, PUT
     }
@@ -85,34 +209,13 @@ public class ChannelServiceHttpClient {
             @NonNull Map<String, String> requestHeaders,
             @NonNull Map<String, String> postData,
             @NonNull ResponseDataParser<T> responseDataParser) {
-        byte[] postDataBytes = convertPostDataToBytes(postData);
-        HttpURLConnection conn = null;
-        try {
-            conn = openPostConnection(uri, postDataBytes.length);
-            setRequestHeaders(conn, requestHeaders);
-            if (BuildConfig.DEBUG) {
-                logRequestForDebug(conn, postDataBytes);
-            }
-            conn.connect();
-
-            OutputStream os = conn.getOutputStream();
-            os.write(postDataBytes);
-            os.flush();
-            if (BuildConfig.DEBUG) {
-                logResponseHeadersForDebug(conn);
-            }
-
-            return getChannelServiceResponse(conn, responseDataParser, errorResponseParser);
-        } catch (IOException e) {
-            LineApiResponse<T> response = LineApiResponse.createAsError(
-                    LineApiResponseCode.NETWORK_ERROR, new LineApiError(e));
-            logExceptionForDebug(response, e);
-            return response;
-        } finally {
-            if (conn != null) {
-                conn.disconnect();
-            }
-        }
+        return sendRequest(
+                HttpMethod.POST,
+                uri,
+                requestHeaders,
+                CONTENT_TYPE_FORM,
+                RequestBody.create(convertPostDataToBytes(postData)),
+                responseDataParser);
     }
 
     @WorkerThread
@@ -125,6 +228,26 @@ public class ChannelServiceHttpClient {
         return sendRequestWithJson(HttpMethod.POST, uri, requestHeaders, postData, responseDataParser);
     }
 
+    /**
+     * Same as {@link #postWithJson(Uri, Map, String, ResponseDataParser)}, but the JSON is written
+     * straight into the connection instead of being converted from a string.
+     */
+    @WorkerThread
+    @NonNull
+    public <T> LineApiResponse<T> postWithJson(
+            @NonNull Uri uri,
+            @NonNull Map<String, String> requestHeaders,
+            @NonNull JsonRequestBody postData,
+            @NonNull ResponseDataParser<T> responseDataParser) {
+        return sendRequest(
+                HttpMethod.POST,
+                uri,
+                requestHeaders,
+                CONTENT_TYPE_JSON,
+                postData,
+                responseDataParser);
+    }
+
     @WorkerThread
     @NonNull
     public <T> LineApiResponse<T> putWithJson(
@@ -143,34 +266,13 @@ public class ChannelServiceHttpClient {
             @NonNull Map<String, String> requestHeaders,
             @NonNull String postData,
             @Nullable ResponseDataParser<T> responseDataParser) {
-        byte[] postDataBytes = postData.getBytes();
-        HttpURLConnection conn = null;
-        try {
-            conn = openConnectionWithJson(uri, postDataBytes.length, method);
-            setRequestHeaders(conn, requestHeaders);
-            if (BuildConfig.DEBUG) {
-                logRequestForDebug(conn, postDataBytes);
-            }
-            conn.connect();
-
-            OutputStream os = conn.getOutputStream();
-            os.write(postDataBytes);
-            os.flush();
-            if (BuildConfig.DEBUG) {
-                logResponseHeadersForDebug(conn);
-            }
-
-            return getChannelServiceResponse(conn, responseDataParser, errorResponseParser);
-        } catch (IOException e) {
-            LineApiResponse<T> response = LineApiResponse.createAsError(
-                    LineApiResponseCode.NETWORK_ERROR, new LineApiError(e));
-            logExceptionForDebug(response, e);
-            return response;
-        } finally {
-            if (conn != null) {
-                conn.disconnect();
-            }
-        }
+        return sendRequest(
+                method,
+                uri,
+                requestHeaders,
+                CONTENT_TYPE_JSON,
+                RequestBody.create(postData.getBytes()),
+                responseDataParser);
     }
 
     @WorkerThread
@@ -181,115 +283,485 @@ public class ChannelServiceHttpClient {
             @NonNull Map<String, String> queryParameters,
             @Nullable ResponseDataParser<T> responseDataParser) {
         final Uri fullUri = appendQueryParams(uri, queryParameters);
+        return sendRequest(
+                HttpMethod.GET,
+                fullUri,
+                requestHeaders,
+                null /* contentType */,
+                null /* requestBody */,
+                responseDataParser);
+    }
 
-        HttpURLConnection conn = null;
-        try {
-            conn = openGetConnection(fullUri);
-            setRequestHeaders(conn, requestHeaders);
-            if (BuildConfig.DEBUG) {
-                logRequestForDebug(conn, null /* requestBody */);
+    @WorkerThread
+    @NonNull
+    public <T> LineApiResponse<T> delete(
+            @NonNull Uri uri,
+            @NonNull Map<String, String> requestHeaders,
+            @Nullable ResponseDataParser<T> responseDataParser) {
+        return sendRequest(
+                HttpMethod.DELETE,
+                uri,
+                requestHeaders,
+                null /* contentType */,
+                null /* requestBody */,
+                responseDataParser);
+    }
+
+    @WorkerThread
+    @NonNull
+    private <T> LineApiResponse<T> sendRequest(
+            @NonNull HttpMethod method,
+            @NonNull Uri uri,
+            @NonNull Map<String, String> requestHeaders,
+            @Nullable String contentType,
+            @Nullable RequestBody requestBody,
+            @Nullable ResponseDataParser<T> responseDataParser) {
+        Map<String, String> headers = buildRequestHeaders(requestHeaders, contentType, requestBody);
+        TimeoutProfile timeoutProfile = getTimeoutProfile(uri);
+        long deadlineMillis = CallDeadline.startCall(timeoutProfile.getDeadlineMillis());
+        CancellationSignal cancellationSignal = CallCancellation.getCurrentSignal();
+        boolean isRetryable = retryPolicy.isRetryable(method.name(), uri);
+        long startMillis = SystemClock.elapsedRealtime();
+        LineApiResponse<T> lastResponse = null;
+        for (int attemptCount = 1; ; attemptCount++) {
+            if (isCanceled(cancellationSignal)) {
+                return createCancelledResponse();
+            }
+            long remainingMillis = getRemainingMillis(deadlineMillis);
+            if (remainingMillis <= 0L) {
+                // Earlier calls in the same scope have used up the time.
+                return lastResponse != null ? lastResponse : createDeadlineExceededResponse();
+            }
+            if (circuitBreaker != null && !circuitBreaker.tryAcquire(uri)) {
+                // A retry reports the real failure instead.
+                return lastResponse != null ? lastResponse : createCircuitOpenResponse(uri);
+            }
+            HttpTransportRequest request = new HttpTransportRequest(
+                    method.name(),
+                    uri,
+                    headers,
+                    requestBody,
+                    limitTimeout(timeoutProfile.getConnectTimeoutMillis(), remainingMillis),
+                    limitTimeout(timeoutProfile.getReadTimeoutMillis(), remainingMillis));
+            if (BuildConfig.DEBUG && attemptCount == 1) {
+                logRequestForDebug(request);
+            }
+            Attempt<T> attempt = null;
+            try {
+                attempt = executeOnce(request,
+                                      responseDataParser,
+                                      cancellationSignal,
+                                      deadlineMillis,
+                                      attemptCount);
+            } finally {
+                if (circuitBreaker != null) {
+                    if (attempt != null) {
+                        reportToCircuitBreaker(circuitBreaker, uri, attempt.response);
+                    } else {
+                        // An exception, such as a RuntimeException thrown by a custom transport,
+                        // tells nothing about the server, but the half-open probe is released.
+                        circuitBreaker.onIgnored(uri);
+                    }
+                }
+            }
+            lastResponse = attempt.response;
+            if (!isRetryable || !attempt.isRetryable) {
+                return attempt.response;
+            }
+            long delayMillis = retryPolicy.getRetryDelayMillis(
+                    attemptCount,
+                    SystemClock.elapsedRealtime() - startMillis,
+                    attempt.retryAfterMillis);
+            if (delayMillis < 0L || delayMillis >= getRemainingMillis(deadlineMillis)) {
+                return attempt.response;
             }
-            conn.connect();
             if (BuildConfig.DEBUG) {
-                logResponseHeadersForDebug(conn);
+                Log.d(TAG, "Retrying in " + delayMillis + " ms : " + attempt.response);
             }
-            return getChannelServiceResponse(conn, responseDataParser, errorResponseParser);
-        } catch (IOException e) {
-            LineApiResponse<T> response = LineApiResponse.createAsError(
-                    LineApiResponseCode.NETWORK_ERROR, new LineApiError(e));
-            logExceptionForDebug(response, e);
-            return response;
-        } finally {
-            if (conn != null) {
-                conn.disconnect();
+            if (!waitForRetry(delayMillis, cancellationSignal)) {
+                return createCancelledResponse();
+            }
+        }
+    }
+
+    /**
+     * @return The profile with the longest path prefix that matches the given URI, or the profile
+     * made from the connect and read timeouts if none matches.
+     */
+    @NonNull
+    private TimeoutProfile getTimeoutProfile(@NonNull Uri uri) {
+        String path = uri.getPath() != null ? uri.getPath() : "";
+        TimeoutProfile matchedProfile = null;
+        int matchedPrefixLength = -1;
+        for (Map.Entry<String, TimeoutProfile> entry : timeoutProfiles.entrySet()) {
+            String pathPrefix = entry.getKey();
+            if (path.startsWith(pathPrefix) && pathPrefix.length() > matchedPrefixLength) {
+                matchedProfile = entry.getValue();
+                matchedPrefixLength = pathPrefix.length();
             }
         }
+        return matchedProfile != null
+                ? matchedProfile
+                : new TimeoutProfile(connectTimeoutMillis, readTimeoutMillis);
+    }
+
+    private static long getRemainingMillis(long deadlineMillis) {
+        return deadlineMillis == CallDeadline.NO_DEADLINE
+                ? CallDeadline.NO_DEADLINE
+                : deadlineMillis - SystemClock.elapsedRealtime();
+    }
+
+    // A timeout of 0 means no timeout for HttpURLConnection.
+    private static int limitTimeout(int timeoutMillis, long remainingMillis) {
+        if (remainingMillis >= Integer.MAX_VALUE) {
+            return timeoutMillis;
+        }
+        return timeoutMillis == 0
+                ? (int) remainingMillis
+                : (int) Math.min(timeoutMillis, remainingMillis);
+    }
+
+    /**
+     * The result of a single attempt of a call.
+     */
+    private static class Attempt<T> {
+        @NonNull
+        private final LineApiResponse<T> response;
+        // Whether the failure is likely to be temporary.
+        private final boolean isRetryable;
+        // The wait time from the Retry-After header, or -1.
+        private final long retryAfterMillis;
+        // The HTTP status code, or -1 if no response has been received.
+        private final int httpResponseCode;
+
+        private Attempt(@NonNull LineApiResponse<T> response,
+                        boolean isRetryable,
+                        long retryAfterMillis,
+                        int httpResponseCode) {
+            this.response = response;
+            this.isRetryable = isRetryable;
+            this.retryAfterMillis = retryAfterMillis;
+            this.httpResponseCode = httpResponseCode;
+        }
+
+        @NonNull
+        private static <T> Attempt<T> failed(@NonNull LineApiResponse<T> response) {
+            return new Attempt<>(response, false /* isRetryable */, -1L, -1);
+        }
     }
 
     @WorkerThread
     @NonNull
-    public <T> LineApiResponse<T> delete(
-            @NonNull Uri uri,
-            @NonNull Map<String, String> requestHeaders,
-            @Nullable ResponseDataParser<T> responseDataParser) {
-        HttpURLConnection conn = null;
+    private <T> Attempt<T> executeOnce(
+            @NonNull HttpTransportRequest request,
+            @Nullable ResponseDataParser<T> responseDataParser,
+            @Nullable CancellationSignal cancellationSignal,
+            long deadlineMillis,
+            int attemptCount) {
+        boolean isTraced = LineSdkTrace.isEnabled() && LineSdkTrace.beginSection(
+                "LineSdk:HTTP " + request.getMethod() + " "
+                + CallEventRecorder.getEndpointLabel(request.getUri()));
         try {
-            conn = openDeleteConnection(uri);
-            setRequestHeaders(conn, requestHeaders);
-            if (BuildConfig.DEBUG) {
-                logRequestForDebug(conn, null /* requestBody */);
+            return executeOnceAndReport(
+                    request, responseDataParser, cancellationSignal, deadlineMillis, attemptCount);
+        } finally {
+            LineSdkTrace.endSection(isTraced);
+        }
+    }
+
+    @WorkerThread
+    @NonNull
+    private <T> Attempt<T> executeOnceAndReport(
+            @NonNull HttpTransportRequest request,
+            @Nullable ResponseDataParser<T> responseDataParser,
+            @Nullable CancellationSignal cancellationSignal,
+            long deadlineMillis,
+            int attemptCount) {
+        NetworkEventListener listener = networkEventListener;
+        CallByteCounter byteCounter = CallByteCounter.getCurrent();
+        if (listener == null && byteCounter == null) {
+            return executeAttempt(
+                    request, responseDataParser, cancellationSignal, deadlineMillis, null);
+        }
+        CallEventRecorder recorder = new CallEventRecorder(request, attemptCount);
+        Attempt<T> attempt = executeAttempt(
+                request, responseDataParser, cancellationSignal, deadlineMillis, recorder);
+        NetworkCallEvent event = recorder.finish(attempt.response, attempt.httpResponseCode);
+        if (byteCounter != null) {
+            byteCounter.add(event.getRequestBytes(), event.getResponseBytes());
+        }
+        if (listener != null) {
+            listener.onCallFinished(event);
+        }
+        return attempt;
+    }
+
+    @WorkerThread
+    @NonNull
+    private <T> Attempt<T> executeAttempt(
+            @NonNull HttpTransportRequest request,
+            @Nullable ResponseDataParser<T> responseDataParser,
+            @Nullable CancellationSignal cancellationSignal,
+            long deadlineMillis,
+            @Nullable CallEventRecorder recorder) {
+        HttpTransportResponse response = null;
+        try {
+            response = httpTransport != null
+                    ? httpTransport.execute(request)
+                    : executeWithHttpURLConnection(
+                            request, cancellationSignal, deadlineMillis, recorder);
+            int httpResponseCode = response.getResponseCode();
+            if (recorder != null) {
+                recorder.endTimeToFirstByte();
             }
-            conn.connect();
             if (BuildConfig.DEBUG) {
-                logResponseHeadersForDebug(conn);
+                logResponseHeadersForDebug(response);
+            }
+            LineApiResponse<T> apiResponse = getChannelServiceResponse(
+                    response, responseDataParser, errorResponseParser, recorder);
+            if (!apiResponse.isSuccess() && isCanceled(cancellationSignal)) {
+                // The body couldn't be read because the connection was disconnected.
+                return Attempt.failed(createCancelledResponse());
             }
-            return getChannelServiceResponse(conn, responseDataParser, errorResponseParser);
+            if (!apiResponse.isSuccess() && getRemainingMillis(deadlineMillis) <= 0L) {
+                return Attempt.failed(createDeadlineExceededResponse());
+            }
+            boolean isRetryable = apiResponse.getResponseCode() == LineApiResponseCode.SERVER_ERROR
+                                  && RetryPolicy.isRetryableResponseCode(httpResponseCode);
+            long retryAfterMillis = isRetryable
+                    ? RetryPolicy.parseRetryAfterMillis(
+                            getHeaderValue(response, "Retry-After"), System.currentTimeMillis())
+                    : -1L;
+            return new Attempt<>(apiResponse, isRetryable, retryAfterMillis, httpResponseCode);
         } catch (IOException e) {
-            LineApiResponse<T> response = LineApiResponse.createAsError(
+            if (isCanceled(cancellationSignal)) {
+                return Attempt.failed(createCancelledResponse());
+            }
+            if (getRemainingMillis(deadlineMillis) <= 0L) {
+                return Attempt.failed(createDeadlineExceededResponse());
+            }
+            LineApiResponse<T> errorResponse = LineApiResponse.createAsError(
                     LineApiResponseCode.NETWORK_ERROR, new LineApiError(e));
-            logExceptionForDebug(response, e);
-            return response;
+            logExceptionForDebug(errorResponse, e);
+            return new Attempt<>(errorResponse, true /* isRetryable */, -1L, -1);
+        } finally {
+            if (cancellationSignal != null) {
+                cancellationSignal.setOnCancelListener(null);
+            }
+            if (response != null) {
+                response.close();
+            }
+        }
+    }
+
+    /**
+     * Waits for the given time before a retry. Cancelling the given signal ends the wait.
+     *
+     * @return {@code false} if the call has been cancelled.
+     */
+    @VisibleForTesting
+    @WorkerThread
+    protected boolean waitForRetry(
+            long delayMillis, @Nullable CancellationSignal cancellationSignal) {
+        CountDownLatch cancelLatch = new CountDownLatch(1);
+        if (cancellationSignal != null) {
+            cancellationSignal.setOnCancelListener(cancelLatch::countDown);
+        }
+        try {
+            return !cancelLatch.await(delayMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
         } finally {
-            if (conn != null) {
-                conn.disconnect();
+            if (cancellationSignal != null) {
+                cancellationSignal.setOnCancelListener(null);
             }
         }
     }
 
+    private static boolean isCanceled(@Nullable CancellationSignal cancellationSignal) {
+        return cancellationSignal != null && cancellationSignal.isCanceled();
+    }
+
     @NonNull
-    private HttpURLConnection openPostConnection(
-            @NonNull Uri uri, int postDataSizeByte) throws IOException {
-        HttpURLConnection conn = openHttpConnection(uri);
-        conn.setInstanceFollowRedirects(true);
-        conn.setRequestProperty("User-Agent", userAgentGenerator.getUserAgent());
-        conn.setRequestProperty("Accept-Encoding", "gzip");
-        conn.setRequestProperty("Content-Type", "application/x-www-form-urlencoded");
-        conn.setRequestProperty("Content-Length", String.valueOf(postDataSizeByte));
-        conn.setConnectTimeout(connectTimeoutMillis);
-        conn.setReadTimeout(readTimeoutMillis);
-        conn.setRequestMethod(HttpMethod.POST.name());
-        conn.setDoOutput(true);
-        return conn;
+    private static <T> LineApiResponse<T> createCancelledResponse() {
+        return LineApiResponse.createAsError(
+                LineApiResponseCode.CANCEL, new LineApiError("The API call is cancelled."));
     }
 
     @NonNull
-    private HttpURLConnection openConnectionWithJson(
-            @NonNull Uri uri, int postDataSizeByte, HttpMethod method) throws IOException {
-        HttpURLConnection conn = openHttpConnection(uri);
-        conn.setInstanceFollowRedirects(true);
-        conn.setRequestProperty("User-Agent", userAgentGenerator.getUserAgent());
-        conn.setRequestProperty("Accept-Encoding", "gzip");
-        conn.setRequestProperty("Content-Type", "application/json");
-        conn.setRequestProperty("Content-Length", String.valueOf(postDataSizeByte));
-        conn.setConnectTimeout(connectTimeoutMillis);
-        conn.setReadTimeout(readTimeoutMillis);
-        conn.setRequestMethod(method.name());
-        conn.setDoOutput(true);
-        return conn;
+    private static <T> LineApiResponse<T> createDeadlineExceededResponse() {
+        return LineApiResponse.createAsError(
+                LineApiResponseCode.NETWORK_ERROR,
+                new LineApiError("The deadline of the API call has passed."));
     }
 
     @NonNull
-    private HttpURLConnection openGetConnection(@NonNull Uri uri) throws IOException {
-        HttpURLConnection conn = openHttpConnection(uri);
-        conn.setInstanceFollowRedirects(true);
-        conn.setRequestProperty("User-Agent", userAgentGenerator.getUserAgent());
-        conn.setRequestProperty("Accept-Encoding", "gzip");
-        conn.setConnectTimeout(connectTimeoutMillis);
-        conn.setReadTimeout(readTimeoutMillis);
-        conn.setRequestMethod(HttpMethod.GET.name());
-        return conn;
+    private static <T> LineApiResponse<T> createCircuitOpenResponse(@NonNull Uri uri) {
+        return LineApiResponse.createAsError(
+                LineApiResponseCode.CIRCUIT_OPEN,
+                new LineApiError("The API call is rejected because recent calls to "
+                                 + CircuitBreaker.getGroupKey(uri) + " failed."));
+    }
+
+    private static void reportToCircuitBreaker(
+            @NonNull CircuitBreaker circuitBreaker,
+            @NonNull Uri uri,
+            @NonNull LineApiResponse<?> response) {
+        switch (response.getResponseCode()) {
+            case CANCEL:
+                circuitBreaker.onIgnored(uri);
+                break;
+            case NETWORK_ERROR:
+                circuitBreaker.onFailure(uri);
+                break;
+            case SERVER_ERROR:
+                if (CircuitBreaker.isFailureResponseCode(
+                        response.getErrorData().getHttpResponseCode())) {
+                    circuitBreaker.onFailure(uri);
+                } else {
+                    circuitBreaker.onSuccess(uri);
+                }
+                break;
+            default:
+                // The server has responded, even if the response couldn't be parsed.
+                circuitBreaker.onSuccess(uri);
+                break;
+        }
     }
 
     @NonNull
-    private HttpURLConnection openDeleteConnection(@NonNull Uri uri) throws IOException {
-        HttpURLConnection conn = openHttpConnection(uri);
-        conn.setInstanceFollowRedirects(true);
-        conn.setRequestProperty("User-Agent", userAgentGenerator.getUserAgent());
-        conn.setRequestProperty("Accept-Encoding", "gzip");
-        conn.setConnectTimeout(connectTimeoutMillis);
-        conn.setReadTimeout(readTimeoutMillis);
-        conn.setRequestMethod(HttpMethod.DELETE.name());
-        return conn;
+    private Map<String, String> buildRequestHeaders(
+            @NonNull Map<String, String> requestHeaders,
+            @Nullable String contentType,
+            @Nullable RequestBody requestBody) {
+        Map<String, String> headers = new LinkedHashMap<>();
+        headers.put("User-Agent", userAgentGenerator.getUserAgent());
+        headers.put("Accept-Encoding", "gzip");
+        if (requestBody != null) {
+            headers.put("Content-Type", contentType);
+            if (requestBody.getContentLength() >= 0L) {
+                headers.put("Content-Length", String.valueOf(requestBody.getContentLength()));
+            }
+        }
+        headers.putAll(requestHeaders);
+        return headers;
+    }
+
+    /**
+     * Sends the given request through {@link HttpURLConnection}. This is the default transport.
+     * Cancelling the given signal disconnects the connection until the caller clears the listener.
+     * The connection is also disconnected when the deadline passes, until the response is closed.
+     */
+    @WorkerThread
+    @NonNull
+    private HttpTransportResponse executeWithHttpURLConnection(
+            @NonNull HttpTransportRequest request,
+            @Nullable CancellationSignal cancellationSignal,
+            long deadlineMillis,
+            @Nullable CallEventRecorder recorder) throws IOException {
+        HttpURLConnection conn = openHttpConnection(request.getUri());
+        ScheduledFuture<?> deadlineWatchdog = null;
+        if (deadlineMillis != CallDeadline.NO_DEADLINE) {
+            deadlineWatchdog = LineSdkExecutors.getScheduledExecutor().schedule(
+                    conn::disconnect, getRemainingMillis(deadlineMillis), TimeUnit.MILLISECONDS);
+        }
+        try {
+            if (cancellationSignal != null) {
+                cancellationSignal.setOnCancelListener(conn::disconnect);
+                if (cancellationSignal.isCanceled()) {
+                    throw new IOException("The API call is cancelled.");
+                }
+            }
+            conn.setInstanceFollowRedirects(true);
+            for (Map.Entry<String, String> headerEntry : request.getHeaders().entrySet()) {
+                conn.setRequestProperty(headerEntry.getKey(), headerEntry.getValue());
+            }
+            conn.setConnectTimeout(request.getConnectTimeoutMillis());
+            conn.setReadTimeout(request.getReadTimeoutMillis());
+            conn.setRequestMethod(request.getMethod());
+            HttpTransportRequest.Body requestBody = request.getRequestBody();
+            if (requestBody != null) {
+                conn.setDoOutput(true);
+                // Otherwise, the connection buffers the whole body to compute the length.
+                long contentLength = requestBody.getContentLength();
+                if (contentLength >= 0L) {
+                    conn.setFixedLengthStreamingMode(contentLength);
+                } else {
+                    conn.setChunkedStreamingMode(0 /* default chunk length */);
+                }
+            }
+            conn.connect();
+            if (recorder != null) {
+                recorder.endConnect();
+            }
+
+            if (requestBody != null) {
+                OutputStream os = conn.getOutputStream();
+                requestBody.writeTo(os);
+                os.flush();
+            }
+            if (recorder != null) {
+                recorder.endRequestWrite();
+            }
+            HttpTransportResponse response =
+                    new HttpURLConnectionResponse(conn, isKeepAliveEnabled);
+            return deadlineWatchdog != null
+                    ? new DeadlineBoundResponse(response, deadlineWatchdog)
+                    : response;
+        } catch (IOException | RuntimeException e) {
+            if (deadlineWatchdog != null) {
+                deadlineWatchdog.cancel(false /* mayInterruptIfRunning */);
+            }
+            conn.disconnect();
+            throw e;
+        }
+    }
+
+    /**
+     * Stops the deadline watchdog of a response when the response is closed.
+     */
+    private static class DeadlineBoundResponse implements HttpTransportResponse {
+        @NonNull
+        private final HttpTransportResponse response;
+        @NonNull
+        private final ScheduledFuture<?> deadlineWatchdog;
+
+        private DeadlineBoundResponse(
+                @NonNull HttpTransportResponse response,
+                @NonNull ScheduledFuture<?> deadlineWatchdog) {
+            this.response = response;
+            this.deadlineWatchdog = deadlineWatchdog;
+        }
+
+        @Override
+        public int getResponseCode() throws IOException {
+            return response.getResponseCode();
+        }
+
+        @Nullable
+        @Override
+        public String getResponseMessage() throws IOException {
+            return response.getResponseMessage();
+        }
+
+        @NonNull
+        @Override
+        public Map<String, List<String>> getHeaderFields() {
+            return response.getHeaderFields();
+        }
+
+        @Nullable
+        @Override
+        public InputStream getBody() throws IOException {
+            return response.getBody();
+        }
+
+        @Override
+        public void close() {
+            deadlineWatchdog.cancel(false /* mayInterruptIfRunning */);
+            response.close();
+        }
     }
 
     @VisibleForTesting
@@ -315,13 +787,6 @@ public class ChannelServiceHttpClient {
         return httpsURLConnection;
     }
 
-    private static void setRequestHeaders(
-            @NonNull HttpURLConnection conn, @NonNull Map<String, String> requestHeaders) {
-        for (Map.Entry<String, String> headerEntry : requestHeaders.entrySet()) {
-            conn.setRequestProperty(headerEntry.getKey(), headerEntry.getValue());
-        }
-    }
-
     @NonNull
     private static byte[] convertPostDataToBytes(@NonNull Map<String, String> postData) {
         if (postData.isEmpty()) {
@@ -336,12 +801,16 @@ public class ChannelServiceHttpClient {
     }
 
     @NonNull
-    private static <T> LineApiResponse<T> getChannelServiceResponse(
-            @NonNull HttpURLConnection conn,
+    private <T> LineApiResponse<T> getChannelServiceResponse(
+            @NonNull HttpTransportResponse response,
             @Nullable ResponseDataParser<T> responseDataParser,
-            @NonNull ResponseDataParser<String> errorResponseParser) throws IOException {
-        InputStream inputStream = getInputStreamFrom(conn);
-        int httpResponseCode = conn.getResponseCode();
+            @NonNull ResponseDataParser<String> errorResponseParser,
+            @Nullable CallEventRecorder recorder) throws IOException {
+        InputStream inputStream = getInputStreamFrom(response, recorder);
+        int httpResponseCode = response.getResponseCode();
+        if (recorder != null) {
+            recorder.startParse();
+        }
         try {
             if (httpResponseCode != HttpURLConnection.HTTP_OK
                     && httpResponseCode != HttpURLConnection.HTTP_NO_CONTENT) {
@@ -356,92 +825,147 @@ public class ChannelServiceHttpClient {
                 return LineApiResponse.createAsSuccess(null);
             }
 
-            return LineApiResponse.createAsSuccess(responseDataParser.getResponseData(inputStream));
+            return LineApiResponse.createAsSuccess(
+                    responseDataParser.getResponseData(response.getHeaderFields(), inputStream));
         } catch (IOException e) {
             // Evaluates response data parsing error as INTERNAL_ERROR
             return LineApiResponse.createAsError(
                     LineApiResponseCode.INTERNAL_ERROR,
                     new LineApiError(e, LineApiError.ErrorCode.HTTP_RESPONSE_PARSE_ERROR)
             );
+        } finally {
+            if (recorder != null) {
+                recorder.endParse();
+            }
+            closeQuietly(inputStream);
         }
     }
 
     @NonNull
-    private static InputStream getInputStreamFrom(
-            @NonNull HttpURLConnection httpURLConnection) throws IOException {
-        int httpResponseCode = httpURLConnection.getResponseCode();
-        InputStream inputStream = httpResponseCode < 400
-                ? httpURLConnection.getInputStream()
-                : httpURLConnection.getErrorStream();
-        inputStream = isGzipUsed(httpURLConnection)
-                ? new GZIPInputStream(inputStream)
+    private InputStream getInputStreamFrom(
+            @NonNull HttpTransportResponse response,
+            @Nullable CallEventRecorder recorder) throws IOException {
+        InputStream inputStream = response.getBody();
+        if (inputStream == null) {
+            inputStream = new ByteArrayInputStream(EMPTY_DATA);
+        }
+        if (recorder != null) {
+            inputStream = recorder.wrapRawBody(inputStream);
+        }
+        if (isGzipUsed(response)) {
+            inputStream = new GZIPInputStream(inputStream);
+            if (recorder != null) {
+                inputStream = recorder.wrapDecodedBody(inputStream);
+            }
+        }
+        return BuildConfig.DEBUG
+                ? new DebugBodyLoggingInputStream(inputStream, TAG, debugLogMaxBodyBytes)
                 : inputStream;
-        return BuildConfig.DEBUG ? logResponseBodyForDebug(inputStream) : inputStream;
     }
 
-    private static boolean isGzipUsed(@NonNull HttpURLConnection conn) {
-        List<String> contentEncodings = conn.getHeaderFields().get("Content-Encoding");
-        if (contentEncodings == null || contentEncodings.isEmpty()) {
-            return false;
+    @Nullable
+    private static String getHeaderValue(
+            @NonNull HttpTransportResponse response, @NonNull String name) {
+        for (Map.Entry<String, List<String>> header : response.getHeaderFields().entrySet()) {
+            if (name.equalsIgnoreCase(header.getKey()) && !header.getValue().isEmpty()) {
+                return header.getValue().get(0);
+            }
         }
-        for (int i = 0; i < contentEncodings.size(); ++i) {
-            String contentEncoding = contentEncodings.get(i);
-            if (contentEncoding.equalsIgnoreCase("gzip")) {
-                return true;
+        return null;
+    }
+
+    private static boolean isGzipUsed(@NonNull HttpTransportResponse response) {
+        for (Map.Entry<String, List<String>> header : response.getHeaderFields().entrySet()) {
+            if (!"Content-Encoding".equalsIgnoreCase(header.getKey())) {
+                continue;
+            }
+            List<String> contentEncodings = header.getValue();
+            for (int i = 0; i < contentEncodings.size(); ++i) {
+                String contentEncoding = contentEncodings.get(i);
+                if (contentEncoding.equalsIgnoreCase("gzip")) {
+                    return true;
+                }
             }
         }
         return false;
     }
 
-    private static void logRequestForDebug(@NonNull HttpURLConnection conn, @Nullable byte[] requestBody) {
-        Log.d(TAG, conn.getRequestMethod() + " : " + conn.getURL());
-        Map<String, List<String>> properties = conn.getRequestProperties();
-        for (Map.Entry<String, List<String>> property : properties.entrySet()) {
-            Log.d(TAG, "    "
-                    + property.getKey() + " : " + Arrays.toString(property.getValue().toArray()));
+    private void logRequestForDebug(@NonNull HttpTransportRequest request) {
+        Log.d(TAG, request.getMethod() + " : " + request.getUri());
+        for (Map.Entry<String, String> property : request.getHeaders().entrySet()) {
+            Log.d(TAG, "    " + property.getKey() + " : "
+                       + DebugLogRedactor.redactHeader(property.getKey(), property.getValue()));
         }
-        if (requestBody != null) {
-            try {
-                Log.d(TAG, "== Request body ==");
-                Log.d(TAG, new String(requestBody, "utf-8"));
-            } catch (UnsupportedEncodingException e) {
-                // ignore
-            }
+        HttpTransportRequest.Body requestBody = request.getRequestBody();
+        if (requestBody == null) {
+            return;
+        }
+        // Only the logged bytes are serialized, instead of the whole body.
+        DebugLogOutputStream outputStream = new DebugLogOutputStream(debugLogMaxBodyBytes);
+        try {
+            requestBody.writeTo(outputStream);
+        } catch (IOException e) {
+            // The logged bytes have been written, or the body can't be serialized.
+        }
+        Log.d(TAG, "== Request body ==");
+        Log.d(TAG, DebugLogRedactor.redactBody(
+                new String(outputStream.loggedBytes.toByteArray(), StandardCharsets.UTF_8)));
+        if (outputStream.isTruncated) {
+            long contentLength = requestBody.getContentLength();
+            Log.d(TAG, contentLength >= 0L
+                       ? "(" + (contentLength - outputStream.loggedBytes.size())
+                         + " more bytes not logged)"
+                       : "(more bytes not logged)");
         }
     }
 
-    private static void logResponseHeadersForDebug(@NonNull HttpURLConnection conn) throws IOException {
-        Log.d(TAG, conn.getResponseCode() + " : " + conn.getResponseMessage());
-        Map<String, List<String>> responseHeaders = conn.getHeaderFields();
-        for (Map.Entry<String, List<String>> property : responseHeaders.entrySet()) {
-            Log.d(TAG, "    "
-                    + property.getKey() + " : " + Arrays.toString(property.getValue().toArray()));
+    /**
+     * Keeps the first bytes written into it, and stops the writer with an {@link IOException}
+     * once it has got them.
+     */
+    private static class DebugLogOutputStream extends OutputStream {
+        private final int maxLoggedBytes;
+        @NonNull
+        private final ByteArrayOutputStream loggedBytes = new ByteArrayOutputStream();
+        private boolean isTruncated;
+
+        private DebugLogOutputStream(int maxLoggedBytes) {
+            this.maxLoggedBytes = maxLoggedBytes;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(@NonNull byte[] b, int off, int len) throws IOException {
+            int copyLength = Math.min(len, maxLoggedBytes - loggedBytes.size());
+            loggedBytes.write(b, off, copyLength);
+            if (copyLength < len) {
+                isTruncated = true;
+                throw new IOException("The logged bytes have been written.");
+            }
         }
     }
 
-    @NonNull
-    private static InputStream logResponseBodyForDebug(
-            @NonNull InputStream inputStream) throws IOException {
-        byte[] responseBodyByteArray = toByteArray(inputStream);
-        Log.d(TAG, "== response body ==");
-        Log.d(TAG, new StringResponseParser().getResponseData(
-                new ByteArrayInputStream(responseBodyByteArray)));
-        return new ByteArrayInputStream(responseBodyByteArray);
+    private static void logResponseHeadersForDebug(
+            @NonNull HttpTransportResponse response) throws IOException {
+        Log.d(TAG, response.getResponseCode() + " : " + response.getResponseMessage());
+        Map<String, List<String>> responseHeaders = response.getHeaderFields();
+        for (Map.Entry<String, List<String>> property : responseHeaders.entrySet()) {
+            List<String> values =
+                    DebugLogRedactor.redactHeader(property.getKey(), property.getValue());
+            Log.d(TAG, "    " + property.getKey() + " : " + Arrays.toString(values.toArray()));
+        }
     }
 
-    @NonNull
-    private static byte[] toByteArray(@NonNull InputStream inputStream) throws IOException {
-        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-        byte[] buffer = new byte[1024];
-        while (true) {
-            int length = inputStream.read(buffer);
-            if (length < 0) {
-                break;
-            }
-            byteArrayOutputStream.write(buffer, 0, length);
+    private static void closeQuietly(@NonNull InputStream inputStream) {
+        try {
+            inputStream.close();
+        } catch (IOException e) {
+            // ignore
         }
-        byteArrayOutputStream.flush();
-        return byteArrayOutputStream.toByteArray();
     }
 
     private static void logExceptionForDebug(
@@ -0,0 +1,104 @@
+package com.linecorp.linesdk.internal.nwclient.core;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+
+/**
+ * Copies the first bytes of a response body while the parser reads it, and writes them to the
+ * debug log with the credentials redacted when the body has been read to the end or closed.
+ * Unlike reading the whole body up front, this keeps at most the given number of bytes in memory
+ * and doesn't delay the parser.
+ */
+/* package */ class DebugBodyLoggingInputStream extends FilterInputStream {
+    private static final Charset LOG_CHARSET = Charset.forName("UTF-8");
+
+    @NonNull
+    private final String tag;
+    private final int maxLoggedBytes;
+    @NonNull
+    private final ByteArrayOutputStream loggedBytes;
+    private long skippedByteCount;
+    private boolean isLogged;
+
+    /* package */ DebugBodyLoggingInputStream(
+            @NonNull InputStream in, @NonNull String tag, int maxLoggedBytes) {
+        super(in);
+        this.tag = tag;
+        this.maxLoggedBytes = maxLoggedBytes;
+        loggedBytes = new ByteArrayOutputStream(Math.min(maxLoggedBytes, 1024));
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b < 0) {
+            log();
+        } else {
+            copy(b);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(@NonNull byte[] buffer, int offset, int length) throws IOException {
+        int readLength = super.read(buffer, offset, length);
+        if (readLength < 0) {
+            log();
+        } else {
+            copy(buffer, offset, readLength);
+        }
+        return readLength;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = super.skip(n);
+        skippedByteCount += skipped;
+        return skipped;
+    }
+
+    // Resetting the stream would copy the same bytes twice.
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    @Override
+    public void close() throws IOException {
+        log();
+        super.close();
+    }
+
+    private void copy(int b) {
+        if (loggedBytes.size() < maxLoggedBytes) {
+            loggedBytes.write(b);
+        } else {
+            skippedByteCount++;
+        }
+    }
+
+    private void copy(@NonNull byte[] buffer, int offset, int length) {
+        int copyLength = Math.min(length, maxLoggedBytes - loggedBytes.size());
+        loggedBytes.write(buffer, offset, copyLength);
+        skippedByteCount += length - copyLength;
+    }
+
+    private void log() {
+        if (isLogged) {
+            return;
+        }
+        isLogged = true;
+        Log.d(tag, "== response body ==");
+        Log.d(tag, DebugLogRedactor.redactBody(new String(loggedBytes.toByteArray(), LOG_CHARSET)));
+        if (skippedByteCount > 0L) {
+            Log.d(tag, "(" + skippedByteCount + " more bytes not logged)");
+        }
+    }
+}
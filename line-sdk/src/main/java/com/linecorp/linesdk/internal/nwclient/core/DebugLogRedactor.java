@@ -0,0 +1,65 @@
+package com.linecorp.linesdk.internal.nwclient.core;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Hides the credentials in the headers and bodies written to the debug log, such as access
+ * tokens, refresh tokens, ID tokens and authorization codes.
+ */
+/* package */ final class DebugLogRedactor {
+    /* package */ static final String REDACTED = "<redacted>";
+
+    private static final Set<String> SECRET_HEADER_NAMES = Collections.unmodifiableSet(
+            new HashSet<>(Arrays.asList("authorization", "cookie", "set-cookie")));
+    private static final String SECRET_PARAMETER_NAMES =
+            "access_token|refresh_token|id_token|code|code_verifier|client_secret|otp|password";
+    // A JSON member such as "access_token":"xxx". The value may be cut off at the end of a body
+    // that has been truncated for the log, as in "access_token":"xx.
+    private static final Pattern JSON_SECRET_PATTERN = Pattern.compile(
+            "(\"(?:" + SECRET_PARAMETER_NAMES + ")\"\\s*:\\s*)"
+            + "\"(?:[^\"\\\\]|\\\\.)*(?:\"|\\\\?\\z)");
+    // A form parameter such as access_token=xxx.
+    private static final Pattern FORM_SECRET_PATTERN = Pattern.compile(
+            "((?:^|&)(?:" + SECRET_PARAMETER_NAMES + ")=)[^&]*");
+
+    private DebugLogRedactor() {
+        // To prevent instantiation
+    }
+
+    /**
+     * @return The given header value, or {@link #REDACTED} if the header carries credentials.
+     */
+    @NonNull
+    /* package */ static String redactHeader(@Nullable String name, @NonNull String value) {
+        return name != null && SECRET_HEADER_NAMES.contains(name.toLowerCase(Locale.US))
+               ? REDACTED
+               : value;
+    }
+
+    @NonNull
+    /* package */ static List<String> redactHeader(
+            @Nullable String name, @NonNull List<String> values) {
+        return name != null && SECRET_HEADER_NAMES.contains(name.toLowerCase(Locale.US))
+               ? Collections.singletonList(REDACTED)
+               : values;
+    }
+
+    /**
+     * @return The given JSON or form-encoded body with the values of the credentials replaced.
+     */
+    @NonNull
+    /* package */ static String redactBody(@NonNull String body) {
+        String redactedBody =
+                JSON_SECRET_PATTERN.matcher(body).replaceAll("$1\"" + REDACTED + "\"");
+        return FORM_SECRET_PATTERN.matcher(redactedBody).replaceAll("$1" + REDACTED);
+    }
+}
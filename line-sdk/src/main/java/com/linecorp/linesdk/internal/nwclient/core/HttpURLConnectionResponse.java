@@ -0,0 +1,135 @@
+package com.linecorp.linesdk.internal.nwclient.core;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.linecorp.linesdk.api.HttpTransportResponse;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link HttpTransportResponse} backed by {@link HttpURLConnection}. This is used when no custom
+ * {@link com.linecorp.linesdk.api.HttpTransport} is set.
+ * <p>
+ * By default, the connection is disconnected when the response is closed, which also closes the
+ * socket. With keep-alive enabled, the rest of the body is drained and the body stream is closed
+ * instead of disconnecting. The platform's own keep-alive pool then decides whether the socket
+ * is reused by a later request. The SDK doesn't see that decision.
+ */
+/* package */ class HttpURLConnectionResponse implements HttpTransportResponse {
+    // Response bodies larger than this are not worth draining to keep the socket.
+    private static final int MAX_DRAIN_BYTES = 64 * 1024;
+
+    @NonNull
+    private final HttpURLConnection conn;
+    private final boolean isKeepAliveEnabled;
+
+    @Nullable
+    private InputStream body;
+    private boolean isBodyOpened;
+
+    HttpURLConnectionResponse(@NonNull HttpURLConnection conn, boolean isKeepAliveEnabled) {
+        this.conn = conn;
+        this.isKeepAliveEnabled = isKeepAliveEnabled;
+    }
+
+    @Override
+    public int getResponseCode() throws IOException {
+        return conn.getResponseCode();
+    }
+
+    @Nullable
+    @Override
+    public String getResponseMessage() throws IOException {
+        return conn.getResponseMessage();
+    }
+
+    @NonNull
+    @Override
+    public Map<String, List<String>> getHeaderFields() {
+        return conn.getHeaderFields();
+    }
+
+    @Nullable
+    @Override
+    public InputStream getBody() throws IOException {
+        if (isBodyOpened) {
+            return body;
+        }
+        isBodyOpened = true;
+        InputStream inputStream = conn.getResponseCode() < 400
+                ? conn.getInputStream()
+                : conn.getErrorStream();
+        if (inputStream != null && isKeepAliveEnabled) {
+            inputStream = new DrainingInputStream(inputStream);
+        }
+        body = inputStream;
+        return body;
+    }
+
+    @Override
+    public void close() {
+        // With keep-alive, closing the body drains it and leaves the socket to the platform.
+        // Otherwise, or if the body was never opened, the connection is disconnected.
+        if (isKeepAliveEnabled && body != null) {
+            try {
+                body.close();
+            } catch (IOException e) {
+                conn.disconnect();
+            }
+            return;
+        }
+        conn.disconnect();
+    }
+
+    /**
+     * Drains the rest of the body when closed, so that the socket can be reused. If the rest is
+     * too large or can't be read, the connection is disconnected instead.
+     */
+    private class DrainingInputStream extends FilterInputStream {
+        private boolean isClosed;
+
+        private DrainingInputStream(@NonNull InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public void close() {
+            if (isClosed) {
+                return;
+            }
+            isClosed = true;
+            if (!drainAndClose(in)) {
+                conn.disconnect();
+            }
+        }
+    }
+
+    private static boolean drainAndClose(@NonNull InputStream inputStream) {
+        try {
+            byte[] buffer = new byte[1024];
+            int drainedBytes = 0;
+            int length;
+            while ((length = inputStream.read(buffer)) >= 0) {
+                drainedBytes += length;
+                if (drainedBytes > MAX_DRAIN_BYTES) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (IOException e) {
+            return false;
+        } finally {
+            try {
+                inputStream.close();
+            } catch (IOException e) {
+                // ignore
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.linecorp.linesdk.internal.nwclient.core;
+
+import androidx.annotation.NonNull;
+
+import com.linecorp.linesdk.utils.JsonStreamWriter;
+
+import org.json.JSONException;
+
+import java.io.BufferedWriter;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A JSON request body that is serialized straight into the output stream as UTF-8.
+ * <p>
+ * The content length isn't known until the body has been written once, so the first request
+ * is sent with chunked transfer encoding. This way, the content is serialized only once per
+ * request instead of once more beforehand just to count its bytes.
+ */
+public class JsonRequestBody extends RequestBody {
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    /**
+     * Writes the JSON content. It must write the same JSON every time.
+     */
+    public interface JsonContent {
+        void writeTo(@NonNull JsonStreamWriter writer) throws IOException, JSONException;
+    }
+
+    @NonNull
+    private final JsonContent content;
+    // -1 until the body has been written to the end once.
+    private volatile long contentLength = -1L;
+
+    public JsonRequestBody(@NonNull JsonContent content) {
+        this.content = content;
+    }
+
+    /**
+     * @return The length of the body, or -1 if it hasn't been written yet.
+     */
+    @Override
+    public long getContentLength() {
+        return contentLength;
+    }
+
+    @Override
+    public void writeTo(@NonNull OutputStream outputStream) throws IOException {
+        CountingOutputStream countingOutputStream = new CountingOutputStream(outputStream);
+        BufferedWriter writer = new BufferedWriter(
+                new OutputStreamWriter(countingOutputStream, StandardCharsets.UTF_8), BUFFER_SIZE);
+        JsonStreamWriter jsonWriter = new JsonStreamWriter(writer);
+        try {
+            content.writeTo(jsonWriter);
+        } catch (JSONException e) {
+            throw new IOException(e);
+        }
+        jsonWriter.flush();
+        contentLength = countingOutputStream.count;
+    }
+
+    private static class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        private CountingOutputStream(@NonNull OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(@NonNull byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.linecorp.linesdk.internal.nwclient.core;
+
+import androidx.annotation.NonNull;
+
+import com.linecorp.linesdk.api.HttpTransportRequest;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Represents the body of a request sent by {@link ChannelServiceHttpClient}. The body is written
+ * straight into the output stream of the connection, so it doesn't have to be held as a byte
+ * array unless a custom {@link com.linecorp.linesdk.api.HttpTransport} needs one.
+ */
+public abstract class RequestBody extends HttpTransportRequest.Body {
+    @NonNull
+    public static RequestBody create(@NonNull byte[] bytes) {
+        return new RequestBody() {
+            @Override
+            public long getContentLength() {
+                return bytes.length;
+            }
+
+            @Override
+            public void writeTo(@NonNull OutputStream outputStream) throws IOException {
+                outputStream.write(bytes);
+            }
+
+            @NonNull
+            @Override
+            public byte[] toByteArray() {
+                return bytes;
+            }
+        };
+    }
+}
@@ -4,6 +4,8 @@ import androidx.annotation.NonNull;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
 
 /**
  * interface to parse response data.
@@ -11,4 +13,15 @@ import java.io.InputStream;
 public interface ResponseDataParser<T> {
     @NonNull
     T getResponseData(@NonNull InputStream inputStream) throws IOException;
+
+    /**
+     * Parses the response data with the response headers. Override this if the result depends on
+     * the headers, e.g. Cache-Control. By default, the headers are ignored.
+     */
+    @NonNull
+    default T getResponseData(
+            @NonNull Map<String, List<String>> responseHeaders,
+            @NonNull InputStream inputStream) throws IOException {
+        return getResponseData(inputStream);
+    }
 }
@@ -7,6 +7,7 @@ import android.security.keystore.KeyProperties.PURPOSE_DECRYPT
 import android.security.keystore.KeyProperties.PURPOSE_ENCRYPT
 import android.security.keystore.KeyProperties.PURPOSE_SIGN
 import android.security.keystore.KeyProperties.PURPOSE_VERIFY
+import com.linecorp.linesdk.LineSdkTrace
 import java.security.KeyStore
 import java.security.MessageDigest
 import javax.crypto.Cipher
@@ -43,48 +44,58 @@ class StringAesCipher : StringCipher {
     }
 
     override fun encrypt(context: Context, plainText: String): String {
-        synchronized(this) {
-            initialize(context)
+        val isTraced = LineSdkTrace.beginSection("LineSdk:StringAesCipher.encrypt")
+        try {
+            synchronized(this) {
+                initialize(context)
 
-            try {
-                val secretKey = getAesSecretKey()
+                try {
+                    val secretKey = getAesSecretKey()
 
-                val cipher = Cipher.getInstance(TRANSFORMATION_FORMAT).apply {
-                    init(Cipher.ENCRYPT_MODE, secretKey)
+                    val cipher = Cipher.getInstance(TRANSFORMATION_FORMAT).apply {
+                        init(Cipher.ENCRYPT_MODE, secretKey)
+                    }
+                    val encryptedData: ByteArray = cipher.doFinal(plainText.toByteArray())
+
+                    return CipherData(
+                        encryptedData = encryptedData,
+                        initialVector = cipher.iv,
+                        hmacValue = hmac.calculateHmacValue(encryptedData, cipher.iv)
+                    ).encodeToBase64String()
+                } catch (e: Exception) {
+                    throw EncryptionException("Failed to encrypt", e)
                 }
-                val encryptedData: ByteArray = cipher.doFinal(plainText.toByteArray())
-
-                return CipherData(
-                    encryptedData = encryptedData,
-                    initialVector = cipher.iv,
-                    hmacValue = hmac.calculateHmacValue(encryptedData, cipher.iv)
-                ).encodeToBase64String()
-            } catch (e: Exception) {
-                throw EncryptionException("Failed to encrypt", e)
             }
+        } finally {
+            LineSdkTrace.endSection(isTraced)
         }
     }
 
     override fun decrypt(context: Context, cipherText: String): String {
-        synchronized(this) {
-            try {
-                val secretKey = getAesSecretKey()
-
-                val cipherData = CipherData.decodeFromBase64String(cipherText)
-
-                cipherData.verifyHmacValue(hmac)
-
-                val ivSpec = IvParameterSpec(cipherData.initialVector)
-
-                return Cipher.getInstance(TRANSFORMATION_FORMAT)
-                    .apply { init(Cipher.DECRYPT_MODE, secretKey, ivSpec) }
-                    .run { doFinal(cipherData.encryptedData) }
-                    .let {
-                        String(it)
-                    }
-            } catch (e: Exception) {
-                throw EncryptionException("Failed to decrypt", e)
+        val isTraced = LineSdkTrace.beginSection("LineSdk:StringAesCipher.decrypt")
+        try {
+            synchronized(this) {
+                try {
+                    val secretKey = getAesSecretKey()
+
+                    val cipherData = CipherData.decodeFromBase64String(cipherText)
+
+                    cipherData.verifyHmacValue(hmac)
+
+                    val ivSpec = IvParameterSpec(cipherData.initialVector)
+
+                    return Cipher.getInstance(TRANSFORMATION_FORMAT)
+                        .apply { init(Cipher.DECRYPT_MODE, secretKey, ivSpec) }
+                        .run { doFinal(cipherData.encryptedData) }
+                        .let {
+                            String(it)
+                        }
+                } catch (e: Exception) {
+                    throw EncryptionException("Failed to decrypt", e)
+                }
             }
+        } finally {
+            LineSdkTrace.endSection(isTraced)
         }
     }
 
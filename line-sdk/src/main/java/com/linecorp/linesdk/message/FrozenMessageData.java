@@ -0,0 +1,80 @@
+package com.linecorp.linesdk.message;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Represents a message whose JSON payload has been encoded once, to be sent many times without
+ * converting the message again. This is useful for a large message, such as a
+ * {@link FlexMessage} with a carousel, that is sent to many recipients.
+ * <p>
+ * A {@link FrozenMessageData} object is created by {@link MessageData#freeze()} and can't be
+ * changed. Changes made to the original message afterwards are not reflected. Call
+ * {@link MessageData#freeze()} again to get a payload with the changes.
+ */
+public final class FrozenMessageData extends MessageData {
+    @NonNull
+    private final Type type;
+    @NonNull
+    private final String payload;
+    // Parsed from the payload on the first use. Never changed or returned to the app.
+    @Nullable
+    private volatile JSONObject parsedPayload;
+
+    /* package */ FrozenMessageData(@NonNull MessageData message) throws JSONException {
+        type = message.getType();
+        payload = message.toJsonObject().toString();
+    }
+
+    @NonNull
+    @Override
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * @return A new {@link JSONObject} object parsed from the payload. Changing it doesn't change
+     * the payload.
+     */
+    @NonNull
+    @Override
+    public JSONObject toJsonObject() throws JSONException {
+        return new JSONObject(payload);
+    }
+
+    /**
+     * @return This object, because it is already frozen.
+     */
+    @NonNull
+    @Override
+    public FrozenMessageData freeze() {
+        return this;
+    }
+
+    /**
+     * @hide
+     * @return The encoded JSON payload of the message.
+     */
+    @NonNull
+    public String getPayload() {
+        return payload;
+    }
+
+    /**
+     * @return The payload parsed once and shared by all the requests that send this message. It
+     * must not be changed.
+     */
+    @NonNull
+    /* package */ JSONObject getParsedPayload() throws JSONException {
+        JSONObject jsonObject = parsedPayload;
+        if (jsonObject == null) {
+            // Parsing twice on a race is harmless.
+            jsonObject = new JSONObject(payload);
+            parsedPayload = jsonObject;
+        }
+        return jsonObject;
+    }
+}
@@ -19,4 +19,16 @@ public abstract class MessageData implements Jsonable {
         jsonObject.put("type", getType().name().toLowerCase());
         return jsonObject;
     }
+
+    /**
+     * Encodes this message into a {@link FrozenMessageData} object that can be sent many times
+     * without converting this message again.
+     *
+     * @return The frozen copy of this message.
+     * @throws JSONException If this message can't be converted to JSON.
+     */
+    @NonNull
+    public FrozenMessageData freeze() throws JSONException {
+        return new FrozenMessageData(this);
+    }
 }
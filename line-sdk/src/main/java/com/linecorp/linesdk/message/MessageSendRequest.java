@@ -3,11 +3,16 @@ package com.linecorp.linesdk.message;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
+import com.linecorp.linesdk.internal.nwclient.core.JsonRequestBody;
 import com.linecorp.linesdk.utils.JSONUtils;
+import com.linecorp.linesdk.utils.JsonStreamWriter;
 
+import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -106,6 +111,60 @@ public class MessageSendRequest {
         return toJsonObject().toString();
     }
 
+    /**
+     * @hide
+     * Creates a request body that writes the same JSON as {@link #toJsonString()} straight into
+     * the output stream. Each message is converted to a {@link JSONObject} once, but the whole
+     * request is never held as a string. The payloads of {@link FrozenMessageData} messages are
+     * written as they are.
+     */
+    @NonNull
+    public JsonRequestBody toJsonRequestBody() throws JSONException {
+        // Either the JSONObject of a message or the payload of a frozen message.
+        List<Object> messagePayloads = null;
+        if (messages != null) {
+            messagePayloads = new ArrayList<>(messages.size());
+            for (MessageData message : messages) {
+                messagePayloads.add(message instanceof FrozenMessageData
+                                    ? ((FrozenMessageData) message).getPayload()
+                                    : message.toJsonObject());
+            }
+        }
+        List<Object> finalMessagePayloads = messagePayloads;
+        return new JsonRequestBody(writer -> writeJsonTo(writer, finalMessagePayloads));
+    }
+
+    // Must write the keys in the same order as toJsonObject().
+    private void writeJsonTo(
+            @NonNull JsonStreamWriter writer,
+            @Nullable List<Object> messagePayloads) throws IOException, JSONException {
+        writer.beginObject();
+        if (targetUserIds != null) {
+            writer.name("to").beginArray();
+            for (String targetUserId : targetUserIds) {
+                writer.value(targetUserId);
+            }
+            writer.endArray();
+        } else if (targetUserId != null) {
+            writer.name("to").value(targetUserId);
+        }
+        if (ott != null) {
+            writer.name("token").value(ott);
+        }
+        if (messagePayloads != null) {
+            writer.name("messages").beginArray();
+            for (Object messagePayload : messagePayloads) {
+                if (messagePayload instanceof String) {
+                    writer.rawValue((String) messagePayload);
+                } else {
+                    writer.value(messagePayload);
+                }
+            }
+            writer.endArray();
+        }
+        writer.endObject();
+    }
+
     private MessageSendRequest setOtt(@NonNull String ott) {
         this.ott = ott;
         return this;
@@ -132,7 +191,16 @@ public class MessageSendRequest {
         JSONUtils.put(jsonObject, "to", targetUserId);
         JSONUtils.putArray(jsonObject, "to", targetUserIds);
         JSONUtils.put(jsonObject, "token", ott);
-        JSONUtils.putArray(jsonObject, "messages", messages);
+        if (messages != null) {
+            // A frozen message is parsed only once however many times it is sent.
+            JSONArray messageArray = new JSONArray();
+            for (MessageData message : messages) {
+                messageArray.put(message instanceof FrozenMessageData
+                                 ? ((FrozenMessageData) message).getParsedPayload()
+                                 : message.toJsonObject());
+            }
+            jsonObject.put("messages", messageArray);
+        }
         return jsonObject;
     }
 }
@@ -10,17 +10,18 @@ import androidx.lifecycle.ViewModel
 import androidx.lifecycle.viewModelScope
 import com.linecorp.linesdk.LineApiResponse
 import com.linecorp.linesdk.api.LineApiClient
+import com.linecorp.linesdk.api.SuspendLineApiClient
 import com.linecorp.linesdk.openchat.OpenChatCategory
 import com.linecorp.linesdk.openchat.OpenChatParameters
 import com.linecorp.linesdk.openchat.OpenChatRoomInfo
-import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.launch
-import kotlinx.coroutines.withContext
 
 class OpenChatInfoViewModel(
     private val sharedPreferences: SharedPreferences,
-    private val lineApiClient: LineApiClient
+    lineApiClient: LineApiClient
 ) : ViewModel() {
+    private val lineApiClient: SuspendLineApiClient = SuspendLineApiClient(lineApiClient)
+
     val chatroomName: MutableLiveData<String> = MutableLiveData()
     val profileName: MutableLiveData<String> = MutableLiveData()
     val description: MutableLiveData<String> = MutableLiveData()
@@ -63,7 +64,7 @@ class OpenChatInfoViewModel(
 
     private fun checkAgreementStatus() {
         viewModelScope.launch {
-            val result = checkAgreementStatusAsync()
+            val result = lineApiClient.getOpenChatAgreementStatus()
             _shouldShowAgreementWarning.value = !result.isSuccess || !result.responseData
         }
     }
@@ -75,7 +76,7 @@ class OpenChatInfoViewModel(
         viewModelScope.launch {
             _isCreatingChatRoom.value = true
 
-            val result = createChatRoomAsync(openChatParameters)
+            val result = lineApiClient.createOpenChatRoom(openChatParameters)
             if (result.isSuccess) {
                 _openChatRoomInfo.value = result.responseData
             } else {
@@ -86,12 +87,6 @@ class OpenChatInfoViewModel(
         }
     }
 
-    private suspend fun createChatRoomAsync(openChatParameters: OpenChatParameters): LineApiResponse<OpenChatRoomInfo> =
-        withContext(Dispatchers.IO) { lineApiClient.createOpenChatRoom(openChatParameters) }
-
-    private suspend fun checkAgreementStatusAsync(): LineApiResponse<Boolean> =
-        withContext(Dispatchers.IO) { lineApiClient.openChatAgreementStatus }
-
     private fun generateOpenChatParameters(): OpenChatParameters =
         OpenChatParameters(
             chatroomName.value.orEmpty(),
@@ -0,0 +1,208 @@
+package com.linecorp.linesdk.utils;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Iterator;
+
+/**
+ * Writes JSON to a {@link Writer} in exactly the same format as {@link JSONObject#toString()},
+ * so that a payload can be streamed without building the whole JSON string first.
+ * <p>
+ * Objects and arrays are either written with the begin and end methods, or passed to
+ * {@link #value(Object)} as {@link JSONObject} and {@link JSONArray} trees.
+ */
+public final class JsonStreamWriter {
+    @NonNull
+    private final Writer out;
+    // Whether the object or array at each nesting level has no elements yet.
+    @NonNull
+    private boolean[] isEmptyScope = new boolean[8];
+    private int depth;
+    // A name has been written and its value comes next.
+    private boolean isNameWritten;
+
+    public JsonStreamWriter(@NonNull Writer out) {
+        this.out = out;
+    }
+
+    @NonNull
+    public JsonStreamWriter beginObject() throws IOException {
+        return open('{');
+    }
+
+    @NonNull
+    public JsonStreamWriter endObject() throws IOException {
+        return close('}');
+    }
+
+    @NonNull
+    public JsonStreamWriter beginArray() throws IOException {
+        return open('[');
+    }
+
+    @NonNull
+    public JsonStreamWriter endArray() throws IOException {
+        return close(']');
+    }
+
+    @NonNull
+    public JsonStreamWriter name(@NonNull String name) throws IOException {
+        if (depth == 0 || isNameWritten) {
+            throw new IllegalStateException("A name must be written in an object: " + name);
+        }
+        beforeElement();
+        writeString(name);
+        out.write(':');
+        isNameWritten = true;
+        return this;
+    }
+
+    /**
+     * Writes the given value in the same way as {@link org.json.JSONStringer#value(Object)}.
+     * {@link JSONObject} and {@link JSONArray} values are written recursively.
+     */
+    @NonNull
+    public JsonStreamWriter value(@Nullable Object value) throws IOException, JSONException {
+        if (value instanceof JSONObject) {
+            JSONObject jsonObject = (JSONObject) value;
+            beginObject();
+            Iterator<String> keys = jsonObject.keys();
+            while (keys.hasNext()) {
+                String key = keys.next();
+                name(key);
+                value(jsonObject.opt(key));
+            }
+            return endObject();
+        }
+        if (value instanceof JSONArray) {
+            JSONArray jsonArray = (JSONArray) value;
+            beginArray();
+            for (int i = 0; i < jsonArray.length(); i++) {
+                value(jsonArray.opt(i));
+            }
+            return endArray();
+        }
+
+        beforeValue();
+        if (value == null || value instanceof Boolean || value == JSONObject.NULL) {
+            out.write(String.valueOf(value));
+        } else if (value instanceof Number) {
+            out.write(JSONObject.numberToString((Number) value));
+        } else {
+            writeString(value.toString());
+        }
+        return this;
+    }
+
+    /**
+     * Writes the given JSON as a value without checking or reformatting it. It should have been
+     * produced by {@link JSONObject#toString()} to keep the output in the same format.
+     */
+    @NonNull
+    public JsonStreamWriter rawValue(@NonNull String json) throws IOException {
+        beforeValue();
+        out.write(json);
+        return this;
+    }
+
+    /**
+     * Flushes the underlying writer.
+     */
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @NonNull
+    private JsonStreamWriter open(char bracket) throws IOException {
+        beforeValue();
+        if (depth == isEmptyScope.length) {
+            isEmptyScope = Arrays.copyOf(isEmptyScope, depth * 2);
+        }
+        isEmptyScope[depth++] = true;
+        out.write(bracket);
+        return this;
+    }
+
+    @NonNull
+    private JsonStreamWriter close(char bracket) throws IOException {
+        if (depth == 0 || isNameWritten) {
+            throw new IllegalStateException("Nesting problem: " + bracket);
+        }
+        depth--;
+        out.write(bracket);
+        return this;
+    }
+
+    private void beforeValue() throws IOException {
+        if (isNameWritten) {
+            isNameWritten = false;
+            return;
+        }
+        beforeElement();
+    }
+
+    private void beforeElement() throws IOException {
+        if (depth == 0) {
+            return;
+        }
+        if (!isEmptyScope[depth - 1]) {
+            out.write(',');
+        }
+        isEmptyScope[depth - 1] = false;
+    }
+
+    // The same escaping as JSONStringer, including "/".
+    private void writeString(@NonNull String value) throws IOException {
+        out.write('"');
+        int start = 0;
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            String escaped;
+            switch (c) {
+                case '"':
+                    escaped = "\\\"";
+                    break;
+                case '\\':
+                    escaped = "\\\\";
+                    break;
+                case '/':
+                    escaped = "\\/";
+                    break;
+                case '\t':
+                    escaped = "\\t";
+                    break;
+                case '\b':
+                    escaped = "\\b";
+                    break;
+                case '\n':
+                    escaped = "\\n";
+                    break;
+                case '\r':
+                    escaped = "\\r";
+                    break;
+                case '\f':
+                    escaped = "\\f";
+                    break;
+                default:
+                    escaped = c <= 0x1F ? String.format("\\u%04x", (int) c) : null;
+                    break;
+            }
+            if (escaped != null) {
+                out.write(value, start, i - start);
+                out.write(escaped);
+                start = i + 1;
+            }
+        }
+        out.write(value, start, length - start);
+        out.write('"');
+    }
+}
@@ -0,0 +1,53 @@
+package com.linecorp.linesdk;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test for {@link LineSdkTrace}.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = TestConfig.TARGET_SDK_VERSION)
+public class LineSdkTraceTest {
+    @After
+    public void tearDown() {
+        LineSdkTrace.setEnabled(false);
+    }
+
+    @Test
+    public void testDisabledByDefault() {
+        assertFalse(LineSdkTrace.isEnabled());
+        assertFalse(LineSdkTrace.beginSection("LineSdk:test"));
+        LineSdkTrace.endSection(false);
+    }
+
+    @Test
+    public void testSectionBegunWhileEnabledIsEnded() {
+        LineSdkTrace.setEnabled(true);
+        boolean isTraced = LineSdkTrace.beginSection("LineSdk:test");
+        LineSdkTrace.setEnabled(false);
+
+        assertTrue(isTraced);
+        LineSdkTrace.endSection(isTraced);
+    }
+
+    @Test
+    public void testLongSectionName() {
+        LineSdkTrace.setEnabled(true);
+        StringBuilder sectionName = new StringBuilder("LineSdk:");
+        while (sectionName.length() < 200) {
+            sectionName.append('a');
+        }
+
+        boolean isTraced = LineSdkTrace.beginSection(sectionName.toString());
+
+        assertTrue(isTraced);
+        LineSdkTrace.endSection(isTraced);
+    }
+}
@@ -0,0 +1,302 @@
+package com.linecorp.linesdk.api;
+
+import android.os.CancellationSignal;
+
+import com.linecorp.linesdk.LineApiError;
+import com.linecorp.linesdk.LineApiResponse;
+import com.linecorp.linesdk.LineApiResponseCode;
+import com.linecorp.linesdk.SendMessageResponse;
+import com.linecorp.linesdk.TestConfig;
+import com.linecorp.linesdk.internal.nwclient.core.CallCancellation;
+import com.linecorp.linesdk.message.FrozenMessageData;
+import com.linecorp.linesdk.message.MessageData;
+import com.linecorp.linesdk.message.TextMessage;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.ArgumentMatchers.longThat;
+import static org.mockito.ArgumentMatchers.nullable;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Test for {@link BatchMessageSender}.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = TestConfig.TARGET_SDK_VERSION)
+public class BatchMessageSenderTest {
+    private static final List<MessageData> MESSAGES =
+            Collections.singletonList(new TextMessage("text"));
+    private static final RetryPolicy RETRY_POLICY = new RetryPolicy.Builder()
+            .maxAttempts(2)
+            .backoff(0L /* initialBackoffMillis */, 0L /* maxBackoffMillis */)
+            .build();
+
+    @Mock
+    private LineApiClient lineApiClient;
+
+    private final List<Runnable> queuedHelpers = new ArrayList<>();
+    // The errors returned for the chunks starting with the key, in order.
+    private final Map<String, List<LineApiResponseCode>> chunkErrors = new HashMap<>();
+    private final List<List<String>> sentChunks = new ArrayList<>();
+
+    private BatchMessageSender target;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        doAnswer(invocation -> {
+            List<String> targetUserIds = invocation.getArgument(0);
+            sentChunks.add(targetUserIds);
+            List<LineApiResponseCode> errors = chunkErrors.get(targetUserIds.get(0));
+            if (errors != null && !errors.isEmpty()) {
+                LineApiResponseCode error = errors.remove(0);
+                return LineApiResponse.createAsError(error, new LineApiError(
+                        error == LineApiResponseCode.SERVER_ERROR ? 503 : -1, "error",
+                        LineApiError.ErrorCode.NOT_DEFINED));
+            }
+            List<SendMessageResponse> responses = new ArrayList<>();
+            for (String targetUserId : targetUserIds) {
+                responses.add(new SendMessageResponse(targetUserId, SendMessageResponse.Status.OK));
+            }
+            return LineApiResponse.createAsSuccess(responses);
+        }).when(lineApiClient).sendMessageToMultipleUsers(anyList(), anyList(), anyBoolean());
+
+        target = new BatchMessageSender(
+                lineApiClient, queuedHelpers::add, 2 /* chunkSize */, 2 /* maxParallelism */,
+                RETRY_POLICY, false /* isNetworkErrorRetried */);
+    }
+
+    @Test
+    public void testSendInChunks() {
+        LineApiResponse<List<SendMessageResponse>> response =
+                target.send(Arrays.asList("u1", "u2", "u3", "u4", "u5"), MESSAGES, true);
+
+        assertTrue(response.isSuccess());
+        assertEquals(Arrays.asList("u1", "u2", "u3", "u4", "u5"),
+                     getTargetUserIds(response.getResponseData()));
+        assertEquals(Arrays.asList(Arrays.asList("u1", "u2"),
+                                   Arrays.asList("u3", "u4"),
+                                   Collections.singletonList("u5")),
+                     sentChunks);
+        verify(lineApiClient, times(3)).sendMessageToMultipleUsers(anyList(), anyList(), eq(true));
+    }
+
+    @Test
+    public void testHelperCountIsBounded() {
+        target.send(Arrays.asList("u1", "u2", "u3", "u4", "u5"), MESSAGES, false);
+
+        // The calling thread sends a chunk too.
+        assertEquals(1, queuedHelpers.size());
+    }
+
+    @Test
+    public void testSendOnHelperThreads() {
+        target = new BatchMessageSender(lineApiClient, Runnable::run, 2, 3, RETRY_POLICY, false);
+
+        LineApiResponse<List<SendMessageResponse>> response =
+                target.send(Arrays.asList("u1", "u2", "u3", "u4", "u5"), MESSAGES, false);
+
+        assertTrue(response.isSuccess());
+        assertEquals(Arrays.asList("u1", "u2", "u3", "u4", "u5"),
+                     getTargetUserIds(response.getResponseData()));
+        assertEquals(3, sentChunks.size());
+    }
+
+    @Test
+    public void testRetryOnlyFailedChunk() {
+        chunkErrors.put("u3", new ArrayList<>(Collections.singletonList(
+                LineApiResponseCode.SERVER_ERROR)));
+
+        LineApiResponse<List<SendMessageResponse>> response =
+                target.send(Arrays.asList("u1", "u2", "u3", "u4"), MESSAGES, false);
+
+        assertTrue(response.isSuccess());
+        assertEquals(Arrays.asList(Arrays.asList("u1", "u2"),
+                                   Arrays.asList("u3", "u4"),
+                                   Arrays.asList("u3", "u4")),
+                     sentChunks);
+        for (SendMessageResponse sendMessageResponse : response.getResponseData()) {
+            assertEquals(SendMessageResponse.Status.OK, sendMessageResponse.getStatus());
+        }
+    }
+
+    @Test
+    public void testWaitBeforeRetry() {
+        target = Mockito.spy(new BatchMessageSender(
+                lineApiClient, queuedHelpers::add, 2, 2, new RetryPolicy.Builder()
+                        .maxAttempts(2)
+                        .backoff(1000L /* initialBackoffMillis */, 1000L /* maxBackoffMillis */)
+                        .build(),
+                false));
+        List<Integer> sentChunkCountsOnWait = new ArrayList<>();
+        doAnswer(invocation -> {
+            sentChunkCountsOnWait.add(sentChunks.size());
+            return true;
+        }).when(target).waitForRetry(anyLong(), nullable(CancellationSignal.class));
+        chunkErrors.put("u3", new ArrayList<>(Collections.singletonList(
+                LineApiResponseCode.SERVER_ERROR)));
+
+        LineApiResponse<List<SendMessageResponse>> response =
+                target.send(Arrays.asList("u1", "u2", "u3", "u4"), MESSAGES, false);
+
+        assertTrue(response.isSuccess());
+        // The failed chunk is sent again only after the wait.
+        assertEquals(Collections.singletonList(2), sentChunkCountsOnWait);
+        assertEquals(3, sentChunks.size());
+        verify(target).waitForRetry(
+                longThat(delayMillis -> delayMillis >= 0L && delayMillis <= 1000L), isNull());
+    }
+
+    @Test
+    public void testCancelDuringWaitBeforeRetry() {
+        target = Mockito.spy(target);
+        doReturn(false).when(target).waitForRetry(anyLong(), nullable(CancellationSignal.class));
+        chunkErrors.put("u3", new ArrayList<>(Collections.singletonList(
+                LineApiResponseCode.SERVER_ERROR)));
+
+        LineApiResponse<List<SendMessageResponse>> response =
+                target.send(Arrays.asList("u1", "u2", "u3", "u4"), MESSAGES, false);
+
+        assertEquals(LineApiResponseCode.CANCEL, response.getResponseCode());
+        assertEquals(2, sentChunks.size());
+    }
+
+    @Test
+    public void testCancelAfterAllChunksAreSent() {
+        CancellationSignal cancellationSignal = new CancellationSignal();
+        doAnswer(invocation -> {
+            List<String> targetUserIds = invocation.getArgument(0);
+            sentChunks.add(targetUserIds);
+            if (sentChunks.size() == 2) {
+                cancellationSignal.cancel();
+            }
+            return LineApiResponse.createAsSuccess(Collections.emptyList());
+        }).when(lineApiClient).sendMessageToMultipleUsers(anyList(), anyList(), anyBoolean());
+
+        LineApiResponse<List<SendMessageResponse>> response = CallCancellation.runWith(
+                cancellationSignal,
+                () -> target.send(Arrays.asList("u1", "u2", "u3", "u4"), MESSAGES, false));
+
+        assertTrue(response.isSuccess());
+        assertEquals(2, sentChunks.size());
+    }
+
+    @Test
+    public void testCancelBeforeAllChunksAreSent() {
+        CancellationSignal cancellationSignal = new CancellationSignal();
+        doAnswer(invocation -> {
+            List<String> targetUserIds = invocation.getArgument(0);
+            sentChunks.add(targetUserIds);
+            cancellationSignal.cancel();
+            return LineApiResponse.createAsSuccess(Collections.emptyList());
+        }).when(lineApiClient).sendMessageToMultipleUsers(anyList(), anyList(), anyBoolean());
+
+        LineApiResponse<List<SendMessageResponse>> response = CallCancellation.runWith(
+                cancellationSignal,
+                () -> target.send(Arrays.asList("u1", "u2", "u3", "u4"), MESSAGES, false));
+
+        assertEquals(LineApiResponseCode.CANCEL, response.getResponseCode());
+        assertEquals(1, sentChunks.size());
+    }
+
+    @Test
+    public void testFailedChunkIsDiscarded() {
+        chunkErrors.put("u3", new ArrayList<>(Arrays.asList(
+                LineApiResponseCode.SERVER_ERROR, LineApiResponseCode.SERVER_ERROR)));
+
+        LineApiResponse<List<SendMessageResponse>> response =
+                target.send(Arrays.asList("u1", "u2", "u3", "u4"), MESSAGES, false);
+
+        assertTrue(response.isSuccess());
+        assertEquals(3, sentChunks.size());
+        List<SendMessageResponse> responses = response.getResponseData();
+        assertEquals(Arrays.asList("u1", "u2", "u3", "u4"), getTargetUserIds(responses));
+        assertEquals(SendMessageResponse.Status.OK, responses.get(1).getStatus());
+        assertEquals(SendMessageResponse.Status.DISCARDED, responses.get(2).getStatus());
+        assertEquals(SendMessageResponse.Status.DISCARDED, responses.get(3).getStatus());
+    }
+
+    @Test
+    public void testNetworkErrorIsNotRetriedByDefault() {
+        chunkErrors.put("u3", new ArrayList<>(Collections.singletonList(
+                LineApiResponseCode.NETWORK_ERROR)));
+
+        LineApiResponse<List<SendMessageResponse>> response =
+                target.send(Arrays.asList("u1", "u2", "u3", "u4"), MESSAGES, false);
+
+        assertTrue(response.isSuccess());
+        assertEquals(2, sentChunks.size());
+        assertEquals(SendMessageResponse.Status.DISCARDED,
+                     response.getResponseData().get(2).getStatus());
+    }
+
+    @Test
+    public void testNetworkErrorIsRetriedIfEnabled() {
+        target = new BatchMessageSender(lineApiClient, queuedHelpers::add, 2, 2, RETRY_POLICY, true);
+        chunkErrors.put("u3", new ArrayList<>(Collections.singletonList(
+                LineApiResponseCode.NETWORK_ERROR)));
+
+        LineApiResponse<List<SendMessageResponse>> response =
+                target.send(Arrays.asList("u1", "u2", "u3", "u4"), MESSAGES, false);
+
+        assertTrue(response.isSuccess());
+        assertEquals(3, sentChunks.size());
+        assertEquals(SendMessageResponse.Status.OK,
+                     response.getResponseData().get(2).getStatus());
+    }
+
+    @Test
+    public void testClientErrorIsNotRetried() {
+        chunkErrors.put("u1", new ArrayList<>(Collections.singletonList(
+                LineApiResponseCode.AUTHENTICATION_AGENT_ERROR)));
+
+        LineApiResponse<List<SendMessageResponse>> response =
+                target.send(Arrays.asList("u1", "u2"), MESSAGES, false);
+
+        assertEquals(LineApiResponseCode.AUTHENTICATION_AGENT_ERROR, response.getResponseCode());
+        assertEquals(1, sentChunks.size());
+    }
+
+    @Test
+    public void testMessagesAreFrozen() {
+        doAnswer(invocation -> {
+            List<MessageData> messages = invocation.getArgument(1);
+            assertTrue(messages.get(0) instanceof FrozenMessageData);
+            return LineApiResponse.createAsSuccess(Collections.emptyList());
+        }).when(lineApiClient).sendMessageToMultipleUsers(anyList(), anyList(), anyBoolean());
+
+        assertTrue(target.send(Collections.singletonList("u1"), MESSAGES, false).isSuccess());
+    }
+
+    private static List<String> getTargetUserIds(List<SendMessageResponse> responses) {
+        List<String> targetUserIds = new ArrayList<>();
+        for (SendMessageResponse response : responses) {
+            targetUserIds.add(response.getTargetUserId());
+        }
+        return targetUserIds;
+    }
+}
@@ -0,0 +1,149 @@
+package com.linecorp.linesdk.api;
+
+import android.net.Uri;
+
+import com.linecorp.linesdk.TestConfig;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test for {@link CircuitBreaker}.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = TestConfig.TARGET_SDK_VERSION)
+public class CircuitBreakerTest {
+    private static final Uri GRAPH_URI = Uri.parse("https://api.line.me/graph/v2/friends");
+    private static final Uri MESSAGE_URI = Uri.parse("https://api.line.me/message/v3/send");
+    private static final long OPEN_DURATION_MILLIS = 1000L;
+
+    private long elapsedRealtime;
+    private CircuitBreaker target;
+
+    @Before
+    public void setUp() {
+        target = new CircuitBreaker(
+                0.5f /* failureRateThreshold */,
+                4 /* windowSize */,
+                2 /* minimumCalls */,
+                OPEN_DURATION_MILLIS,
+                2 /* halfOpenProbes */) {
+            @Override
+            long elapsedRealtime() {
+                return elapsedRealtime;
+            }
+        };
+    }
+
+    @Test
+    public void testGroupKey() {
+        assertEquals("api.line.me/graph", CircuitBreaker.getGroupKey(GRAPH_URI));
+        assertEquals("api.line.me/oauth2",
+                     CircuitBreaker.getGroupKey(Uri.parse("https://api.line.me/oauth2/v2.1/token")));
+    }
+
+    @Test
+    public void testOpenByFailureRate() {
+        callAndSucceed(GRAPH_URI);
+        callAndSucceed(GRAPH_URI);
+        callAndFail(GRAPH_URI);
+        assertEquals(CircuitBreaker.State.CLOSED, target.getState(GRAPH_URI));
+
+        callAndFail(GRAPH_URI);
+
+        assertEquals(CircuitBreaker.State.OPEN, target.getState(GRAPH_URI));
+        assertFalse(target.tryAcquire(GRAPH_URI));
+        // Other groups are not affected.
+        assertTrue(target.tryAcquire(MESSAGE_URI));
+    }
+
+    @Test
+    public void testOldFailuresLeaveWindow() {
+        callAndFail(GRAPH_URI);
+        callAndSucceed(GRAPH_URI);
+        assertEquals(CircuitBreaker.State.OPEN, target.getState(GRAPH_URI));
+
+        elapsedRealtime += OPEN_DURATION_MILLIS;
+        callAndSucceed(GRAPH_URI);
+        callAndSucceed(GRAPH_URI);
+        assertEquals(CircuitBreaker.State.CLOSED, target.getState(GRAPH_URI));
+
+        callAndSucceed(GRAPH_URI);
+        callAndSucceed(GRAPH_URI);
+        callAndSucceed(GRAPH_URI);
+        callAndFail(GRAPH_URI);
+
+        assertEquals(CircuitBreaker.State.CLOSED, target.getState(GRAPH_URI));
+    }
+
+    @Test
+    public void testHalfOpenProbes() {
+        callAndFail(GRAPH_URI);
+        callAndFail(GRAPH_URI);
+        elapsedRealtime += OPEN_DURATION_MILLIS - 1;
+        assertEquals(CircuitBreaker.State.OPEN, target.getState(GRAPH_URI));
+
+        elapsedRealtime += 1;
+        assertEquals(CircuitBreaker.State.HALF_OPEN, target.getState(GRAPH_URI));
+        assertTrue(target.tryAcquire(GRAPH_URI));
+        assertTrue(target.tryAcquire(GRAPH_URI));
+        // Only the given number of probes are let through.
+        assertFalse(target.tryAcquire(GRAPH_URI));
+
+        target.onSuccess(GRAPH_URI);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, target.getState(GRAPH_URI));
+        target.onSuccess(GRAPH_URI);
+        assertEquals(CircuitBreaker.State.CLOSED, target.getState(GRAPH_URI));
+    }
+
+    @Test
+    public void testFailedProbeReopens() {
+        callAndFail(GRAPH_URI);
+        callAndFail(GRAPH_URI);
+        elapsedRealtime += OPEN_DURATION_MILLIS;
+
+        callAndFail(GRAPH_URI);
+
+        assertEquals(CircuitBreaker.State.OPEN, target.getState(GRAPH_URI));
+        assertFalse(target.tryAcquire(GRAPH_URI));
+    }
+
+    @Test
+    public void testIgnoredProbeReleasesSlot() {
+        callAndFail(GRAPH_URI);
+        callAndFail(GRAPH_URI);
+        elapsedRealtime += OPEN_DURATION_MILLIS;
+        assertTrue(target.tryAcquire(GRAPH_URI));
+        assertTrue(target.tryAcquire(GRAPH_URI));
+
+        target.onIgnored(GRAPH_URI);
+
+        assertTrue(target.tryAcquire(GRAPH_URI));
+    }
+
+    @Test
+    public void testFailureResponseCodes() {
+        assertTrue(CircuitBreaker.isFailureResponseCode(429));
+        assertTrue(CircuitBreaker.isFailureResponseCode(500));
+        assertTrue(CircuitBreaker.isFailureResponseCode(503));
+        assertFalse(CircuitBreaker.isFailureResponseCode(400));
+        assertFalse(CircuitBreaker.isFailureResponseCode(401));
+    }
+
+    private void callAndSucceed(Uri uri) {
+        assertTrue(target.tryAcquire(uri));
+        target.onSuccess(uri);
+    }
+
+    private void callAndFail(Uri uri) {
+        assertTrue(target.tryAcquire(uri));
+        target.onFailure(uri);
+    }
+}
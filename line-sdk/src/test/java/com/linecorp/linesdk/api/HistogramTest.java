@@ -0,0 +1,70 @@
+package com.linecorp.linesdk.api;
+
+import com.linecorp.linesdk.TestConfig;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test for {@link Histogram}.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = TestConfig.TARGET_SDK_VERSION)
+public class HistogramTest {
+    @Test
+    public void testBucketBounds() {
+        assertEquals(0, Histogram.getBucketIndex(0L));
+        assertEquals(3, Histogram.getBucketIndex(3L));
+        assertEquals(4, Histogram.getBucketIndex(4L));
+        assertEquals(Histogram.BUCKET_COUNT - 1, Histogram.getBucketIndex(Long.MAX_VALUE));
+        assertEquals(Long.MAX_VALUE, Histogram.getBucketUpperBound(Histogram.BUCKET_COUNT - 1));
+        for (int i = 0; i < Histogram.BUCKET_COUNT - 1; i++) {
+            long upperBound = Histogram.getBucketUpperBound(i);
+            assertEquals(i, Histogram.getBucketIndex(upperBound));
+            assertEquals(i + 1, Histogram.getBucketIndex(upperBound + 1));
+        }
+    }
+
+    @Test
+    public void testSnapshot() {
+        Histogram target = new Histogram();
+        for (long value = 1L; value <= 100L; value++) {
+            target.record(value);
+        }
+
+        HistogramSnapshot snapshot = target.getSnapshot();
+
+        assertEquals(100L, snapshot.getCount());
+        assertEquals(5050L, snapshot.getSum());
+        assertEquals(100L, snapshot.getMax());
+        assertEquals(50.5d, snapshot.getMean(), 0d);
+        long median = snapshot.getValueAtPercentile(50d);
+        assertTrue(median >= 50L && median <= 50L * 5 / 4);
+        assertEquals(100L, snapshot.getValueAtPercentile(100d));
+        assertEquals(1L, snapshot.getValueAtPercentile(0d));
+    }
+
+    @Test
+    public void testEmptySnapshot() {
+        HistogramSnapshot snapshot = new Histogram().getSnapshot();
+
+        assertEquals(0L, snapshot.getCount());
+        assertEquals(0d, snapshot.getMean(), 0d);
+        assertEquals(0L, snapshot.getValueAtPercentile(99d));
+    }
+
+    @Test
+    public void testNegativeValueIsRecordedAsZero() {
+        Histogram target = new Histogram();
+
+        target.record(-5L);
+
+        assertEquals(1L, target.getSnapshot().getCount());
+        assertEquals(0L, target.getSnapshot().getSum());
+    }
+}
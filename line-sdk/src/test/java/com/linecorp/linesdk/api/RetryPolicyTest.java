@@ -0,0 +1,102 @@
+package com.linecorp.linesdk.api;
+
+import android.net.Uri;
+
+import com.linecorp.linesdk.TestConfig;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test for {@link RetryPolicy}.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = TestConfig.TARGET_SDK_VERSION)
+public class RetryPolicyTest {
+    private static final Uri REVOKE_URI = Uri.parse("https://api.line.me/oauth2/v2.1/revoke");
+    private static final Uri TOKEN_URI = Uri.parse("https://api.line.me/oauth2/v2.1/token");
+
+    @Test
+    public void testIsRetryable() {
+        RetryPolicy target = RetryPolicy.DEFAULT;
+
+        assertTrue(target.isRetryable("GET", TOKEN_URI));
+        assertTrue(target.isRetryable("DELETE", TOKEN_URI));
+        assertTrue(target.isRetryable("POST", REVOKE_URI));
+        assertFalse(target.isRetryable("POST", TOKEN_URI));
+        assertFalse(target.isRetryable("PUT", REVOKE_URI));
+    }
+
+    @Test
+    public void testIsRetryableResponseCode() {
+        assertTrue(RetryPolicy.isRetryableResponseCode(429));
+        assertTrue(RetryPolicy.isRetryableResponseCode(503));
+        assertFalse(RetryPolicy.isRetryableResponseCode(400));
+        assertFalse(RetryPolicy.isRetryableResponseCode(401));
+        assertFalse(RetryPolicy.isRetryableResponseCode(501));
+    }
+
+    @Test
+    public void testBackoffCeiling() {
+        RetryPolicy target = new RetryPolicy.Builder().backoff(100L, 1000L).build();
+
+        assertEquals(100L, target.getBackoffCeilingMillis(1));
+        assertEquals(200L, target.getBackoffCeilingMillis(2));
+        assertEquals(800L, target.getBackoffCeilingMillis(4));
+        assertEquals(1000L, target.getBackoffCeilingMillis(5));
+        assertEquals(1000L, target.getBackoffCeilingMillis(100));
+    }
+
+    @Test
+    public void testRetryDelayHasJitterWithinCeiling() {
+        RetryPolicy target = new RetryPolicy.Builder().maxAttempts(10).backoff(100L, 1000L).build();
+
+        for (int i = 0; i < 100; i++) {
+            long delayMillis = target.getRetryDelayMillis(3, 0L, -1L);
+            assertTrue(delayMillis >= 0L && delayMillis <= 400L);
+        }
+    }
+
+    @Test
+    public void testRetryDelayRespectsRetryAfter() {
+        RetryPolicy target = RetryPolicy.DEFAULT;
+
+        assertEquals(3000L, target.getRetryDelayMillis(1, 0L, 3000L));
+    }
+
+    @Test
+    public void testNoRetryAfterMaxAttempts() {
+        RetryPolicy target = new RetryPolicy.Builder().maxAttempts(2).build();
+
+        assertEquals(-1L, target.getRetryDelayMillis(2, 0L, 0L));
+        assertEquals(-1L, RetryPolicy.NONE.getRetryDelayMillis(1, 0L, 0L));
+    }
+
+    @Test
+    public void testNoRetryOverTotalBudget() {
+        RetryPolicy target = new RetryPolicy.Builder().totalBudgetMillis(10000L).build();
+
+        assertEquals(2000L, target.getRetryDelayMillis(1, 8000L, 2000L));
+        assertEquals(-1L, target.getRetryDelayMillis(1, 8001L, 2000L));
+    }
+
+    @Test
+    public void testParseRetryAfter() {
+        assertEquals(120000L, RetryPolicy.parseRetryAfterMillis("120", 0L));
+        assertEquals(-1L, RetryPolicy.parseRetryAfterMillis("-1", 0L));
+        assertEquals(-1L, RetryPolicy.parseRetryAfterMillis("soon", 0L));
+        assertEquals(-1L, RetryPolicy.parseRetryAfterMillis(null, 0L));
+        // Wed, 21 Oct 2015 07:28:00 GMT
+        long dateMillis = 1445412480000L;
+        assertEquals(5000L, RetryPolicy.parseRetryAfterMillis(
+                "Wed, 21 Oct 2015 07:28:00 GMT", dateMillis - 5000L));
+        assertEquals(0L, RetryPolicy.parseRetryAfterMillis(
+                "Wed, 21 Oct 2015 07:28:00 GMT", dateMillis + 5000L));
+    }
+}
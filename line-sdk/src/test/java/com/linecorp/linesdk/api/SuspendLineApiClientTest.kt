@@ -0,0 +1,79 @@
+package com.linecorp.linesdk.api
+
+import com.linecorp.linesdk.FriendSortField
+import com.linecorp.linesdk.GetFriendsResponse
+import com.linecorp.linesdk.LineApiError
+import com.linecorp.linesdk.LineApiResponse
+import com.linecorp.linesdk.LineApiResponseCode
+import com.linecorp.linesdk.TestConfig
+import com.linecorp.linesdk.api.internal.AsyncLineApiClientImpl
+import kotlinx.coroutines.flow.first
+import kotlinx.coroutines.flow.toList
+import kotlinx.coroutines.runBlocking
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.mockito.Mockito.doReturn
+import org.mockito.Mockito.mock
+import org.mockito.Mockito.never
+import org.mockito.Mockito.verify
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+
+@RunWith(RobolectricTestRunner::class)
+@Config(sdk = [TestConfig.TARGET_SDK_VERSION])
+internal class SuspendLineApiClientTest {
+
+    private val lineApiClient = mock(LineApiClient::class.java)
+
+    private lateinit var target: SuspendLineApiClient
+
+    @Before
+    fun setUp() {
+        target = SuspendLineApiClient(AsyncLineApiClientImpl(lineApiClient) { it.run() })
+    }
+
+    @Test
+    fun testGetFriendsPages() = runBlocking<Unit> {
+        setFriendsPage(null, "token1")
+        setFriendsPage("token1", "token2")
+        setFriendsPage("token2", null)
+
+        val pages = target.getFriendsPages(FriendSortField.NAME).toList()
+
+        assertEquals(3, pages.size)
+        assertEquals(listOf("token1", "token2", null), pages.map { it.responseData.nextPageRequestToken })
+    }
+
+    @Test
+    fun testNextPageIsPrefetched() = runBlocking<Unit> {
+        setFriendsPage(null, "token1")
+        setFriendsPage("token1", "token2")
+
+        target.getFriendsPages(FriendSortField.NAME).first()
+
+        // The second page was requested before the first page was handed to the collector.
+        verify(lineApiClient).getFriends(FriendSortField.NAME, "token1", false)
+        verify(lineApiClient, never()).getFriends(FriendSortField.NAME, "token2", false)
+    }
+
+    @Test
+    fun testPagesStopAtError() = runBlocking<Unit> {
+        setFriendsPage(null, "token1")
+        doReturn(LineApiResponse.createAsError<GetFriendsResponse>(
+            LineApiResponseCode.NETWORK_ERROR, LineApiError.DEFAULT
+        )).`when`(lineApiClient).getFriends(FriendSortField.NAME, "token1", false)
+
+        val pages = target.getFriendsPages(FriendSortField.NAME).toList()
+
+        assertEquals(2, pages.size)
+        assertFalse(pages[1].isSuccess)
+    }
+
+    private fun setFriendsPage(pageToken: String?, nextPageToken: String?) {
+        doReturn(LineApiResponse.createAsSuccess(GetFriendsResponse(emptyList(), nextPageToken)))
+            .`when`(lineApiClient).getFriends(FriendSortField.NAME, pageToken, false)
+    }
+}
@@ -0,0 +1,120 @@
+package com.linecorp.linesdk.api.internal;
+
+import android.net.Uri;
+
+import com.linecorp.linesdk.LineApiResponse;
+import com.linecorp.linesdk.LineApiResponseCode;
+import com.linecorp.linesdk.LineProfile;
+import com.linecorp.linesdk.TestConfig;
+import com.linecorp.linesdk.api.LineApiClient;
+import com.linecorp.linesdk.api.LineApiFuture;
+import com.linecorp.linesdk.internal.nwclient.core.CallDeadline;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Test for {@link AsyncLineApiClientImpl}.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = TestConfig.TARGET_SDK_VERSION)
+public class AsyncLineApiClientImplTest {
+    private static final LineProfile PROFILE = new LineProfile(
+            "mid", "displayName", Uri.parse("https://picture.url"), "statusMessage");
+
+    @Mock
+    private LineApiClient lineApiClient;
+
+    private List<Runnable> queuedCalls;
+    private AsyncLineApiClientImpl target;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        queuedCalls = new ArrayList<>();
+        target = new AsyncLineApiClientImpl(lineApiClient, queuedCalls::add);
+    }
+
+    @Test
+    public void testGetProfile() throws Exception {
+        LineApiResponse<LineProfile> expectedResponse = LineApiResponse.createAsSuccess(PROFILE);
+        doReturn(expectedResponse).when(lineApiClient).getProfile();
+        AtomicReference<LineApiResponse<LineProfile>> callbackResponse = new AtomicReference<>();
+
+        LineApiFuture<LineProfile> future = target.getProfile().setCallback(callbackResponse::set);
+
+        assertFalse(future.isDone());
+        verify(lineApiClient, never()).getProfile();
+
+        queuedCalls.get(0).run();
+
+        assertSame(expectedResponse, future.get());
+        assertSame(expectedResponse, callbackResponse.get());
+    }
+
+    @Test
+    public void testCallTimeout() throws Exception {
+        AtomicLong remainingMillis = new AtomicLong();
+        doAnswer(invocation -> {
+            remainingMillis.set(CallDeadline.getRemainingMillis());
+            return LineApiResponse.createAsSuccess(PROFILE);
+        }).when(lineApiClient).getProfile();
+
+        target.getProfile();
+        queuedCalls.get(0).run();
+
+        assertEquals(CallDeadline.NO_DEADLINE, remainingMillis.get());
+
+        target.withCallTimeout(1000L).getProfile();
+        queuedCalls.get(1).run();
+
+        assertTrue("remainingMillis=" + remainingMillis.get(),
+                   remainingMillis.get() > 0L && remainingMillis.get() <= 1000L);
+        assertEquals(CallDeadline.NO_DEADLINE, CallDeadline.getRemainingMillis());
+    }
+
+    @Test
+    public void testCancelBeforeCall() {
+        AtomicReference<LineApiResponse<LineProfile>> callbackResponse = new AtomicReference<>();
+        LineApiFuture<LineProfile> future = target.getProfile().setCallback(callbackResponse::set);
+
+        assertTrue(future.cancel(false /* mayInterruptIfRunning */));
+        queuedCalls.get(0).run();
+
+        verify(lineApiClient, never()).getProfile();
+        assertTrue(future.isCancelled());
+        assertNull(callbackResponse.get());
+    }
+
+    @Test
+    public void testUnexpectedException() throws Exception {
+        doThrow(new IllegalStateException("unexpected")).when(lineApiClient).getProfile();
+
+        LineApiFuture<LineProfile> future = target.getProfile();
+        queuedCalls.get(0).run();
+
+        LineApiResponse<LineProfile> response = future.get();
+        assertEquals(LineApiResponseCode.INTERNAL_ERROR, response.getResponseCode());
+    }
+}
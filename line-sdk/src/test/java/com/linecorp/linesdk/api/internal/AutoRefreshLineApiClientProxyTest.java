@@ -1,5 +1,7 @@
 package com.linecorp.linesdk.api.internal;
 
+import android.os.CancellationSignal;
+
 import com.linecorp.linesdk.LineApiError;
 import com.linecorp.linesdk.LineApiResponse;
 import com.linecorp.linesdk.LineApiResponseCode;
@@ -7,6 +9,7 @@ import com.linecorp.linesdk.LineCredential;
 import com.linecorp.linesdk.LineProfile;
 import com.linecorp.linesdk.TestConfig;
 import com.linecorp.linesdk.api.LineApiClient;
+import com.linecorp.linesdk.internal.nwclient.core.CallCancellation;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -17,10 +20,19 @@ import org.robolectric.RobolectricTestRunner;
 import org.robolectric.annotation.Config;
 
 import java.net.HttpURLConnection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import androidx.annotation.NonNull;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -139,6 +151,119 @@ public class AutoRefreshLineApiClientProxyTest {
         verify(lineApiClientImpl, times(1)).getProfile();
     }
 
+    @Test
+    public void testConcurrentRefreshesAreMerged() throws Exception {
+        int threadCount = 4;
+        AtomicBoolean isRefreshed = new AtomicBoolean();
+        CountDownLatch unauthorizedLatch = new CountDownLatch(threadCount);
+        when(lineApiClientImpl.getProfile()).thenAnswer(invocation -> {
+            if (isRefreshed.get()) {
+                return Results.success();
+            }
+            unauthorizedLatch.countDown();
+            return Results.unauthorized();
+        });
+        when(lineApiClientImpl.refreshAccessToken()).thenAnswer(invocation -> {
+            // Keep the refresh in flight until every call has received 401.
+            unauthorizedLatch.await(10, TimeUnit.SECONDS);
+            isRefreshed.set(true);
+            return Results.success();
+        });
+
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        List<Future<LineApiResponse<LineProfile>>> futures = new ArrayList<>();
+        for (int i = 0; i < threadCount; i++) {
+            futures.add(executorService.submit(() -> target.getProfile()));
+        }
+        for (Future<LineApiResponse<LineProfile>> future : futures) {
+            assertTrue(future.get(10, TimeUnit.SECONDS).isSuccess());
+        }
+        executorService.shutdown();
+
+        verify(lineApiClientImpl, times(1)).refreshAccessToken();
+        TokenRefreshMetrics metrics = AutoRefreshLineApiClientProxy.getTokenRefreshMetrics(target);
+        assertEquals(1L, metrics.getRefreshCount());
+        assertEquals(threadCount - 1, metrics.getMergedRefreshCount());
+    }
+
+    @Test
+    public void testCancelOfRefreshingCallDoesNotFailOtherCalls() throws Exception {
+        CancellationSignal cancellationSignal = new CancellationSignal();
+        AtomicBoolean isRefreshed = new AtomicBoolean();
+        CountDownLatch unauthorizedLatch = new CountDownLatch(2);
+        when(lineApiClientImpl.getProfile()).thenAnswer(invocation -> {
+            if (isRefreshed.get()) {
+                return Results.success();
+            }
+            unauthorizedLatch.countDown();
+            return Results.unauthorized();
+        });
+        TokenRefreshMetrics metrics = AutoRefreshLineApiClientProxy.getTokenRefreshMetrics(target);
+        when(lineApiClientImpl.refreshAccessToken()).thenAnswer(invocation -> {
+            unauthorizedLatch.await(10, TimeUnit.SECONDS);
+            // Wait for the second call to join, and cancel the call that started the refresh.
+            long timeoutMillis = System.currentTimeMillis() + 10 * 1000L;
+            while (metrics.getMergedRefreshCount() == 0L
+                   && System.currentTimeMillis() < timeoutMillis) {
+                Thread.sleep(1L);
+            }
+            cancellationSignal.cancel();
+            // The HTTP client gives up on a cancelled signal.
+            CancellationSignal currentSignal = CallCancellation.getCurrentSignal();
+            if (currentSignal != null && currentSignal.isCanceled()) {
+                return LineApiResponse.createAsError(
+                        LineApiResponseCode.CANCEL, LineApiError.DEFAULT);
+            }
+            isRefreshed.set(true);
+            return Results.success();
+        });
+
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        Future<LineApiResponse<LineProfile>> cancelledFuture = executorService.submit(
+                () -> CallCancellation.runWith(cancellationSignal, () -> target.getProfile()));
+        // Starts after the first call has started the refresh.
+        Future<LineApiResponse<LineProfile>> waitingFuture = executorService.submit(() -> {
+            while (metrics.getRefreshCount() == 0L) {
+                Thread.sleep(1L);
+            }
+            return target.getProfile();
+        });
+
+        assertTrue(waitingFuture.get(10, TimeUnit.SECONDS).isSuccess());
+        cancelledFuture.get(10, TimeUnit.SECONDS);
+        executorService.shutdown();
+
+        verify(lineApiClientImpl, times(1)).refreshAccessToken();
+        assertEquals(1L, metrics.getMergedRefreshCount());
+    }
+
+    @Test
+    public void testRetryWithoutRefreshAfterAnotherRefresh() throws Exception {
+        when(lineApiClientImpl.getProfile()).thenReturn(
+                Results.unauthorized(),
+                Results.success());
+        when(lineApiClientImpl.refreshAccessToken()).thenReturn(
+                Results.success());
+        // Another call refreshes the token while getFriendshipStatus() is running.
+        when(lineApiClientImpl.getFriendshipStatus()).thenAnswer(invocation -> {
+            target.getProfile();
+            return Results.unauthorized();
+        }).thenReturn(Results.success());
+
+        assertTrue(target.getFriendshipStatus().isSuccess());
+
+        verify(lineApiClientImpl, times(1)).refreshAccessToken();
+        verify(lineApiClientImpl, times(2)).getFriendshipStatus();
+        TokenRefreshMetrics metrics = AutoRefreshLineApiClientProxy.getTokenRefreshMetrics(target);
+        assertEquals(1L, metrics.getRefreshCount());
+        assertEquals(1L, metrics.getMergedRefreshCount());
+    }
+
+    @Test
+    public void testGetTokenRefreshMetricsOfNonProxy() {
+        assertNull(AutoRefreshLineApiClientProxy.getTokenRefreshMetrics(lineApiClientImpl));
+    }
+
     @Test(expected = NullPointerException.class)
     public void testThrowingException() throws Exception {
         when(lineApiClientImpl.getProfile()).thenThrow(new NullPointerException("testException"));
@@ -13,6 +13,7 @@ import com.linecorp.linesdk.Scope;
 import com.linecorp.linesdk.TestConfig;
 import com.linecorp.linesdk.TestStringCipher;
 import com.linecorp.linesdk.api.LineApiClient;
+import com.linecorp.linesdk.api.SocialGraphStore;
 import com.linecorp.linesdk.internal.AccessTokenCache;
 import com.linecorp.linesdk.internal.AccessTokenVerificationResult;
 import com.linecorp.linesdk.internal.InternalAccessToken;
@@ -108,6 +109,15 @@ public class LineApiClientImplTest {
         assertNull(accessTokenCache.getAccessToken());
     }
 
+    @Test
+    public void testGetSocialGraphStoreWithoutStore() {
+        SocialGraphStore store = target.getSocialGraphStore();
+
+        assertSame(SocialGraphStore.NONE, store);
+        assertNull(store.getFriends());
+        assertFalse(store.syncFriends().isSuccess());
+    }
+
     @Test
     public void testLogoutWithNoAccessToken() {
         LineApiResponse<?> response = target.logout();
@@ -0,0 +1,87 @@
+package com.linecorp.linesdk.api.internal;
+
+import com.linecorp.linesdk.LineApiError;
+import com.linecorp.linesdk.LineApiResponse;
+import com.linecorp.linesdk.LineApiResponseCode;
+import com.linecorp.linesdk.LineProfile;
+import com.linecorp.linesdk.TestConfig;
+import com.linecorp.linesdk.api.LineApiClient;
+import com.linecorp.linesdk.api.LineApiMetrics;
+import com.linecorp.linesdk.api.SocialGraphStore;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test for {@link MetricsLineApiClientProxy}.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = TestConfig.TARGET_SDK_VERSION)
+public class MetricsLineApiClientProxyTest {
+    @Mock
+    private LineApiClient lineApiClient;
+    private LineApiMetrics metrics;
+    private LineApiClient target;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        metrics = new LineApiMetrics();
+        target = MetricsLineApiClientProxy.newProxy(lineApiClient, metrics);
+    }
+
+    @Test
+    public void testRecordPerMethodAndResponseCode() {
+        LineApiResponse<LineProfile> success = LineApiResponse.createAsSuccess(null);
+        LineApiResponse<LineProfile> networkError = LineApiResponse.createAsError(
+                LineApiResponseCode.NETWORK_ERROR, LineApiError.DEFAULT);
+        when(lineApiClient.getProfile()).thenReturn(success, success, networkError);
+
+        assertSame(success, target.getProfile());
+        target.getProfile();
+        target.getProfile();
+
+        List<LineApiMetrics.Snapshot> snapshots = metrics.getSnapshots();
+        assertEquals(2, snapshots.size());
+        for (LineApiMetrics.Snapshot snapshot : snapshots) {
+            assertEquals("getProfile", snapshot.getMethod());
+            long expectedCount =
+                    snapshot.getResponseCode() == LineApiResponseCode.SUCCESS ? 2L : 1L;
+            assertEquals(expectedCount, snapshot.getCount());
+            assertEquals(expectedCount, snapshot.getResponseBytes().getCount());
+        }
+    }
+
+    @Test
+    public void testNotRecordOtherMethods() {
+        SocialGraphStore socialGraphStore = mock(SocialGraphStore.class);
+        when(lineApiClient.getSocialGraphStore()).thenReturn(socialGraphStore);
+
+        assertSame(socialGraphStore, target.getSocialGraphStore());
+
+        assertTrue(metrics.getSnapshots().isEmpty());
+    }
+
+    @Test
+    public void testReset() {
+        when(lineApiClient.verifyToken()).thenReturn(LineApiResponse.createAsSuccess(null));
+        target.verifyToken();
+
+        metrics.reset();
+
+        assertTrue(metrics.getSnapshots().isEmpty());
+    }
+}
@@ -0,0 +1,239 @@
+package com.linecorp.linesdk.api.internal;
+
+import android.content.Context;
+import android.net.Uri;
+
+import com.linecorp.linesdk.FriendSortField;
+import com.linecorp.linesdk.GetFriendsResponse;
+import com.linecorp.linesdk.GetGroupsResponse;
+import com.linecorp.linesdk.LineAccessToken;
+import com.linecorp.linesdk.LineApiError;
+import com.linecorp.linesdk.LineApiResponse;
+import com.linecorp.linesdk.LineApiResponseCode;
+import com.linecorp.linesdk.LineFriendProfile;
+import com.linecorp.linesdk.LineGroup;
+import com.linecorp.linesdk.LineProfile;
+import com.linecorp.linesdk.TestConfig;
+import com.linecorp.linesdk.api.LineApiClient;
+import com.linecorp.linesdk.api.SocialGraphStore;
+import com.linecorp.linesdk.internal.SocialGraphDatabase;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Test for {@link SocialGraphStoreImpl}.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = TestConfig.TARGET_SDK_VERSION)
+public class SocialGraphStoreImplTest {
+    private static final String CHANNEL_ID = "channelId";
+    private static final long TTL_MILLIS = 1000L;
+
+    private static final LineFriendProfile FRIEND_A = new LineFriendProfile(
+            "userA", "nameA", Uri.parse("https://picture/a"), "statusA", "overriddenA");
+    private static final LineFriendProfile FRIEND_B = new LineFriendProfile(
+            "userB", "nameB", null /* pictureUrl */, null /* statusMessage */, "");
+    private static final LineFriendProfile FRIEND_C = new LineFriendProfile(
+            "userC", "nameC", Uri.parse("https://picture/c"), "statusC", "");
+    private static final LineGroup GROUP_A = new LineGroup(
+            "groupA", "groupNameA", Uri.parse("https://picture/groupA"));
+
+    @Mock
+    private LineApiClient lineApiClient;
+
+    private SocialGraphDatabase database;
+    private long currentTimeMillis;
+    private SocialGraphStoreImpl target;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        Context context = RuntimeEnvironment.application;
+        database = new SocialGraphDatabase(context, null /* in-memory */);
+        target = new SocialGraphStoreImpl(
+                database,
+                context.getSharedPreferences("socialGraphStoreTest", Context.MODE_PRIVATE),
+                CHANNEL_ID,
+                lineApiClient,
+                TTL_MILLIS) {
+            @Override
+            long currentTimeMillis() {
+                return currentTimeMillis;
+            }
+        };
+        setCurrentUser("accessToken1", "owner1");
+    }
+
+    @After
+    public void tearDown() {
+        database.close();
+    }
+
+    @Test
+    public void testNothingIsStoredBeforeSync() {
+        assertNull(target.getFriends());
+        assertNull(target.getGroups());
+    }
+
+    @Test
+    public void testSyncFriends() {
+        setFriendPages(Arrays.asList(FRIEND_A, FRIEND_B), Collections.singletonList(FRIEND_C));
+        List<LineFriendProfile> pages = new ArrayList<>();
+
+        LineApiResponse<SocialGraphStore.SyncResult> response = target.syncFriends(pages::addAll);
+
+        assertTrue(response.isSuccess());
+        assertSyncResult(3, 0, 0, response.getResponseData());
+        assertEquals(Arrays.asList(FRIEND_A, FRIEND_B, FRIEND_C), pages);
+        assertEquals(Arrays.asList(FRIEND_A, FRIEND_B, FRIEND_C), target.getFriends());
+        // Friends and groups are stored separately.
+        assertNull(target.getGroups());
+    }
+
+    @Test
+    public void testSyncAppliesDifferences() {
+        setFriendPages(Arrays.asList(FRIEND_A, FRIEND_B));
+        target.syncFriends();
+
+        LineFriendProfile renamedFriendA = new LineFriendProfile(
+                "userA", "renamedA", FRIEND_A.getPictureUrl(), FRIEND_A.getStatusMessage(),
+                FRIEND_A.getOverriddenDisplayName());
+        setFriendPages(Arrays.asList(FRIEND_C, renamedFriendA));
+
+        SocialGraphStore.SyncResult result = target.syncFriends().getResponseData();
+
+        assertSyncResult(1, 1, 1, result);
+        assertEquals(Arrays.asList(FRIEND_C, renamedFriendA), target.getFriends());
+    }
+
+    @Test
+    public void testSyncWithoutChanges() {
+        setFriendPages(Arrays.asList(FRIEND_A, FRIEND_B));
+        target.syncFriends();
+
+        SocialGraphStore.SyncResult result = target.syncFriends().getResponseData();
+
+        assertFalse(result.hasChanges());
+    }
+
+    @Test
+    public void testFailedSyncKeepsStoredList() {
+        setFriendPages(Arrays.asList(FRIEND_A, FRIEND_B));
+        target.syncFriends();
+        doReturn(LineApiResponse.createAsError(LineApiResponseCode.NETWORK_ERROR, LineApiError.DEFAULT))
+                .when(lineApiClient).getFriends(any(FriendSortField.class), isNull(), anyBoolean());
+
+        LineApiResponse<SocialGraphStore.SyncResult> response = target.syncFriends();
+
+        assertEquals(LineApiResponseCode.NETWORK_ERROR, response.getResponseCode());
+        assertEquals(Arrays.asList(FRIEND_A, FRIEND_B), target.getFriends());
+    }
+
+    @Test
+    public void testExpiredListIsNotReturned() {
+        doReturn(LineApiResponse.createAsSuccess(
+                new GetGroupsResponse(Collections.singletonList(GROUP_A))))
+                .when(lineApiClient).getGroups(isNull(), anyBoolean());
+        target.syncGroups();
+
+        currentTimeMillis += TTL_MILLIS - 1;
+        assertEquals(Collections.singletonList(GROUP_A), target.getGroups());
+
+        currentTimeMillis += 1;
+        assertNull(target.getGroups());
+    }
+
+    @Test
+    public void testListIsKeptForEachUser() {
+        setFriendPages(Arrays.asList(FRIEND_A, FRIEND_B));
+        target.syncFriends();
+
+        // Another user logs in. The list of the previous user must not be returned.
+        setCurrentUser("accessToken2", "owner2");
+        assertNull(target.getFriends());
+
+        setFriendPages(Collections.singletonList(FRIEND_C));
+        SocialGraphStore.SyncResult result = target.syncFriends().getResponseData();
+
+        assertSyncResult(1, 0, 0, result);
+        assertEquals(Collections.singletonList(FRIEND_C), target.getFriends());
+    }
+
+    @Test
+    public void testUserIsResolvedOnlyOnce() {
+        setFriendPages(Collections.singletonList(FRIEND_A));
+        target.syncFriends();
+        target.syncFriends();
+
+        verify(lineApiClient).getProfile();
+    }
+
+    @Test
+    public void testReadDoesNotAccessNetwork() {
+        target.getFriends();
+        target.getGroups();
+
+        verify(lineApiClient, never()).getProfile();
+    }
+
+    @Test
+    public void testClear() {
+        setFriendPages(Collections.singletonList(FRIEND_A));
+        target.syncFriends();
+
+        target.clear();
+
+        assertNull(target.getFriends());
+    }
+
+    private void setCurrentUser(String accessToken, String userId) {
+        doReturn(LineApiResponse.createAsSuccess(
+                new LineAccessToken(accessToken, 1000L, 2000L)))
+                .when(lineApiClient).getCurrentAccessToken();
+        doReturn(LineApiResponse.createAsSuccess(
+                new LineProfile(userId, "displayName", null /* pictureUrl */, null /* statusMessage */)))
+                .when(lineApiClient).getProfile();
+    }
+
+    @SafeVarargs
+    private final void setFriendPages(List<LineFriendProfile>... pages) {
+        for (int i = 0; i < pages.length; i++) {
+            String pageToken = i == 0 ? null : "token" + i;
+            String nextPageToken = i == pages.length - 1 ? null : "token" + (i + 1);
+            doReturn(LineApiResponse.createAsSuccess(new GetFriendsResponse(pages[i], nextPageToken)))
+                    .when(lineApiClient).getFriends(FriendSortField.RELATION, pageToken, true);
+        }
+    }
+
+    private static void assertSyncResult(
+            int addedCount, int changedCount, int removedCount,
+            SocialGraphStore.SyncResult result) {
+        assertEquals(addedCount, result.getAddedCount());
+        assertEquals(changedCount, result.getChangedCount());
+        assertEquals(removedCount, result.getRemovedCount());
+    }
+}
@@ -0,0 +1,199 @@
+package com.linecorp.linesdk.api.internal;
+
+import android.app.Application;
+
+import com.linecorp.linesdk.LineAccessToken;
+import com.linecorp.linesdk.LineApiError;
+import com.linecorp.linesdk.LineApiResponse;
+import com.linecorp.linesdk.LineApiResponseCode;
+import com.linecorp.linesdk.TestConfig;
+import com.linecorp.linesdk.api.LineApiClient;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Test for {@link TokenRefreshScheduler}.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = TestConfig.TARGET_SDK_VERSION)
+public class TokenRefreshSchedulerTest {
+    private static final long NOW = 1000000L;
+    private static final long LEAD_TIME_MILLIS = 1000L;
+    private static final long EXPIRES_IN_MILLIS = 10000L;
+
+    @Mock
+    private LineApiClient lineApiClient;
+    @Mock
+    private ScheduledExecutorService executor;
+
+    private TokenRefreshScheduler target;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        target = spy(new TokenRefreshScheduler(
+                lineApiClient, executor, LEAD_TIME_MILLIS, true /* isScheduleEnabled */));
+        doReturn(NOW).when(target).currentTimeMillis();
+    }
+
+    @Test
+    public void testScheduleBeforeExpiration() {
+        doReturn(LineApiResponse.createAsSuccess(newToken(NOW)))
+                .when(lineApiClient).getCurrentAccessToken();
+
+        target.check();
+
+        verify(lineApiClient, never()).refreshAccessToken();
+        verify(executor).schedule(
+                any(Runnable.class),
+                eq(EXPIRES_IN_MILLIS - LEAD_TIME_MILLIS),
+                eq(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testRefreshWithinLeadTime() {
+        long issuedTime = NOW - EXPIRES_IN_MILLIS + LEAD_TIME_MILLIS / 2;
+        doReturn(LineApiResponse.createAsSuccess(newToken(issuedTime)))
+                .when(lineApiClient).getCurrentAccessToken();
+        doReturn(LineApiResponse.createAsSuccess(newToken(NOW)))
+                .when(lineApiClient).refreshAccessToken();
+
+        target.check();
+
+        verify(lineApiClient).refreshAccessToken();
+        verify(executor).schedule(
+                any(Runnable.class),
+                eq(EXPIRES_IN_MILLIS - LEAD_TIME_MILLIS),
+                eq(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testRetryAfterNetworkError() {
+        doReturn(LineApiResponse.createAsSuccess(newToken(0L)))
+                .when(lineApiClient).getCurrentAccessToken();
+        doReturn(LineApiResponse.createAsError(LineApiResponseCode.NETWORK_ERROR, LineApiError.DEFAULT))
+                .when(lineApiClient).refreshAccessToken();
+
+        target.check();
+
+        verify(executor).schedule(
+                any(Runnable.class),
+                eq(TimeUnit.MINUTES.toMillis(1)),
+                eq(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testWaitForLoginAfterServerError() {
+        doReturn(LineApiResponse.createAsSuccess(newToken(0L)))
+                .when(lineApiClient).getCurrentAccessToken();
+        doReturn(LineApiResponse.createAsError(LineApiResponseCode.SERVER_ERROR, LineApiError.DEFAULT))
+                .when(lineApiClient).refreshAccessToken();
+
+        target.check();
+        // The rejected token isn't refreshed again.
+        target.check();
+
+        verify(lineApiClient, times(1)).refreshAccessToken();
+        verify(executor, times(2)).schedule(
+                any(Runnable.class),
+                eq(TimeUnit.MINUTES.toMillis(5)),
+                eq(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testWaitForLoginWithoutToken() {
+        doReturn(LineApiResponse.createAsError(LineApiResponseCode.INTERNAL_ERROR, LineApiError.DEFAULT))
+                .when(lineApiClient).getCurrentAccessToken();
+
+        target.check();
+
+        verify(lineApiClient, never()).refreshAccessToken();
+        verify(executor).schedule(
+                any(Runnable.class),
+                eq(TimeUnit.MINUTES.toMillis(5)),
+                eq(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testRefreshAfterLogin() {
+        doReturn(LineApiResponse.createAsError(LineApiResponseCode.INTERNAL_ERROR, LineApiError.DEFAULT))
+                .doReturn(LineApiResponse.createAsSuccess(newToken(NOW)))
+                .when(lineApiClient).getCurrentAccessToken();
+
+        target.check();
+        target.check();
+
+        verify(executor).schedule(
+                any(Runnable.class),
+                eq(EXPIRES_IN_MILLIS - LEAD_TIME_MILLIS),
+                eq(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testForegroundOnlyDoesNotSchedule() {
+        target = spy(new TokenRefreshScheduler(
+                lineApiClient, executor, LEAD_TIME_MILLIS, false /* isScheduleEnabled */));
+        doReturn(NOW).when(target).currentTimeMillis();
+        doReturn(LineApiResponse.createAsSuccess(newToken(0L)))
+                .when(lineApiClient).getCurrentAccessToken();
+        doReturn(LineApiResponse.createAsSuccess(newToken(NOW)))
+                .when(lineApiClient).refreshAccessToken();
+
+        target.start();
+        target.check();
+
+        verify(lineApiClient).refreshAccessToken();
+        verify(executor, never()).schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+    }
+
+    @Test
+    public void testOneSchedulerPerChannel() {
+        Application application = mock(Application.class);
+        LineApiClient newLineApiClient = mock(LineApiClient.class);
+
+        TokenRefreshScheduler scheduler = TokenRefreshScheduler.startForChannel(
+                "channelId", lineApiClient, LEAD_TIME_MILLIS, false /* isScheduleEnabled */,
+                application);
+        TokenRefreshScheduler sameScheduler = TokenRefreshScheduler.startForChannel(
+                "channelId", newLineApiClient, LEAD_TIME_MILLIS, false /* isScheduleEnabled */,
+                application);
+
+        assertSame(scheduler, sameScheduler);
+        verify(application, times(1)).registerActivityLifecycleCallbacks(
+                any(Application.ActivityLifecycleCallbacks.class));
+
+        TokenRefreshScheduler.stopForChannel("channelId");
+
+        verify(application).unregisterActivityLifecycleCallbacks(
+                any(Application.ActivityLifecycleCallbacks.class));
+        assertNotSame(scheduler, TokenRefreshScheduler.startForChannel(
+                "channelId", newLineApiClient, LEAD_TIME_MILLIS, false /* isScheduleEnabled */,
+                null /* foregroundApplication */));
+        TokenRefreshScheduler.stopForChannel("channelId");
+    }
+
+    private static LineAccessToken newToken(long issuedClientTimeMillis) {
+        return new LineAccessToken("accessToken", EXPIRES_IN_MILLIS, issuedClientTimeMillis);
+    }
+}
@@ -3,6 +3,7 @@ package com.linecorp.linesdk.auth.internal;
 import android.content.Context;
 import android.content.Intent;
 import android.net.Uri;
+import android.util.Base64;
 
 import com.linecorp.linesdk.LineAccessToken;
 import com.linecorp.linesdk.LineApiError;
@@ -11,6 +12,7 @@ import com.linecorp.linesdk.LineApiResponseCode;
 import com.linecorp.linesdk.LineCredential;
 import com.linecorp.linesdk.LineIdToken;
 import com.linecorp.linesdk.LineProfile;
+import com.linecorp.linesdk.LineSdkExecutors;
 import com.linecorp.linesdk.Scope;
 import com.linecorp.linesdk.TestConfig;
 import com.linecorp.linesdk.TestStringCipher;
@@ -20,11 +22,15 @@ import com.linecorp.linesdk.auth.LineLoginResult;
 import com.linecorp.linesdk.internal.AccessTokenCache;
 import com.linecorp.linesdk.internal.InternalAccessToken;
 import com.linecorp.linesdk.internal.IssueAccessTokenResult;
+import com.linecorp.linesdk.internal.JWKSet;
 import com.linecorp.linesdk.internal.OpenIdDiscoveryDocument;
 import com.linecorp.linesdk.internal.nwclient.LineAuthenticationApiClient;
 import com.linecorp.linesdk.internal.nwclient.TalkApiClient;
+import com.linecorp.linesdk.internal.nwclient.core.ChannelServiceHttpClient;
+import com.linecorp.linesdk.internal.nwclient.core.ResponseDataParser;
 import com.linecorp.linesdk.internal.pkce.PKCECode;
 
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -36,12 +42,33 @@ import org.robolectric.RobolectricTestRunner;
 import org.robolectric.RuntimeEnvironment;
 import org.robolectric.annotation.Config;
 
+import java.math.BigInteger;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -74,6 +101,11 @@ public class LineAuthenticationControllerTest {
     private static final Date ONE_HOUR_LATER = new Date(NOW.getTime() + 60 * 60 * 1000);
 
     private static final String ID_TOKEN_RAW_STR = "ID_TOKEN_RAW_STR";
+    private static final String KEY_ID = "keyId";
+    private static final String API_BASE_URL = "https://test";
+    private static final String DISCOVERY_DOCUMENT_URL =
+            "https://test/.well-known/openid-configuration";
+    private static final String JWKS_URL = "https://test/oauth2/v2.1/certs";
     private static final LineIdToken ID_TOKEN = new LineIdToken
             .Builder()
             .rawString(ID_TOKEN_RAW_STR)
@@ -94,7 +126,7 @@ public class LineAuthenticationControllerTest {
                     .build();
 
     private static final IssueAccessTokenResult ISSUE_ACCESS_TOKEN_RESULT =
-            new IssueAccessTokenResult(ACCESS_TOKEN, SCOPE_LIST, ID_TOKEN);
+            new IssueAccessTokenResult(ACCESS_TOKEN, SCOPE_LIST, ID_TOKEN_RAW_STR);
 
     private static final String DISPLAY_NAME = "displayName";
     private static final Uri PICTURE_URL = Uri.parse("http://line.me/test");
@@ -126,6 +158,7 @@ public class LineAuthenticationControllerTest {
     @Before
     public void setup() {
         MockitoAnnotations.initMocks(this);
+        LineSdkExecutors.setAuthExecutor(Robolectric.getBackgroundThreadScheduler()::post);
         config = new LineAuthenticationConfig.Builder(CHANNEL_ID).build();
         accessTokenCache = new AccessTokenCache(
                 RuntimeEnvironment.application, CHANNEL_ID, new TestStringCipher());
@@ -155,6 +188,11 @@ public class LineAuthenticationControllerTest {
                         any(LineAuthenticationParams.class));
     }
 
+    @After
+    public void tearDown() {
+        LineSdkExecutors.setAuthExecutor(null);
+    }
+
     @Test
     public void testErrorOfRequestTokenProvider() throws Exception {
         Intent newIntentData = new Intent();
@@ -324,6 +362,9 @@ public class LineAuthenticationControllerTest {
         doReturn(LineApiResponse.createAsSuccess(ACCOUNT_INFO))
                 .when(talkApiClient)
                 .getProfile(ACCESS_TOKEN);
+        doReturn(LineApiResponse.createAsSuccess(ID_TOKEN))
+                .when(authApiClient)
+                .verifyIdToken(ID_TOKEN_RAW_STR);
         doReturn(LineApiResponse.createAsSuccess(OPEN_ID_DISCOVERY_DOCUMENT))
                 .when(authApiClient)
                 .getOpenIdDiscoveryDocument();
@@ -359,6 +400,137 @@ public class LineAuthenticationControllerTest {
         assertEquals(ACCESS_TOKEN, accessTokenCache.getAccessToken());
     }
 
+    @Test
+    public void testProfileAndSigningKeyAreFetchedConcurrently() throws Exception {
+        // The real API client verifies the signature of the ID token with the fetched key set.
+        KeyPair keyPair = newKeyPair();
+        String idTokenStr = Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, KEY_ID)
+                .setIssuer(ISSUER)
+                .setSubject(USER_ID)
+                .setAudience(CHANNEL_ID)
+                .setIssuedAt(NOW)
+                .setExpiration(ONE_HOUR_LATER)
+                .claim("nonce", NONCE)
+                .signWith(keyPair.getPrivate(), SignatureAlgorithm.ES256)
+                .compact();
+        ChannelServiceHttpClient httpClient = Mockito.mock(ChannelServiceHttpClient.class);
+        LineAuthenticationApiClient realAuthApiClient = new LineAuthenticationApiClient(
+                Uri.parse(DISCOVERY_DOCUMENT_URL), Uri.parse(API_BASE_URL), httpClient);
+        doReturn(LineApiResponse.createAsSuccess(
+                new IssueAccessTokenResult(ACCESS_TOKEN, SCOPE_LIST, idTokenStr)))
+                .when(httpClient)
+                .post(any(Uri.class), anyMap(), anyMap(), any(ResponseDataParser.class));
+        doReturn(LineApiResponse.createAsSuccess(new OpenIdDiscoveryDocument.Builder()
+                                                         .issuer(ISSUER)
+                                                         .jwksUri(JWKS_URL)
+                                                         .build()))
+                .when(httpClient)
+                .get(eq(Uri.parse(DISCOVERY_DOCUMENT_URL)),
+                     anyMap(),
+                     anyMap(),
+                     any(ResponseDataParser.class));
+
+        // Each fetch waits for the other one to start, and records when it started and ended.
+        // If they ran one after another, the first one would time out and end before the second
+        // one started.
+        CountDownLatch profileFetchStarted = new CountDownLatch(1);
+        CountDownLatch keyFetchStarted = new CountDownLatch(1);
+        Phase profilePhase = new Phase();
+        Phase keyPhase = new Phase();
+        doAnswer(invocation -> {
+            keyPhase.start();
+            keyFetchStarted.countDown();
+            profileFetchStarted.await(5L, TimeUnit.SECONDS);
+            keyPhase.end();
+            return LineApiResponse.createAsSuccess(new JWKSet.Builder()
+                    .keys(Collections.singletonList(newJWK((ECPublicKey) keyPair.getPublic())))
+                    .build());
+        }).when(httpClient).get(eq(Uri.parse(JWKS_URL)),
+                                anyMap(),
+                                anyMap(),
+                                any(ResponseDataParser.class));
+        doAnswer(invocation -> {
+            profilePhase.start();
+            profileFetchStarted.countDown();
+            keyFetchStarted.await(5L, TimeUnit.SECONDS);
+            profilePhase.end();
+            return LineApiResponse.createAsSuccess(ACCOUNT_INFO);
+        }).when(talkApiClient).getProfile(ACCESS_TOKEN);
+
+        // The access token request runs on this thread, and the ID token verification that it
+        // starts runs on another auth thread.
+        ExecutorService otherAuthThread = Executors.newSingleThreadExecutor();
+        AtomicInteger authTaskCount = new AtomicInteger();
+        LineSdkExecutors.setAuthExecutor(runnable -> {
+            if (authTaskCount.getAndIncrement() == 0) {
+                Robolectric.getBackgroundThreadScheduler().post(runnable);
+            } else {
+                otherAuthThread.execute(runnable);
+            }
+        });
+        Intent newIntentData = new Intent();
+        doReturn(BrowserAuthenticationApi.Result.createAsSuccess(REQUEST_TOKEN_STR, null))
+                .when(browserAuthenticationApi)
+                .getAuthenticationResultFrom(newIntentData);
+        LineAuthenticationStatus authenticationStatus = new LineAuthenticationStatus();
+        authenticationStatus.setOpenIdNonce(NONCE);
+        LineAuthenticationController controller = new LineAuthenticationController(
+                activity,
+                config,
+                realAuthApiClient,
+                talkApiClient,
+                browserAuthenticationApi,
+                accessTokenCache,
+                authenticationStatus,
+                LINE_AUTH_PARAMS);
+
+        controller.startLineAuthentication();
+        controller.handleIntentFromLineApp(newIntentData);
+
+        Robolectric.getBackgroundThreadScheduler().runOneTask();
+        Robolectric.getForegroundThreadScheduler().runOneTask();
+
+        otherAuthThread.shutdown();
+
+        assertTrue(profilePhase.overlaps(keyPhase));
+        verify(activity, times(1)).onAuthenticationFinished(
+                argThat(result -> result.isSuccess()
+                                  && idTokenStr.equals(result.getLineIdToken().getRawString())
+                                  && ACCOUNT_INFO.equals(result.getLineProfile())));
+    }
+
+    @Test
+    public void testPrefetchOpenIdDocuments() throws Exception {
+        LineAuthenticationParams params = new LineAuthenticationParams.Builder()
+                .scopes(Arrays.asList(Scope.PROFILE, Scope.OPENID_CONNECT))
+                .build();
+        LineAuthenticationController controller = new LineAuthenticationController(
+                activity,
+                config,
+                authApiClient,
+                talkApiClient,
+                browserAuthenticationApi,
+                accessTokenCache,
+                new LineAuthenticationStatus(),
+                params);
+
+        controller.startLineAuthentication();
+        Robolectric.getBackgroundThreadScheduler().runOneTask();
+
+        verify(authApiClient, times(1)).getJWKSet();
+    }
+
+    @Test
+    public void testNoPrefetchWithoutOpenIdScope() throws Exception {
+        // A prefetch would run before startLineAuthentication() returns.
+        LineSdkExecutors.setAuthExecutor(Runnable::run);
+
+        target.startLineAuthentication();
+
+        verify(authApiClient, never()).getJWKSet();
+    }
+
     @Test
     public void testCancel() throws Exception {
         target.startLineAuthentication();
@@ -377,4 +549,69 @@ public class LineAuthenticationControllerTest {
 
         verify(activity, times(1)).onAuthenticationFinished(LineLoginResult.canceledError());
     }
+
+    @Test
+    public void testRelease() throws Exception {
+        List<Runnable> authTasks = new ArrayList<>();
+        LineSdkExecutors.setAuthExecutor(authTasks::add);
+        Intent newIntentData = new Intent();
+        doReturn(BrowserAuthenticationApi.Result.createAsSuccess(REQUEST_TOKEN_STR, false))
+                .when(browserAuthenticationApi)
+                .getAuthenticationResultFrom(newIntentData);
+
+        target.startLineAuthentication();
+        target.handleIntentFromLineApp(newIntentData);
+        target.release();
+
+        assertEquals(1, authTasks.size());
+        authTasks.get(0).run();
+        Robolectric.getForegroundThreadScheduler().runOneTask();
+
+        verify(authApiClient, never())
+                .issueAccessToken(CHANNEL_ID, REQUEST_TOKEN_STR, PKCE_CODE, REDIRECT_URI);
+        verify(activity, never()).onAuthenticationFinished(any(LineLoginResult.class));
+    }
+
+    private static KeyPair newKeyPair() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(new ECGenParameterSpec("secp256r1"));
+        return generator.generateKeyPair();
+    }
+
+    private static JWKSet.JWK newJWK(ECPublicKey publicKey) {
+        return new JWKSet.JWK.Builder()
+                .keyType("EC")
+                .algorithm("ES256")
+                .use("sig")
+                .keyId(KEY_ID)
+                .curve("P-256")
+                .x(encodeCoordinate(publicKey.getW().getAffineX()))
+                .y(encodeCoordinate(publicKey.getW().getAffineY()))
+                .build();
+    }
+
+    private static String encodeCoordinate(BigInteger coordinate) {
+        return Base64.encodeToString(coordinate.toByteArray(),
+                                     Base64.URL_SAFE | Base64.NO_WRAP | Base64.NO_PADDING);
+    }
+
+    /**
+     * The time span of a step of the login, measured on the thread that runs it.
+     */
+    private static class Phase {
+        private volatile long startNanos;
+        private volatile long endNanos;
+
+        private void start() {
+            startNanos = System.nanoTime();
+        }
+
+        private void end() {
+            endNanos = System.nanoTime();
+        }
+
+        private boolean overlaps(Phase other) {
+            return startNanos < other.endNanos && other.startNanos < endNanos;
+        }
+    }
 }
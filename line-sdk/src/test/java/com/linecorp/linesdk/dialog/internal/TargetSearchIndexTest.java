@@ -0,0 +1,97 @@
+package com.linecorp.linesdk.dialog.internal;
+
+import com.linecorp.linesdk.TestConfig;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test for {@link TargetSearchIndex}.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = TestConfig.TARGET_SDK_VERSION)
+public class TargetSearchIndexTest {
+    private static final TargetUser ALICE = newTargetUser("1", "Alice");
+    private static final TargetUser BOB = newTargetUser("2", "Bob");
+    private static final TargetUser CAROL = newTargetUser("3", "CAROL");
+
+    private TargetSearchIndex target;
+
+    @Before
+    public void setUp() {
+        target = new TargetSearchIndex(Locale.ENGLISH);
+        target.addAll(Arrays.asList(ALICE, BOB, CAROL));
+    }
+
+    @Test
+    public void testEmptyQueryMatchesAll() {
+        TargetSearchIndex.Result result = target.search("");
+
+        assertEquals(Arrays.asList(ALICE, BOB, CAROL), result.getTargetUsers());
+        assertEquals(-1, result.getHighlightStart(0));
+    }
+
+    @Test
+    public void testSearchIgnoresCase() {
+        TargetSearchIndex.Result result = target.search("aRo");
+
+        assertEquals(Collections.singletonList(CAROL), result.getTargetUsers());
+        assertEquals(1, result.getHighlightStart(0));
+        assertEquals(3, result.getHighlightLength());
+    }
+
+    @Test
+    public void testNarrowingQuery() {
+        assertEquals(Arrays.asList(ALICE, CAROL), target.search("a").getTargetUsers());
+        assertEquals(Collections.singletonList(ALICE), target.search("al").getTargetUsers());
+        assertTrue(target.search("alx").getTargetUsers().isEmpty());
+
+        // A query that doesn't extend the previous one searches all the target users again.
+        assertEquals(Collections.singletonList(BOB), target.search("b").getTargetUsers());
+    }
+
+    @Test
+    public void testAddedTargetUsersAreSearchedAfterNarrowing() {
+        target.search("a");
+        TargetUser dave = newTargetUser("4", "Dave");
+
+        target.addAll(Collections.singletonList(dave));
+
+        assertEquals(Arrays.asList(ALICE, CAROL, dave), target.search("a").getTargetUsers());
+    }
+
+    @Test
+    public void testSetAll() {
+        TargetUser dave = newTargetUser("4", "Dave");
+
+        target.setAll(Arrays.asList(dave, BOB));
+
+        assertEquals(Arrays.asList(dave, BOB), target.search("").getTargetUsers());
+    }
+
+    @Test
+    public void testNoHighlightIfNormalizationChangesLength() {
+        // "İ" becomes two characters when lowercased in English.
+        TargetUser user = newTargetUser("5", "İa");
+        target.setAll(Collections.singletonList(user));
+
+        TargetSearchIndex.Result result = target.search("a");
+
+        assertEquals(Collections.singletonList(user), result.getTargetUsers());
+        assertEquals(-1, result.getHighlightStart(0));
+    }
+
+    private static TargetUser newTargetUser(String id, String displayName) {
+        return new TargetUser(TargetUser.Type.FRIEND, id, displayName, null /* pictureUri */);
+    }
+}
@@ -15,6 +15,13 @@ import org.robolectric.annotation.Config;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 /**
  * Test for {@link AccessTokenCache}.
@@ -60,4 +67,59 @@ public class AccessTokenCacheTest {
                 new InternalAccessToken("accessToken2", 2, 10, "refreshToken2"),
                 cache2.getAccessToken());
     }
+
+    @Test
+    public void testDecryptedTokenIsKeptInMemory() {
+        Context context = RuntimeEnvironment.application;
+        StringCipher spyEncryptor = spy(encryptor);
+        AccessTokenCache cache = new AccessTokenCache(context, CHANNEL_ID1, spyEncryptor);
+        cache.saveAccessToken(
+                new InternalAccessToken("accessToken1", 1, 10, "refreshToken1"));
+        AccessTokenCache otherCache = new AccessTokenCache(context, CHANNEL_ID1, spyEncryptor);
+
+        assertEquals(
+                new InternalAccessToken("accessToken1", 1, 10, "refreshToken1"),
+                cache.getAccessToken());
+        verify(spyEncryptor, never()).decrypt(any(Context.class), anyString());
+
+        InternalAccessToken firstToken = otherCache.getAccessToken();
+        InternalAccessToken secondToken = otherCache.getAccessToken();
+
+        assertEquals(
+                new InternalAccessToken("accessToken1", 1, 10, "refreshToken1"),
+                firstToken);
+        assertSame(firstToken, secondToken);
+        verify(spyEncryptor, times(4)).decrypt(any(Context.class), anyString());
+    }
+
+    @Test
+    public void testMemoryCacheIsConsistentWithPersistedToken() {
+        Context context = RuntimeEnvironment.application;
+        AccessTokenCache cache1 = new AccessTokenCache(context, CHANNEL_ID1, encryptor);
+        AccessTokenCache cache2 = new AccessTokenCache(context, CHANNEL_ID1, encryptor);
+
+        assertNull(cache2.getAccessToken());
+
+        cache1.saveAccessToken(
+                new InternalAccessToken("accessToken1", 1, 10, "refreshToken1"));
+
+        assertEquals(
+                new InternalAccessToken("accessToken1", 1, 10, "refreshToken1"),
+                cache2.getAccessToken());
+
+        cache2.saveAccessToken(
+                new InternalAccessToken("accessToken2", 2, 20, "refreshToken2"));
+
+        assertEquals(
+                new InternalAccessToken("accessToken2", 2, 20, "refreshToken2"),
+                cache1.getAccessToken());
+        assertEquals(
+                new InternalAccessToken("accessToken2", 2, 20, "refreshToken2"),
+                new AccessTokenCache(context, CHANNEL_ID1, encryptor).getAccessToken());
+
+        cache1.clear();
+
+        assertNull(cache1.getAccessToken());
+        assertNull(cache2.getAccessToken());
+    }
 }
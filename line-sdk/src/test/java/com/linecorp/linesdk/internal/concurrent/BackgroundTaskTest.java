@@ -0,0 +1,92 @@
+package com.linecorp.linesdk.internal.concurrent;
+
+import com.linecorp.linesdk.TestConfig;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test for {@link BackgroundTask}.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = TestConfig.TARGET_SDK_VERSION)
+public class BackgroundTaskTest {
+    @Test
+    public void testResultIsDelivered() {
+        TestTask task = new TestTask();
+
+        task.executeOn(Runnable::run);
+
+        assertEquals(1, task.runCount);
+        assertEquals("result", task.result);
+        assertTrue(task.isFinished());
+    }
+
+    @Test
+    public void testCancelBeforeRun() {
+        List<Runnable> runnables = new ArrayList<>();
+        TestTask task = new TestTask();
+        TaskGroup taskGroup = new TaskGroup();
+
+        taskGroup.execute(task, runnables::add);
+        taskGroup.cancelAll();
+        runnables.get(0).run();
+
+        assertEquals(0, task.runCount);
+        assertEquals(null, task.result);
+        assertTrue(task.isCancelled());
+    }
+
+    @Test
+    public void testCancelInterruptsWorkerThread() throws Exception {
+        CountDownLatch startedLatch = new CountDownLatch(1);
+        CountDownLatch interruptedLatch = new CountDownLatch(1);
+        BackgroundTask<Void> task = new BackgroundTask<Void>() {
+            @Override
+            protected Void doInBackground() {
+                startedLatch.countDown();
+                try {
+                    Thread.sleep(10000L);
+                } catch (InterruptedException e) {
+                    interruptedLatch.countDown();
+                }
+                return null;
+            }
+        };
+
+        task.executeOn(Executors.newSingleThreadExecutor());
+        assertTrue(startedLatch.await(1000L, TimeUnit.MILLISECONDS));
+        task.cancel();
+
+        assertTrue(interruptedLatch.await(1000L, TimeUnit.MILLISECONDS));
+        assertFalse(Thread.currentThread().isInterrupted());
+    }
+
+    private static class TestTask extends BackgroundTask<String> {
+        private int runCount;
+        private String result;
+
+        @Override
+        protected String doInBackground() {
+            runCount++;
+            return "result";
+        }
+
+        @Override
+        protected void onPostExecute(String result) {
+            this.result = result;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.linecorp.linesdk.internal.nwclient;
+
+import android.net.Uri;
+
+import com.linecorp.linesdk.TestConfig;
+import com.linecorp.linesdk.internal.JWKSet;
+import com.linecorp.linesdk.internal.nwclient.OpenIdDocumentCache.CachedResponse;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.io.ByteArrayInputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.spy;
+
+/**
+ * Test for {@link OpenIdDocumentCache}.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = TestConfig.TARGET_SDK_VERSION)
+public class OpenIdDocumentCacheTest {
+    private static final Uri DISCOVERY_DOCUMENT_URL =
+            Uri.parse("https://access.line.me/.well-known/openid-configuration");
+    private static final String JWK_SET_JSON = "{\"keys\":[{"
+            + "\"kty\":\"EC\",\"alg\":\"ES256\",\"use\":\"sig\",\"kid\":\"keyId\","
+            + "\"crv\":\"P-256\",\"x\":\"x\",\"y\":\"y\"}]}";
+    private static final long NOW = 1000000L;
+
+    private OpenIdDocumentCache target;
+
+    @Before
+    public void setUp() {
+        target = newCache();
+    }
+
+    @Test
+    public void testGetMaxAgeMillis() {
+        assertEquals(60000L, OpenIdDocumentCache.getMaxAgeMillis(
+                headers("Cache-Control", "public, max-age=60, must-revalidate")));
+        assertEquals(60000L, OpenIdDocumentCache.getMaxAgeMillis(
+                headers("cache-control", "MAX-AGE=60")));
+        assertEquals(0L, OpenIdDocumentCache.getMaxAgeMillis(
+                headers("Cache-Control", "no-store")));
+        assertEquals(0L, OpenIdDocumentCache.getMaxAgeMillis(
+                headers("Cache-Control", "max-age=invalid")));
+        assertEquals(3600000L, OpenIdDocumentCache.getMaxAgeMillis(
+                headers("Content-Type", "application/json")));
+    }
+
+    @Test
+    public void testExpiration() throws Exception {
+        target.putJWKSet(parseJWKSet(headers("Cache-Control", "max-age=60")));
+
+        assertNotNull(target.getJWKSet(null /* requiredKeyId */));
+
+        doReturn(NOW + 60000L).when(target).currentTimeMillis();
+        assertNull(target.getJWKSet(null /* requiredKeyId */));
+    }
+
+    @Test
+    public void testNoCacheWithNoStore() throws Exception {
+        target.putJWKSet(parseJWKSet(headers("Cache-Control", "no-store")));
+
+        assertNull(target.getJWKSet(null /* requiredKeyId */));
+    }
+
+    @Test
+    public void testRefetchWhenKeyIdIsMissing() throws Exception {
+        target.putJWKSet(parseJWKSet(headers("Cache-Control", "max-age=3600")));
+
+        assertNotNull(target.getJWKSet("keyId"));
+        // Just fetched. Fetching it again would return the same keys.
+        assertNotNull(target.getJWKSet("otherKeyId"));
+
+        doReturn(NOW + 30000L).when(target).currentTimeMillis();
+        assertNotNull(target.getJWKSet("keyId"));
+        assertNull(target.getJWKSet("otherKeyId"));
+    }
+
+    @Test
+    public void testLoadFromDisk() throws Exception {
+        target.putJWKSet(parseJWKSet(headers("Cache-Control", "max-age=60")));
+
+        OpenIdDocumentCache otherCache = newCache();
+        JWKSet jwkSet = otherCache.getJWKSet("keyId");
+
+        assertNotNull(jwkSet);
+        assertEquals("P-256", jwkSet.getJWK("keyId").getCurve());
+    }
+
+    @Test
+    public void testClear() throws Exception {
+        target.putJWKSet(parseJWKSet(headers("Cache-Control", "max-age=60")));
+
+        target.clear();
+
+        assertNull(target.getJWKSet(null /* requiredKeyId */));
+        assertNull(newCache().getJWKSet(null /* requiredKeyId */));
+    }
+
+    private static OpenIdDocumentCache newCache() {
+        OpenIdDocumentCache cache = spy(new OpenIdDocumentCache(
+                RuntimeEnvironment.application,
+                DISCOVERY_DOCUMENT_URL,
+                new OpenIdDiscoveryDocumentParser(),
+                new JWKSetParser()));
+        doReturn(NOW).when(cache).currentTimeMillis();
+        return cache;
+    }
+
+    private CachedResponse<JWKSet> parseJWKSet(Map<String, List<String>> headers)
+            throws Exception {
+        return target.getJWKSetParser().getResponseData(
+                headers, new ByteArrayInputStream(JWK_SET_JSON.getBytes("UTF-8")));
+    }
+
+    private static Map<String, List<String>> headers(String name, String... values) {
+        Map<String, List<String>> headers = new HashMap<>();
+        headers.put(name, Arrays.asList(values));
+        headers.put(null, Collections.singletonList("HTTP/1.1 200 OK"));
+        return headers;
+    }
+}
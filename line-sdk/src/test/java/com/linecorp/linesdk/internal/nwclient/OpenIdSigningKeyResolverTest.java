@@ -0,0 +1,156 @@
+package com.linecorp.linesdk.internal.nwclient;
+
+import android.util.Base64;
+
+import com.linecorp.linesdk.LineApiResponse;
+import com.linecorp.linesdk.TestConfig;
+import com.linecorp.linesdk.internal.JWKSet;
+import com.linecorp.linesdk.internal.JWKSet.JWK;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.math.BigInteger;
+import java.security.Key;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Arrays;
+import java.util.Collections;
+
+import io.jsonwebtoken.JwsHeader;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.doReturn;
+
+/**
+ * Test for {@link OpenIdSigningKeyResolver}.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = TestConfig.TARGET_SDK_VERSION)
+public class OpenIdSigningKeyResolverTest {
+    private static final String KEY_ID = "keyId";
+
+    @Mock
+    private LineAuthenticationApiClient apiClient;
+    @Mock
+    private JwsHeader jwsHeader;
+
+    private OpenIdSigningKeyResolver target;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        OpenIdSigningKeyResolver.clearKeyCache();
+        target = new OpenIdSigningKeyResolver(apiClient);
+        doReturn(KEY_ID).when(jwsHeader).getKeyId();
+        doReturn("ES256").when(jwsHeader).getAlgorithm();
+    }
+
+    @After
+    public void tearDown() {
+        OpenIdSigningKeyResolver.clearKeyCache();
+    }
+
+    @Test
+    public void testKeyIsCached() throws Exception {
+        JWK jwk = newJWK(KEY_ID);
+        setJWKSet(jwk);
+
+        Key key = target.resolveSigningKey(jwsHeader, "plaintext");
+
+        assertEquals(getCoordinate(jwk.getX()), ((ECPublicKey) key).getW().getAffineX());
+        assertSame(key, target.resolveSigningKey(jwsHeader, "plaintext"));
+
+        // A new key set with the same key keeps the cached key.
+        setJWKSet(newJWK(KEY_ID, jwk));
+        assertSame(key, target.resolveSigningKey(jwsHeader, "plaintext"));
+    }
+
+    @Test
+    public void testKeyIsRegeneratedWhenRotated() throws Exception {
+        setJWKSet(newJWK(KEY_ID));
+        Key key = target.resolveSigningKey(jwsHeader, "plaintext");
+
+        JWK rotatedJwk = newJWK(KEY_ID);
+        setJWKSet(rotatedJwk);
+        Key rotatedKey = target.resolveSigningKey(jwsHeader, "plaintext");
+
+        assertNotSame(key, rotatedKey);
+        assertEquals(
+                getCoordinate(rotatedJwk.getX()), ((ECPublicKey) rotatedKey).getW().getAffineX());
+    }
+
+    @Test
+    public void testMissingKeyId() throws Exception {
+        setJWKSet(newJWK("otherKeyId"));
+
+        assertNull(target.resolveSigningKey(jwsHeader, "plaintext"));
+    }
+
+    @Test
+    public void testGetJWKByIndex() throws Exception {
+        JWK jwk1 = newJWK("keyId1");
+        JWK jwk2 = newJWK("keyId2");
+        JWK duplicatedJwk = newJWK("keyId1");
+        JWKSet jwkSet = new JWKSet.Builder()
+                .keys(Arrays.asList(jwk1, jwk2, duplicatedJwk))
+                .build();
+
+        assertSame(jwk1, jwkSet.getJWK("keyId1"));
+        assertSame(jwk2, jwkSet.getJWK("keyId2"));
+        assertNull(jwkSet.getJWK("keyId3"));
+        assertNull(new JWKSet.Builder().build().getJWK("keyId1"));
+    }
+
+    private void setJWKSet(JWK jwk) {
+        JWKSet jwkSet = new JWKSet.Builder()
+                .keys(Collections.singletonList(jwk))
+                .build();
+        doReturn(LineApiResponse.createAsSuccess(jwkSet)).when(apiClient).getJWKSet(KEY_ID);
+    }
+
+    private static JWK newJWK(String keyId) throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(new ECGenParameterSpec("secp256r1"));
+        ECPublicKey publicKey = (ECPublicKey) generator.generateKeyPair().getPublic();
+        return new JWK.Builder()
+                .keyType("EC")
+                .algorithm("ES256")
+                .use("sig")
+                .keyId(keyId)
+                .curve("P-256")
+                .x(encodeCoordinate(publicKey.getW().getAffineX().toByteArray()))
+                .y(encodeCoordinate(publicKey.getW().getAffineY().toByteArray()))
+                .build();
+    }
+
+    private static JWK newJWK(String keyId, JWK source) {
+        return new JWK.Builder()
+                .keyType(source.getKeyType())
+                .algorithm(source.getAlgorithm())
+                .use(source.getUse())
+                .keyId(keyId)
+                .curve(source.getCurve())
+                .x(source.getX())
+                .y(source.getY())
+                .build();
+    }
+
+    private static String encodeCoordinate(byte[] bytes) {
+        return Base64.encodeToString(bytes, Base64.URL_SAFE | Base64.NO_WRAP | Base64.NO_PADDING);
+    }
+
+    private static BigInteger getCoordinate(String base64) {
+        return new BigInteger(1, Base64.decode(base64, Base64.URL_SAFE));
+    }
+}
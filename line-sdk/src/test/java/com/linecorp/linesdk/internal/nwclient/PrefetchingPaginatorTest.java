@@ -0,0 +1,142 @@
+package com.linecorp.linesdk.internal.nwclient;
+
+import com.linecorp.linesdk.GetFriendsResponse;
+import com.linecorp.linesdk.LineApiError;
+import com.linecorp.linesdk.LineApiResponse;
+import com.linecorp.linesdk.LineApiResponseCode;
+import com.linecorp.linesdk.TestConfig;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test for {@link PrefetchingPaginator}.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = TestConfig.TARGET_SDK_VERSION)
+public class PrefetchingPaginatorTest {
+    private final List<String> requestedPageTokens = new ArrayList<>();
+    private final List<Runnable> queuedFetches = new ArrayList<>();
+
+    @Test
+    public void testIterateAllPages() {
+        PrefetchingPaginator<GetFriendsResponse> target = newPaginator(
+                Arrays.asList("token1", "token2", null), 2 /* prefetchDepth */);
+
+        List<String> nextPageTokens = new ArrayList<>();
+        while (target.hasNext()) {
+            nextPageTokens.add(target.next().getResponseData().getNextPageRequestToken());
+        }
+
+        assertEquals(Arrays.asList("token1", "token2", null), nextPageTokens);
+        assertEquals(Arrays.asList(null, "token1", "token2"), requestedPageTokens);
+    }
+
+    @Test
+    public void testNextPageIsRequestedBeforeConsumed() {
+        PrefetchingPaginator<GetFriendsResponse> target = newQueuedPaginator(2 /* prefetchDepth */);
+
+        runQueuedFetch();
+
+        // The second page is requested right after the first page is received.
+        assertEquals(1, queuedFetches.size());
+        runQueuedFetch();
+        assertEquals(Arrays.asList(null, "token1"), requestedPageTokens);
+        assertTrue(target.hasNext());
+    }
+
+    @Test
+    public void testBackpressure() {
+        PrefetchingPaginator<GetFriendsResponse> target = newQueuedPaginator(1 /* prefetchDepth */);
+
+        runQueuedFetch();
+
+        // The buffer is full. No more pages are requested until the first one is consumed.
+        assertTrue(queuedFetches.isEmpty());
+        target.next();
+        assertEquals(1, queuedFetches.size());
+    }
+
+    @Test
+    public void testErrorIsLastPage() {
+        PrefetchingPaginator<GetFriendsResponse> target = new PrefetchingPaginator<>(
+                pageToken -> LineApiResponse.createAsError(
+                        LineApiResponseCode.NETWORK_ERROR, LineApiError.DEFAULT),
+                GetFriendsResponse::getNextPageRequestToken,
+                2 /* prefetchDepth */,
+                Runnable::run);
+
+        assertEquals(LineApiResponseCode.NETWORK_ERROR, target.next().getResponseCode());
+        assertFalse(target.hasNext());
+    }
+
+    @Test
+    public void testFetchIsRunByConsumerIfNotStarted() {
+        PrefetchingPaginator<GetFriendsResponse> target = newQueuedPaginator(2 /* prefetchDepth */);
+
+        // The executor hasn't run the fetch, so the caller runs it.
+        LineApiResponse<GetFriendsResponse> page = target.next();
+
+        assertEquals("token1", page.getResponseData().getNextPageRequestToken());
+        assertEquals(Collections.singletonList((String) null), requestedPageTokens);
+
+        // The fetch queued on the executor does nothing.
+        queuedFetches.remove(0).run();
+        assertEquals(1, requestedPageTokens.size());
+    }
+
+    @Test
+    public void testClose() {
+        PrefetchingPaginator<GetFriendsResponse> target = newQueuedPaginator(2 /* prefetchDepth */);
+
+        target.close();
+        runQueuedFetch();
+
+        assertFalse(target.hasNext());
+        assertTrue(queuedFetches.isEmpty());
+    }
+
+    private PrefetchingPaginator<GetFriendsResponse> newPaginator(
+            List<String> nextPageTokens, int prefetchDepth) {
+        return new PrefetchingPaginator<>(
+                pageToken -> {
+                    requestedPageTokens.add(pageToken);
+                    String nextPageToken = nextPageTokens.get(requestedPageTokens.size() - 1);
+                    return LineApiResponse.createAsSuccess(
+                            new GetFriendsResponse(Collections.emptyList(), nextPageToken));
+                },
+                GetFriendsResponse::getNextPageRequestToken,
+                prefetchDepth,
+                Runnable::run);
+    }
+
+    private PrefetchingPaginator<GetFriendsResponse> newQueuedPaginator(int prefetchDepth) {
+        return new PrefetchingPaginator<>(
+                pageToken -> {
+                    requestedPageTokens.add(pageToken);
+                    String nextPageToken = "token" + requestedPageTokens.size();
+                    return LineApiResponse.createAsSuccess(
+                            new GetFriendsResponse(Collections.emptyList(), nextPageToken));
+                },
+                GetFriendsResponse::getNextPageRequestToken,
+                prefetchDepth,
+                queuedFetches::add);
+    }
+
+    private void runQueuedFetch() {
+        assertFalse(queuedFetches.isEmpty());
+        queuedFetches.remove(0).run();
+    }
+}
@@ -12,6 +12,7 @@ import com.linecorp.linesdk.LineApiResponse;
 import com.linecorp.linesdk.LineApiResponseCode;
 import com.linecorp.linesdk.LineFriendProfile;
 import com.linecorp.linesdk.LineFriendshipStatus;
+import com.linecorp.linesdk.LineGroup;
 import com.linecorp.linesdk.LineProfile;
 import com.linecorp.linesdk.SendMessageResponse;
 import com.linecorp.linesdk.TestConfig;
@@ -19,8 +20,11 @@ import com.linecorp.linesdk.TestJsonDataBuilder;
 import com.linecorp.linesdk.TestStringInputStream;
 import com.linecorp.linesdk.internal.InternalAccessToken;
 import com.linecorp.linesdk.internal.nwclient.core.ChannelServiceHttpClient;
+import com.linecorp.linesdk.internal.nwclient.core.JsonRequestBody;
 import com.linecorp.linesdk.internal.nwclient.core.ResponseDataParser;
 
+import org.json.JSONArray;
+import org.json.JSONObject;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -248,6 +252,73 @@ public class TalkApiClientTest {
         );
     }
 
+    @Test
+    public void testFriendsParser() throws Exception {
+        TalkApiClient.FriendsParser target = new TalkApiClient.FriendsParser();
+        JSONArray friends = new JSONArray();
+        for (int i = 0; i < 1000; i++) {
+            friends.put(new JSONObject()
+                    .put("userId", "userId" + i)
+                    .put("displayName", "displayName" + i)
+                    .put("pictureUrl", "https://picture/" + i)
+                    .put("statusMessage", "statusMessage" + i)
+                    .put("displayNameOverridden", "overridden" + i)
+                    .put("unknownField", new JSONObject().put("key", "value")));
+        }
+        String jsonData = new JSONObject()
+                .put("friends", friends)
+                .put("pageToken", "pageToken01")
+                .toString();
+
+        GetFriendsResponse response =
+                target.getResponseData(new TestStringInputStream(jsonData, CHARSET_NAME));
+
+        assertEquals(1000, response.getFriends().size());
+        assertEquals(
+                new LineFriendProfile(
+                        "userId999",
+                        "displayName999",
+                        Uri.parse("https://picture/999"),
+                        "statusMessage999",
+                        "overridden999"),
+                response.getFriends().get(999));
+        assertEquals("pageToken01", response.getNextPageRequestToken());
+
+        verifyToThrowException(target, "{\"friends\":[{\"displayName\":\"name\"}]}");
+        verifyToThrowException(target, "{\"pageToken\":\"pageToken01\"}");
+        verifyToThrowException(target, "{\"friends\":{}}");
+    }
+
+    @Test
+    public void testGroupParser() throws Exception {
+        TalkApiClient.GroupParser target = new TalkApiClient.GroupParser();
+        String jsonData = new JSONObject()
+                .put("groups", new JSONArray()
+                        .put(new JSONObject()
+                                .put("groupId", "groupId01")
+                                .put("groupName", "groupName01")
+                                .put("pictureUrl", "https://picture/01"))
+                        .put(new JSONObject()
+                                .put("groupId", "groupId02")
+                                .put("groupName", "groupName02")))
+                .toString();
+
+        GetGroupsResponse response =
+                target.getResponseData(new TestStringInputStream(jsonData, CHARSET_NAME));
+
+        assertEquals(2, response.getGroups().size());
+        assertEquals(
+                new LineGroup("groupId01", "groupName01", Uri.parse("https://picture/01")),
+                response.getGroups().get(0));
+        assertEquals(
+                new LineGroup("groupId02", "groupName02", null),
+                response.getGroups().get(1));
+        assertEquals(null, response.getNextPageRequestToken());
+
+        verifyToThrowException(target, "{\"groups\":[{\"groupName\":\"name\"}]}");
+        verifyToThrowException(target, "{}");
+    }
+
     @Test
     public void testGetFriends_shareMessageWithOtt() {
         doReturn(EXPECTED_RESULT).when(httpClient).get(
@@ -424,7 +495,7 @@ public class TalkApiClientTest {
                         false);
 
         assertThat(actualResult, sameInstance(mockResponse));
-        verifyApiCallPostWithJson("/message/v3/multisend");
+        verifyApiCallPostWithJsonBody("/message/v3/multisend");
         responseParserInstanceShouldBe(TalkApiClient.MultiSendResponseParser.class);
     }
 
@@ -447,7 +518,7 @@ public class TalkApiClientTest {
         responseParserInstanceShouldBe(TalkApiClient.StringParser.class);
 
         // Send the message using ott
-        verifyApiCallPostWithJson("/" + BASE_PATH_MESSAGE_API + "/" + PATH_OTT_SHARE);
+        verifyApiCallPostWithJsonBody("/" + BASE_PATH_MESSAGE_API + "/" + PATH_OTT_SHARE);
         responseParserInstanceShouldBe(TalkApiClient.MultiSendResponseParser.class);
     }
 
@@ -481,6 +552,11 @@ public class TalkApiClientTest {
                 anyMapOf(String.class, String.class),
                 any(String.class),
                 any(ResponseDataParser.class));
+        doReturn(apiResponse).when(httpClient).postWithJson(
+                any(Uri.class),
+                anyMapOf(String.class, String.class),
+                any(JsonRequestBody.class),
+                any(ResponseDataParser.class));
     }
 
     private void verifyApiCallPostWithJson(String pathSegment) {
@@ -491,6 +567,14 @@ public class TalkApiClientTest {
                 responseParserCaptor.capture());
     }
 
+    private void verifyApiCallPostWithJsonBody(String pathSegment) {
+        verify(httpClient, times(1)).postWithJson(
+                eq(Uri.parse(API_BASE_URL + pathSegment)),
+                eq(Collections.singletonMap("Authorization", "Bearer " + ACCESS_TOKEN.getAccessToken())),
+                any(JsonRequestBody.class),
+                responseParserCaptor.capture());
+    }
+
     private void responseParserInstanceShouldBe(Class clazz) {
         assertThat(responseParserCaptor.getValue(), instanceOf(clazz));
     }
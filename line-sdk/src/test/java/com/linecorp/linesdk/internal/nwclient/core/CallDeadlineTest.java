@@ -0,0 +1,78 @@
+package com.linecorp.linesdk.internal.nwclient.core;
+
+import android.os.SystemClock;
+
+import com.linecorp.linesdk.TestConfig;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Test for {@link CallDeadline}.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = TestConfig.TARGET_SDK_VERSION)
+public class CallDeadlineTest {
+    @Test
+    public void testStartCallWithoutScope() {
+        long now = SystemClock.elapsedRealtime();
+
+        assertEquals(CallDeadline.NO_DEADLINE, CallDeadline.startCall(0L));
+        assertEquals(now + 1000L, CallDeadline.startCall(1000L));
+        // The deadline is not kept without a scope.
+        assertEquals(now + 5000L, CallDeadline.startCall(5000L));
+        assertEquals(CallDeadline.NO_DEADLINE, CallDeadline.getRemainingMillis());
+    }
+
+    @Test
+    public void testFirstCallStartsDeadlineOfScope() {
+        long now = SystemClock.elapsedRealtime();
+
+        try (CallDeadline.Scope scope = CallDeadline.openScope()) {
+            assertEquals(CallDeadline.NO_DEADLINE, CallDeadline.getRemainingMillis());
+            assertEquals(now + 1000L, CallDeadline.startCall(1000L));
+            assertEquals(1000L, CallDeadline.getRemainingMillis());
+
+            // Later calls, such as a token refresh, can't extend the deadline.
+            assertEquals(now + 1000L, CallDeadline.startCall(5000L));
+            assertEquals(now + 1000L, CallDeadline.startCall(0L));
+            assertEquals(now + 500L, CallDeadline.startCall(500L));
+        }
+        assertEquals(CallDeadline.NO_DEADLINE, CallDeadline.getRemainingMillis());
+    }
+
+    @Test
+    public void testNestedScopeSharesDeadline() {
+        long now = SystemClock.elapsedRealtime();
+
+        try (CallDeadline.Scope outerScope = CallDeadline.openScope()) {
+            try (CallDeadline.Scope innerScope = CallDeadline.openScope()) {
+                CallDeadline.startCall(1000L);
+            }
+            assertEquals(1000L, CallDeadline.getRemainingMillis());
+            assertEquals(now + 1000L, CallDeadline.startCall(5000L));
+        }
+    }
+
+    @Test
+    public void testRunWithin() {
+        long now = SystemClock.elapsedRealtime();
+
+        long deadlineMillis = CallDeadline.runWithin(2000L, () -> {
+            assertEquals(2000L, CallDeadline.getRemainingMillis());
+            // A nested call can only shorten the deadline.
+            CallDeadline.runWithin(5000L, () -> {
+                assertEquals(2000L, CallDeadline.getRemainingMillis());
+                return null;
+            });
+            return CallDeadline.startCall(5000L);
+        });
+
+        assertEquals(now + 2000L, deadlineMillis);
+        assertEquals(CallDeadline.NO_DEADLINE, CallDeadline.getRemainingMillis());
+    }
+}
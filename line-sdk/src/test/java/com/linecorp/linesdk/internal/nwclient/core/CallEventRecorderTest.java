@@ -0,0 +1,34 @@
+package com.linecorp.linesdk.internal.nwclient.core;
+
+import android.net.Uri;
+
+import com.linecorp.linesdk.TestConfig;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Test for {@link CallEventRecorder}.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = TestConfig.TARGET_SDK_VERSION)
+public class CallEventRecorderTest {
+    @Test
+    public void testGetEndpointLabel() {
+        assertEquals("graph/v2/friends",
+                     CallEventRecorder.getEndpointLabel(
+                             Uri.parse("https://api.line.me/graph/v2/friends?pageToken=abc")));
+        assertEquals("graph/v2/groups/{id}/approvers",
+                     CallEventRecorder.getEndpointLabel(Uri.parse(
+                             "https://api.line.me/graph/v2/groups/C0123456789abcdef0123/approvers")));
+        assertEquals("openchat/v1/rooms/{id}",
+                     CallEventRecorder.getEndpointLabel(
+                             Uri.parse("https://api.line.me/openchat/v1/rooms/12345")));
+        assertEquals("",
+                     CallEventRecorder.getEndpointLabel(Uri.parse("https://api.line.me")));
+    }
+}
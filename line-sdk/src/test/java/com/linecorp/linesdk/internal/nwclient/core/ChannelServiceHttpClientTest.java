@@ -1,6 +1,7 @@
 package com.linecorp.linesdk.internal.nwclient.core;
 
 import android.net.Uri;
+import android.os.CancellationSignal;
 import androidx.annotation.NonNull;
 
 import com.linecorp.linesdk.BuildConfig;
@@ -8,10 +9,19 @@ import com.linecorp.linesdk.LineApiError;
 import com.linecorp.linesdk.LineApiResponse;
 import com.linecorp.linesdk.LineApiResponseCode;
 import com.linecorp.linesdk.TestConfig;
+import com.linecorp.linesdk.api.CircuitBreaker;
+import com.linecorp.linesdk.api.HttpTransport;
+import com.linecorp.linesdk.api.HttpTransportRequest;
+import com.linecorp.linesdk.api.HttpTransportResponse;
+import com.linecorp.linesdk.api.NetworkCallEvent;
+import com.linecorp.linesdk.api.NetworkEventListener;
+import com.linecorp.linesdk.api.RetryPolicy;
+import com.linecorp.linesdk.api.TimeoutProfile;
 
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.robolectric.RobolectricTestRunner;
@@ -24,6 +34,7 @@ import java.io.InputStream;
 import java.net.HttpURLConnection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import javax.net.ssl.HttpsURLConnection;
@@ -31,10 +42,19 @@ import javax.net.ssl.HttpsURLConnection;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.nullable;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 
@@ -139,6 +159,29 @@ public class ChannelServiceHttpClientTest {
         assertEquals(LineApiError.DEFAULT, responseData.getErrorData());
     }
 
+    @Test
+    public void testPostWithJsonRequestBodyIsStreamedInOnePass() throws Exception {
+        String postData = "{\"text\":\"hello\"}";
+        JsonRequestBody requestBody = new JsonRequestBody(
+                writer -> writer.beginObject().name("text").value("hello").endObject());
+        // The debug log must not serialize the whole body.
+        target.setDebugLogMaxBodyBytes(4);
+        setResponseData("test".getBytes(CHARSET));
+
+        LineApiResponse<String> responseData = target.postWithJson(
+                Uri.parse("https://test"),
+                Collections.emptyMap() /* requestHeaders */,
+                requestBody,
+                new StringResponseParser());
+
+        verify(httpsURLConnection).setChunkedStreamingMode(0);
+        verify(httpsURLConnection, never()).setFixedLengthStreamingMode(anyLong());
+        verify(httpsURLConnection, never()).setRequestProperty(eq("Content-Length"), any());
+        assertEquals(postData, connectionOutputStream.toString(CHARSET));
+        assertEquals(postData.length(), requestBody.getContentLength());
+        assertTrue(responseData.isSuccess());
+    }
+
     @Test
     public void testGet() throws Exception {
         Map<String, String> requestHeaders = new HashMap();
@@ -192,6 +235,86 @@ public class ChannelServiceHttpClientTest {
         assertEquals(LineApiError.DEFAULT, responseData.getErrorData());
     }
 
+    @Test
+    public void testGetWithKeepAlive() throws Exception {
+        target.setKeepAliveEnabled(true);
+        setResponseData("test".getBytes(CHARSET));
+
+        LineApiResponse<String> responseData = target.get(
+                Uri.parse("https://test"),
+                Collections.<String, String>emptyMap() /* requestHeaders */,
+                Collections.<String, String>emptyMap() /* queryParameters */,
+                new StringResponseParser());
+
+        assertTrue(responseData.isSuccess());
+        assertEquals("test", responseData.getResponseData());
+        verify(httpsURLConnection, never()).disconnect();
+    }
+
+    @Test
+    public void testKeepAliveDisconnectsLargeBody() throws Exception {
+        target.setKeepAliveEnabled(true);
+        byte[] largeBody = new byte[128 * 1024];
+        doReturn(new ByteArrayInputStream(largeBody)).when(httpsURLConnection).getInputStream();
+        doReturn(HttpURLConnection.HTTP_OK).when(httpsURLConnection).getResponseCode();
+
+        // The parser doesn't read the body, so closing the response has to drain all of it.
+        target.get(Uri.parse("https://test"),
+                   Collections.emptyMap(), Collections.emptyMap(), null /* responseDataParser */);
+
+        verify(httpsURLConnection).disconnect();
+    }
+
+    @Test
+    public void testNetworkErrorWithKeepAlive() throws Exception {
+        target.setKeepAliveEnabled(true);
+        doThrow(new IOException()).when(httpsURLConnection).connect();
+
+        LineApiResponse<String> responseData = target.get(
+                Uri.parse("https://test"),
+                Collections.<String, String>emptyMap() /* requestHeaders */,
+                Collections.<String, String>emptyMap() /* queryParameters */,
+                new StringResponseParser());
+
+        assertEquals(LineApiResponseCode.NETWORK_ERROR, responseData.getResponseCode());
+        verify(httpsURLConnection).disconnect();
+    }
+
+    @Test
+    public void testGetWithHttpTransport() throws Exception {
+        HttpTransport httpTransport = mock(HttpTransport.class);
+        HttpTransportResponse transportResponse = mock(HttpTransportResponse.class);
+        doReturn(transportResponse).when(httpTransport).execute(any(HttpTransportRequest.class));
+        doReturn(HttpURLConnection.HTTP_OK).when(transportResponse).getResponseCode();
+        doReturn(new ByteArrayInputStream("test".getBytes(CHARSET))).when(transportResponse).getBody();
+        target.setHttpTransport(httpTransport);
+        Map<String, String> requestHeaders = new HashMap<>();
+        requestHeaders.put("headerKey1", "headerValue1");
+
+        LineApiResponse<String> responseData = target.get(
+                Uri.parse("https://test"),
+                requestHeaders,
+                Collections.<String, String>emptyMap() /* queryParameters */,
+                new StringResponseParser());
+
+        ArgumentCaptor<HttpTransportRequest> requestCaptor =
+                ArgumentCaptor.forClass(HttpTransportRequest.class);
+        verify(httpTransport).execute(requestCaptor.capture());
+        HttpTransportRequest request = requestCaptor.getValue();
+        assertEquals("GET", request.getMethod());
+        assertEquals(Uri.parse("https://test"), request.getUri());
+        assertEquals(USER_AGENT, request.getHeaders().get("User-Agent"));
+        assertEquals("gzip", request.getHeaders().get("Accept-Encoding"));
+        assertEquals("headerValue1", request.getHeaders().get("headerKey1"));
+        assertEquals(CONNECT_TIMEOUT_MILLIS, request.getConnectTimeoutMillis());
+        assertEquals(READ_TIMEOUT_MILLIS, request.getReadTimeoutMillis());
+        verify(target, never()).openHttpConnection(any(Uri.class));
+        verify(transportResponse).close();
+
+        assertTrue(responseData.isSuccess());
+        assertEquals("test", responseData.getResponseData());
+    }
+
     @Test
     public void testNetworkErrorByGet() throws Exception {
         IOException ioException = new IOException();
@@ -444,6 +567,356 @@ public class ChannelServiceHttpClientTest {
         assertEquals("testErrorMessage", responseData.getErrorData().getMessage());
     }
 
+    @Test
+    public void testCancelledBeforeSending() throws Exception {
+        CancellationSignal cancellationSignal = new CancellationSignal();
+        cancellationSignal.cancel();
+
+        LineApiResponse<String> responseData = CallCancellation.runWith(cancellationSignal,
+                () -> target.get(
+                        Uri.parse("https://test"),
+                        Collections.emptyMap(),
+                        Collections.emptyMap(),
+                        new StringResponseParser()));
+
+        verify(target, never()).openHttpConnection(any(Uri.class));
+        assertEquals(LineApiResponseCode.CANCEL, responseData.getResponseCode());
+    }
+
+    @Test
+    public void testCancelDisconnectsRunningCall() throws Exception {
+        CancellationSignal cancellationSignal = new CancellationSignal();
+        doAnswer(invocation -> {
+            // Cancelled while waiting for the response.
+            cancellationSignal.cancel();
+            throw new IOException("Socket closed");
+        }).when(httpsURLConnection).getResponseCode();
+
+        LineApiResponse<String> responseData = CallCancellation.runWith(cancellationSignal,
+                () -> target.get(
+                        Uri.parse("https://test"),
+                        Collections.emptyMap(),
+                        Collections.emptyMap(),
+                        new StringResponseParser()));
+
+        verify(httpsURLConnection, atLeastOnce()).disconnect();
+        assertEquals(LineApiResponseCode.CANCEL, responseData.getResponseCode());
+    }
+
+    @Test
+    public void testRetryGetOnServerError() throws Exception {
+        HttpTransport httpTransport = mock(HttpTransport.class);
+        HttpTransportResponse unavailableResponse = createTransportResponse(
+                HttpURLConnection.HTTP_UNAVAILABLE,
+                "error",
+                Collections.singletonMap("Retry-After", Collections.singletonList("2")));
+        HttpTransportResponse okResponse = createTransportResponse(
+                HttpURLConnection.HTTP_OK, "test", Collections.emptyMap());
+        doReturn(unavailableResponse).doReturn(okResponse)
+                .when(httpTransport).execute(any(HttpTransportRequest.class));
+        target.setHttpTransport(httpTransport);
+        target.setRetryPolicy(RetryPolicy.DEFAULT);
+        doReturn(true).when(target).waitForRetry(anyLong(), nullable(CancellationSignal.class));
+
+        LineApiResponse<String> responseData = target.get(
+                Uri.parse("https://test"),
+                Collections.emptyMap() /* requestHeaders */,
+                Collections.emptyMap() /* queryParameters */,
+                new StringResponseParser());
+
+        verify(httpTransport, times(2)).execute(any(HttpTransportRequest.class));
+        verify(target).waitForRetry(eq(2000L), nullable(CancellationSignal.class));
+        assertTrue(responseData.isSuccess());
+        assertEquals("test", responseData.getResponseData());
+    }
+
+    @Test
+    public void testRetryGetOnNetworkErrorUntilMaxAttempts() throws Exception {
+        doThrow(new IOException()).when(httpsURLConnection).connect();
+        target.setRetryPolicy(new RetryPolicy.Builder().maxAttempts(3).build());
+        doReturn(true).when(target).waitForRetry(anyLong(), nullable(CancellationSignal.class));
+
+        LineApiResponse<String> responseData = target.get(
+                Uri.parse("https://test"),
+                Collections.emptyMap() /* requestHeaders */,
+                Collections.emptyMap() /* queryParameters */,
+                new StringResponseParser());
+
+        verify(target, times(3)).openHttpConnection(Uri.parse("https://test"));
+        assertEquals(LineApiResponseCode.NETWORK_ERROR, responseData.getResponseCode());
+    }
+
+    @Test
+    public void testNotRetryClientError() throws Exception {
+        setErrorData(HttpURLConnection.HTTP_BAD_REQUEST, "error".getBytes(CHARSET));
+        target.setRetryPolicy(RetryPolicy.DEFAULT);
+
+        LineApiResponse<String> responseData = target.get(
+                Uri.parse("https://test"),
+                Collections.emptyMap() /* requestHeaders */,
+                Collections.emptyMap() /* queryParameters */,
+                new StringResponseParser());
+
+        verify(target).openHttpConnection(Uri.parse("https://test"));
+        verify(target, never()).waitForRetry(anyLong(), nullable(CancellationSignal.class));
+        assertEquals(LineApiResponseCode.SERVER_ERROR, responseData.getResponseCode());
+    }
+
+    @Test
+    public void testNotRetryUnsafePost() throws Exception {
+        doThrow(new IOException()).when(httpsURLConnection).connect();
+        target.setRetryPolicy(RetryPolicy.DEFAULT);
+
+        target.postWithJson(
+                Uri.parse("https://test/message/v3/multisend"),
+                Collections.emptyMap() /* requestHeaders */,
+                "{}",
+                new StringResponseParser());
+
+        verify(target).openHttpConnection(any(Uri.class));
+        verify(target, never()).waitForRetry(anyLong(), nullable(CancellationSignal.class));
+    }
+
+    @Test
+    public void testRetrySafePostWithSameBody() throws Exception {
+        HttpTransport httpTransport = mock(HttpTransport.class);
+        HttpTransportResponse errorResponse = createTransportResponse(
+                HttpURLConnection.HTTP_BAD_GATEWAY, "error", Collections.emptyMap());
+        HttpTransportResponse okResponse = createTransportResponse(
+                HttpURLConnection.HTTP_OK, "test", Collections.emptyMap());
+        doReturn(errorResponse).doReturn(okResponse)
+                .when(httpTransport).execute(any(HttpTransportRequest.class));
+        target.setHttpTransport(httpTransport);
+        target.setRetryPolicy(RetryPolicy.DEFAULT);
+        doReturn(true).when(target).waitForRetry(anyLong(), nullable(CancellationSignal.class));
+
+        LineApiResponse<String> responseData = target.post(
+                Uri.parse("https://test/oauth2/v2.1/revoke"),
+                Collections.emptyMap() /* requestHeaders */,
+                Collections.singletonMap("access_token", "token"),
+                new StringResponseParser());
+
+        ArgumentCaptor<HttpTransportRequest> requestCaptor =
+                ArgumentCaptor.forClass(HttpTransportRequest.class);
+        verify(httpTransport, times(2)).execute(requestCaptor.capture());
+        for (HttpTransportRequest request : requestCaptor.getAllValues()) {
+            assertEquals("access_token=token", new String(request.getBody(), CHARSET));
+        }
+        assertTrue(responseData.isSuccess());
+    }
+
+    @Test
+    public void testCancelDuringRetryWait() throws Exception {
+        doThrow(new IOException()).when(httpsURLConnection).connect();
+        target.setRetryPolicy(RetryPolicy.DEFAULT);
+        CancellationSignal cancellationSignal = new CancellationSignal();
+        doAnswer(invocation -> {
+            cancellationSignal.cancel();
+            return invocation.callRealMethod();
+        }).when(target).waitForRetry(anyLong(), nullable(CancellationSignal.class));
+
+        LineApiResponse<String> responseData = CallCancellation.runWith(cancellationSignal,
+                () -> target.get(
+                        Uri.parse("https://test"),
+                        Collections.emptyMap(),
+                        Collections.emptyMap(),
+                        new StringResponseParser()));
+
+        verify(target).openHttpConnection(any(Uri.class));
+        assertEquals(LineApiResponseCode.CANCEL, responseData.getResponseCode());
+    }
+
+    @Test
+    public void testCircuitOpenFailsFast() throws Exception {
+        doThrow(new IOException()).when(httpsURLConnection).connect();
+        target.setCircuitBreaker(new CircuitBreaker(
+                1f /* failureRateThreshold */, 1 /* windowSize */, 1 /* minimumCalls */,
+                60 * 1000L /* openDurationMillis */, 1 /* halfOpenProbes */));
+        Uri uri = Uri.parse("https://test/graph/v2/friends");
+
+        LineApiResponse<String> firstResponse = target.get(
+                uri, Collections.emptyMap(), Collections.emptyMap(), new StringResponseParser());
+        LineApiResponse<String> secondResponse = target.get(
+                uri, Collections.emptyMap(), Collections.emptyMap(), new StringResponseParser());
+
+        assertEquals(LineApiResponseCode.NETWORK_ERROR, firstResponse.getResponseCode());
+        assertEquals(LineApiResponseCode.CIRCUIT_OPEN, secondResponse.getResponseCode());
+        verify(target).openHttpConnection(uri);
+    }
+
+    @Test
+    public void testTransportExceptionReleasesHalfOpenProbe() throws Exception {
+        HttpTransport httpTransport = mock(HttpTransport.class);
+        HttpTransportResponse okResponse = createTransportResponse(
+                HttpURLConnection.HTTP_OK, "test", Collections.emptyMap());
+        doThrow(new IOException())
+                .doThrow(new IllegalStateException())
+                .doReturn(okResponse)
+                .when(httpTransport).execute(any(HttpTransportRequest.class));
+        target.setHttpTransport(httpTransport);
+        // Opens on the first failure and lets a probe through at once.
+        CircuitBreaker circuitBreaker = new CircuitBreaker(
+                1f /* failureRateThreshold */, 1 /* windowSize */, 1 /* minimumCalls */,
+                0L /* openDurationMillis */, 1 /* halfOpenProbes */);
+        target.setCircuitBreaker(circuitBreaker);
+        Uri uri = Uri.parse("https://test/graph/v2/friends");
+
+        target.get(uri, Collections.emptyMap(), Collections.emptyMap(), new StringResponseParser());
+        try {
+            target.get(
+                    uri, Collections.emptyMap(), Collections.emptyMap(), new StringResponseParser());
+            fail();
+        } catch (IllegalStateException e) {
+            // Expected.
+        }
+        LineApiResponse<String> responseData = target.get(
+                uri, Collections.emptyMap(), Collections.emptyMap(), new StringResponseParser());
+
+        verify(httpTransport, times(3)).execute(any(HttpTransportRequest.class));
+        assertTrue(responseData.isSuccess());
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState(uri));
+    }
+
+    @Test
+    public void testClientErrorDoesNotOpenCircuit() throws Exception {
+        setErrorData(HttpURLConnection.HTTP_UNAUTHORIZED, "error".getBytes(CHARSET));
+        CircuitBreaker circuitBreaker = new CircuitBreaker(
+                1f /* failureRateThreshold */, 1 /* windowSize */, 1 /* minimumCalls */,
+                60 * 1000L /* openDurationMillis */, 1 /* halfOpenProbes */);
+        target.setCircuitBreaker(circuitBreaker);
+        Uri uri = Uri.parse("https://test/graph/v2/friends");
+
+        target.get(uri, Collections.emptyMap(), Collections.emptyMap(), new StringResponseParser());
+
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState(uri));
+    }
+
+    @Test
+    public void testTimeoutProfileWithLongestPrefix() throws Exception {
+        HttpTransport httpTransport = mock(HttpTransport.class);
+        HttpTransportResponse okResponse = createTransportResponse(
+                HttpURLConnection.HTTP_OK, "test", Collections.emptyMap());
+        doReturn(okResponse).when(httpTransport).execute(any(HttpTransportRequest.class));
+        target.setHttpTransport(httpTransport);
+        target.setTimeoutProfile("", new TimeoutProfile(1000, 2000));
+        target.setTimeoutProfile("/friendship/", new TimeoutProfile(300, 400, 350L));
+
+        target.get(Uri.parse("https://test/friendship/v1/status"),
+                   Collections.emptyMap(), Collections.emptyMap(), new StringResponseParser());
+        target.get(Uri.parse("https://test/graph/v2/friends"),
+                   Collections.emptyMap(), Collections.emptyMap(), new StringResponseParser());
+
+        ArgumentCaptor<HttpTransportRequest> requestCaptor =
+                ArgumentCaptor.forClass(HttpTransportRequest.class);
+        verify(httpTransport, times(2)).execute(requestCaptor.capture());
+        HttpTransportRequest friendshipRequest = requestCaptor.getAllValues().get(0);
+        assertEquals(300, friendshipRequest.getConnectTimeoutMillis());
+        // The read timeout is limited by the deadline.
+        assertEquals(350, friendshipRequest.getReadTimeoutMillis());
+        HttpTransportRequest graphRequest = requestCaptor.getAllValues().get(1);
+        assertEquals(1000, graphRequest.getConnectTimeoutMillis());
+        assertEquals(2000, graphRequest.getReadTimeoutMillis());
+    }
+
+    @Test
+    public void testDeadlineOfScopeLimitsLaterCalls() throws Exception {
+        HttpTransport httpTransport = mock(HttpTransport.class);
+        doAnswer(invocation -> createTransportResponse(
+                HttpURLConnection.HTTP_OK, "test", Collections.emptyMap()))
+                .when(httpTransport).execute(any(HttpTransportRequest.class));
+        target.setHttpTransport(httpTransport);
+        target.setTimeoutProfile("/oauth2/", new TimeoutProfile(5000, 5000, 10000L));
+
+        CallDeadline.runWithin(700L, () -> target.post(
+                Uri.parse("https://test/oauth2/v2.1/token"),
+                Collections.emptyMap(),
+                Collections.emptyMap(),
+                new StringResponseParser()));
+
+        ArgumentCaptor<HttpTransportRequest> requestCaptor =
+                ArgumentCaptor.forClass(HttpTransportRequest.class);
+        verify(httpTransport).execute(requestCaptor.capture());
+        assertEquals(700, requestCaptor.getValue().getConnectTimeoutMillis());
+        assertEquals(700, requestCaptor.getValue().getReadTimeoutMillis());
+    }
+
+    @Test
+    public void testNetworkEventOfEachAttempt() throws Exception {
+        HttpTransport httpTransport = mock(HttpTransport.class);
+        HttpTransportResponse errorResponse = createTransportResponse(
+                HttpURLConnection.HTTP_BAD_GATEWAY, "error", Collections.emptyMap());
+        HttpTransportResponse okResponse = createTransportResponse(
+                HttpURLConnection.HTTP_OK, "test", Collections.emptyMap());
+        doReturn(errorResponse).doReturn(okResponse)
+                .when(httpTransport).execute(any(HttpTransportRequest.class));
+        target.setHttpTransport(httpTransport);
+        target.setRetryPolicy(RetryPolicy.DEFAULT);
+        doReturn(true).when(target).waitForRetry(anyLong(), nullable(CancellationSignal.class));
+        NetworkEventListener listener = mock(NetworkEventListener.class);
+        target.setNetworkEventListener(listener);
+
+        target.post(Uri.parse("https://test/oauth2/v2.1/revoke"),
+                    Collections.emptyMap() /* requestHeaders */,
+                    Collections.singletonMap("access_token", "token"),
+                    new StringResponseParser());
+
+        ArgumentCaptor<NetworkCallEvent> eventCaptor =
+                ArgumentCaptor.forClass(NetworkCallEvent.class);
+        verify(listener, times(2)).onCallFinished(eventCaptor.capture());
+        NetworkCallEvent firstEvent = eventCaptor.getAllValues().get(0);
+        assertEquals("oauth2/v2.1/revoke", firstEvent.getEndpoint());
+        assertEquals("POST", firstEvent.getMethod());
+        assertEquals(1, firstEvent.getAttempt());
+        assertEquals(LineApiResponseCode.SERVER_ERROR, firstEvent.getResponseCode());
+        assertEquals(HttpURLConnection.HTTP_BAD_GATEWAY, firstEvent.getHttpResponseCode());
+        NetworkCallEvent secondEvent = eventCaptor.getAllValues().get(1);
+        assertEquals(2, secondEvent.getAttempt());
+        assertEquals(LineApiResponseCode.SUCCESS, secondEvent.getResponseCode());
+        assertEquals("access_token=token".length(), secondEvent.getRequestBytes());
+        assertEquals("test".length(), secondEvent.getResponseBytes());
+        // A custom transport doesn't report its connect phase.
+        assertEquals(NetworkCallEvent.UNKNOWN, secondEvent.getConnectNanos());
+    }
+
+    @Test
+    public void testNetworkEventOfNetworkError() throws Exception {
+        doThrow(new IOException()).when(httpsURLConnection).connect();
+        NetworkEventListener listener = mock(NetworkEventListener.class);
+        target.setNetworkEventListener(listener);
+
+        target.get(Uri.parse("https://test/graph/v2/friends"),
+                   Collections.emptyMap(), Collections.emptyMap(), new StringResponseParser());
+
+        ArgumentCaptor<NetworkCallEvent> eventCaptor =
+                ArgumentCaptor.forClass(NetworkCallEvent.class);
+        verify(listener).onCallFinished(eventCaptor.capture());
+        assertEquals(LineApiResponseCode.NETWORK_ERROR, eventCaptor.getValue().getResponseCode());
+        assertEquals(NetworkCallEvent.UNKNOWN, eventCaptor.getValue().getHttpResponseCode());
+        assertEquals(0L, eventCaptor.getValue().getResponseBytes());
+    }
+
+    @Test
+    public void testCallByteCounterCountsAllAttempts() throws Exception {
+        HttpTransport httpTransport = mock(HttpTransport.class);
+        HttpTransportResponse errorResponse = createTransportResponse(
+                HttpURLConnection.HTTP_UNAVAILABLE, "error", Collections.emptyMap());
+        HttpTransportResponse okResponse = createTransportResponse(
+                HttpURLConnection.HTTP_OK, "test", Collections.emptyMap());
+        doReturn(errorResponse).doReturn(okResponse)
+                .when(httpTransport).execute(any(HttpTransportRequest.class));
+        target.setHttpTransport(httpTransport);
+        target.setRetryPolicy(RetryPolicy.DEFAULT);
+        doReturn(true).when(target).waitForRetry(anyLong(), nullable(CancellationSignal.class));
+
+        try (CallByteCounter byteCounter = CallByteCounter.open()) {
+            target.get(Uri.parse("https://test"),
+                       Collections.emptyMap(), Collections.emptyMap(), new StringResponseParser());
+
+            assertEquals(0L, byteCounter.getRequestBytes());
+            assertEquals("error".length() + "test".length(), byteCounter.getResponseBytes());
+        }
+    }
+
     private void setResponseData(@NonNull byte[] byteArray) throws IOException {
         InputStream inputStream = new ByteArrayInputStream(byteArray);
         doReturn(inputStream).when(httpsURLConnection).getInputStream();
@@ -456,6 +929,18 @@ public class ChannelServiceHttpClientTest {
         doReturn(httpErrorCode).when(httpsURLConnection).getResponseCode();
     }
 
+    @NonNull
+    private static HttpTransportResponse createTransportResponse(
+            int responseCode,
+            @NonNull String body,
+            @NonNull Map<String, List<String>> headers) throws IOException {
+        HttpTransportResponse transportResponse = mock(HttpTransportResponse.class);
+        doReturn(responseCode).when(transportResponse).getResponseCode();
+        doReturn(headers).when(transportResponse).getHeaderFields();
+        doReturn(new ByteArrayInputStream(body.getBytes(CHARSET))).when(transportResponse).getBody();
+        return transportResponse;
+    }
+
     private static class RequestParameter {
         @NonNull
         private final Map<String, String> parameterMap;
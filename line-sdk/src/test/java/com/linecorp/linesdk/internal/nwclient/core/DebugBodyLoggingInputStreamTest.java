@@ -0,0 +1,71 @@
+package com.linecorp.linesdk.internal.nwclient.core;
+
+import com.linecorp.linesdk.TestConfig;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLog;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Test for {@link DebugBodyLoggingInputStream}.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = TestConfig.TARGET_SDK_VERSION)
+public class DebugBodyLoggingInputStreamTest {
+    private static final String TAG = "DebugBodyLoggingTest";
+    private static final String CHARSET = "UTF-8";
+
+    @Before
+    public void setUp() {
+        ShadowLog.reset();
+    }
+
+    @Test
+    public void testPassesThroughAndLogsUpToLimit() throws Exception {
+        byte[] body = "{\"access_token\":\"abc\",\"scope\":\"profile\"}".getBytes(CHARSET);
+        InputStream target =
+                new DebugBodyLoggingInputStream(new ByteArrayInputStream(body), TAG, 30);
+
+        byte[] readBody = new StringResponseParser().getResponseData(target).getBytes(CHARSET);
+        target.close();
+
+        assertEquals(new String(body, CHARSET), new String(readBody, CHARSET));
+        List<String> messages = getLoggedMessages();
+        assertEquals(3, messages.size());
+        assertEquals("{\"access_token\":\"<redacted>\",\"scope\":", messages.get(1));
+        assertEquals("(" + (body.length - 30) + " more bytes not logged)", messages.get(2));
+    }
+
+    @Test
+    public void testLogsOnlyOnce() throws Exception {
+        InputStream target = new DebugBodyLoggingInputStream(
+                new ByteArrayInputStream("test".getBytes(CHARSET)), TAG, 1024);
+
+        while (target.read() >= 0) {
+            // Reads to the end.
+        }
+        target.close();
+
+        List<String> messages = getLoggedMessages();
+        assertEquals(2, messages.size());
+        assertEquals("test", messages.get(1));
+    }
+
+    private static List<String> getLoggedMessages() {
+        List<String> messages = new ArrayList<>();
+        for (ShadowLog.LogItem logItem : ShadowLog.getLogsForTag(TAG)) {
+            messages.add(logItem.msg);
+        }
+        return messages;
+    }
+}
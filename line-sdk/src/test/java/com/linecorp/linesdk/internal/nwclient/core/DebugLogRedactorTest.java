@@ -0,0 +1,61 @@
+package com.linecorp.linesdk.internal.nwclient.core;
+
+import com.linecorp.linesdk.TestConfig;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Test for {@link DebugLogRedactor}.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = TestConfig.TARGET_SDK_VERSION)
+public class DebugLogRedactorTest {
+    @Test
+    public void testRedactHeader() {
+        assertEquals("<redacted>", DebugLogRedactor.redactHeader("Authorization", "Bearer abc"));
+        assertEquals("gzip", DebugLogRedactor.redactHeader("Accept-Encoding", "gzip"));
+        assertEquals(Collections.singletonList("<redacted>"),
+                     DebugLogRedactor.redactHeader("Set-Cookie", Collections.singletonList("a=b")));
+        // HttpURLConnection reports the status line with a null name.
+        assertEquals(Collections.singletonList("HTTP/1.1 200 OK"),
+                     DebugLogRedactor.redactHeader(
+                             null, Collections.singletonList("HTTP/1.1 200 OK")));
+    }
+
+    @Test
+    public void testRedactJsonBody() {
+        assertEquals(
+                "{\"access_token\":\"<redacted>\",\"expires_in\":2592000,"
+                + "\"refresh_token\" : \"<redacted>\",\"scope\":\"profile\"}",
+                DebugLogRedactor.redactBody(
+                        "{\"access_token\":\"abc\\\"def\",\"expires_in\":2592000,"
+                        + "\"refresh_token\" : \"ghi\",\"scope\":\"profile\"}"));
+    }
+
+    @Test
+    public void testRedactTruncatedJsonBody() {
+        assertEquals("{\"scope\":\"profile\",\"access_token\":\"<redacted>\"",
+                     DebugLogRedactor.redactBody("{\"scope\":\"profile\",\"access_token\":\"abc"));
+        assertEquals("{\"access_token\":\"<redacted>\"",
+                     DebugLogRedactor.redactBody("{\"access_token\":\"abc\\"));
+        assertEquals("{\"access_token\":\"<redacted>\"",
+                     DebugLogRedactor.redactBody("{\"access_token\":\""));
+    }
+
+    @Test
+    public void testRedactFormBody() {
+        assertEquals(
+                "grant_type=refresh_token&refresh_token=<redacted>&client_id=123",
+                DebugLogRedactor.redactBody(
+                        "grant_type=refresh_token&refresh_token=abc&client_id=123"));
+        assertEquals("access_token=<redacted>",
+                     DebugLogRedactor.redactBody("access_token=abc"));
+    }
+}
@@ -0,0 +1,126 @@
+package com.linecorp.linesdk.message;
+
+import androidx.annotation.NonNull;
+
+import com.linecorp.linesdk.TestConfig;
+import com.linecorp.linesdk.message.template.ButtonsLayoutTemplate;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Test for {@link FrozenMessageData}.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = TestConfig.TARGET_SDK_VERSION)
+public class FrozenMessageDataTest {
+    private static final List<String> TARGET_USER_IDS = Arrays.asList("targetUserId1", "targetUserId2");
+
+    @Test
+    public void testFreeze() throws Exception {
+        TemplateMessage message = newTemplateMessage();
+
+        FrozenMessageData frozenMessage = message.freeze();
+
+        assertEquals(Type.TEMPLATE, frozenMessage.getType());
+        assertEquals(message.toJsonObject().toString(), frozenMessage.getPayload());
+        assertEquals(message.toJsonObject().toString(), frozenMessage.toJsonObject().toString());
+        assertSame(frozenMessage, frozenMessage.freeze());
+    }
+
+    @Test
+    public void testFrozenMessageIsNotConvertedAgainOnSend() throws Exception {
+        CountingMessageData message = new CountingMessageData();
+        FrozenMessageData frozenMessage = message.freeze();
+
+        for (int i = 0; i < 3; i++) {
+            writeBody(MessageSendRequest.createMultiUsersType(
+                    TARGET_USER_IDS, Collections.singletonList(frozenMessage)));
+        }
+
+        assertEquals(1, message.conversionCount);
+    }
+
+    @Test
+    public void testBodyIsSameAsUnfrozenMessage() throws Exception {
+        TemplateMessage message = newTemplateMessage();
+        List<MessageData> messages = Arrays.asList(message, new TextMessage("text/plain"));
+        List<MessageData> frozenMessages = Arrays.asList(message.freeze(), new TextMessage("text/plain"));
+
+        assertEquals(
+                writeBody(MessageSendRequest.createMultiUsersType(TARGET_USER_IDS, messages)),
+                writeBody(MessageSendRequest.createMultiUsersType(TARGET_USER_IDS, frozenMessages)));
+        assertEquals(
+                MessageSendRequest.createOttType("ott", messages).toJsonString(),
+                MessageSendRequest.createOttType("ott", frozenMessages).toJsonString());
+    }
+
+    @Test
+    public void testPayloadIsParsedOnce() throws Exception {
+        FrozenMessageData frozenMessage = newTemplateMessage().freeze();
+
+        assertSame(frozenMessage.getParsedPayload(), frozenMessage.getParsedPayload());
+        assertEquals(frozenMessage.getPayload(), frozenMessage.getParsedPayload().toString());
+        // The app gets its own copy that it can change.
+        assertNotSame(frozenMessage.getParsedPayload(), frozenMessage.toJsonObject());
+    }
+
+    @Test
+    public void testChangesAfterFreezeAreNotReflected() throws Exception {
+        ButtonsLayoutTemplate template = new ButtonsLayoutTemplate("text", Collections.emptyList());
+        TemplateMessage message = new TemplateMessage("altText", template);
+        FrozenMessageData frozenMessage = message.freeze();
+        String payload = frozenMessage.getPayload();
+
+        template.setTitle("title");
+        frozenMessage.toJsonObject().put("altText", "changed");
+
+        assertEquals(payload, frozenMessage.getPayload());
+        // Freezing again picks up the change.
+        assertNotEquals(payload, message.freeze().getPayload());
+        assertEquals(message.toJsonObject().toString(), message.freeze().getPayload());
+    }
+
+    private static TemplateMessage newTemplateMessage() {
+        ButtonsLayoutTemplate template = new ButtonsLayoutTemplate("text", Collections.emptyList());
+        template.setThumbnailImageUrl("https://example.com/image.png");
+        return new TemplateMessage("altText", template);
+    }
+
+    private static String writeBody(MessageSendRequest request) throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        request.toJsonRequestBody().writeTo(outputStream);
+        return outputStream.toString("UTF-8");
+    }
+
+    private static class CountingMessageData extends MessageData {
+        private int conversionCount;
+
+        @NonNull
+        @Override
+        public Type getType() {
+            return Type.FLEX;
+        }
+
+        @NonNull
+        @Override
+        public JSONObject toJsonObject() throws JSONException {
+            conversionCount++;
+            return super.toJsonObject();
+        }
+    }
+}
@@ -4,19 +4,33 @@ import androidx.annotation.NonNull;
 
 import com.linecorp.linesdk.BuildConfig;
 import com.linecorp.linesdk.TestConfig;
+import com.linecorp.linesdk.internal.nwclient.core.JsonRequestBody;
+import com.linecorp.linesdk.message.flex.component.FlexBoxComponent;
+import com.linecorp.linesdk.message.flex.component.FlexMessageComponent;
+import com.linecorp.linesdk.message.flex.component.FlexTextComponent;
+import com.linecorp.linesdk.message.flex.container.FlexBubbleContainer;
+import com.linecorp.linesdk.message.flex.container.FlexCarouselContainer;
 
+import org.json.JSONArray;
 import org.json.JSONException;
+import org.json.JSONObject;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.robolectric.RobolectricTestRunner;
 import org.robolectric.annotation.Config;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.fail;
 
 @RunWith(RobolectricTestRunner.class)
@@ -51,6 +65,71 @@ public class MessageSendRequestTest {
         payLoadShouldBe("{\"token\":\"oneTimeToken\",\"messages\":[{\"type\":\"flex\"}]}");
     }
 
+    @Test
+    public void streamedBodyIsSameAsJsonString() throws Exception {
+        List<MessageData> messages = Arrays.asList(
+                new TextMessage("Hello \"LINE\" / \\ \t\n\u0001 \u2028 \uD83D\uDE00 \u3053\u3093\u306B\u3061\u306F"),
+                new MessageData() {
+                    @NonNull
+                    @Override
+                    public Type getType() {
+                        return Type.TEMPLATE;
+                    }
+
+                    @NonNull
+                    @Override
+                    public JSONObject toJsonObject() throws JSONException {
+                        JSONObject jsonObject = super.toJsonObject();
+                        jsonObject.put("int", 1);
+                        jsonObject.put("long", Long.MAX_VALUE);
+                        jsonObject.put("double", 1.5);
+                        jsonObject.put("integralDouble", 2.0);
+                        jsonObject.put("boolean", true);
+                        jsonObject.put("null", JSONObject.NULL);
+                        jsonObject.put("uri", "https://example.com/a?b=c&d=e");
+                        jsonObject.put("emptyObject", new JSONObject());
+                        jsonObject.put("emptyArray", new JSONArray());
+                        jsonObject.put("nested", new JSONArray().put(new JSONArray().put(1).put("2")));
+                        return jsonObject;
+                    }
+                });
+
+        assertSameBody(MessageSendRequest.createSingleUserType(targetUserIds.get(0), messages));
+        assertSameBody(MessageSendRequest.createMultiUsersType(targetUserIds, messages));
+        assertSameBody(MessageSendRequest.createOttType("oneTimeToken", messages));
+    }
+
+    @Test
+    public void streamedBodyOfLargeCarouselIsSameAsJsonString() throws Exception {
+        List<FlexBubbleContainer> bubbles = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            List<FlexMessageComponent> texts = new ArrayList<>();
+            for (int j = 0; j < 50; j++) {
+                texts.add(FlexTextComponent.newBuilder("text " + i + "/" + j).build());
+            }
+            bubbles.add(FlexBubbleContainer.newBuilder()
+                    .setBody(FlexBoxComponent.newBuilder(FlexMessageComponent.Layout.VERTICAL, texts)
+                            .build())
+                    .build());
+        }
+        List<MessageData> messages = Collections.singletonList(
+                new FlexMessage("altText", new FlexCarouselContainer(bubbles)));
+
+        assertSameBody(MessageSendRequest.createMultiUsersType(targetUserIds, messages));
+    }
+
+    private static void assertSameBody(MessageSendRequest request) throws JSONException, IOException {
+        byte[] expected = request.toJsonString().getBytes(StandardCharsets.UTF_8);
+        JsonRequestBody body = request.toJsonRequestBody();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        assertEquals(-1L, body.getContentLength());
+
+        body.writeTo(outputStream);
+
+        assertEquals(expected.length, body.getContentLength());
+        assertArrayEquals(expected, outputStream.toByteArray());
+    }
+
     private void givenMessageSendRequest(MessageSendRequest messageSendRequest) {
         this.messageSendRequest = messageSendRequest;
     }